@@ -0,0 +1,191 @@
+//! C ABI used by the Java backend through the Foreign Function & Memory API.
+//!
+//! These kernels follow the numerics of the Java `IndicatorUtils` reference implementation
+//! (NaN-aware SMA windows, SMA-seeded EMA) rather than the `ta` crate, so both backends produce
+//! the same series to within rounding: the SMA keeps a rolling sum instead of re-summing each
+//! window, so values agree to a relative 1e-9 rather than bit for bit. Every function writes
+//! into caller-provided buffers of `len` doubles and returns `STATUS_OK`, or
+//! `STATUS_INVALID_ARGUMENT` without touching the outputs.
+
+use std::slice;
+
+pub const STATUS_OK: i32 = 0;
+pub const STATUS_INVALID_ARGUMENT: i32 = -1;
+
+/// # Safety
+/// `prices` and `out` must each point to `len` valid, non-overlapping doubles.
+#[unsafe(no_mangle)]
+pub unsafe extern "C" fn rn_sma(prices: *const f64, len: usize, window: usize, out: *mut f64) -> i32 {
+    if prices.is_null() || out.is_null() || len == 0 || window == 0 {
+        return STATUS_INVALID_ARGUMENT;
+    }
+    let (prices, out) = unsafe { (slice::from_raw_parts(prices, len), slice::from_raw_parts_mut(out, len)) };
+    sma(prices, window, out);
+    STATUS_OK
+}
+
+/// # Safety
+/// `prices` and `out` must each point to `len` valid, non-overlapping doubles.
+#[unsafe(no_mangle)]
+pub unsafe extern "C" fn rn_ema(prices: *const f64, len: usize, window: usize, out: *mut f64) -> i32 {
+    if prices.is_null() || out.is_null() || len == 0 || window == 0 {
+        return STATUS_INVALID_ARGUMENT;
+    }
+    let (prices, out) = unsafe { (slice::from_raw_parts(prices, len), slice::from_raw_parts_mut(out, len)) };
+    ema(prices, window, out);
+    STATUS_OK
+}
+
+/// # Safety
+/// `prices` and the three output pointers must each point to `len` valid, non-overlapping doubles.
+#[unsafe(no_mangle)]
+pub unsafe extern "C" fn rn_macd(
+    prices: *const f64, len: usize,
+    fast: usize, slow: usize, signal: usize,
+    out_macd: *mut f64, out_signal: *mut f64, out_hist: *mut f64,
+) -> i32 {
+    if prices.is_null() || out_macd.is_null() || out_signal.is_null() || out_hist.is_null()
+        || len == 0 || fast == 0 || slow == 0 || signal == 0 || slow <= fast {
+        return STATUS_INVALID_ARGUMENT;
+    }
+    let (prices, out_macd, out_signal, out_hist) = unsafe {
+        (
+            slice::from_raw_parts(prices, len),
+            slice::from_raw_parts_mut(out_macd, len),
+            slice::from_raw_parts_mut(out_signal, len),
+            slice::from_raw_parts_mut(out_hist, len),
+        )
+    };
+
+    // The slow EMA goes into the histogram buffer as scratch space before it is overwritten
+    ema(prices, fast, out_macd);
+    ema(prices, slow, out_hist);
+    for i in 0..len {
+        out_macd[i] = if out_macd[i].is_nan() || out_hist[i].is_nan() {
+            f64::NAN
+        } else {
+            out_macd[i] - out_hist[i]
+        };
+    }
+
+    // The first `slow - 1` MACD values are NaN, so the signal EMA is seeded from the first defined one
+    let start = if len >= slow { slow - 1 } else { 0 };
+    out_signal[..start].fill(f64::NAN);
+    ema(&out_macd[start..], signal, &mut out_signal[start..]);
+    for i in 0..len {
+        out_hist[i] = if out_macd[i].is_nan() || out_signal[i].is_nan() {
+            f64::NAN
+        } else {
+            out_macd[i] - out_signal[i]
+        };
+    }
+    STATUS_OK
+}
+
+/// Rolling-sum SMA; any NaN inside the window yields NaN for that bar.
+fn sma(prices: &[f64], window: usize, out: &mut [f64]) {
+    out.fill(f64::NAN);
+    let mut sum = 0.0;
+    let mut nan_count = 0usize;
+
+    for i in 0..prices.len() {
+        let entering = prices[i];
+        if entering.is_nan() { nan_count += 1; } else { sum += entering; }
+
+        if i >= window {
+            let leaving = prices[i - window];
+            if leaving.is_nan() { nan_count -= 1; } else { sum -= leaving; }
+        }
+
+        if i + 1 >= window && nan_count == 0 {
+            out[i] = sum / window as f64;
+        }
+    }
+}
+
+/// EMA seeded with the SMA of the first `window` prices; shorter series are seeded with the first price.
+fn ema(prices: &[f64], window: usize, out: &mut [f64]) {
+    let alpha = 2.0 / (window as f64 + 1.0);
+    let len = prices.len();
+
+    if len >= window {
+        out[window - 1] = prices[..window].iter().sum::<f64>() / window as f64;
+        for i in window..len {
+            out[i] = alpha * prices[i] + (1.0 - alpha) * out[i - 1];
+        }
+        out[..window - 1].fill(f64::NAN);
+    } else {
+        out[0] = prices[0];
+        for i in 1..len {
+            out[i] = alpha * prices[i] + (1.0 - alpha) * out[i - 1];
+        }
+    }
+}
+
+#[cfg(test)]
+mod tests {
+    use super::*;
+
+    #[test]
+    fn sma_matches_naive_window_sum() {
+        let prices = [10.0, 11.0, 12.0, 11.5, 13.0, 14.0];
+        let mut out = [0.0; 6];
+        let status = unsafe { rn_sma(prices.as_ptr(), prices.len(), 3, out.as_mut_ptr()) };
+
+        assert_eq!(status, STATUS_OK);
+        assert!(out[0].is_nan() && out[1].is_nan());
+        assert!((out[2] - 11.0).abs() < 1e-12);
+        assert!((out[5] - (11.5 + 13.0 + 14.0) / 3.0).abs() < 1e-12);
+    }
+
+    #[test]
+    fn sma_propagates_nan_only_inside_window() {
+        let prices = [1.0, f64::NAN, 3.0, 4.0, 5.0];
+        let mut out = [0.0; 5];
+        unsafe { rn_sma(prices.as_ptr(), prices.len(), 2, out.as_mut_ptr()) };
+
+        assert!(out[1].is_nan() && out[2].is_nan());
+        assert!((out[3] - 3.5).abs() < 1e-12);
+    }
+
+    #[test]
+    fn ema_is_seeded_with_sma() {
+        let prices = [2.0, 4.0, 6.0, 8.0];
+        let mut out = [0.0; 4];
+        unsafe { rn_ema(prices.as_ptr(), prices.len(), 3, out.as_mut_ptr()) };
+
+        assert!(out[1].is_nan());
+        assert!((out[2] - 4.0).abs() < 1e-12);
+        assert!((out[3] - (0.5 * 8.0 + 0.5 * 4.0)).abs() < 1e-12);
+    }
+
+    #[test]
+    fn macd_signal_is_seeded_at_first_defined_macd_bar() {
+        let prices: Vec<f64> = (0..40).map(|i| 100.0 + (i as f64 * 0.7).sin() * 5.0 + i as f64 * 0.1).collect();
+        let mut macd = vec![0.0; 40];
+        let mut signal = vec![0.0; 40];
+        let mut hist = vec![0.0; 40];
+        let status = unsafe {
+            rn_macd(prices.as_ptr(), 40, 5, 10, 4, macd.as_mut_ptr(), signal.as_mut_ptr(), hist.as_mut_ptr())
+        };
+        assert_eq!(status, STATUS_OK);
+
+        // MACD is defined from bar 9, so the signal line is seeded at bar 9 + 4 - 1
+        assert!(signal[11].is_nan());
+        let seed = macd[9..13].iter().sum::<f64>() / 4.0;
+        assert!((signal[12] - seed).abs() < 1e-12);
+        assert!(!hist[39].is_nan());
+    }
+
+    #[test]
+    fn macd_rejects_slow_not_above_fast() {
+        let prices = [1.0; 10];
+        let mut a = [0.0; 10];
+        let mut b = [0.0; 10];
+        let mut c = [0.0; 10];
+        let status = unsafe {
+            rn_macd(prices.as_ptr(), 10, 5, 5, 3, a.as_mut_ptr(), b.as_mut_ptr(), c.as_mut_ptr())
+        };
+        assert_eq!(status, STATUS_INVALID_ARGUMENT);
+    }
+}
@@ -1,4 +1,5 @@
+pub mod ffi;
 pub mod indicators;
 pub mod utils;
 
-pub use indicators::{calc_sma, calc_ema, calc_macd, calc_bollinger};
\ No newline at end of file
+pub use indicators::{calc_sma, calc_ema, calc_macd, calc_bollinger};
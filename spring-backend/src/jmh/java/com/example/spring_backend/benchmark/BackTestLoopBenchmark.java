@@ -0,0 +1,88 @@
+package com.example.spring_backend.benchmark;
+
+import com.example.spring_backend.backtester.internal.BackTestResult;
+import com.example.spring_backend.backtester.internal.BackTesterServiceImpl;
+import com.example.spring_backend.common.BackTestRequest;
+import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.strategies.Condition;
+import com.example.spring_backend.strategies.Strategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The backtest loop on its own: signals are precomputed so each invocation only pays for copying them and
+ * simulating positions. {@code plain} is long-only and cost-free; {@code full} enables short selling,
+ * slippage and ATR risk sizing, so the difference between the two is the cost of the richer position model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+public class BackTestLoopBenchmark {
+    /**
+     * Chance of a signal on any bar, roughly one trade every hundred bars.
+     */
+    private static final double SIGNAL_DENSITY = 0.01;
+
+    private final BackTesterServiceImpl backTesterService = new BackTesterServiceImpl();
+
+    @Param({"plain", "full"})
+    public String model;
+
+    private Strategy strategy;
+    private BackTestRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkData data) {
+        SplittableRandom random = new SplittableRandom(BenchmarkData.SEED);
+        strategy = new Strategy();
+        strategy.addEntryCondition(new Precomputed(randomSignals(random, data.bars)));
+        strategy.addExitCondition(new Precomputed(randomSignals(random, data.bars)));
+
+        BackTestRequest.BackTestRequestBuilder builder = BackTestRequest.builder().initialCapital(100_000);
+        if (model.equals("full")) {
+            builder.allowShort(true).commissionRate(0.001).slippagePercent(0.1).riskPerTrade(0.02);
+        }
+        request = builder.build();
+    }
+
+    @Benchmark
+    public BackTestResult runBackTest(BenchmarkData data) {
+        return backTesterService.runBackTest(strategy, data.marketData, request);
+    }
+
+    private static boolean[] randomSignals(SplittableRandom random, int bars) {
+        boolean[] signals = new boolean[bars];
+        for (int i = 0; i < bars; i++) {
+            signals[i] = random.nextDouble() < SIGNAL_DENSITY;
+        }
+        return signals;
+    }
+
+    private record Precomputed(boolean[] signals) implements Condition {
+        @Override
+        public boolean evaluate(MarketData data, int currentIndex) {
+            return signals[currentIndex];
+        }
+
+        @Override
+        public boolean[] evaluateVector(MarketData data) {
+            return signals.clone();
+        }
+    }
+}
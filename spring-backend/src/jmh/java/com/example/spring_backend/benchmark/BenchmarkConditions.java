@@ -0,0 +1,133 @@
+package com.example.spring_backend.benchmark;
+
+import com.example.spring_backend.common.ConditionConfig;
+import com.example.spring_backend.strategies.Condition;
+import com.example.spring_backend.strategies.Strategy;
+import com.example.spring_backend.strategies.internal.StrategyServiceImpl;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Representative configuration for every condition type the strategy service knows about,
+ * built through {@link StrategyServiceImpl} exactly as a request would be.
+ */
+final class BenchmarkConditions {
+    private static final StrategyServiceImpl STRATEGY_SERVICE = new StrategyServiceImpl();
+
+    private static final Map<String, Object> SMA_CROSSOVER = condition("SMA_CROSSOVER",
+            Map.of("fastPeriod", 10, "slowPeriod", 50, "crossAbove", true));
+    private static final Map<String, Object> RSI_OVERSOLD = condition("RSI_THRESHOLD",
+            Map.of("period", 14, "upperThreshold", 70.0, "lowerThreshold", 30.0, "checkOverbought", false));
+    private static final Map<String, Object> ADX_STRONG = condition("DMI",
+            Map.of("period", 14, "dmiSignalType", "ADX_ABOVE_THRESHOLD", "threshold", 25.0));
+
+    private static final Map<String, Map<String, Object>> CONFIGS = Map.ofEntries(
+            Map.entry("SMA_CROSSOVER", SMA_CROSSOVER),
+            Map.entry("RSI_THRESHOLD", RSI_OVERSOLD),
+            Map.entry("MACD_CROSSOVER", condition("MACD_CROSSOVER",
+                    Map.of("fastPeriod", 12, "slowPeriod", 26, "signalPeriod", 9, "crossAbove", true))),
+            Map.entry("BOLLINGER_BANDS", condition("BOLLINGER_BANDS",
+                    Map.of("period", 20, "numStd", 2.0, "checkUpper", false))),
+            Map.entry("STOCHASTIC", condition("STOCHASTIC",
+                    Map.of("kPeriod", 14, "dPeriod", 3, "upperThreshold", 80.0, "lowerThreshold", 20.0,
+                            "checkOverbought", false))),
+            Map.entry("FIBONACCI_RETRACEMENT", condition("FIBONACCI_RETRACEMENT",
+                    Map.of("lookbackPeriod", 50, "level", 0.618, "isBullish", true, "tolerance", 0.01))),
+            Map.entry("ROC", condition("ROC",
+                    Map.of("period", 12, "threshold", 0.0, "direction", "CROSSING_ABOVE"))),
+            Map.entry("ROC_CROSSOVER", condition("ROC_CROSSOVER",
+                    Map.of("period", 12, "threshold", 0.0, "crossAbove", true))),
+            Map.entry("ROC_DIVERGENCE", condition("ROC_DIVERGENCE",
+                    Map.of("period", 12, "divergencePeriod", 20, "bullish", true))),
+            Map.entry("OBV", condition("OBV",
+                    Map.of("period", 20, "conditionType", "CROSS_ABOVE_MA"))),
+            Map.entry("OBV_POSITION", condition("OBV_POSITION",
+                    Map.of("period", 20, "isAbove", true))),
+            Map.entry("ICHIMOKU_CLOUD", condition("ICHIMOKU_CLOUD",
+                    Map.of("signalType", "TENKAN_CROSSES_ABOVE_KIJUN"))),
+            Map.entry("PIVOT_POINTS", condition("PIVOT_POINTS",
+                    Map.of("pivotType", "STANDARD", "level", "S1", "crossAbove", true, "useClose", true))),
+            Map.entry("ATR", condition("ATR",
+                    Map.of("period", 14, "multiplier", 1.5, "isAbove", true, "compareWithPrice", false))),
+            Map.entry("DMI", ADX_STRONG),
+            Map.entry("AND", condition("AND", Map.of("conditions", List.of(SMA_CROSSOVER, RSI_OVERSOLD)))),
+            Map.entry("OR", condition("OR", Map.of("conditions", List.of(SMA_CROSSOVER, RSI_OVERSOLD)))),
+            Map.entry("NOT", condition("NOT", Map.of("condition", ADX_STRONG)))
+    );
+
+    private BenchmarkConditions() {
+    }
+
+    static Condition create(String type) {
+        Map<String, Object> config = CONFIGS.get(type);
+        if (config == null) {
+            throw new IllegalArgumentException("No benchmark configuration for condition type: " + type);
+        }
+        return STRATEGY_SERVICE.createConditionFromConfig(toConfig(config));
+    }
+
+    /**
+     * A typical three-condition trend-following strategy: SMA crossover confirmed by RSI and ADX on entry,
+     * MACD bearish crossover on exit.
+     */
+    static Strategy trendFollowingStrategy() {
+        Strategy strategy = new Strategy();
+        strategy.addEntryCondition(create("SMA_CROSSOVER"));
+        strategy.addEntryCondition(create("RSI_THRESHOLD"));
+        strategy.addEntryCondition(create("DMI"));
+        strategy.addExitCondition(STRATEGY_SERVICE.createConditionFromConfig(toConfig(condition("MACD_CROSSOVER",
+                Map.of("fastPeriod", 12, "slowPeriod", 26, "signalPeriod", 9, "crossAbove", false)))));
+        strategy.setRequireAllEntryConditions(false);
+        return strategy;
+    }
+
+    /**
+     * A mean-reversion strategy whose exit mirrors its entry, so both sides read the same RSI, SMA and ADX
+     * series: RSI oversold, or a golden cross confirmed by it, on entry; RSI overbought, a death cross or a
+     * weak ADX on exit.
+     */
+    static Strategy mirroredStrategy() {
+        Strategy strategy = new Strategy();
+        strategy.addEntryCondition(create("RSI_THRESHOLD"));
+        strategy.addEntryCondition(create("AND"));
+        strategy.addExitCondition(STRATEGY_SERVICE.createConditionFromConfig(toConfig(condition("RSI_THRESHOLD",
+                Map.of("period", 14, "upperThreshold", 70.0, "lowerThreshold", 30.0, "checkOverbought", true)))));
+        strategy.addExitCondition(STRATEGY_SERVICE.createConditionFromConfig(toConfig(condition("SMA_CROSSOVER",
+                Map.of("fastPeriod", 10, "slowPeriod", 50, "crossAbove", false)))));
+        strategy.addExitCondition(create("NOT"));
+        strategy.setRequireAllEntryConditions(false);
+        return strategy;
+    }
+
+    /**
+     * Like {@link #mirroredStrategy()} but built only from conditions a generated kernel can fuse: RSI oversold,
+     * or a golden cross confirmed by it, on entry; RSI overbought, a death cross or a MACD bearish crossover
+     * on exit.
+     */
+    static Strategy shapedStrategy() {
+        Strategy strategy = new Strategy();
+        strategy.addEntryCondition(create("RSI_THRESHOLD"));
+        strategy.addEntryCondition(create("AND"));
+        strategy.addExitCondition(STRATEGY_SERVICE.createConditionFromConfig(toConfig(condition("RSI_THRESHOLD",
+                Map.of("period", 14, "upperThreshold", 70.0, "lowerThreshold", 30.0, "checkOverbought", true)))));
+        strategy.addExitCondition(STRATEGY_SERVICE.createConditionFromConfig(toConfig(condition("SMA_CROSSOVER",
+                Map.of("fastPeriod", 10, "slowPeriod", 50, "crossAbove", false)))));
+        strategy.addExitCondition(STRATEGY_SERVICE.createConditionFromConfig(toConfig(condition("MACD_CROSSOVER",
+                Map.of("fastPeriod", 12, "slowPeriod", 26, "signalPeriod", 9, "crossAbove", false)))));
+        strategy.setRequireAllEntryConditions(false);
+        return strategy;
+    }
+
+    private static Map<String, Object> condition(String type, Map<String, Object> parameters) {
+        return Map.of("type", type, "parameters", parameters);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConditionConfig toConfig(Map<String, Object> condition) {
+        return ConditionConfig.builder()
+                .type((String) condition.get("type"))
+                .parameters((Map<String, Object>) condition.get("parameters"))
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.spring_backend.benchmark;
+
+import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.market.SyntheticDataSpec;
+import com.example.spring_backend.market.SyntheticMarketData;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Seeded synthetic OHLCV series shared by all benchmarks.
+ * <p>
+ * The same seed and size always produce the same series, so results stay comparable between runs and branches.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkData {
+    public static final long SEED = 42L;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int bars;
+
+    public MarketData marketData;
+    public double[] open;
+    public double[] high;
+    public double[] low;
+    public double[] close;
+    public double[] volume;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        marketData = SyntheticMarketData.generate(spec(bars));
+        open = marketData.open();
+        high = marketData.high();
+        low = marketData.low();
+        close = marketData.close();
+        volume = marketData.volume();
+    }
+
+    public static SyntheticDataSpec spec(int bars) {
+        return SyntheticDataSpec.defaults(SEED, bars).build();
+    }
+
+    /**
+     * The same series rendered in the column layout {@code CsvImporterServiceImpl} expects.
+     */
+    public static byte[] toCsv(int bars) {
+        ByteArrayOutputStream csv = new ByteArrayOutputStream(bars * 96);
+        try {
+            SyntheticMarketData.writeCsv(spec(bars), csv);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return csv.toByteArray();
+    }
+}
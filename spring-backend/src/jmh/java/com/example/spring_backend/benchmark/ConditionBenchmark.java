@@ -0,0 +1,48 @@
+package com.example.spring_backend.benchmark;
+
+import com.example.spring_backend.strategies.Condition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Condition#evaluateVector} for every condition type, including the AND/OR/NOT composites.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+public class ConditionBenchmark {
+
+    @Param({
+            "SMA_CROSSOVER", "RSI_THRESHOLD", "MACD_CROSSOVER", "BOLLINGER_BANDS", "STOCHASTIC",
+            "FIBONACCI_RETRACEMENT", "ROC", "ROC_CROSSOVER", "ROC_DIVERGENCE", "OBV", "OBV_POSITION",
+            "ICHIMOKU_CLOUD", "PIVOT_POINTS", "ATR", "DMI", "AND", "OR", "NOT"
+    })
+    public String conditionType;
+
+    private Condition condition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        condition = BenchmarkConditions.create(conditionType);
+    }
+
+    @Benchmark
+    public boolean[] evaluateVector(BenchmarkData data) {
+        return condition.evaluateVector(data.marketData);
+    }
+}
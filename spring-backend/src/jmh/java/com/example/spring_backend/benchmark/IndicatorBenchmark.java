@@ -0,0 +1,90 @@
+package com.example.spring_backend.benchmark;
+
+import com.example.spring_backend.indicators.IndicatorUtils;
+import com.example.spring_backend.indicators.PivotType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One benchmark per {@link IndicatorUtils} function, using the periods the conditions default to.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+public class IndicatorBenchmark {
+
+    @Benchmark
+    public double[] sma(BenchmarkData data) {
+        return IndicatorUtils.sma(data.close, 20);
+    }
+
+    @Benchmark
+    public double[] ema(BenchmarkData data) {
+        return IndicatorUtils.ema(data.close, 20);
+    }
+
+    @Benchmark
+    public double[] rsi(BenchmarkData data) {
+        return IndicatorUtils.rsi(data.close, 14);
+    }
+
+    @Benchmark
+    public Map<String, double[]> macd(BenchmarkData data) {
+        return IndicatorUtils.macd(data.close, 12, 26, 9);
+    }
+
+    @Benchmark
+    public double[] atr(BenchmarkData data) {
+        return IndicatorUtils.atr(data.high, data.low, data.close, 14);
+    }
+
+    @Benchmark
+    public Map<String, double[]> bollingerBands(BenchmarkData data) {
+        return IndicatorUtils.bollingerBands(data.close, 20, 2.0);
+    }
+
+    @Benchmark
+    public double[] roc(BenchmarkData data) {
+        return IndicatorUtils.roc(data.close, 12);
+    }
+
+    @Benchmark
+    public Map<String, double[]> stochastic(BenchmarkData data) {
+        return IndicatorUtils.stochastic(data.high, data.low, data.close, 14, 3);
+    }
+
+    @Benchmark
+    public Map<String, double[]> ichimokuCloud(BenchmarkData data) {
+        return IndicatorUtils.ichimokuCloud(data.high, data.low, data.close);
+    }
+
+    @Benchmark
+    public double[] obv(BenchmarkData data) {
+        return IndicatorUtils.obv(data.close, data.volume);
+    }
+
+    @Benchmark
+    public Map<String, double[]> pivotPoints(BenchmarkData data) {
+        return IndicatorUtils.pivotPoints(data.high, data.low, data.close, data.open, PivotType.STANDARD);
+    }
+
+    @Benchmark
+    public Map<String, double[]> fibonacciRetracement(BenchmarkData data) {
+        return IndicatorUtils.fibonacciRetracement(data.high, data.low, true, 50);
+    }
+
+    @Benchmark
+    public Map<String, double[]> dmi(BenchmarkData data) {
+        return IndicatorUtils.dmi(data.high, data.low, data.close, 14);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.spring_backend.benchmark;
+
+import com.example.spring_backend.indicators.PivotType;
+import com.example.spring_backend.indicators.internal.ScalarKernels;
+import com.example.spring_backend.indicators.internal.SimdKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar and SIMD versions of each element-wise kernel side by side, writing into preallocated outputs so
+ * only the loop itself is measured. Run on the target hardware, e.g. {@code -p bars=100000,1000000}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+public class KernelBenchmark {
+    private double[] out;
+    private double[] out2;
+    private double[][] levels;
+    private boolean[] signals;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkData data) {
+        out = new double[data.bars];
+        out2 = new double[data.bars];
+        levels = new double[7][data.bars];
+        signals = new boolean[data.bars];
+    }
+
+    @Benchmark
+    public double[] rocScalar(BenchmarkData data) {
+        ScalarKernels.roc(data.close, 12, 12, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] rocSimd(BenchmarkData data) {
+        SimdKernels.roc(data.close, 12, 12, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] signedVolumeScalar(BenchmarkData data) {
+        ScalarKernels.signedVolume(data.close, data.volume, 1, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] signedVolumeSimd(BenchmarkData data) {
+        SimdKernels.signedVolume(data.close, data.volume, 1, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] subtractScalar(BenchmarkData data) {
+        ScalarKernels.subtract(data.high, data.low, 0, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] subtractSimd(BenchmarkData data) {
+        SimdKernels.subtract(data.high, data.low, 0, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] bandsScalar(BenchmarkData data) {
+        ScalarKernels.bands(data.close, data.open, 2.0, 0, out, out2);
+        return out2;
+    }
+
+    @Benchmark
+    public double[] bandsSimd(BenchmarkData data) {
+        SimdKernels.bands(data.close, data.open, 2.0, 0, out, out2);
+        return out2;
+    }
+
+    @Benchmark
+    public double[][] pivotPointsScalar(BenchmarkData data) {
+        ScalarKernels.pivotPoints(data.high, data.low, data.close, data.open, PivotType.DEMARK, 1,
+                levels[0], levels[1], levels[2], levels[3], levels[4], levels[5], levels[6]);
+        return levels;
+    }
+
+    @Benchmark
+    public double[][] pivotPointsSimd(BenchmarkData data) {
+        SimdKernels.pivotPoints(data.high, data.low, data.close, data.open, PivotType.DEMARK, 1,
+                levels[0], levels[1], levels[2], levels[3], levels[4], levels[5], levels[6]);
+        return levels;
+    }
+
+    @Benchmark
+    public boolean[] greaterThanScalar(BenchmarkData data) {
+        ScalarKernels.greaterThan(data.close, 100.0, 0, signals);
+        return signals;
+    }
+
+    @Benchmark
+    public boolean[] greaterThanSimd(BenchmarkData data) {
+        SimdKernels.greaterThan(data.close, 100.0, 0, signals);
+        return signals;
+    }
+
+    @Benchmark
+    public boolean[] changeVersusScaledScalar(BenchmarkData data) {
+        ScalarKernels.changeVersusScaled(data.close, data.high, 0.01, true, 1, signals);
+        return signals;
+    }
+
+    @Benchmark
+    public boolean[] changeVersusScaledSimd(BenchmarkData data) {
+        SimdKernels.changeVersusScaled(data.close, data.high, 0.01, true, 1, signals);
+        return signals;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.spring_backend.benchmark;
+
+import com.example.spring_backend.backtester.internal.BackTestResult;
+import com.example.spring_backend.backtester.internal.BackTesterServiceImpl;
+import com.example.spring_backend.common.BackTestRequest;
+import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.market.internal.CsvImporterServiceImpl;
+import com.example.spring_backend.market.internal.DataExtractor;
+import com.example.spring_backend.strategies.Strategy;
+import com.example.spring_backend.strategies.StrategyPlan;
+import com.example.spring_backend.strategies.internal.StrategyCompiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The end-to-end stages of one backtest: CSV import, signal calculation and the backtest loop. Signals of a
+ * strategy whose sides share indicators are measured both per side and fused into one pass, and a compiled
+ * plan both interpreted node by node and through its generated kernel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+public class PipelineBenchmark {
+    private final CsvImporterServiceImpl csvImporterService = new CsvImporterServiceImpl(new DataExtractor());
+    private final BackTesterServiceImpl backTesterService = new BackTesterServiceImpl();
+
+    private final BackTestRequest request = BackTestRequest.builder()
+            .initialCapital(100_000)
+            .commissionRate(0.001)
+            .build();
+
+    private byte[] csv;
+    private Strategy strategy;
+    private Strategy mirroredStrategy;
+    private StrategyPlan interpretedPlan;
+    private StrategyPlan generatedPlan;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkData data) {
+        csv = BenchmarkData.toCsv(data.bars);
+        strategy = BenchmarkConditions.trendFollowingStrategy();
+        mirroredStrategy = BenchmarkConditions.mirroredStrategy();
+        Strategy shaped = BenchmarkConditions.shapedStrategy();
+        interpretedPlan = new StrategyCompiler(false).compile(shaped, "interpreted");
+        generatedPlan = new StrategyCompiler(true).compile(shaped, "generated");
+        if (generatedPlan.getKernel() == null) {
+            throw new IllegalStateException("Benchmark strategy should compile to a generated kernel");
+        }
+    }
+
+    @Benchmark
+    public MarketData importCsvFromStream() throws IOException {
+        return csvImporterService.importCsvFromStream(new ByteArrayInputStream(csv));
+    }
+
+    @Benchmark
+    public boolean[] calculateEntrySignals(BenchmarkData data) {
+        return strategy.calculateEntrySignals(data.marketData);
+    }
+
+    @Benchmark
+    public boolean[] calculateSignalsPerSide(BenchmarkData data) {
+        mirroredStrategy.calculateEntrySignals(data.marketData);
+        return mirroredStrategy.calculateExitSignals(data.marketData);
+    }
+
+    @Benchmark
+    public Strategy.Signals calculateSignalsFused(BenchmarkData data) {
+        return mirroredStrategy.calculateSignals(data.marketData);
+    }
+
+    @Benchmark
+    public Strategy.Signals evaluatePlanInterpreted(BenchmarkData data) {
+        return interpretedPlan.evaluate(data.marketData);
+    }
+
+    @Benchmark
+    public Strategy.Signals evaluatePlanGenerated(BenchmarkData data) {
+        return generatedPlan.evaluate(data.marketData);
+    }
+
+    @Benchmark
+    public BackTestResult runBackTest(BenchmarkData data) {
+        return backTesterService.runBackTest(strategy, data.marketData, request);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.spring_backend.backtester;
 
 import com.example.spring_backend.backtester.internal.BackTestResult;
+import com.example.spring_backend.backtester.internal.PortfolioBackTestResult;
 import com.example.spring_backend.common.BackTestRequest;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -9,4 +10,6 @@ import java.util.concurrent.CompletableFuture;
 
 public interface BackTesterOrchestrationService {
     CompletableFuture<List<BackTestResult>> runOrchestration(MultipartFile file, List<BackTestRequest> requests);
+    CompletableFuture<List<BackTestResult>> runOnDataset(String datasetId, List<BackTestRequest> requests);
+    CompletableFuture<PortfolioBackTestResult> runPortfolio(List<MultipartFile> files, BackTestRequest request);
 }
@@ -1,5 +1,6 @@
 package com.example.spring_backend.backtester.internal;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -9,6 +10,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 
 
+@Slf4j
 @Configuration
 @EnableAsync
 public class AsyncConfig {
@@ -24,4 +26,22 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Writes results to the archive off the backtest pool, so responses do not wait for the database. When the
+     * queue is full the write is dropped; the result was still returned and stays in the {@link ResultCache}.
+     */
+    @Bean(name = "archiveExecutor")
+    public Executor archiveExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(256);
+        executor.setThreadNamePrefix("ArchiveThread-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("Archive queue is full, dropping a backtest result write"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
 }
@@ -0,0 +1,121 @@
+package com.example.spring_backend.backtester.internal;
+
+import com.example.spring_backend.common.BackTestRequest;
+import com.example.spring_backend.strategies.StrategyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps every completed backtest in the {@code backtest_runs} table, keyed by the dataset it ran on and the
+ * canonical hash of its strategy, and answers leaderboard queries over them.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BackTestResultArchive {
+    static final int MAX_QUERY_SIZE = 100;
+
+    private final BackTestRunRepository repository;
+    private final StrategyService strategyService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param datasetId the stored dataset id, or the content hash of an uploaded file
+     * @param barCount  bars the backtest ran over, after any date range
+     * @param resultKey the {@link ResultCache} key the result can be found again by, if any
+     */
+    @Nonnull
+    public UUID save(@Nonnull String datasetId, int barCount, @Nonnull BackTestRequest request,
+                     @Nonnull BackTestResult result, @Nullable String resultKey) {
+        BackTestRun run = new BackTestRun(strategyService.strategyHash(request), datasetId, barCount,
+                requestJson(request), result);
+        run.setResultKey(resultKey);
+        run.setSharpeRatio(sharpeRatio(result.equityCurve()));
+        UUID id = repository.save(run).getId();
+        log.debug("Archived backtest {} on dataset {}", id, datasetId);
+        return id;
+    }
+
+    @Nonnull
+    public Optional<BackTestResult> load(@Nonnull UUID id) {
+        return repository.findById(id).map(BackTestRun::toResult);
+    }
+
+    @Nonnull
+    public Optional<BackTestResult> findByResultKey(@Nonnull String resultKey) {
+        return repository.findFirstByResultKeyOrderByCreatedAtDesc(resultKey).map(BackTestRun::toResult);
+    }
+
+    /**
+     * The best {@code limit} runs on a dataset by {@code metric}. Runs with a flat equity curve have no Sharpe
+     * ratio and are left out of its leaderboard.
+     */
+    @Nonnull
+    public List<BackTestRunSummary> leaderboard(@Nonnull String datasetId, @Nonnull LeaderboardMetric metric,
+                                                int limit) {
+        PageRequest page = PageRequest.of(0, clamp(limit), metric.sort());
+        return metric == LeaderboardMetric.SHARPE_RATIO
+                ? repository.findByDatasetIdAndSharpeRatioNotNull(datasetId, page)
+                : repository.findByDatasetId(datasetId, page);
+    }
+
+    /**
+     * The latest {@code limit} runs of a strategy, across datasets.
+     */
+    @Nonnull
+    public List<BackTestRunSummary> runsOfStrategy(@Nonnull String strategyHash, int limit) {
+        return repository.findByStrategyHash(strategyHash,
+                PageRequest.of(0, clamp(limit), Sort.by(Sort.Direction.DESC, "createdAt")));
+    }
+
+    /**
+     * Mean over standard deviation of the bar-to-bar equity returns, without a risk-free rate or annualisation
+     * since bar intervals differ between datasets.
+     */
+    @Nullable
+    static Double sharpeRatio(@Nullable double[] equityCurve) {
+        if (equityCurve == null || equityCurve.length < 3) {
+            return null;
+        }
+        int count = equityCurve.length - 1;
+        double[] returns = new double[count];
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            returns[i] = equityCurve[i] != 0 ? equityCurve[i + 1] / equityCurve[i] - 1 : 0;
+            sum += returns[i];
+        }
+        double mean = sum / count;
+        double squares = 0;
+        for (double value : returns) {
+            squares += (value - mean) * (value - mean);
+        }
+        double deviation = Math.sqrt(squares / (count - 1));
+        double sharpe = mean / deviation;
+        return deviation > 0 && Double.isFinite(sharpe) ? sharpe : null;
+    }
+
+    private static int clamp(int limit) {
+        return Math.clamp(limit, 1, MAX_QUERY_SIZE);
+    }
+
+    @Nullable
+    private String requestJson(BackTestRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialise backtest request for the archive", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.spring_backend.backtester.internal;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads back archived backtests: a full result by id, and ranked summaries per dataset or strategy.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/results")
+public class BackTestResultController {
+    private final BackTestResultArchive archive;
+
+    @GetMapping("/{id}")
+    public ResponseEntity<BackTestResult> get(@PathVariable UUID id) {
+        return archive.load(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * For example the top 20 by Sharpe ratio on a dataset, {@code ?datasetId=X&metric=SHARPE_RATIO&limit=20}.
+     */
+    @GetMapping("/leaderboard")
+    public ResponseEntity<List<BackTestRunSummary>> leaderboard(
+            @RequestParam String datasetId,
+            @RequestParam(defaultValue = "SHARPE_RATIO") LeaderboardMetric metric,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(archive.leaderboard(datasetId, metric, limit));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<BackTestRunSummary>> byStrategy(
+            @RequestParam String strategyHash,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(archive.runsOfStrategy(strategyHash, limit));
+    }
+}
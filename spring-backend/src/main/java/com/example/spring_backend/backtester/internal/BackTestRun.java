@@ -0,0 +1,111 @@
+package com.example.spring_backend.backtester.internal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.Length;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One persisted backtest: the scalar metrics as indexed columns, so leaderboards are answered from the indexes
+ * alone, and the trades and equity curve as {@link ResultCodec} blobs rather than a row per point.
+ */
+@Entity
+@Table(name = "backtest_runs", indexes = {
+        @Index(name = "idx_backtest_runs_strategy", columnList = "strategy_hash, created_at"),
+        @Index(name = "idx_backtest_runs_result_key", columnList = "result_key"),
+        @Index(name = "idx_backtest_runs_sharpe", columnList = "dataset_id, sharpe_ratio"),
+        @Index(name = "idx_backtest_runs_return", columnList = "dataset_id, total_return"),
+        @Index(name = "idx_backtest_runs_drawdown", columnList = "dataset_id, max_drawdown"),
+        @Index(name = "idx_backtest_runs_win_ratio", columnList = "dataset_id, win_ratio")
+})
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class BackTestRun {
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "strategy_hash", length = 64)
+    private String strategyHash;
+
+    // The ResultCache key: dataset content, canonical request and engine version
+    @Column(name = "result_key", length = 64)
+    private String resultKey;
+
+    @Column(name = "dataset_id", nullable = false, length = 128)
+    private String datasetId;
+
+    @Column(name = "bar_count", nullable = false)
+    private int barCount;
+
+    // The request as submitted, so a run can be reproduced or resubmitted
+    @Column(name = "request", length = Length.LONG32)
+    private String request;
+
+    @Column(name = "total_return", nullable = false)
+    private double totalReturn;
+
+    @Column(name = "final_capital", nullable = false)
+    private double finalCapital;
+
+    @Column(name = "trade_count", nullable = false)
+    private int tradeCount;
+
+    @Column(name = "win_ratio", nullable = false)
+    private double winRatio;
+
+    @Column(name = "max_drawdown", nullable = false)
+    private double maxDrawdown;
+
+    // Per bar and not annualised; null when the equity curve is flat or too short to have one
+    @Column(name = "sharpe_ratio")
+    private Double sharpeRatio;
+
+    @Column(name = "trades", nullable = false, length = Length.LONG32)
+    private byte[] trades;
+
+    @Column(name = "equity_curve", nullable = false, length = Length.LONG32)
+    private byte[] equityCurve;
+
+    BackTestRun(String strategyHash, String datasetId, int barCount, String request, BackTestResult result) {
+        this.createdAt = Instant.now();
+        this.strategyHash = strategyHash;
+        this.datasetId = datasetId;
+        this.barCount = barCount;
+        this.request = request;
+        this.totalReturn = result.totalReturn();
+        this.finalCapital = result.finalCapital();
+        this.tradeCount = result.tradeCount();
+        this.winRatio = result.winRatio();
+        this.maxDrawdown = result.maxDrawdown();
+        this.trades = ResultCodec.encodeTrades(result.trades() != null ? result.trades() : List.of());
+        this.equityCurve = ResultCodec.encodeSeries(result.equityCurve() != null ? result.equityCurve() : new double[0]);
+    }
+
+    BackTestResult toResult() {
+        return BackTestResult.builder()
+                .totalReturn(totalReturn)
+                .finalCapital(finalCapital)
+                .tradeCount(tradeCount)
+                .winRatio(winRatio)
+                .maxDrawdown(maxDrawdown)
+                .trades(ResultCodec.decodeTrades(trades))
+                .equityCurve(ResultCodec.decodeSeries(equityCurve))
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.spring_backend.backtester.internal;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BackTestRunRepository extends JpaRepository<BackTestRun, UUID> {
+    List<BackTestRunSummary> findByDatasetId(String datasetId, Pageable pageable);
+
+    List<BackTestRunSummary> findByDatasetIdAndSharpeRatioNotNull(String datasetId, Pageable pageable);
+
+    List<BackTestRunSummary> findByStrategyHash(String strategyHash, Pageable pageable);
+
+    Optional<BackTestRun> findFirstByResultKeyOrderByCreatedAtDesc(String resultKey);
+}
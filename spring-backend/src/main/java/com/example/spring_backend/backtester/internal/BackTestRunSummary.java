@@ -0,0 +1,31 @@
+package com.example.spring_backend.backtester.internal;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The indexed columns of a {@link BackTestRun}, read by leaderboard queries without loading its blobs.
+ */
+public interface BackTestRunSummary {
+    UUID getId();
+
+    Instant getCreatedAt();
+
+    String getStrategyHash();
+
+    String getDatasetId();
+
+    int getBarCount();
+
+    double getTotalReturn();
+
+    double getFinalCapital();
+
+    int getTradeCount();
+
+    double getWinRatio();
+
+    double getMaxDrawdown();
+
+    Double getSharpeRatio();
+}
@@ -6,14 +6,17 @@ import jakarta.annotation.Nonnull;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 
 @RestController
@@ -25,21 +28,61 @@ public class BackTesterController {
     private final BackTesterOrchestrationService orchestrationService;
 
     @PostMapping(value = "/execute", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public CompletableFuture<ResponseEntity<List<BackTestResult>>> executeBacktest(
+    public DeferredResult<ResponseEntity<List<BackTestResult>>> executeBacktest(
             @RequestPart("file") @Valid @Nonnull MultipartFile file,
             @RequestPart("request") @Valid @Nonnull List<BackTestRequest> requests) {
 
         log.info("Starting backtest execution with {} requests", requests.size());
 
-        return orchestrationService.runOrchestration(file, requests)
-                .thenApply(results -> {
-                    log.info("Backtest execution completed with {} results", results.size());
-                    return ResponseEntity.ok(results);
-                })
+        return deferredResults(orchestrationService.runOrchestration(file, requests), requests.size());
+    }
+
+    /**
+     * Runs the requests on a dataset kept by {@code /api/datasets}, without uploading it again.
+     */
+    @PostMapping(value = "/datasets/{datasetId}/execute", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<ResponseEntity<List<BackTestResult>>> executeBacktestOnDataset(
+            @PathVariable String datasetId,
+            @RequestBody @Valid @Nonnull List<BackTestRequest> requests) {
+
+        log.info("Starting backtest execution with {} requests on dataset {}", requests.size(), datasetId);
+
+        return deferredResults(orchestrationService.runOnDataset(datasetId, requests), requests.size());
+    }
+
+    @PostMapping(value = "/portfolio", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public DeferredResult<ResponseEntity<PortfolioBackTestResult>> executePortfolioBacktest(
+            @RequestPart("files") @Nonnull List<MultipartFile> files,
+            @RequestPart("request") @Valid @Nonnull BackTestRequest request) {
+
+        log.info("Starting portfolio backtest over {} symbols", files.size());
+
+        DeferredResult<ResponseEntity<PortfolioBackTestResult>> deferredResult = new DeferredResult<>();
+        CompletableFuture<PortfolioBackTestResult> portfolio = orchestrationService.runPortfolio(files, request);
+
+        deferredResult.onTimeout(() -> {
+            log.warn("Portfolio backtest timed out, cancelling it");
+            deferredResult.setErrorResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+            portfolio.cancel(true);
+        });
+        deferredResult.onError(throwable -> {
+            log.warn("Client connection failed during portfolio backtest, cancelling it");
+            portfolio.cancel(true);
+        });
+
+        portfolio
+                .thenApply(ResponseEntity::ok)
                 .exceptionally(throwable -> {
-                    log.error("Backtest execution failed", throwable);
+                    if (throwable instanceof CancellationException) {
+                        log.info("Portfolio backtest was cancelled");
+                    } else {
+                        log.error("Portfolio backtest failed", throwable);
+                    }
                     return ResponseEntity.internalServerError().build();
-                });
+                })
+                .thenAccept(deferredResult::setResult);
+
+        return deferredResult;
     }
 
     @GetMapping("/health")
@@ -49,4 +92,38 @@ public class BackTesterController {
                 "timestamp", String.valueOf(System.currentTimeMillis())
         ));
     }
-}
\ No newline at end of file
+
+    private DeferredResult<ResponseEntity<List<BackTestResult>>> deferredResults(
+            CompletableFuture<List<BackTestResult>> orchestration, int requestCount) {
+        DeferredResult<ResponseEntity<List<BackTestResult>>> deferredResult = new DeferredResult<>();
+
+        // Async timeouts and dropped connections are never seen by the future itself,
+        // so cancel it to stop the backtests and free their executor threads
+        deferredResult.onTimeout(() -> {
+            log.warn("Backtest execution timed out, cancelling {} backtests", requestCount);
+            deferredResult.setErrorResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+            orchestration.cancel(true);
+        });
+        deferredResult.onError(throwable -> {
+            log.warn("Client connection failed during backtest execution, cancelling {} backtests", requestCount);
+            orchestration.cancel(true);
+        });
+
+        orchestration
+                .thenApply(results -> {
+                    log.info("Backtest execution completed with {} results", results.size());
+                    return ResponseEntity.ok(results);
+                })
+                .exceptionally(throwable -> {
+                    if (throwable instanceof CancellationException) {
+                        log.info("Backtest execution was cancelled");
+                    } else {
+                        log.error("Backtest execution failed", throwable);
+                    }
+                    return ResponseEntity.internalServerError().build();
+                })
+                .thenAccept(deferredResult::setResult);
+
+        return deferredResult;
+    }
+}
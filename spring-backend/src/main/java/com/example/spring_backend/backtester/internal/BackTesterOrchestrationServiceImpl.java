@@ -3,20 +3,33 @@ package com.example.spring_backend.backtester.internal;
 import com.example.spring_backend.backtester.BackTesterOrchestrationService;
 import com.example.spring_backend.backtester.BackTesterService;
 import com.example.spring_backend.common.BackTestRequest;
+import com.example.spring_backend.common.CanonicalForm;
+import com.example.spring_backend.common.Cancellation;
+import com.example.spring_backend.common.PipelineObservations;
+import com.example.spring_backend.market.AlignedMarketData;
 import com.example.spring_backend.market.CsvImporterService;
 import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.market.MarketDataStore;
 import com.example.spring_backend.strategies.Strategy;
 import com.example.spring_backend.strategies.StrategyService;
+import io.micrometer.observation.Observation;
 import jakarta.annotation.Nonnull;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
@@ -25,20 +38,45 @@ import java.util.concurrent.Executor;
 @Slf4j
 public class BackTesterOrchestrationServiceImpl implements BackTesterOrchestrationService {
     private final CsvImporterService csvImporterService;
+    private final MarketDataStore marketDataStore;
     private final StrategyService strategyService;
     private final BackTesterService backTesterService;
+    private final ResultCache resultCache;
     private final Executor backtestExecutor;
+    private final int maxPortfolioSymbols;
 
     private static final int MAX_BACKTEST_REQUESTS = 5;
+    static final int DEFAULT_MAX_PORTFOLIO_SYMBOLS = 5000;
 
     public BackTesterOrchestrationServiceImpl(
             CsvImporterService csvImporterService,
+            MarketDataStore marketDataStore,
             StrategyService strategyService,
             BackTesterService backTesterService,
-            @Qualifier("backtestExecutor") Executor backtestExecutor) {
+            ResultCache resultCache,
+            Executor backtestExecutor) {
+        this(csvImporterService, marketDataStore, strategyService, backTesterService, resultCache, backtestExecutor,
+                DEFAULT_MAX_PORTFOLIO_SYMBOLS);
+    }
+
+    @Autowired
+    public BackTesterOrchestrationServiceImpl(
+            CsvImporterService csvImporterService,
+            MarketDataStore marketDataStore,
+            StrategyService strategyService,
+            BackTesterService backTesterService,
+            ResultCache resultCache,
+            @Qualifier("backtestExecutor") Executor backtestExecutor,
+            @Value("${backtester.portfolio.max-symbols:" + DEFAULT_MAX_PORTFOLIO_SYMBOLS + "}") int maxPortfolioSymbols) {
+        if (maxPortfolioSymbols <= 0) {
+            throw new IllegalArgumentException("backtester.portfolio.max-symbols must be positive");
+        }
+        this.maxPortfolioSymbols = maxPortfolioSymbols;
         this.csvImporterService = csvImporterService;
+        this.marketDataStore = marketDataStore;
         this.strategyService = strategyService;
         this.backTesterService = backTesterService;
+        this.resultCache = resultCache;
         this.backtestExecutor = backtestExecutor;
     }
 
@@ -59,16 +97,23 @@ public class BackTesterOrchestrationServiceImpl implements BackTesterOrchestrati
             return CompletableFuture.failedFuture(e);
         }
 
-        return CompletableFuture
-                .supplyAsync(() -> {
+        // Started without a scope: the work hops across executor threads, children name it as parent instead
+        Observation observation = PipelineObservations.observation(PipelineObservations.ORCHESTRATION)
+                .lowCardinalityKeyValue(PipelineObservations.REQUEST_COUNT_KEY, String.valueOf(requests.size()))
+                .start();
+
+        CancellationScope scope = new CancellationScope();
+        CompletableFuture<List<BackTestResult>> orchestration = CompletableFuture
+                .supplyAsync(scope.bind(() -> {
                     try {
                         return file.getBytes();
                     } catch (IOException e) {
                         throw new CompletionException(
                                 new BackTesterExceptions.InvalidRequestException("Failed to process market data file", e));
                     }
-                }, backtestExecutor)
-                .thenCompose(fileBytes -> runBacktests(fileBytes, requests))
+                }), backtestExecutor)
+                .thenCompose(fileBytes -> runBacktests(
+                        () -> importCsv(fileBytes), DatasetIdentity.upload(fileBytes), requests, scope, observation))
                 .whenComplete((results, throwable) -> {
                     if (throwable != null) {
                         log.error("Error completing backtests for {} requests", requests.size(), throwable);
@@ -76,14 +121,89 @@ public class BackTesterOrchestrationServiceImpl implements BackTesterOrchestrati
                         log.info("Successfully completed {} backtests", results.size());
                     }
                 });
+
+        orchestration.whenComplete((results, throwable) -> {
+            if (throwable != null) {
+                observation.error(throwable);
+            }
+            observation.stop();
+        });
+
+        // Callers cancel the returned future on client disconnect or timeout; stop the work still running for it
+        orchestration.whenComplete((results, throwable) -> {
+            if (throwable != null && !scope.isCancelled()) {
+                log.info("Cancelling in-flight backtests for {} requests", requests.size());
+                scope.cancel();
+            }
+        });
+        return orchestration;
     }
 
+    /**
+     * Same as {@link #runOrchestration} on a dataset from the {@link MarketDataStore}. Every request runs on the
+     * snapshot taken here, so bars appended meanwhile do not reach half of them.
+     */
     @Nonnull
-    private CompletableFuture<List<BackTestResult>> runBacktests(
-            byte[] fileBytes,
+    @Override
+    public CompletableFuture<List<BackTestResult>> runOnDataset(
+            @Nonnull String datasetId,
             @Nonnull List<BackTestRequest> requests) {
+
+        MarketData dataset;
+        try {
+            validateRequests(requests);
+            if (requests.size() > MAX_BACKTEST_REQUESTS) {
+                return CompletableFuture.failedFuture(
+                        new BackTesterExceptions.InvalidRequestException(
+                                "Number of requests exceeds maximum for concurrent backtests: " + MAX_BACKTEST_REQUESTS));
+            }
+            dataset = marketDataStore.get(datasetId)
+                    .orElseThrow(() -> new BackTesterExceptions.InvalidRequestException("Unknown dataset: " + datasetId));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        Observation observation = PipelineObservations.observation(PipelineObservations.ORCHESTRATION)
+                .lowCardinalityKeyValue(PipelineObservations.REQUEST_COUNT_KEY, String.valueOf(requests.size()))
+                .start();
+
+        CancellationScope scope = new CancellationScope();
+        CompletableFuture<List<BackTestResult>> orchestration = runBacktests(
+                () -> dataset, new DatasetIdentity(datasetId, datasetId + "@" + dataset.size()), requests, scope, observation)
+                .whenComplete((results, throwable) -> {
+                    if (throwable != null) {
+                        log.error("Error completing backtests for {} requests on dataset {}", requests.size(), datasetId, throwable);
+                        observation.error(throwable);
+                    } else {
+                        log.info("Successfully completed {} backtests on dataset {}", results.size(), datasetId);
+                    }
+                    observation.stop();
+                });
+
+        orchestration.whenComplete((results, throwable) -> {
+            if (throwable != null && !scope.isCancelled()) {
+                scope.cancel();
+            }
+        });
+        return orchestration;
+    }
+
+    @Nonnull
+    private CompletableFuture<List<BackTestResult>> runBacktests(
+            @Nonnull MarketDataSource source,
+            @Nonnull DatasetIdentity dataset,
+            @Nonnull List<BackTestRequest> requests,
+            @Nonnull CancellationScope scope,
+            @Nonnull Observation parentObservation) {
         List<CompletableFuture<BackTestResult>> backtestFutures = requests.stream()
-                .map(request -> runSingleBacktest(fileBytes, request))
+                .map(request -> runSingleBacktest(source, dataset, request, scope, parentObservation)
+                        .whenComplete((result, throwable) -> {
+                            if (throwable != null) {
+                                // Fail fast: allOf only completes once every sibling is done
+                                scope.recordFailure(throwable);
+                                scope.cancel();
+                            }
+                        }))
                 .toList();
 
         return CompletableFuture.allOf(backtestFutures.toArray(CompletableFuture[]::new))
@@ -92,35 +212,50 @@ public class BackTesterOrchestrationServiceImpl implements BackTesterOrchestrati
                         .toList())
                 .exceptionally(throwable -> {
                     backtestFutures.forEach(future -> future.cancel(true));
-                    throw new CompletionException(extractMeaningfulException(throwable));
+                    Throwable cause = scope.firstFailure().orElse(throwable);
+                    throw new CompletionException(extractMeaningfulException(cause));
                 });
     }
 
     @Nonnull
     private CompletableFuture<BackTestResult> runSingleBacktest(
-            byte[] fileBytes,
-            @Nonnull BackTestRequest request) {
-        return CompletableFuture.supplyAsync(() -> {
-            if (fileBytes == null) {
-                throw new CompletionException(
-                        new BackTesterExceptions.InvalidRequestException("Failed to process market data file"));
-            }
-
+            @Nonnull MarketDataSource source,
+            @Nonnull DatasetIdentity dataset,
+            @Nonnull BackTestRequest request,
+            @Nonnull CancellationScope scope,
+            @Nonnull Observation parentObservation) {
+        Observation observation = PipelineObservations.observation(PipelineObservations.SINGLE_BACKTEST)
+                .parentObservation(parentObservation);
+        return CompletableFuture.supplyAsync(scope.bind(() -> observation.observe(() -> {
             log.debug("Starting backtest on thread: {} with strategy containing {} entry and {} exit conditions",
                     Thread.currentThread().getName(),
                     request.getEntryConditions().size(),
                     request.getExitConditions().size());
 
-            try (InputStream inputStream = new ByteArrayInputStream(fileBytes)) {
-                MarketData marketData = csvImporterService.importCsvFromStream(inputStream);
+            try {
+                // Checked before loading, so a resubmitted upload is not even parsed again
+                String resultKey = resultCache.key(dataset.content(), request);
+                Optional<BackTestResult> cached = resultCache.get(resultKey);
+                if (cached.isPresent()) {
+                    log.debug("Reusing the result of an identical backtest {}", resultKey);
+                    return cached.get();
+                }
+
+                MarketData marketData = inDateRange(source.load(), request);
+                Cancellation.throwIfCancelled();
                 Strategy strategy = strategyService.buildStrategyFromRequest(request);
                 BackTestResult result = backTesterService.runBackTest(strategy, marketData, request);
+                observation.highCardinalityKeyValue(PipelineObservations.TRADE_COUNT_KEY, String.valueOf(result.tradeCount()));
 
                 log.debug("Backtest completed with {} trades and total return of {}%",
                         result.tradeCount(), String.format("%.2f", result.totalReturn()));
 
+                resultCache.put(resultKey, dataset.id(), marketData.size(), request, result);
                 return result;
 
+            } catch (CancellationException e) {
+                log.debug("Backtest on thread {} was cancelled", Thread.currentThread().getName());
+                throw e;
             } catch (IOException e) {
                 log.error("CSV parsing error in backtest", e);
                 throw new CompletionException(
@@ -129,18 +264,176 @@ public class BackTesterOrchestrationServiceImpl implements BackTesterOrchestrati
                 log.error("Validation error in backtest", e);
                 throw new CompletionException(
                         new BackTesterExceptions.InvalidRequestException("Invalid request parameters", e));
+            } catch (BackTesterExceptions.InvalidRequestException e) {
+                throw new CompletionException(e);
             } catch (Exception e) {
                 log.error("Unexpected error running individual backtest", e);
                 throw new CompletionException(
                         new BackTesterExceptions.BackTestOrchestrationException("Internal server error during backtest", e));
             }
-        }, backtestExecutor);
+        })), backtestExecutor);
+    }
+
+    @Nonnull
+    private MarketData importCsv(byte[] fileBytes) throws IOException {
+        if (fileBytes == null) {
+            throw new BackTesterExceptions.InvalidRequestException("Failed to process market data file");
+        }
+        try (InputStream inputStream = new ByteArrayInputStream(fileBytes)) {
+            return csvImporterService.importCsvFromStream(inputStream);
+        }
+    }
+
+    /**
+     * Runs one strategy over several symbols with shared capital. Each file is one symbol's series, named after
+     * the file without its extension; the series are imported, aligned on their combined timestamps and run
+     * as a single portfolio on {@code backtestExecutor}.
+     */
+    @Nonnull
+    @Override
+    public CompletableFuture<PortfolioBackTestResult> runPortfolio(
+            @Nonnull List<MultipartFile> files,
+            @Nonnull BackTestRequest request) {
+
+        if (files == null || files.isEmpty()) {
+            return CompletableFuture.failedFuture(
+                    new BackTesterExceptions.InvalidRequestException("At least one market data file is required"));
+        }
+        if (files.size() > maxPortfolioSymbols) {
+            return CompletableFuture.failedFuture(
+                    new BackTesterExceptions.InvalidRequestException(
+                            "Number of symbols exceeds maximum for a portfolio backtest: " + maxPortfolioSymbols));
+        }
+
+        Observation observation = PipelineObservations.observation(PipelineObservations.ORCHESTRATION)
+                .lowCardinalityKeyValue(PipelineObservations.REQUEST_COUNT_KEY, "1")
+                .start();
+
+        CancellationScope scope = new CancellationScope();
+        CompletableFuture<PortfolioBackTestResult> portfolio = CompletableFuture
+                .supplyAsync(scope.bind(() -> observation.scoped(() -> {
+                    try {
+                        AlignedMarketData marketData = AlignedMarketData.align(importSymbols(files, request));
+                        Cancellation.throwIfCancelled();
+                        Strategy strategy = strategyService.buildStrategyFromRequest(request);
+                        return backTesterService.runPortfolioBackTest(strategy, marketData, request);
+                    } catch (CancellationException e) {
+                        log.debug("Portfolio backtest on thread {} was cancelled", Thread.currentThread().getName());
+                        throw e;
+                    } catch (IOException e) {
+                        log.error("CSV parsing error in portfolio backtest", e);
+                        throw new CompletionException(
+                                new BackTesterExceptions.InvalidRequestException("Invalid CSV format", e));
+                    } catch (IllegalArgumentException e) {
+                        log.error("Validation error in portfolio backtest", e);
+                        throw new CompletionException(
+                                new BackTesterExceptions.InvalidRequestException("Invalid request parameters", e));
+                    } catch (BackTesterExceptions.InvalidRequestException e) {
+                        throw new CompletionException(e);
+                    } catch (Exception e) {
+                        log.error("Unexpected error running portfolio backtest", e);
+                        throw new CompletionException(
+                                new BackTesterExceptions.BackTestOrchestrationException("Internal server error during backtest", e));
+                    }
+                })), backtestExecutor)
+                .whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        log.error("Error completing portfolio backtest over {} symbols", files.size(), throwable);
+                        observation.error(throwable);
+                    } else {
+                        log.info("Successfully completed portfolio backtest over {} symbols with {} trades",
+                                result.symbols().size(), result.tradeCount());
+                    }
+                    observation.stop();
+                });
+
+        // Same as runOrchestration: cancelling the returned future interrupts the running backtest
+        portfolio.whenComplete((result, throwable) -> {
+            if (throwable != null && !scope.isCancelled()) {
+                scope.cancel();
+            }
+        });
+        return portfolio;
+    }
+
+    @Nonnull
+    private Map<String, MarketData> importSymbols(@Nonnull List<MultipartFile> files,
+                                                  @Nonnull BackTestRequest request) throws IOException {
+        Map<String, MarketData> series = new LinkedHashMap<>();
+        for (MultipartFile file : files) {
+            String symbol = symbolOf(file);
+            if (series.containsKey(symbol)) {
+                throw new BackTesterExceptions.InvalidRequestException("Duplicate symbol in portfolio: " + symbol);
+            }
+            try (InputStream inputStream = file.getInputStream()) {
+                series.put(symbol, inDateRange(csvImporterService.importCsvFromStream(inputStream), request));
+            }
+            Cancellation.throwIfCancelled();
+        }
+        return series;
+    }
+
+    @Nonnull
+    private static String symbolOf(@Nonnull MultipartFile file) {
+        String name = file.getOriginalFilename();
+        if (name == null || name.isBlank()) {
+            name = file.getName();
+        }
+        int slash = Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\'));
+        name = name.substring(slash + 1);
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    /**
+     * The bars inside the request's date range, as a view of the imported series; the whole series without one.
+     */
+    @Nonnull
+    private static MarketData inDateRange(@Nonnull MarketData marketData, @Nonnull BackTestRequest request) {
+        LocalDate startDate = request.getStartDate();
+        LocalDate endDate = request.getEndDate();
+        if (startDate == null && endDate == null) {
+            return marketData;
+        }
+        MarketData range = marketData.sliceByTime(
+                startDate == null ? null : startDate.atStartOfDay(),
+                endDate == null ? null : endDate.plusDays(1).atStartOfDay());
+        if (range.size() == 0) {
+            throw new IllegalArgumentException("No market data between " + startDate + " and " + endDate);
+        }
+        return range;
     }
 
     private void validateRequests(List<BackTestRequest> requests) {
         if (requests == null || requests.isEmpty()) {
             throw new BackTesterExceptions.InvalidRequestException("Requests cannot be null or empty");
         }
+        for (BackTestRequest request : requests) {
+            if (request.getStartDate() != null && request.getEndDate() != null
+                    && request.getStartDate().isAfter(request.getEndDate())) {
+                throw new BackTesterExceptions.InvalidRequestException("Start date must not be after end date");
+            }
+        }
+    }
+
+    /**
+     * Where a backtest gets its series: a fresh import of the uploaded file, or a stored dataset snapshot.
+     */
+    @FunctionalInterface
+    private interface MarketDataSource {
+        MarketData load() throws IOException;
+    }
+
+    /**
+     * @param id      what results are archived under
+     * @param content identifies the exact bars, for the {@link ResultCache} key
+     */
+    private record DatasetIdentity(String id, String content) {
+        // Uploaded files have no dataset id, so their results are filed under the hash of the file's content
+        static DatasetIdentity upload(byte[] fileBytes) {
+            String id = fileBytes == null ? "upload" : "sha256:" + CanonicalForm.hash(fileBytes);
+            return new DatasetIdentity(id, id);
+        }
     }
 
     private Throwable extractMeaningfulException(Throwable throwable) {
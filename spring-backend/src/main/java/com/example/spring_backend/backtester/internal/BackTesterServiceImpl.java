@@ -1,10 +1,17 @@
 package com.example.spring_backend.backtester.internal;
 
 import com.example.spring_backend.common.BackTestRequest;
+import com.example.spring_backend.common.Cancellation;
+import com.example.spring_backend.common.PipelineMetrics;
+import com.example.spring_backend.common.PipelineObservations;
 import com.example.spring_backend.backtester.BackTesterService;
+import com.example.spring_backend.market.AlignedMarketData;
+import com.example.spring_backend.market.DoubleColumn;
 import com.example.spring_backend.market.MarketData;
 import com.example.spring_backend.market.MarketDataPoint;
 import com.example.spring_backend.strategies.Strategy;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
 import jakarta.annotation.Nonnull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -12,10 +19,16 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
 public class BackTesterServiceImpl implements BackTesterService {
+    /**
+     * ATR used for risk sizing, and the multiple of it a position is assumed to risk.
+     */
+    private static final int ATR_PERIOD = 14;
+    private static final double ATR_STOP_MULTIPLE = 2.0;
 
     @Nonnull
     @Override
@@ -24,25 +37,65 @@ public class BackTesterServiceImpl implements BackTesterService {
             @Nonnull MarketData marketData,
             @Nonnull BackTestRequest request) {
 
+        int dataSize = marketData.size();
+        Observation observation = PipelineObservations.observation(PipelineObservations.BACKTEST_EXECUTION)
+                .lowCardinalityKeyValue(PipelineMetrics.DATA_SIZE_TAG, PipelineMetrics.dataSizeBucket(dataSize))
+                .highCardinalityKeyValue(PipelineObservations.ROW_COUNT_KEY, String.valueOf(dataSize));
+
+        return observation.observe(() -> {
+            BackTestResult result = executeBackTest(strategy, marketData, request);
+            observation.highCardinalityKeyValue(PipelineObservations.TRADE_COUNT_KEY, String.valueOf(result.tradeCount()));
+            return result;
+        });
+    }
+
+    @Nonnull
+    @Override
+    public PortfolioBackTestResult runPortfolioBackTest(
+            @Nonnull Strategy strategy,
+            @Nonnull AlignedMarketData marketData,
+            @Nonnull BackTestRequest request) {
+
+        int dataSize = marketData.getBarCount();
+        Observation observation = PipelineObservations.observation(PipelineObservations.PORTFOLIO_EXECUTION)
+                .lowCardinalityKeyValue(PipelineMetrics.DATA_SIZE_TAG, PipelineMetrics.dataSizeBucket(dataSize))
+                .highCardinalityKeyValue(PipelineObservations.ROW_COUNT_KEY, String.valueOf(dataSize))
+                .highCardinalityKeyValue(PipelineObservations.SYMBOL_COUNT_KEY, String.valueOf(marketData.symbolCount()));
+
+        return observation.observe(() -> {
+            PortfolioBackTestResult result = PortfolioBackTester.run(strategy, marketData, request);
+            observation.highCardinalityKeyValue(PipelineObservations.TRADE_COUNT_KEY, String.valueOf(result.tradeCount()));
+            return result;
+        });
+    }
+
+    @Nonnull
+    private BackTestResult executeBackTest(
+            @Nonnull Strategy strategy,
+            @Nonnull MarketData marketData,
+            @Nonnull BackTestRequest request) {
+
         final double initialCapital = request.getInitialCapital();
         final double commissionRate = request.getCommissionRate();
 
         log.info("Starting backtest with initial capital: ${}, commission rate: {}%",
                 initialCapital, commissionRate * 100);
 
-        // Pre-calculate all signals
-        long signalStartTime = System.currentTimeMillis();
-        boolean[] entrySignals = strategy.calculateEntrySignals(marketData);
-        boolean[] exitSignals = strategy.calculateExitSignals(marketData);
-        long signalDuration = System.currentTimeMillis() - signalStartTime;
+        // Pre-calculate all signals in one pass over both condition trees
+        long signalStartTime = System.nanoTime();
+        Strategy.Signals signals = strategy.calculateSignals(marketData);
+        Cancellation.throwIfCancelled();
+        final boolean[] entrySignals = signals.entry();
+        final boolean[] exitSignals = signals.exit();
+        long signalDuration = System.nanoTime() - signalStartTime;
 
-        log.info("Signal calculation completed in {}ms", signalDuration);
+        log.info("Signal calculation completed in {}ms", TimeUnit.NANOSECONDS.toMillis(signalDuration));
 
         if (log.isDebugEnabled()) {
             int totalEntrySignals = countTrue(entrySignals);
             int totalExitSignals = countTrue(exitSignals);
             log.debug("Market data length: {}, Entry conditions: {}, Exit conditions: {}",
-                    marketData.close().length,
+                    marketData.size(),
                     strategy.getEntryConditions().size(),
                     strategy.getExitConditions().size());
             log.debug("Pre-calculated signals: {} entry signals, {} exit signals",
@@ -50,14 +103,18 @@ public class BackTesterServiceImpl implements BackTesterService {
         }
 
         // Initialize backtest state
+        final boolean allowShort = request.isAllowShort();
+        final double slippage = request.getSlippagePercent() / 100.0;
         double currentCapital = initialCapital;
-        boolean inPosition = false;
-        double entryPrice = 0.0;
+        int side = 0; // +1 long, -1 short, 0 flat
+        double entryFill = 0.0;
         double positionSize = 0.0;
 
-        final double[] close = marketData.close();
-        final int dataLength = close.length;
+        // A view of off-heap storage rather than a copy; on the heap, one copy of the closes
+        final DoubleColumn close = marketData.closeColumn();
+        final int dataLength = marketData.size();
         final List<MarketDataPoint> dataPoints = marketData.getDataPoints();
+        final double riskPerTrade = request.getRiskPerTrade();
 
         // Pre-allocate collections with appropriate capacity
         List<Trade> trades = new ArrayList<>(dataLength / 10);
@@ -68,72 +125,95 @@ public class BackTesterServiceImpl implements BackTesterService {
         int processedExitSignals = 0;
 
         if (log.isDebugEnabled()) {
-            log.debug("Beginning market data iteration for backtest");
+            log.debug("Beginning market data iteration for backtest (short selling {}, slippage {}%, risk per trade {})",
+                    allowShort ? "allowed" : "disabled", request.getSlippagePercent(), request.getRiskPerTrade());
         }
 
-        // Main backtest loop
+        // Main backtest loop. Signals are rare, so the per-bar work is two array reads and the equity update;
+        // everything that depends on the side is arithmetic on +1/-1 rather than separate long and short paths
+        Timer.Sample loopSample = PipelineMetrics.start();
         for (int i = 1; i < dataLength; i++) {
-            final double currentPrice = close[i];
-
-            // Process exit signals first (takes priority)
-            if (inPosition && exitSignals[i]) {
-                processedExitSignals++;
+            Cancellation.checkpoint(i);
+            final double currentPrice = close.get(i);
+            final boolean entrySignal = entrySignals[i];
+            final boolean exitSignal = exitSignals[i];
+
+            // Closing takes priority: an exit signal closes a long, an entry signal covers a short
+            if ((side > 0 && exitSignal) || (side < 0 && entrySignal)) {
+                if (side > 0) {
+                    processedExitSignals++;
+                } else {
+                    processedEntrySignals++;
+                }
 
-                final double exitValue = positionSize * currentPrice;
-                final double commission = exitValue * commissionRate;
-                final double pnl = exitValue - (positionSize * entryPrice) - commission;
+                // Selling fills below the close and buying back above it
+                final double exitFill = currentPrice * (1 - side * slippage);
+                final double commission = positionSize * exitFill * commissionRate;
+                final double pnl = side * positionSize * (exitFill - entryFill) - commission;
 
                 currentCapital += pnl;
 
                 final LocalDateTime exitDate = dataPoints.get(i).timestamp();
-                trades.add(new Trade(entryPrice, currentPrice, positionSize, pnl, exitDate));
+                trades.add(new Trade(entryFill, exitFill, side * positionSize, pnl, exitDate));
 
                 if (log.isDebugEnabled()) {
-                    log.debug("Exit signal at index {}: Exit price: ${}, P&L: ${}, Commission: ${}, Updated capital: ${}",
-                            i, currentPrice, pnl, commission, currentCapital);
+                    log.debug("Closed {} at index {}: Exit price: ${}, P&L: ${}, Commission: ${}, Updated capital: ${}",
+                            side > 0 ? "long" : "short", i, exitFill, pnl, commission, currentCapital);
                 }
 
                 // Reset position state
-                inPosition = false;
+                side = 0;
                 positionSize = 0.0;
-                entryPrice = 0.0;
+                entryFill = 0.0;
             }
-            // Process entry signals
-            else if (!inPosition && entrySignals[i]) {
-                processedEntrySignals++;
-                entryPrice = currentPrice;
-                positionSize = currentCapital / entryPrice; // Calculate once and cache
-                inPosition = true;
+            // Open on an entry signal, or short on an exit signal when allowed
+            else if (side == 0 && (entrySignal || (allowShort && exitSignal))) {
+                if (entrySignal) {
+                    processedEntrySignals++;
+                    side = 1;
+                } else {
+                    processedExitSignals++;
+                    side = -1;
+                }
+
+                entryFill = currentPrice * (1 + side * slippage);
+                final double allIn = currentCapital / entryFill;
+                final double riskSized = riskPerTrade > 0
+                        ? currentCapital * riskPerTrade / (ATR_STOP_MULTIPLE * averageTrueRange(dataPoints, close, i))
+                        : Double.NaN;
+                // Risk sizing only ever shrinks the position; bars without an ATR yet go all-in
+                positionSize = riskSized > 0 && riskSized < allIn ? riskSized : allIn;
 
                 if (log.isDebugEnabled()) {
-                    log.debug("Entry signal at index {}: Entry price: ${}, Position size: {}",
-                            i, entryPrice, positionSize);
+                    log.debug("Opened {} at index {}: Entry price: ${}, Position size: {}",
+                            side > 0 ? "long" : "short", i, entryFill, positionSize);
                 }
             }
 
-            equityCurve[i] = inPosition
-                    ? positionSize * currentPrice
-                    : currentCapital;
+            // When flat, side is 0 and the equity is the capital
+            equityCurve[i] = currentCapital + side * positionSize * (currentPrice - entryFill);
         }
 
         // Close any open positions at the end
-        if (inPosition) {
-            final double finalPrice = close[dataLength - 1];
-            final double finalValue = positionSize * finalPrice;
-            final double commission = finalValue * commissionRate;
-            final double pnl = finalValue - (positionSize * entryPrice) - commission;
+        if (side != 0) {
+            final double finalPrice = close.get(dataLength - 1);
+            final double exitFill = finalPrice * (1 - side * slippage);
+            final double commission = positionSize * exitFill * commissionRate;
+            final double pnl = side * positionSize * (exitFill - entryFill) - commission;
 
             currentCapital += pnl;
 
             final LocalDateTime finalDate = dataPoints.get(dataLength - 1).timestamp();
-            trades.add(new Trade(entryPrice, finalPrice, positionSize, pnl, finalDate));
+            trades.add(new Trade(entryFill, exitFill, side * positionSize, pnl, finalDate));
 
             if (log.isDebugEnabled()) {
                 log.debug("Closing open position at end of backtest: Exit price: ${}, P&L: ${}, Commission: ${}, Final capital: ${}",
-                        finalPrice, pnl, commission, currentCapital);
+                        exitFill, pnl, commission, currentCapital);
             }
         }
 
+        PipelineMetrics.stop(loopSample, PipelineMetrics.BACKTEST_LOOP, dataLength);
+
         log.info("Backtest completed with {} trades ({} entry signals processed, {} exit signals processed)",
                 trades.size(), processedEntrySignals, processedExitSignals);
         log.info("Initial capital: ${}, Final capital: ${}, Total return: {:.2f}%",
@@ -144,6 +224,26 @@ public class BackTesterServiceImpl implements BackTesterService {
         return calculatePerformanceMetrics(initialCapital, currentCapital, trades, equityCurve);
     }
 
+    /**
+     * Mean true range of the {@value #ATR_PERIOD} bars ending at {@code index}, or NaN before there are that
+     * many. It is only needed when a position opens, so it is computed from the data points then rather than
+     * materialising the high and low columns for every run.
+     */
+    private static double averageTrueRange(@Nonnull List<MarketDataPoint> dataPoints, @Nonnull DoubleColumn close,
+                                            int index) {
+        if (index < ATR_PERIOD) {
+            return Double.NaN;
+        }
+        double sum = 0.0;
+        for (int j = index - ATR_PERIOD + 1; j <= index; j++) {
+            final MarketDataPoint point = dataPoints.get(j);
+            final double previousClose = close.get(j - 1);
+            sum += Math.max(point.high() - point.low(),
+                    Math.max(Math.abs(point.high() - previousClose), Math.abs(point.low() - previousClose)));
+        }
+        return sum / ATR_PERIOD;
+    }
+
     @Nonnull
     private BackTestResult calculatePerformanceMetrics(
             double initialCapital,
@@ -179,7 +279,7 @@ public class BackTesterServiceImpl implements BackTesterService {
         );
     }
 
-    private TradeStatistics calculateTradeStatistics(@Nonnull List<Trade> trades) {
+    static TradeStatistics calculateTradeStatistics(@Nonnull List<Trade> trades) {
         if (trades.isEmpty()) {
             return new TradeStatistics(0, 0, 0, 0.0, 0.0, 0.0);
         }
@@ -208,7 +308,7 @@ public class BackTesterServiceImpl implements BackTesterService {
         return new TradeStatistics(winCount, lossCount, trades.size(), winRatio, averageWin, averageLoss);
     }
 
-    private double calculateMaxDrawdown(@Nonnull double[] equity) {
+    static double calculateMaxDrawdown(@Nonnull double[] equity) {
         if (log.isTraceEnabled()) {
             log.trace("Calculating maximum drawdown from {} equity points", equity.length);
         }
@@ -242,7 +342,7 @@ public class BackTesterServiceImpl implements BackTesterService {
         return count;
     }
 
-    private record TradeStatistics(
+    record TradeStatistics(
             int winCount,
             int lossCount,
             int totalTrades,
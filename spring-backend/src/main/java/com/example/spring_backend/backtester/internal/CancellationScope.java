@@ -0,0 +1,65 @@
+package com.example.spring_backend.backtester.internal;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Tracks the executor threads working on one orchestration so they can be interrupted together.
+ * <p>
+ * {@code CompletableFuture.cancel} never interrupts a running {@code supplyAsync} task, so every task of a
+ * run is bound to this scope. Cancelling the scope interrupts the threads currently inside a bound task and
+ * makes tasks that have not started yet fail fast, which hands the threads back to {@code backtestExecutor}.
+ */
+final class CancellationScope {
+    private final Set<Thread> activeThreads = new HashSet<>();
+    private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+    private boolean cancelled;
+
+    <T> Supplier<T> bind(Supplier<T> task) {
+        return () -> {
+            enter();
+            try {
+                return task.get();
+            } finally {
+                exit();
+            }
+        };
+    }
+
+    synchronized void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        activeThreads.forEach(Thread::interrupt);
+    }
+
+    synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    void recordFailure(Throwable throwable) {
+        firstFailure.compareAndSet(null, throwable);
+    }
+
+    Optional<Throwable> firstFailure() {
+        return Optional.ofNullable(firstFailure.get());
+    }
+
+    private synchronized void enter() {
+        if (cancelled) {
+            throw new CancellationException("Backtest run was cancelled before the task started");
+        }
+        activeThreads.add(Thread.currentThread());
+    }
+
+    private synchronized void exit() {
+        activeThreads.remove(Thread.currentThread());
+        // An interrupt aimed at this run must not leak into the next task the pooled thread picks up
+        Thread.interrupted();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.spring_backend.backtester.internal;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+/**
+ * The metrics results can be ranked by, each best first.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum LeaderboardMetric {
+    SHARPE_RATIO("sharpeRatio", Sort.Direction.DESC),
+    TOTAL_RETURN("totalReturn", Sort.Direction.DESC),
+    WIN_RATIO("winRatio", Sort.Direction.DESC),
+    MAX_DRAWDOWN("maxDrawdown", Sort.Direction.ASC);
+
+    private final String property;
+    private final Sort.Direction direction;
+
+    Sort sort() {
+        return Sort.by(direction, property);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.spring_backend.backtester.internal;
+
+import lombok.Builder;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of one strategy run over an aligned set of symbols sharing one pool of capital. The equity curve is
+ * indexed by the shared timestamps; trades are grouped by symbol in symbol order.
+ */
+@Builder
+public record PortfolioBackTestResult(
+        double totalReturn,
+        double finalCapital,
+        int tradeCount,
+        double winRatio,
+        double maxDrawdown,
+        List<String> symbols,
+        Map<String, List<Trade>> trades,
+        double[] equityCurve) {
+}
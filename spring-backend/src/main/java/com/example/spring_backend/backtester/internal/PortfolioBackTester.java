@@ -0,0 +1,157 @@
+package com.example.spring_backend.backtester.internal;
+
+import com.example.spring_backend.common.BackTestRequest;
+import com.example.spring_backend.common.Cancellation;
+import com.example.spring_backend.common.PipelineMetrics;
+import com.example.spring_backend.market.AlignedMarketData;
+import com.example.spring_backend.strategies.ConditionScheduler;
+import com.example.spring_backend.strategies.Strategy;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs one strategy over every symbol of an {@link AlignedMarketData} with a shared pool of capital.
+ * <p>
+ * Signals are evaluated per symbol on the {@link ConditionScheduler} CPU budget, on a view of the symbol's range
+ * of the market data blocks, and written into entry and exit blocks laid out like the market data. The
+ * portfolio loop then walks the shared index bar by bar. Position rules follow the single-series loop
+ * (exit before entry, optional shorts, slippage on fills, commission on exits). A position opens only while
+ * fewer than {@code maxPositions} are held, and gets an equal share of the previous bar's equity. Longs are
+ * additionally limited to the cash available. Bars a symbol has no data for are never traded.
+ */
+@Slf4j
+final class PortfolioBackTester {
+
+    private PortfolioBackTester() {
+        throw new AssertionError("PortfolioBackTester is a utility class and should not be instantiated");
+    }
+
+    @Nonnull
+    static PortfolioBackTestResult run(@Nonnull Strategy strategy, @Nonnull AlignedMarketData data,
+                                       @Nonnull BackTestRequest request) {
+        final int symbolCount = data.symbolCount();
+        final int barCount = data.getBarCount();
+        final double initialCapital = request.getInitialCapital();
+
+        long signalStartTime = System.nanoTime();
+        boolean[] entrySignals = new boolean[symbolCount * barCount];
+        boolean[] exitSignals = new boolean[symbolCount * barCount];
+        ConditionScheduler.forEachIndex(symbolCount, symbol -> {
+            Strategy.Signals signals = strategy.copy().calculateSignals(data.series(symbol));
+            System.arraycopy(signals.entry(), 0, entrySignals, data.offset(symbol), barCount);
+            System.arraycopy(signals.exit(), 0, exitSignals, data.offset(symbol), barCount);
+        });
+        Cancellation.throwIfCancelled();
+        log.info("Portfolio signals for {} symbols of {} bars calculated in {}ms", symbolCount, barCount,
+                (System.nanoTime() - signalStartTime) / 1_000_000);
+
+        final boolean allowShort = request.isAllowShort();
+        final double commissionRate = request.getCommissionRate();
+        final double slippage = request.getSlippagePercent() / 100.0;
+        final int slots = request.getMaxPositions() > 0 ? Math.min(request.getMaxPositions(), symbolCount) : symbolCount;
+
+        final double[] close = data.getClose();
+        final boolean[] present = data.getPresent();
+        final LocalDateTime[] timestamps = data.getTimestamps();
+
+        // Per-symbol position state: side is +1 long, -1 short, 0 flat
+        final int[] side = new int[symbolCount];
+        final double[] positionSize = new double[symbolCount];
+        final double[] entryFill = new double[symbolCount];
+        double cash = initialCapital;
+        int openPositions = 0;
+
+        List<List<Trade>> trades = new ArrayList<>(symbolCount);
+        for (int s = 0; s < symbolCount; s++) {
+            trades.add(new ArrayList<>());
+        }
+        double[] equityCurve = new double[barCount];
+        equityCurve[0] = initialCapital;
+
+        Timer.Sample loopSample = PipelineMetrics.start();
+        for (int i = 1; i < barCount; i++) {
+            Cancellation.checkpoint(i);
+            final double allocation = equityCurve[i - 1] / slots;
+            double holdings = 0.0;
+
+            for (int s = 0, cell = i; s < symbolCount; s++, cell += barCount) {
+                final double price = close[cell];
+                if (present[cell]) {
+                    final int current = side[s];
+                    final boolean entrySignal = entrySignals[cell];
+                    final boolean exitSignal = exitSignals[cell];
+
+                    if ((current > 0 && exitSignal) || (current < 0 && entrySignal)) {
+                        final double exitFill = price * (1 - current * slippage);
+                        final double commission = positionSize[s] * exitFill * commissionRate;
+                        final double pnl = current * positionSize[s] * (exitFill - entryFill[s]) - commission;
+                        cash += current * positionSize[s] * exitFill - commission;
+                        trades.get(s).add(new Trade(entryFill[s], exitFill, current * positionSize[s], pnl, timestamps[i]));
+
+                        side[s] = 0;
+                        positionSize[s] = 0.0;
+                        entryFill[s] = 0.0;
+                        openPositions--;
+                    } else if (current == 0 && openPositions < slots && (entrySignal || (allowShort && exitSignal))) {
+                        final int opened = entrySignal ? 1 : -1;
+                        final double fill = price * (1 + opened * slippage);
+                        // A short's proceeds are cash, so only longs are limited by it
+                        final double budget = opened > 0 ? Math.min(allocation, cash) : allocation;
+                        if (budget > 0) {
+                            side[s] = opened;
+                            positionSize[s] = budget / fill;
+                            entryFill[s] = fill;
+                            cash -= opened * positionSize[s] * fill;
+                            openPositions++;
+                        }
+                    }
+                }
+                holdings += side[s] * positionSize[s] * price;
+            }
+            equityCurve[i] = cash + holdings;
+        }
+
+        // Close what is still open at each symbol's last known price
+        final int last = barCount - 1;
+        for (int s = 0; s < symbolCount; s++) {
+            if (side[s] != 0) {
+                final double exitFill = close[data.offset(s) + last] * (1 - side[s] * slippage);
+                final double commission = positionSize[s] * exitFill * commissionRate;
+                final double pnl = side[s] * positionSize[s] * (exitFill - entryFill[s]) - commission;
+                cash += side[s] * positionSize[s] * exitFill - commission;
+                trades.get(s).add(new Trade(entryFill[s], exitFill, side[s] * positionSize[s], pnl, timestamps[last]));
+            }
+        }
+        PipelineMetrics.stop(loopSample, PipelineMetrics.BACKTEST_LOOP, barCount * symbolCount);
+
+        Map<String, List<Trade>> tradesBySymbol = new LinkedHashMap<>();
+        List<Trade> allTrades = new ArrayList<>();
+        for (int s = 0; s < symbolCount; s++) {
+            tradesBySymbol.put(data.getSymbols().get(s), trades.get(s));
+            allTrades.addAll(trades.get(s));
+        }
+        BackTesterServiceImpl.TradeStatistics stats = BackTesterServiceImpl.calculateTradeStatistics(allTrades);
+        double totalReturn = (cash - initialCapital) / initialCapital * 100;
+
+        log.info("Portfolio backtest over {} symbols completed with {} trades, final capital: ${}",
+                symbolCount, allTrades.size(), cash);
+
+        return new PortfolioBackTestResult(
+                totalReturn,
+                cash,
+                allTrades.size(),
+                stats.winRatio(),
+                BackTesterServiceImpl.calculateMaxDrawdown(equityCurve),
+                data.getSymbols(),
+                tradesBySymbol,
+                equityCurve
+        );
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.spring_backend.backtester.internal;
+
+import com.example.spring_backend.common.BackTestRequest;
+import com.example.spring_backend.common.CanonicalForm;
+import com.example.spring_backend.indicators.IndicatorEngines;
+import com.example.spring_backend.strategies.StrategyService;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * Results of earlier backtests, so resubmitting the same request on the same data skips the run.
+ * <p>
+ * The key is a {@link CanonicalForm} hash of the dataset content, the trading parameters and the strategy hash,
+ * so parameters match by value ({@code 14} and {@code 14.0}) and conditions in any order. It also includes the
+ * engine version and the installed indicator engine; when that changes the in-memory entries are dropped and
+ * archived results under the old version no longer match. The engine version is {@code backtester.engine-version}
+ * when set, otherwise the version and time of the build, so every new build starts afresh.
+ * <p>
+ * The most recently used results are held in memory up to an estimated size in bytes, dominated by the equity
+ * curves, and misses fall back to the {@link BackTestResultArchive}.
+ */
+@Slf4j
+@Component
+public class ResultCache {
+    static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+    private static final int TRADE_BYTES = 80;
+
+    private final StrategyService strategyService;
+    private final BackTestResultArchive archive;
+    private final Executor archiveExecutor;
+    private final String configuredVersion;
+    private final long maxBytes;
+    private final Map<String, BackTestResult> results = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private String engineVersion;
+
+    @Autowired
+    public ResultCache(StrategyService strategyService,
+                       BackTestResultArchive archive,
+                       @Qualifier("archiveExecutor") Executor archiveExecutor,
+                       @Value("${backtester.result-cache.max-bytes:" + DEFAULT_MAX_BYTES + "}") long maxBytes,
+                       @Value("${backtester.engine-version:}") String engineVersion,
+                       ObjectProvider<BuildProperties> buildProperties) {
+        this(strategyService, archive, archiveExecutor, maxBytes,
+                engineVersion(engineVersion, buildProperties.getIfAvailable()));
+    }
+
+    /**
+     * @param archiveExecutor runs archive writes, away from the backtest pool
+     * @param maxBytes        estimated size of the results held in memory, least recently used evicted first;
+     *                        zero leaves only the archive
+     * @param engineVersion   version of the backtest engine, to be changed whenever it would give different results
+     */
+    public ResultCache(StrategyService strategyService,
+                       BackTestResultArchive archive,
+                       Executor archiveExecutor,
+                       long maxBytes,
+                       String engineVersion) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Result cache size must not be negative");
+        }
+        this.strategyService = strategyService;
+        this.archive = archive;
+        this.archiveExecutor = archiveExecutor;
+        this.maxBytes = maxBytes;
+        this.configuredVersion = engineVersion;
+    }
+
+    /**
+     * @param datasetContent identifies the bars the request runs on: the hash of an uploaded file, or a stored
+     *                       dataset id with its bar count, since stored datasets only grow
+     */
+    @Nonnull
+    public String key(@Nonnull String datasetContent, @Nonnull BackTestRequest request) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("engine", engineVersion());
+        fields.put("dataset", datasetContent);
+        fields.put("strategy", strategyService.strategyHash(request));
+        fields.put("initialCapital", request.getInitialCapital());
+        fields.put("riskPerTrade", request.getRiskPerTrade());
+        fields.put("allowShort", request.isAllowShort());
+        fields.put("commissionRate", request.getCommissionRate());
+        fields.put("slippagePercent", request.getSlippagePercent());
+        fields.put("maxPositions", request.getMaxPositions());
+        fields.put("startDate", request.getStartDate());
+        fields.put("endDate", request.getEndDate());
+        return CanonicalForm.hash(CanonicalForm.of(fields));
+    }
+
+    @Nonnull
+    public Optional<BackTestResult> get(@Nonnull String key) {
+        synchronized (this) {
+            invalidateOnEngineChange();
+            BackTestResult result = results.get(key);
+            if (result != null) {
+                return Optional.of(result);
+            }
+        }
+        Optional<BackTestResult> archived;
+        try {
+            archived = archive.findByResultKey(key);
+        } catch (RuntimeException e) {
+            log.warn("Failed to look up archived backtest result {}", key, e);
+            return Optional.empty();
+        }
+        archived.ifPresent(result -> {
+            synchronized (this) {
+                hold(key, result);
+            }
+        });
+        return archived;
+    }
+
+    /**
+     * Holds the result of a completed backtest and archives it in the background. The backtest has already
+     * succeeded, so an archiving failure is only logged.
+     */
+    public void put(@Nonnull String key, @Nonnull String datasetId, int barCount,
+                    @Nonnull BackTestRequest request, @Nonnull BackTestResult result) {
+        synchronized (this) {
+            invalidateOnEngineChange();
+            hold(key, result);
+        }
+        archiveExecutor.execute(() -> {
+            try {
+                archive.save(datasetId, barCount, request, result, key);
+            } catch (RuntimeException e) {
+                log.warn("Failed to archive backtest result on dataset {}", datasetId, e);
+            }
+        });
+    }
+
+    /**
+     * Rough heap footprint of a result: its equity curve, its trades and a fixed overhead.
+     */
+    static long estimatedBytes(@Nonnull BackTestResult result) {
+        long curve = result.equityCurve() != null ? (long) result.equityCurve().length * Double.BYTES : 0;
+        long trades = result.trades() != null ? (long) result.trades().size() * TRADE_BYTES : 0;
+        return ENTRY_OVERHEAD_BYTES + curve + trades;
+    }
+
+    @Nonnull
+    static String engineVersion(@Nullable String configured, @Nullable BuildProperties build) {
+        if (configured != null && !configured.isBlank()) {
+            return configured;
+        }
+        return build != null ? build.getVersion() + "@" + build.getTime() : "dev";
+    }
+
+    private void hold(String key, BackTestResult result) {
+        long size = estimatedBytes(result);
+        BackTestResult previous = results.remove(key);
+        if (previous != null) {
+            bytes -= estimatedBytes(previous);
+        }
+        if (size > maxBytes) {
+            return;
+        }
+        results.put(key, result);
+        bytes += size;
+        Iterator<BackTestResult> eldest = results.values().iterator();
+        while (bytes > maxBytes) {
+            bytes -= estimatedBytes(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    private synchronized String engineVersion() {
+        invalidateOnEngineChange();
+        return engineVersion;
+    }
+
+    private void invalidateOnEngineChange() {
+        String current = configuredVersion + "/" + IndicatorEngines.current().name();
+        if (!current.equals(engineVersion)) {
+            if (engineVersion != null) {
+                log.info("Engine version changed from {} to {}, dropping {} cached results",
+                        engineVersion, current, results.size());
+            }
+            results.clear();
+            bytes = 0;
+            engineVersion = current;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.spring_backend.backtester.internal;
+
+import jakarta.annotation.Nonnull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact binary form of the bulky parts of a {@link BackTestResult}, stored as one blob each instead of a row
+ * per point.
+ * <p>
+ * A series is written as the XOR of each value's bits with the previous value's, then deflated: neighbouring
+ * equity values share their sign, exponent and leading mantissa bits, so the XORs are mostly zero bytes and
+ * compress several times better than the raw doubles. Trades are written field by field, with timestamps as
+ * UTC epoch seconds and nanos. Both round-trip exactly, NaN payloads included.
+ */
+final class ResultCodec {
+    private static final int VERSION = 1;
+
+    private ResultCodec() {
+        throw new AssertionError("ResultCodec is a utility class and should not be instantiated");
+    }
+
+    @Nonnull
+    static byte[] encodeSeries(@Nonnull double[] values) {
+        return write(out -> {
+            out.writeInt(values.length);
+            long previous = 0;
+            for (double value : values) {
+                long bits = Double.doubleToRawLongBits(value);
+                out.writeLong(bits ^ previous);
+                previous = bits;
+            }
+        });
+    }
+
+    @Nonnull
+    static double[] decodeSeries(@Nonnull byte[] blob) {
+        return read(blob, in -> {
+            double[] values = new double[in.readInt()];
+            long previous = 0;
+            for (int i = 0; i < values.length; i++) {
+                previous ^= in.readLong();
+                values[i] = Double.longBitsToDouble(previous);
+            }
+            return values;
+        });
+    }
+
+    @Nonnull
+    static byte[] encodeTrades(@Nonnull List<Trade> trades) {
+        return write(out -> {
+            out.writeInt(trades.size());
+            for (Trade trade : trades) {
+                out.writeDouble(trade.entryPrice());
+                out.writeDouble(trade.exitPrice());
+                out.writeDouble(trade.positionSize());
+                out.writeDouble(trade.pnl());
+                out.writeBoolean(trade.date() != null);
+                if (trade.date() != null) {
+                    out.writeLong(trade.date().toEpochSecond(ZoneOffset.UTC));
+                    out.writeInt(trade.date().getNano());
+                }
+            }
+        });
+    }
+
+    @Nonnull
+    static List<Trade> decodeTrades(@Nonnull byte[] blob) {
+        return read(blob, in -> {
+            int count = in.readInt();
+            List<Trade> trades = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                double entryPrice = in.readDouble();
+                double exitPrice = in.readDouble();
+                double positionSize = in.readDouble();
+                double pnl = in.readDouble();
+                LocalDateTime date = in.readBoolean()
+                        ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC)
+                        : null;
+                trades.add(new Trade(entryPrice, exitPrice, positionSize, pnl, date));
+            }
+            return trades;
+        });
+    }
+
+    private static byte[] write(Writer writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            out.writeByte(VERSION);
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static <T> T read(byte[] blob, Reader<T> reader) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(blob)))) {
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported result blob version " + version);
+            }
+            return reader.read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt result blob", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Reader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.spring_backend.backtester.internal;
+
+import com.example.spring_backend.common.PipelineMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Nonnull;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Jackson converter that times the serialization of backtest results.
+ * <p>
+ * Spring Boot replaces its default Jackson converter with this bean, so every other payload is written
+ * exactly as before. Results are tagged with the total number of equity curve points, which dominates
+ * the response size.
+ */
+@Component
+public class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public TimedJsonHttpMessageConverter(@Nonnull ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(@Nonnull Object object, Type type, @Nonnull HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (!(object instanceof List<?> list) || list.isEmpty() || !(list.getFirst() instanceof BackTestResult)) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        Timer.Sample sample = PipelineMetrics.start();
+        super.writeInternal(object, type, outputMessage);
+        PipelineMetrics.stop(sample, PipelineMetrics.SERIALIZATION, equityCurvePoints(list));
+    }
+
+    private static int equityCurvePoints(@Nonnull List<?> results) {
+        int points = 0;
+        for (Object result : results) {
+            if (result instanceof BackTestResult backTestResult && backTestResult.equityCurve() != null) {
+                points += backTestResult.equityCurve().length;
+            }
+        }
+        return points;
+    }
+}
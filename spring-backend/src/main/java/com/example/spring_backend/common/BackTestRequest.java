@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Getter
@@ -28,6 +29,13 @@ public class BackTestRequest {
     private boolean allowShort;
     private double commissionRate;
     private double slippagePercent;
+
+    // Portfolio mode: most positions held at once, each sized to an equal share of equity; 0 means one per symbol
+    private int maxPositions;
+
+    // Optional date range, both days inclusive; the backtest runs on a view of the bars inside it
+    private LocalDate startDate;
+    private LocalDate endDate;
 }
 
 /*
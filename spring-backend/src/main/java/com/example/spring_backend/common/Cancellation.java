@@ -0,0 +1,32 @@
+package com.example.spring_backend.common;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Cooperative cancellation checks for long-running loops.
+ * <p>
+ * Backtests run on pooled threads that get interrupted when their run is cancelled
+ * (client disconnect, request timeout or a failing sibling). Hot loops call
+ * {@link #checkpoint(int)} with their loop index so the interrupt flag is only
+ * polled once every {@link #CHECK_INTERVAL} iterations.
+ */
+public final class Cancellation {
+    public static final int CHECK_INTERVAL = 1 << 14;
+    private static final int CHECK_MASK = CHECK_INTERVAL - 1;
+
+    private Cancellation() {
+        throw new AssertionError("Cancellation is a utility class and should not be instantiated");
+    }
+
+    public static void checkpoint(int index) {
+        if ((index & CHECK_MASK) == 0) {
+            throwIfCancelled();
+        }
+    }
+
+    public static void throwIfCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Backtest work was cancelled");
+        }
+    }
+}
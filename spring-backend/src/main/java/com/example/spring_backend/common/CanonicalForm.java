@@ -0,0 +1,141 @@
+package com.example.spring_backend.common;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Canonical text of request values, so requests that mean the same thing compare and hash the same.
+ * <p>
+ * Numbers are written by value whatever their boxed type ({@code 14}, {@code 14L} and {@code 14.0} all become
+ * {@code 14}), map keys are sorted and a {@link ConditionConfig} is written like the equivalent
+ * {@code {type, parameters}} map. Strings are kept verbatim, since the parameter parsers treat {@code "14"}
+ * and {@code "14.0"} differently. Lists keep their order; callers sort the canonical texts of lists whose
+ * order does not matter, such as the children of an AND.
+ */
+public final class CanonicalForm {
+
+    private CanonicalForm() {
+        throw new AssertionError("CanonicalForm is a utility class and should not be instantiated");
+    }
+
+    @Nonnull
+    public static String of(@Nullable Object value) {
+        StringBuilder out = new StringBuilder();
+        append(out, value);
+        return out.toString();
+    }
+
+    /**
+     * @return the canonical texts of {@code values} in sorted order, for lists whose order carries no meaning
+     */
+    @Nonnull
+    public static List<String> sorted(@Nullable List<?> values) {
+        List<String> texts = new ArrayList<>();
+        if (values != null) {
+            values.forEach(value -> texts.add(of(value)));
+        }
+        texts.sort(null);
+        return texts;
+    }
+
+    /**
+     * @return the hex SHA-256 of {@code canonical}, short enough to key caches and log
+     */
+    @Nonnull
+    public static String hash(@Nonnull String canonical) {
+        return hash(canonical.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the hex SHA-256 of {@code content}, such as an uploaded file
+     */
+    @Nonnull
+    public static String hash(@Nonnull byte[] content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void append(StringBuilder out, Object value) {
+        switch (value) {
+            case null -> out.append("null");
+            case Number number -> out.append(number(number));
+            case Boolean bool -> out.append(bool);
+            case CharSequence text -> appendText(out, text.toString());
+            case Enum<?> constant -> appendText(out, constant.name());
+            case ConditionConfig config -> {
+                Map<String, Object> fields = new HashMap<>();
+                fields.put("type", config.getType());
+                fields.put("parameters", config.getParameters());
+                appendMap(out, fields);
+            }
+            case Map<?, ?> map -> appendMap(out, map);
+            case List<?> list -> {
+                out.append('[');
+                for (int i = 0; i < list.size(); i++) {
+                    if (i > 0) {
+                        out.append(',');
+                    }
+                    append(out, list.get(i));
+                }
+                out.append(']');
+            }
+            default -> appendText(out, value.toString());
+        }
+    }
+
+    private static void appendMap(StringBuilder out, Map<?, ?> map) {
+        Map<String, Object> sorted = new TreeMap<>();
+        map.forEach((key, value) -> sorted.put(String.valueOf(key), value));
+        out.append('{');
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            appendText(out, entry.getKey());
+            out.append(':');
+            append(out, entry.getValue());
+        }
+        out.append('}');
+    }
+
+    private static void appendText(StringBuilder out, String text) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private static String number(Number number) {
+        return switch (number) {
+            case Double d when d.isNaN() || d.isInfinite() -> d.toString();
+            case Float f when f.isNaN() || f.isInfinite() -> f.toString();
+            // A float is written by the double it widens to, which is what the parameter parsers see
+            case Double d -> BigDecimal.valueOf(d).stripTrailingZeros().toPlainString();
+            case Float f -> BigDecimal.valueOf(f.doubleValue()).stripTrailingZeros().toPlainString();
+            case BigDecimal decimal -> decimal.stripTrailingZeros().toPlainString();
+            default -> new BigDecimal(number.toString()).stripTrailingZeros().toPlainString();
+        };
+    }
+}
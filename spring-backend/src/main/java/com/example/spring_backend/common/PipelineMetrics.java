@@ -0,0 +1,77 @@
+package com.example.spring_backend.common;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+
+/**
+ * Micrometer timers for the stages of the backtest pipeline.
+ * <p>
+ * Timers are registered on {@link Metrics#globalRegistry}, which Spring Boot links to the actuator registry,
+ * so plain objects such as {@code Strategy} and the conditions can record without being Spring beans. Every
+ * timer publishes a percentile histogram and is tagged with a bucketed {@value #DATA_SIZE_TAG} to keep the
+ * tag cardinality bounded. Values are exposed under {@code /actuator/metrics/<name>}.
+ */
+public final class PipelineMetrics {
+    public static final String CSV_IMPORT = "backtest.csv.import";
+    public static final String RESAMPLE = "backtest.resample";
+    public static final String CONDITION_EVALUATION = "backtest.condition.evaluation";
+    public static final String STRATEGY_COMPOSITION = "backtest.strategy.composition";
+    public static final String BACKTEST_LOOP = "backtest.loop";
+    public static final String SERIALIZATION = "backtest.serialization";
+
+    public static final String DATA_SIZE_TAG = "data.size";
+    public static final String CONDITION_TYPE_TAG = "condition.type";
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofMinutes(5);
+
+    private PipelineMetrics() {
+        throw new AssertionError("PipelineMetrics is a utility class and should not be instantiated");
+    }
+
+    public static Timer.Sample start() {
+        return Timer.start(Metrics.globalRegistry);
+    }
+
+    /**
+     * Stops the sample against the named stage timer.
+     *
+     * @return the recorded duration in nanoseconds, handy for debug logging
+     */
+    public static long stop(Timer.Sample sample, String stage, int dataSize, String... extraTags) {
+        return sample.stop(timer(stage, Tags.of(extraTags).and(DATA_SIZE_TAG, dataSizeBucket(dataSize))));
+    }
+
+    /**
+     * Condition type tag value, e.g. {@code SMACrossover} for {@code SMACrossoverCondition}.
+     */
+    public static String conditionType(Object condition) {
+        String name = condition.getClass().getSimpleName();
+        return name.endsWith("Condition") && name.length() > "Condition".length()
+                ? name.substring(0, name.length() - "Condition".length())
+                : name;
+    }
+
+    /**
+     * Buckets a row/bar count by order of magnitude so it can be used as a tag.
+     */
+    public static String dataSizeBucket(int size) {
+        if (size < 1_000) return "<1k";
+        if (size < 10_000) return "1k-10k";
+        if (size < 100_000) return "10k-100k";
+        if (size < 1_000_000) return "100k-1M";
+        return ">=1M";
+    }
+
+    private static Timer timer(String stage, Tags tags) {
+        return Timer.builder(stage)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(Metrics.globalRegistry);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.spring_backend.common;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+/**
+ * Micrometer Observations (tracing spans) for the stages of the backtest pipeline.
+ * <p>
+ * Like {@link PipelineMetrics}, this is static so {@code Strategy} and the conditions can open spans without
+ * being Spring beans. The application's {@link ObservationRegistry} is bound at startup; until then, and in
+ * plain unit tests, observations are no-ops. Observations opened on the same thread nest automatically,
+ * work handed to another thread has to name its parent explicitly.
+ */
+public final class PipelineObservations {
+    public static final String ORCHESTRATION = "backtest.orchestration";
+    public static final String SINGLE_BACKTEST = "backtest.single";
+    public static final String CSV_IMPORT = "market.csv.import";
+    public static final String CONDITION_EVALUATION = "strategy.condition.evaluation";
+    public static final String BACKTEST_EXECUTION = "backtest.execution";
+    public static final String PORTFOLIO_EXECUTION = "backtest.portfolio.execution";
+
+    public static final String REQUEST_COUNT_KEY = "request.count";
+    public static final String ROW_COUNT_KEY = "row.count";
+    public static final String TRADE_COUNT_KEY = "trade.count";
+    public static final String SYMBOL_COUNT_KEY = "symbol.count";
+
+    private static volatile ObservationRegistry registry = ObservationRegistry.NOOP;
+
+    private PipelineObservations() {
+        throw new AssertionError("PipelineObservations is a utility class and should not be instantiated");
+    }
+
+    public static void bind(@Nonnull ObservationRegistry observationRegistry) {
+        registry = observationRegistry;
+    }
+
+    public static void reset() {
+        registry = ObservationRegistry.NOOP;
+    }
+
+    @Nonnull
+    public static Observation observation(@Nonnull String name) {
+        return Observation.createNotStarted(name, registry);
+    }
+
+    /**
+     * The observation in scope on the calling thread, to hand to work that continues on another thread.
+     */
+    @Nullable
+    public static Observation currentObservation() {
+        return registry.getCurrentObservation();
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.spring_backend.common.internal;
+
+import com.example.spring_backend.common.PipelineObservations;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ObservationRegistryBinder {
+
+    public ObservationRegistryBinder(ObservationRegistry observationRegistry) {
+        PipelineObservations.bind(observationRegistry);
+    }
+
+    @PreDestroy
+    public void unbind() {
+        PipelineObservations.reset();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.spring_backend.indicators;
+
+import jakarta.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Wilder's directional movement (+DI, -DI, DX and ADX) in one fused pass. True range, directional movement and
+ * the smoothed sums are carried as running scalars, so the only arrays touched are the outputs the caller
+ * asks for; pass {@code null} for a series that is not needed.
+ * <p>
+ * Results are identical to the textbook multi-pass computation: every output is NaN before it is defined,
+ * +DI, -DI and DX from bar {@code period - 1} and ADX from bar {@code 2 * period - 2}.
+ */
+public final class DirectionalMovement {
+
+    private DirectionalMovement() {
+        throw new AssertionError("DirectionalMovement is a utility class and should not be instantiated");
+    }
+
+    /**
+     * Fills whichever of the outputs are non-null over the whole series. Outputs must be at least as long as
+     * the inputs; previous contents are overwritten.
+     */
+    public static void compute(double[] high, double[] low, double[] close, int period,
+                               @Nullable double[] plusDI, @Nullable double[] minusDI,
+                               @Nullable double[] dx, @Nullable double[] adx) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Window size must be greater than 0");
+        }
+        if (high.length != low.length || high.length != close.length) {
+            throw new IllegalArgumentException("High, low, and close arrays must be of the same length");
+        }
+        int length = high.length;
+        int adxStart = 2 * period - 2;
+
+        fillNaN(plusDI, Math.min(period - 1, length));
+        fillNaN(minusDI, Math.min(period - 1, length));
+        fillNaN(dx, Math.min(period - 1, length));
+        fillNaN(adx, Math.min(adxStart, length));
+        if (length < period) {
+            return;
+        }
+
+        double smoothedTR = 0;
+        double smoothedPlusDM = 0;
+        double smoothedMinusDM = 0;
+        double sumDX = 0;
+        double currentADX = Double.NaN;
+
+        for (int i = 0; i < length; i++) {
+            double tr;
+            double plusDM = 0;
+            double minusDM = 0;
+            if (i == 0) {
+                tr = high[0] - low[0];
+            } else {
+                double highLow = high[i] - low[i];
+                double highClose = Math.abs(high[i] - close[i - 1]);
+                double lowClose = Math.abs(low[i] - close[i - 1]);
+                tr = Math.max(highLow, Math.max(highClose, lowClose));
+
+                double upMove = high[i] - high[i - 1];
+                double downMove = low[i - 1] - low[i];
+                if (upMove > downMove && upMove > 0) {
+                    plusDM = upMove;
+                }
+                if (downMove > upMove && downMove > 0) {
+                    minusDM = downMove;
+                }
+            }
+
+            // Plain sums over the first period bars, Wilder smoothing after
+            if (i < period) {
+                smoothedTR += tr;
+                smoothedPlusDM += plusDM;
+                smoothedMinusDM += minusDM;
+                if (i < period - 1) {
+                    continue;
+                }
+            } else {
+                smoothedTR = smoothedTR - (smoothedTR / period) + tr;
+                smoothedPlusDM = smoothedPlusDM - (smoothedPlusDM / period) + plusDM;
+                smoothedMinusDM = smoothedMinusDM - (smoothedMinusDM / period) + minusDM;
+            }
+
+            double currentPlusDI = 0;
+            double currentMinusDI = 0;
+            if (smoothedTR > 0) {
+                currentPlusDI = 100 * (smoothedPlusDM / smoothedTR);
+                currentMinusDI = 100 * (smoothedMinusDM / smoothedTR);
+            }
+            double totalDI = currentPlusDI + currentMinusDI;
+            double currentDX = totalDI > 0 ? 100 * Math.abs(currentPlusDI - currentMinusDI) / totalDI : 0;
+
+            // ADX seeds on the mean of the first period DX values, then smooths the same way
+            if (i < adxStart) {
+                sumDX += currentDX;
+            } else if (i == adxStart) {
+                sumDX += currentDX;
+                currentADX = sumDX / period;
+            } else {
+                currentADX = ((period - 1) * currentADX + currentDX) / period;
+            }
+
+            if (plusDI != null) plusDI[i] = currentPlusDI;
+            if (minusDI != null) minusDI[i] = currentMinusDI;
+            if (dx != null) dx[i] = currentDX;
+            if (adx != null && i >= adxStart) adx[i] = currentADX;
+        }
+    }
+
+    private static void fillNaN(@Nullable double[] values, int to) {
+        if (values != null) {
+            Arrays.fill(values, 0, to, Double.NaN);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.spring_backend.indicators;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * The running-state indicators of {@link IndicatorUtils}, resumable from an {@link IndicatorCheckpoint} at the
+ * end of an earlier, shorter version of the same input.
+ * <p>
+ * A dataset that grows by {@code k} bars only needs the new bars computed: each function copies the previous
+ * series and continues its running state (EMA value, Wilder averages, OBV sum) from the checkpoint's last bar,
+ * so the arithmetic costs {@code O(k)} instead of {@code O(n)}. Without a usable checkpoint it computes from
+ * bar 0. Either way the values are bit-identical to the matching {@link IndicatorUtils} function.
+ * <p>
+ * The caller guarantees that {@code previous} was computed over a prefix of the current input with the same
+ * parameters. A checkpoint longer than the input is ignored. Results are plain arrays rather than
+ * {@link ScratchBuffers}, since checkpoints outlive the pass that computed them.
+ */
+public final class IncrementalIndicators {
+    private IncrementalIndicators() {
+        throw new AssertionError("IncrementalIndicators is a utility class and should not be instantiated");
+    }
+
+    /**
+     * {@link IndicatorUtils#sma}; the window is re-summed for the new bars only.
+     */
+    @Nonnull
+    public static IndicatorCheckpoint sma(@Nonnull double[] prices, int window, @Nullable IndicatorCheckpoint previous) {
+        validateInputs(prices, window);
+        int from = resumeFrom(previous, prices.length, 0);
+        double[] sma = extend(previous, from, prices.length);
+        Arrays.fill(sma, from, prices.length, Double.NaN);
+
+        for (int i = Math.max(from, window - 1); i < prices.length; i++) {
+            boolean hasNaN = false;
+            double sum = 0;
+
+            for (int j = 0; j < window; j++) {
+                if (Double.isNaN(prices[i - j])) {
+                    hasNaN = true;
+                    break;
+                }
+                sum += prices[i - j];
+            }
+
+            if (!hasNaN) {
+                sma[i] = sum / window;
+            }
+        }
+
+        return new IndicatorCheckpoint(sma);
+    }
+
+    /**
+     * {@link IndicatorUtils#ema}. A series shorter than the window is seeded from its first price rather than
+     * its mean, so it is recomputed once the input reaches the window.
+     */
+    @Nonnull
+    public static IndicatorCheckpoint ema(@Nonnull double[] prices, int window, @Nullable IndicatorCheckpoint previous) {
+        validateInputs(prices, window);
+        double alpha = 2.0 / (window + 1);
+
+        if (prices.length < window) {
+            double[] ema = new double[prices.length];
+            ema[0] = prices[0];
+            for (int i = 1; i < prices.length; i++) {
+                ema[i] = alpha * prices[i] + (1 - alpha) * ema[i - 1];
+            }
+            return new IndicatorCheckpoint(ema);
+        }
+
+        int from = resumeFrom(previous, prices.length, window);
+        double[] ema = extend(previous, from, prices.length);
+        if (from == 0) {
+            double sum = 0;
+            for (int i = 0; i < window; i++) {
+                sum += prices[i];
+            }
+            ema[window - 1] = sum / window;
+            Arrays.fill(ema, 0, window - 1, Double.NaN);
+            from = window;
+        }
+
+        for (int i = from; i < prices.length; i++) {
+            ema[i] = alpha * prices[i] + (1 - alpha) * ema[i - 1];
+        }
+
+        return new IndicatorCheckpoint(ema);
+    }
+
+    /**
+     * {@link IndicatorUtils#rsi}, checkpointing the Wilder-smoothed average gain and loss.
+     */
+    @Nonnull
+    public static IndicatorCheckpoint rsi(@Nonnull double[] prices, int window, @Nullable IndicatorCheckpoint previous) {
+        validateInputs(prices, window);
+        if (prices.length <= window) {
+            throw new IllegalArgumentException("Prices array must contain more elements than window size for RSI calculation");
+        }
+
+        int from = resumeFrom(previous, prices.length, window + 1);
+        double[] rsi = extend(previous, from, prices.length);
+        double avgGain;
+        double avgLoss;
+
+        if (from == 0) {
+            avgGain = 0;
+            avgLoss = 0;
+            for (int i = 0; i < window; i++) {
+                double delta = prices[i + 1] - prices[i];
+                avgGain += Math.max(0, delta);
+                avgLoss += Math.max(0, -delta);
+            }
+            avgGain /= window;
+            avgLoss /= window;
+
+            double rs = avgGain / (avgLoss == 0 ? 1e-10 : avgLoss);
+            rsi[window] = 100 - (100 / (1 + rs));
+            Arrays.fill(rsi, 0, window, Double.NaN);
+            from = window + 1;
+        } else {
+            avgGain = previous.state(0);
+            avgLoss = previous.state(1);
+        }
+
+        for (int i = from; i < prices.length; i++) {
+            double delta = prices[i] - prices[i - 1];
+            avgGain = ((window - 1) * avgGain + Math.max(0, delta)) / window;
+            avgLoss = ((window - 1) * avgLoss + Math.max(0, -delta)) / window;
+
+            double rs = avgGain / (avgLoss == 0 ? 1e-10 : avgLoss);
+            rsi[i] = 100 - (100 / (1 + rs));
+        }
+
+        return new IndicatorCheckpoint(rsi, avgGain, avgLoss);
+    }
+
+    /**
+     * {@link IndicatorUtils#atr}; requires at least {@code window} bars.
+     */
+    @Nonnull
+    public static IndicatorCheckpoint atr(@Nonnull double[] high, @Nonnull double[] low, @Nonnull double[] close,
+                                          int window, @Nullable IndicatorCheckpoint previous) {
+        validateInputs(high, window);
+        validateInputs(low, window);
+        validateInputs(close, window);
+        if (high.length != low.length || high.length != close.length) {
+            throw new IllegalArgumentException("High, low, and close arrays must be of the same length");
+        }
+        if (close.length < window) {
+            throw new IllegalArgumentException("Price arrays must contain at least window size elements for ATR calculation");
+        }
+
+        int from = resumeFrom(previous, close.length, window);
+        double[] atr = extend(previous, from, close.length);
+        if (from == 0) {
+            double sum = high[0] - low[0];
+            for (int i = 1; i < window; i++) {
+                sum += trueRange(high, low, close, i);
+            }
+            atr[window - 1] = sum / window;
+            Arrays.fill(atr, 0, window - 1, Double.NaN);
+            from = window;
+        }
+
+        for (int i = from; i < close.length; i++) {
+            atr[i] = ((window - 1) * atr[i - 1] + trueRange(high, low, close, i)) / window;
+        }
+
+        return new IndicatorCheckpoint(atr);
+    }
+
+    /**
+     * {@link IndicatorUtils#obv}, continuing the running sum.
+     */
+    @Nonnull
+    public static IndicatorCheckpoint obv(@Nonnull double[] close, @Nonnull double[] volume,
+                                          @Nullable IndicatorCheckpoint previous) {
+        validateInputs(close, 1);
+        validateInputs(volume, 1);
+        if (close.length != volume.length) {
+            throw new IllegalArgumentException("Close price and volume arrays must be of the same length");
+        }
+
+        int from = resumeFrom(previous, close.length, 1);
+        double[] obv = extend(previous, from, close.length);
+        if (from == 0) {
+            obv[0] = volume[0];
+            from = 1;
+        }
+
+        for (int i = from; i < close.length; i++) {
+            double signed;
+            if (close[i] > close[i - 1]) {
+                signed = volume[i];
+            } else if (close[i] < close[i - 1]) {
+                signed = -volume[i];
+            } else {
+                signed = 0;
+            }
+            obv[i] = signed + obv[i - 1];
+        }
+
+        return new IndicatorCheckpoint(obv);
+    }
+
+    private static double trueRange(double[] high, double[] low, double[] close, int i) {
+        double prevClose = close[i - 1];
+        double range1 = high[i] - low[i];
+        double range2 = Math.abs(high[i] - prevClose);
+        double range3 = Math.abs(low[i] - prevClose);
+        return Math.max(range1, Math.max(range2, range3));
+    }
+
+    /**
+     * The bar to continue from: the end of {@code previous} when it covers at least {@code minLength} bars
+     * and no more than the input, otherwise 0.
+     */
+    private static int resumeFrom(@Nullable IndicatorCheckpoint previous, int length, int minLength) {
+        if (previous == null || previous.length() > length || previous.length() < Math.max(minLength, 1)) {
+            return 0;
+        }
+        return previous.length();
+    }
+
+    private static double[] extend(@Nullable IndicatorCheckpoint previous, int from, int length) {
+        double[] values = new double[length];
+        if (from > 0) {
+            System.arraycopy(previous.values(), 0, values, 0, from);
+        }
+        return values;
+    }
+
+    private static void validateInputs(double[] prices, int window) {
+        if (prices == null) {
+            throw new IllegalArgumentException("Price array cannot be null");
+        }
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window size must be greater than 0");
+        }
+        if (prices.length == 0) {
+            throw new IllegalArgumentException("Price array cannot be empty");
+        }
+    }
+}
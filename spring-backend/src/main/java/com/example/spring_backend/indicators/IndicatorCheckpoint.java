@@ -0,0 +1,37 @@
+package com.example.spring_backend.indicators;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * An indicator series up to its last bar together with the running state needed to continue it; see
+ * {@link IncrementalIndicators}. Both are immutable once built, so a checkpoint can be shared by every
+ * backtest reading the series and extended by any of them.
+ */
+public final class IndicatorCheckpoint {
+    private final double[] values;
+    private final double[] state;
+
+    IndicatorCheckpoint(@Nonnull double[] values, @Nonnull double... state) {
+        this.values = values;
+        this.state = state;
+    }
+
+    /**
+     * The series, one value per input bar; shared, so treat as read-only.
+     */
+    @Nonnull
+    public double[] values() {
+        return values;
+    }
+
+    /**
+     * Number of input bars the series covers.
+     */
+    public int length() {
+        return values.length;
+    }
+
+    double state(int slot) {
+        return state[slot];
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.spring_backend.indicators;
+
+import java.util.Map;
+
+/**
+ * Backend for the indicators that have a native implementation. Results follow {@link IndicatorUtils}:
+ * same warmup NaNs, same map keys, same argument validation.
+ */
+public interface IndicatorEngine {
+    String name();
+
+    double[] sma(double[] prices, int window);
+
+    double[] ema(double[] prices, int window);
+
+    Map<String, double[]> macd(double[] prices, int fast, int slow, int signal);
+}
@@ -0,0 +1,39 @@
+package com.example.spring_backend.indicators;
+
+import com.example.spring_backend.indicators.internal.JavaIndicatorEngine;
+import jakarta.annotation.Nonnull;
+
+/**
+ * The indicator backend selected for this deployment.
+ * <p>
+ * Conditions are plain objects, so the engine is held statically and installed once at startup by the
+ * {@code indicators.engine} setting. Until then, and whenever the native library is unavailable,
+ * it is the pure Java {@link IndicatorUtils} implementation.
+ */
+public final class IndicatorEngines {
+    private static volatile IndicatorEngine current = JavaIndicatorEngine.INSTANCE;
+
+    private IndicatorEngines() {
+        throw new AssertionError("IndicatorEngines is a utility class and should not be instantiated");
+    }
+
+    @Nonnull
+    public static IndicatorEngine current() {
+        return current;
+    }
+
+    /**
+     * Whether the pure Java engine is installed, whose results {@link IncrementalIndicators} reproduces exactly.
+     */
+    public static boolean isDefault() {
+        return current == JavaIndicatorEngine.INSTANCE;
+    }
+
+    public static void install(@Nonnull IndicatorEngine engine) {
+        current = engine;
+    }
+
+    public static void reset() {
+        current = JavaIndicatorEngine.INSTANCE;
+    }
+}
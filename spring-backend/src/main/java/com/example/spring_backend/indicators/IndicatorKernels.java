@@ -0,0 +1,138 @@
+package com.example.spring_backend.indicators;
+
+import com.example.spring_backend.indicators.internal.ScalarKernels;
+import com.example.spring_backend.indicators.internal.SimdKernels;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Element-wise indicator arithmetic and threshold comparisons, vectorized where the platform allows it.
+ * <p>
+ * The SIMD kernels use the incubating Vector API. They are enabled once, at class initialization, when the JVM
+ * was started with {@code --add-modules jdk.incubator.vector}, the CPU offers vectors of at least two doubles,
+ * and {@code -Dindicators.simd=false} is not set. Otherwise every call runs the equivalent scalar loop.
+ * Both paths return identical results, NaN handling included.
+ * <p>
+ * Every kernel writes {@code [from, length)} of its outputs and leaves earlier entries untouched.
+ */
+@Slf4j
+public final class IndicatorKernels {
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final boolean SIMD = detectSimd();
+
+    private IndicatorKernels() {
+        throw new AssertionError("IndicatorKernels is a utility class and should not be instantiated");
+    }
+
+    public static boolean simdEnabled() {
+        return SIMD;
+    }
+
+    /**
+     * Percentage change against the value {@code period} bars earlier. Requires {@code from >= period}.
+     */
+    public static void roc(double[] prices, int period, int from, double[] out) {
+        if (SIMD) {
+            SimdKernels.roc(prices, period, from, out);
+        } else {
+            ScalarKernels.roc(prices, period, from, out);
+        }
+    }
+
+    /**
+     * The volume of each bar, signed by the direction of its close: the OBV increments before the running sum.
+     * Requires {@code from >= 1}.
+     */
+    public static void signedVolume(double[] close, double[] volume, int from, double[] out) {
+        if (SIMD) {
+            SimdKernels.signedVolume(close, volume, from, out);
+        } else {
+            ScalarKernels.signedVolume(close, volume, from, out);
+        }
+    }
+
+    public static void subtract(double[] a, double[] b, int from, double[] out) {
+        if (SIMD) {
+            SimdKernels.subtract(a, b, from, out);
+        } else {
+            ScalarKernels.subtract(a, b, from, out);
+        }
+    }
+
+    /**
+     * {@code middle ± numStd * stdDev}, the Bollinger envelope.
+     */
+    public static void bands(double[] middle, double[] stdDev, double numStd, int from, double[] upper, double[] lower) {
+        if (SIMD) {
+            SimdKernels.bands(middle, stdDev, numStd, from, upper, lower);
+        } else {
+            ScalarKernels.bands(middle, stdDev, numStd, from, upper, lower);
+        }
+    }
+
+    /**
+     * Pivot levels of each bar from the previous bar's prices. Requires {@code from >= 1}.
+     */
+    public static void pivotPoints(double[] high, double[] low, double[] close, double[] open, PivotType type,
+                                   int from, double[] pp, double[] r1, double[] r2, double[] r3,
+                                   double[] s1, double[] s2, double[] s3) {
+        if (SIMD) {
+            SimdKernels.pivotPoints(high, low, close, open, type, from, pp, r1, r2, r3, s1, s2, s3);
+        } else {
+            ScalarKernels.pivotPoints(high, low, close, open, type, from, pp, r1, r2, r3, s1, s2, s3);
+        }
+    }
+
+    /**
+     * {@code values[i] > threshold}; false wherever the value is NaN.
+     */
+    public static void greaterThan(double[] values, double threshold, int from, boolean[] out) {
+        if (SIMD) {
+            SimdKernels.greaterThan(values, threshold, from, out);
+        } else {
+            ScalarKernels.greaterThan(values, threshold, from, out);
+        }
+    }
+
+    /**
+     * {@code values[i] < threshold}; false wherever the value is NaN.
+     */
+    public static void lessThan(double[] values, double threshold, int from, boolean[] out) {
+        if (SIMD) {
+            SimdKernels.lessThan(values, threshold, from, out);
+        } else {
+            ScalarKernels.lessThan(values, threshold, from, out);
+        }
+    }
+
+    /**
+     * Whether the absolute bar-to-bar price change is above (or below) {@code reference[i] * multiplier};
+     * false wherever either side is NaN. Requires {@code from >= 1}.
+     */
+    public static void changeVersusScaled(double[] prices, double[] reference, double multiplier, boolean above,
+                                          int from, boolean[] out) {
+        if (SIMD) {
+            SimdKernels.changeVersusScaled(prices, reference, multiplier, above, from, out);
+        } else {
+            ScalarKernels.changeVersusScaled(prices, reference, multiplier, above, from, out);
+        }
+    }
+
+    private static boolean detectSimd() {
+        if (!Boolean.parseBoolean(System.getProperty("indicators.simd", "true"))) {
+            log.info("SIMD indicator kernels disabled by indicators.simd=false");
+            return false;
+        }
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            log.info("SIMD indicator kernels unavailable, start the JVM with --add-modules {}", VECTOR_MODULE);
+            return false;
+        }
+        try {
+            boolean supported = SimdKernels.isSupported();
+            log.info("SIMD indicator kernels {}", supported ? "enabled" : "unsupported on this CPU");
+            return supported;
+        } catch (LinkageError e) {
+            log.warn("SIMD indicator kernels failed to load: {}", e.toString());
+            return false;
+        }
+    }
+}
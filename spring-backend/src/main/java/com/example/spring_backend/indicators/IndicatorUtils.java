@@ -12,7 +12,7 @@ public final class IndicatorUtils {
     public static double[] sma(double[] prices, int window) {
         validateInputs(prices, window);
 
-        double[] result = new double[prices.length];
+        double[] result = ScratchBuffers.doubles(prices.length);
         Arrays.fill(result, Double.NaN);
 
         for (int i = window - 1; i < prices.length; i++) {
@@ -38,29 +38,38 @@ public final class IndicatorUtils {
     public static double[] ema(double[] prices, int window) {
         validateInputs(prices, window);
 
-        double[] ema = new double[prices.length];
+        double[] ema = ScratchBuffers.doubles(prices.length);
+        ema(prices, 0, window, ema);
+        return ema;
+    }
+
+    /**
+     * EMA of {@code prices[from..]} written to the same range of {@code out}, seeded with the SMA of its first
+     * {@code window} prices; bars before the seed are NaN.
+     */
+    private static void ema(double[] prices, int from, int window, double[] out) {
         double alpha = 2.0 / (window + 1);
 
-        if (prices.length >= window) {
+        if (prices.length - from >= window) {
+            int seed = from + window - 1;
             double sum = 0;
-            for (int i = 0; i < window; i++) {
+            for (int i = from; i <= seed; i++) {
                 sum += prices[i];
             }
-            ema[window - 1] = sum / window;
+            out[seed] = sum / window;
 
-            for (int i = window; i < prices.length; i++) {
-                ema[i] = alpha * prices[i] + (1 - alpha) * ema[i - 1];
+            for (int i = seed + 1; i < prices.length; i++) {
+                out[i] = alpha * prices[i] + (1 - alpha) * out[i - 1];
             }
 
-            Arrays.fill(ema, 0, window - 1, Double.NaN);
+            Arrays.fill(out, 0, seed, Double.NaN);
         } else {
-            ema[0] = prices[0];
-            for (int i = 1; i < prices.length; i++) {
-                ema[i] = alpha * prices[i] + (1 - alpha) * ema[i - 1];
+            Arrays.fill(out, 0, from, Double.NaN);
+            out[from] = prices[from];
+            for (int i = from + 1; i < prices.length; i++) {
+                out[i] = alpha * prices[i] + (1 - alpha) * out[i - 1];
             }
         }
-
-        return ema;
     }
 
     public static double[] rsi(double[] prices) {
@@ -73,9 +82,9 @@ public final class IndicatorUtils {
             throw new IllegalArgumentException("Prices array must contain more elements than window size for RSI calculation");
         }
 
-        double[] rsi = new double[prices.length];
-        double[] gains = new double[prices.length - 1];
-        double[] losses = new double[prices.length - 1];
+        double[] rsi = ScratchBuffers.doubles(prices.length);
+        double[] gains = ScratchBuffers.doubles(prices.length - 1);
+        double[] losses = ScratchBuffers.doubles(prices.length - 1);
 
         for (int i = 0; i < prices.length - 1; i++) {
             double delta = prices[i + 1] - prices[i];
@@ -120,25 +129,17 @@ public final class IndicatorUtils {
         double[] emaFast = ema(prices, fast);
         double[] emaSlow = ema(prices, slow);
 
-        double[] macdLine = new double[prices.length];
-        for (int i = 0; i < prices.length; i++) {
-            if (Double.isNaN(emaFast[i]) || Double.isNaN(emaSlow[i])) {
-                macdLine[i] = Double.NaN;
-            } else {
-                macdLine[i] = emaFast[i] - emaSlow[i];
-            }
-        }
+        // NaN on either side propagates through the subtraction
+        double[] macdLine = ScratchBuffers.doubles(prices.length);
+        IndicatorKernels.subtract(emaFast, emaSlow, 0, macdLine);
 
-        double[] signalLine = ema(macdLine, signal);
+        // The first slow - 1 MACD values are NaN, so the signal EMA is seeded from the first defined one
+        int start = prices.length >= slow ? slow - 1 : 0;
+        double[] signalLine = ScratchBuffers.doubles(prices.length);
+        ema(macdLine, start, signal, signalLine);
 
-        double[] histogram = new double[prices.length];
-        for (int i = 0; i < prices.length; i++) {
-            if (Double.isNaN(macdLine[i]) || Double.isNaN(signalLine[i])) {
-                histogram[i] = Double.NaN;
-            } else {
-                histogram[i] = macdLine[i] - signalLine[i];
-            }
-        }
+        double[] histogram = ScratchBuffers.doubles(prices.length);
+        IndicatorKernels.subtract(macdLine, signalLine, 0, histogram);
 
         Map<String, double[]> result = new HashMap<>();
         result.put("macdLine", macdLine);
@@ -161,8 +162,8 @@ public final class IndicatorUtils {
             throw new IllegalArgumentException("High, low, and close arrays must be of the same length");
         }
 
-        double[] atr = new double[close.length];
-        double[] tr = new double[close.length];
+        double[] atr = ScratchBuffers.doubles(close.length);
+        double[] tr = ScratchBuffers.doubles(close.length);
 
         tr[0] = high[0] - low[0];
 
@@ -198,9 +199,9 @@ public final class IndicatorUtils {
         validateInputs(prices, window);
 
         double[] sma = sma(prices, window);
-        double[] upper = new double[prices.length];
-        double[] lower = new double[prices.length];
-        double[] stdDevs = new double[prices.length];
+        double[] upper = ScratchBuffers.doubles(prices.length);
+        double[] lower = ScratchBuffers.doubles(prices.length);
+        double[] stdDevs = ScratchBuffers.doubles(prices.length);
 
         for (int i = window - 1; i < prices.length; i++) {
             double sumSquaredDiff = 0;
@@ -208,12 +209,9 @@ public final class IndicatorUtils {
                 double diff = prices[j] - sma[i];
                 sumSquaredDiff += diff * diff;
             }
-            double stdDev = Math.sqrt(sumSquaredDiff / window);
-            stdDevs[i] = stdDev;
-
-            upper[i] = sma[i] + (numStd * stdDev);
-            lower[i] = sma[i] - (numStd * stdDev);
+            stdDevs[i] = Math.sqrt(sumSquaredDiff / window);
         }
+        IndicatorKernels.bands(sma, stdDevs, numStd, window - 1, upper, lower);
 
         Arrays.fill(upper, 0, window - 1, Double.NaN);
         Arrays.fill(lower, 0, window - 1, Double.NaN);
@@ -230,12 +228,10 @@ public final class IndicatorUtils {
     public static double[] roc(double[] prices, int period) {
         validateInputs(prices, period);
 
-        double[] roc = new double[prices.length];
+        double[] roc = ScratchBuffers.doubles(prices.length);
         Arrays.fill(roc, 0, period, Double.NaN);
 
-        for (int i = period; i < prices.length; i++) {
-            roc[i] = ((prices[i] - prices[i - period]) / prices[i - period]) * 100;
-        }
+        IndicatorKernels.roc(prices, period, period, roc);
 
         return roc;
     }
@@ -249,7 +245,7 @@ public final class IndicatorUtils {
             throw new IllegalArgumentException("High, low, and close arrays must be of the same length");
         }
 
-        double[] percentK = new double[close.length];
+        double[] percentK = ScratchBuffers.doubles(close.length);
         Arrays.fill(percentK, 0, kPeriod - 1, Double.NaN);
 
         for (int i = kPeriod - 1; i < close.length; i++) {
@@ -289,11 +285,11 @@ public final class IndicatorUtils {
         }
 
         int length = high.length;
-        double[] tenkanSen = new double[length];
-        double[] kijunSen = new double[length];
-        double[] senkouSpanA = new double[length];
-        double[] senkouSpanB = new double[length];
-        double[] chikouSpan = new double[length];
+        double[] tenkanSen = ScratchBuffers.doubles(length);
+        double[] kijunSen = ScratchBuffers.doubles(length);
+        double[] senkouSpanA = ScratchBuffers.doubles(length);
+        double[] senkouSpanB = ScratchBuffers.doubles(length);
+        double[] chikouSpan = ScratchBuffers.doubles(length);
 
         for (int i = tenkanPeriod - 1; i < length; i++) {
             double highestHigh = Double.NEGATIVE_INFINITY;
@@ -365,17 +361,12 @@ public final class IndicatorUtils {
             throw new IllegalArgumentException("Close price and volume arrays must be of the same length");
         }
 
-        double[] obv = new double[close.length];
-        obv[0] = volume[0];
+        double[] obv = ScratchBuffers.doubles(close.length);
+        IndicatorKernels.signedVolume(close, volume, 1, obv);
 
+        obv[0] = volume[0];
         for (int i = 1; i < close.length; i++) {
-            if (close[i] > close[i - 1]) {
-                obv[i] = obv[i - 1] + volume[i];
-            } else if (close[i] < close[i - 1]) {
-                obv[i] = obv[i - 1] - volume[i];
-            } else {
-                obv[i] = obv[i - 1];
-            }
+            obv[i] += obv[i - 1];
         }
 
         return obv;
@@ -393,13 +384,13 @@ public final class IndicatorUtils {
 
         int length = high.length;
 
-        double[] pp = new double[length];
-        double[] r1 = new double[length];
-        double[] r2 = new double[length];
-        double[] r3 = new double[length];
-        double[] s1 = new double[length];
-        double[] s2 = new double[length];
-        double[] s3 = new double[length];
+        double[] pp = ScratchBuffers.doubles(length);
+        double[] r1 = ScratchBuffers.doubles(length);
+        double[] r2 = ScratchBuffers.doubles(length);
+        double[] r3 = ScratchBuffers.doubles(length);
+        double[] s1 = ScratchBuffers.doubles(length);
+        double[] s2 = ScratchBuffers.doubles(length);
+        double[] s3 = ScratchBuffers.doubles(length);
 
         Arrays.fill(pp, 0, 1, Double.NaN);
         Arrays.fill(r1, 0, 1, Double.NaN);
@@ -409,77 +400,7 @@ public final class IndicatorUtils {
         Arrays.fill(s2, 0, 1, Double.NaN);
         Arrays.fill(s3, 0, 1, Double.NaN);
 
-        for (int i = 1; i < length; i++) {
-            double prevHigh = high[i - 1];
-            double prevLow = low[i - 1];
-            double prevClose = close[i - 1];
-            double prevOpen = open[i - 1];
-            double range = prevHigh - prevLow;
-
-            switch (type) {
-                case STANDARD:
-                    pp[i] = (prevHigh + prevLow + prevClose) / 3;
-                    r1[i] = 2 * pp[i] - prevLow;
-                    s1[i] = 2 * pp[i] - prevHigh;
-                    r2[i] = pp[i] + range;
-                    s2[i] = pp[i] - range;
-                    r3[i] = prevHigh + 2 * (pp[i] - prevLow);
-                    s3[i] = prevLow - 2 * (prevHigh - pp[i]);
-                    break;
-
-                case FIBONACCI:
-                    pp[i] = (prevHigh + prevLow + prevClose) / 3;
-                    r1[i] = pp[i] + 0.382 * range;
-                    s1[i] = pp[i] - 0.382 * range;
-                    r2[i] = pp[i] + 0.618 * range;
-                    s2[i] = pp[i] - 0.618 * range;
-                    r3[i] = pp[i] + range;
-                    s3[i] = pp[i] - range;
-                    break;
-
-                case CAMARILLA:
-                    pp[i] = (prevHigh + prevLow + prevClose) / 3;
-                    double factor = 1.1 * range;
-                    r1[i] = prevClose + factor / 12;
-                    s1[i] = prevClose - factor / 12;
-                    r2[i] = prevClose + factor / 6;
-                    s2[i] = prevClose - factor / 6;
-                    r3[i] = prevClose + factor / 4;
-                    s3[i] = prevClose - factor / 4;
-                    break;
-
-                case WOODIE:
-                    pp[i] = (prevHigh + prevLow + 2 * prevClose) / 4;
-                    r1[i] = 2 * pp[i] - prevLow;
-                    s1[i] = 2 * pp[i] - prevHigh;
-                    r2[i] = pp[i] + range;
-                    s2[i] = pp[i] - range;
-                    r3[i] = prevHigh + 2 * (pp[i] - prevLow);
-                    s3[i] = prevLow - 2 * (prevHigh - pp[i]);
-                    break;
-
-                case DEMARK:
-                    double x;
-                    if (prevClose < prevOpen) {
-                        x = prevHigh + 2 * prevLow + prevClose;
-                    } else if (prevClose > prevOpen) {
-                        x = 2 * prevHigh + prevLow + prevClose;
-                    } else {
-                        x = prevHigh + prevLow + 2 * prevClose;
-                    }
-                    pp[i] = x / 4;
-                    r1[i] = x / 2 - prevLow;
-                    s1[i] = x / 2 - prevHigh;
-                    r2[i] = pp[i] + (r1[i] - pp[i]);
-                    s2[i] = pp[i] - (pp[i] - s1[i]);
-                    r3[i] = r1[i] + (r1[i] - pp[i]);
-                    s3[i] = s1[i] - (pp[i] - s1[i]);
-                    break;
-
-                default:
-                    throw new IllegalArgumentException("Unsupported pivot point type: " + type);
-            }
-        }
+        IndicatorKernels.pivotPoints(high, low, close, open, type, 1, pp, r1, r2, r3, s1, s2, s3);
 
         Map<String, double[]> result = new HashMap<>();
         result.put("PP", pp);
@@ -507,7 +428,7 @@ public final class IndicatorUtils {
         Map<String, double[]> result = new HashMap<>();
 
         for (double level : levels) {
-            result.put("level_" + level, new double[length]);
+            result.put("level_" + level, ScratchBuffers.doubles(length));
         }
 
         for (double level : levels) {
@@ -547,113 +468,12 @@ public final class IndicatorUtils {
         }
 
         int length = high.length;
+        double[] plusDI = ScratchBuffers.doubles(length);
+        double[] minusDI = ScratchBuffers.doubles(length);
+        double[] dx = ScratchBuffers.doubles(length);
+        double[] adx = ScratchBuffers.doubles(length);
 
-        double[] tr = new double[length];
-        double[] plusDM = new double[length];
-        double[] minusDM = new double[length];
-
-        tr[0] = high[0] - low[0];
-        plusDM[0] = 0;
-        minusDM[0] = 0;
-
-        for (int i = 1; i < length; i++) {
-            double highLow = high[i] - low[i];
-            double highClose = Math.abs(high[i] - close[i-1]);
-            double lowClose = Math.abs(low[i] - close[i-1]);
-            tr[i] = Math.max(highLow, Math.max(highClose, lowClose));
-
-            double upMove = high[i] - high[i-1];
-            double downMove = low[i-1] - low[i];
-
-            if (upMove > downMove && upMove > 0) {
-                plusDM[i] = upMove;
-            } else {
-                plusDM[i] = 0;
-            }
-
-            if (downMove > upMove && downMove > 0) {
-                minusDM[i] = downMove;
-            } else {
-                minusDM[i] = 0;
-            }
-        }
-
-        double[] trPeriod = new double[length];
-        double[] plusDMPeriod = new double[length];
-        double[] minusDMPeriod = new double[length];
-        double[] plusDI = new double[length];
-        double[] minusDI = new double[length];
-        double[] dx = new double[length];
-        double[] adx = new double[length];
-
-        Arrays.fill(plusDI, Double.NaN);
-        Arrays.fill(minusDI, Double.NaN);
-        Arrays.fill(dx, Double.NaN);
-        Arrays.fill(adx, Double.NaN);
-
-        if (length >= period) {
-            double sumTR = 0;
-            double sumPlusDM = 0;
-            double sumMinusDM = 0;
-
-            for (int i = 0; i < period; i++) {
-                sumTR += tr[i];
-                sumPlusDM += plusDM[i];
-                sumMinusDM += minusDM[i];
-            }
-
-            trPeriod[period-1] = sumTR;
-            plusDMPeriod[period-1] = sumPlusDM;
-            minusDMPeriod[period-1] = sumMinusDM;
-
-            if (trPeriod[period-1] > 0) {
-                plusDI[period-1] = 100 * (plusDMPeriod[period-1] / trPeriod[period-1]);
-                minusDI[period-1] = 100 * (minusDMPeriod[period-1] / trPeriod[period-1]);
-            } else {
-                plusDI[period-1] = 0;
-                minusDI[period-1] = 0;
-            }
-
-            double totalDI = plusDI[period - 1] + minusDI[period - 1];
-            if (totalDI > 0) {
-                dx[period-1] = 100 * Math.abs(plusDI[period-1] - minusDI[period-1]) / totalDI;
-            } else {
-                dx[period-1] = 0;
-            }
-
-            for (int i = period; i < length; i++) {
-                trPeriod[i] = trPeriod[i-1] - (trPeriod[i-1] / period) + tr[i];
-                plusDMPeriod[i] = plusDMPeriod[i-1] - (plusDMPeriod[i-1] / period) + plusDM[i];
-                minusDMPeriod[i] = minusDMPeriod[i-1] - (minusDMPeriod[i-1] / period) + minusDM[i];
-
-                if (trPeriod[i] > 0) {
-                    plusDI[i] = 100 * (plusDMPeriod[i] / trPeriod[i]);
-                    minusDI[i] = 100 * (minusDMPeriod[i] / trPeriod[i]);
-                } else {
-                    plusDI[i] = 0;
-                    minusDI[i] = 0;
-                }
-
-                if (plusDI[i] + minusDI[i] > 0) {
-                    dx[i] = 100 * Math.abs(plusDI[i] - minusDI[i]) / (plusDI[i] + minusDI[i]);
-                } else {
-                    dx[i] = 0;
-                }
-            }
-        }
-
-        if (length >= 2 * period - 1) {
-            double sumDX = 0;
-            for (int i = period - 1; i < 2 * period - 1; i++) {
-                sumDX += dx[i];
-            }
-
-            adx[2 * period - 2] = sumDX / period;
-
-            for (int i = 2 * period - 1; i < length; i++) {
-                adx[i] = ((period - 1) * adx[i-1] + dx[i]) / period;
-            }
-        }
+        DirectionalMovement.compute(high, low, close, period, plusDI, minusDI, dx, adx);
 
         Map<String, double[]> result = new HashMap<>();
         result.put("plusDI", plusDI);
@@ -0,0 +1,60 @@
+package com.example.spring_backend.indicators;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Position of the highest or lowest value in a trailing window, for every bar, in {@code O(n)}: a monotonic
+ * queue of candidate bars replaces rescanning the window. Ties keep the earliest bar and NaN values are never
+ * candidates, matching a forward scan with a strict comparison.
+ */
+public final class RollingExtremes {
+
+    private RollingExtremes() {
+        throw new AssertionError("RollingExtremes is a utility class and should not be instantiated");
+    }
+
+    /**
+     * For every bar {@code i}, the bar of the maximum over {@code [i - window + 1, i]} (clipped at 0), or -1
+     * when the window holds only NaN.
+     */
+    @Nonnull
+    public static int[] argMax(@Nonnull double[] values, int window) {
+        return scan(values, window, true);
+    }
+
+    /**
+     * For every bar {@code i}, the bar of the minimum over {@code [i - window + 1, i]} (clipped at 0), or -1
+     * when the window holds only NaN.
+     */
+    @Nonnull
+    public static int[] argMin(@Nonnull double[] values, int window) {
+        return scan(values, window, false);
+    }
+
+    private static int[] scan(double[] values, int window, boolean max) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be positive, got " + window);
+        }
+        int length = values.length;
+        int[] result = new int[length];
+        // Bars enter once and leave once, so a flat array with two cursors is enough for the queue
+        int[] queue = new int[length];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < length; i++) {
+            double value = values[i];
+            if (!Double.isNaN(value)) {
+                // Drop candidates strictly beaten by the new bar; equal ones stay ahead of it
+                while (tail > head && (max ? values[queue[tail - 1]] < value : values[queue[tail - 1]] > value)) {
+                    tail--;
+                }
+                queue[tail++] = i;
+            }
+            while (tail > head && queue[head] <= i - window) {
+                head++;
+            }
+            result[i] = tail > head ? queue[head] : -1;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.spring_backend.indicators;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reusable full-length {@code double[]} and {@code boolean[]} buffers for indicator series and intermediate
+ * signals.
+ * <p>
+ * Every backtest allocates dozens of series-sized arrays that die as soon as its signals are known; on long
+ * series each one is a humongous allocation. Buffers borrowed here come from a process-wide pool keyed by
+ * length and are always zero-filled, so they can replace {@code new double[length]} directly. A buffer borrowed
+ * while an {@link Arena} is bound to the thread goes back to the pool once the last thread using that arena
+ * leaves it; anything else may be handed back with {@link #release} or simply dropped.
+ * <p>
+ * Arrays shorter than {@value #MIN_POOLED_LENGTH} elements are cheap to allocate and are never pooled. The pool
+ * retains at most {@code -Dindicators.scratch.maxBytes} bytes (256 MiB by default), evicting buffers of other
+ * lengths first when a new series size comes along.
+ */
+public final class ScratchBuffers {
+    public static final int MIN_POOLED_LENGTH = 1 << 14;
+    private static final long MAX_RETAINED_BYTES = Long.getLong("indicators.scratch.maxBytes", 256L << 20);
+
+    private static final Map<Integer, Queue<double[]>> DOUBLES = new ConcurrentHashMap<>();
+    private static final Map<Integer, Queue<boolean[]>> BOOLEANS = new ConcurrentHashMap<>();
+    private static final AtomicLong retainedBytes = new AtomicLong();
+    private static final ThreadLocal<Arena> CURRENT = new ThreadLocal<>();
+
+    private ScratchBuffers() {
+        throw new AssertionError("ScratchBuffers is a utility class and should not be instantiated");
+    }
+
+    /**
+     * A zero-filled {@code double[length]}, recycled when the pool has one.
+     */
+    @Nonnull
+    public static double[] doubles(int length) {
+        if (length < MIN_POOLED_LENGTH) {
+            return new double[length];
+        }
+        double[] buffer = poll(DOUBLES, length, (long) length * Double.BYTES);
+        if (buffer == null) {
+            buffer = new double[length];
+        } else {
+            Arrays.fill(buffer, 0.0);
+        }
+        track(buffer);
+        return buffer;
+    }
+
+    /**
+     * A zero-filled {@code boolean[length]}, recycled when the pool has one.
+     */
+    @Nonnull
+    public static boolean[] booleans(int length) {
+        if (length < MIN_POOLED_LENGTH) {
+            return new boolean[length];
+        }
+        boolean[] buffer = poll(BOOLEANS, length, length);
+        if (buffer == null) {
+            buffer = new boolean[length];
+        } else {
+            Arrays.fill(buffer, false);
+        }
+        track(buffer);
+        return buffer;
+    }
+
+    /**
+     * Hands {@code buffer} back to the pool. The caller must hold the only remaining reference to it and must
+     * not have borrowed it under an arena, which releases its buffers itself.
+     */
+    public static void release(@Nonnull double[] buffer) {
+        if (buffer.length >= MIN_POOLED_LENGTH) {
+            offer(DOUBLES, buffer.length, buffer, (long) buffer.length * Double.BYTES);
+        }
+    }
+
+    /**
+     * Hands {@code buffer} back to the pool; see {@link #release(double[])}.
+     */
+    public static void release(@Nonnull boolean[] buffer) {
+        if (buffer.length >= MIN_POOLED_LENGTH) {
+            offer(BOOLEANS, buffer.length, buffer, buffer.length);
+        }
+    }
+
+    /**
+     * Bytes currently held by the pool.
+     */
+    public static long retainedBytes() {
+        return retainedBytes.get();
+    }
+
+    /**
+     * A new arena, held by the caller until {@link Arena#close()}.
+     */
+    @Nonnull
+    public static Arena arena() {
+        return new Arena();
+    }
+
+    /**
+     * Makes {@code arena} collect the buffers borrowed on the calling thread, e.g. a worker computing series
+     * for a shared pass; closing the scope restores the previous arena. Binding an arena that was already
+     * released, or {@code null}, leaves the thread without one.
+     */
+    @Nonnull
+    public static Scope bind(@Nullable Arena arena) {
+        Arena bound = arena != null && arena.retain() ? arena : null;
+        Arena previous = CURRENT.get();
+        CURRENT.set(bound);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+            if (bound != null) {
+                bound.close();
+            }
+        };
+    }
+
+    private static void track(Object buffer) {
+        Arena arena = CURRENT.get();
+        if (arena != null) {
+            arena.borrowed.add(buffer);
+        }
+    }
+
+    private static <T> T poll(Map<Integer, Queue<T>> pool, int length, long bytes) {
+        Queue<T> free = pool.get(length);
+        T buffer = free == null ? null : free.poll();
+        if (buffer != null) {
+            retainedBytes.addAndGet(-bytes);
+        }
+        return buffer;
+    }
+
+    private static <T> void offer(Map<Integer, Queue<T>> pool, int length, T buffer, long bytes) {
+        if (bytes > MAX_RETAINED_BYTES || !makeRoom(bytes, length)) {
+            return;
+        }
+        pool.computeIfAbsent(length, key -> new ConcurrentLinkedQueue<>()).add(buffer);
+    }
+
+    private static boolean makeRoom(long bytes, int keepLength) {
+        while (true) {
+            long retained = retainedBytes.get();
+            if (retained + bytes <= MAX_RETAINED_BYTES) {
+                if (retainedBytes.compareAndSet(retained, retained + bytes)) {
+                    return true;
+                }
+                continue;
+            }
+            // Buffers of other lengths belong to series that are no longer being run
+            if (!evictOne(DOUBLES, keepLength, Double.BYTES) && !evictOne(BOOLEANS, keepLength, 1)) {
+                return false;
+            }
+        }
+    }
+
+    private static <T> boolean evictOne(Map<Integer, Queue<T>> pool, int keepLength, int elementBytes) {
+        for (Map.Entry<Integer, Queue<T>> entry : pool.entrySet()) {
+            if (entry.getKey() != keepLength && entry.getValue().poll() != null) {
+                retainedBytes.addAndGet(-(long) entry.getKey() * elementBytes);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects the buffers borrowed by the threads bound to it and returns them to the pool when the last of
+     * them, the creator included, has closed its hold. Anything borrowed under an arena must not be read after
+     * that point.
+     */
+    public static final class Arena implements AutoCloseable {
+        private final Queue<Object> borrowed = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger holders = new AtomicInteger(1);
+
+        private Arena() {
+        }
+
+        private boolean retain() {
+            int current;
+            do {
+                current = holders.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!holders.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        @Override
+        public void close() {
+            if (holders.decrementAndGet() != 0) {
+                return;
+            }
+            for (Object buffer = borrowed.poll(); buffer != null; buffer = borrowed.poll()) {
+                switch (buffer) {
+                    case double[] values -> release(values);
+                    case boolean[] values -> release(values);
+                    default -> throw new IllegalStateException("Unexpected scratch buffer " + buffer.getClass());
+                }
+            }
+        }
+    }
+
+    /**
+     * Binding of an arena to the calling thread; closing it restores the previous one.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
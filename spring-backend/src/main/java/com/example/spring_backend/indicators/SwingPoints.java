@@ -0,0 +1,74 @@
+package com.example.spring_backend.indicators;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.Arrays;
+
+/**
+ * Index of the swing points of a series: strict local minima and maxima against both neighbours, in ascending
+ * bar order. Built in one pass; pattern conditions then walk it with {@link #latest} instead of searching a
+ * window around every bar.
+ * <p>
+ * A swing at bar {@code i} compares against bar {@code i + 1}, so it is only confirmed one bar later; {@link #latest}
+ * therefore only counts it from bar {@code i + 1} on.
+ */
+public final class SwingPoints {
+    private final int[] lows;
+    private final int[] highs;
+
+    private SwingPoints(int[] lows, int[] highs) {
+        this.lows = lows;
+        this.highs = highs;
+    }
+
+    @Nonnull
+    public static SwingPoints of(@Nonnull double[] values) {
+        int[] lows = new int[Math.max(values.length / 2, 1)];
+        int[] highs = new int[Math.max(values.length / 2, 1)];
+        int lowCount = 0;
+        int highCount = 0;
+        for (int i = 1; i < values.length - 1; i++) {
+            double value = values[i];
+            if (value < values[i - 1] && value < values[i + 1]) {
+                lows[lowCount++] = i;
+            } else if (value > values[i - 1] && value > values[i + 1]) {
+                highs[highCount++] = i;
+            }
+        }
+        return new SwingPoints(Arrays.copyOf(lows, lowCount), Arrays.copyOf(highs, highCount));
+    }
+
+    /**
+     * Bars of the local minima, ascending; shared, so treat as read-only.
+     */
+    @Nonnull
+    public int[] lows() {
+        return lows;
+    }
+
+    /**
+     * Bars of the local maxima, ascending; shared, so treat as read-only.
+     */
+    @Nonnull
+    public int[] highs() {
+        return highs;
+    }
+
+    /**
+     * For every bar in {@code [0, length)}, the position in {@code swings} of the latest swing confirmed by it,
+     * that is strictly before it, or -1 when there is none yet. One pointer advance per bar, so {@code O(length + swings)}; the swing
+     * before it is simply at position minus one.
+     */
+    @Nonnull
+    public static int[] latest(@Nonnull int[] swings, int length) {
+        int[] latest = new int[length];
+        int position = -1;
+        for (int i = 0; i < length; i++) {
+            while (position + 1 < swings.length && swings[position + 1] < i) {
+                position++;
+            }
+            latest[i] = position;
+        }
+        return latest;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.spring_backend.indicators.internal;
+
+import com.example.spring_backend.indicators.IndicatorEngine;
+import com.example.spring_backend.indicators.IndicatorEngines;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Installs the indicator engine chosen by {@code indicators.engine}: {@code java} (the default) or
+ * {@code native}, the Rust library bridged through FFM.
+ * <p>
+ * {@link NativeIndicatorEngine} is compiled on its own with {@code --enable-preview} so the rest of the
+ * application runs without the flag, and is therefore only ever loaded by name. A missing library,
+ * a missing symbol or a JVM without preview features all leave the Java engine in place.
+ */
+@Slf4j
+@Component
+public class IndicatorEngineSelector {
+    static final String NATIVE_ENGINE_CLASS = "com.example.spring_backend.indicators.internal.NativeIndicatorEngine";
+
+    private final IndicatorEngine engine;
+
+    public IndicatorEngineSelector(
+            @Value("${indicators.engine:java}") String engineName,
+            @Value("${indicators.native.library-path:}") String libraryPath) {
+        this.engine = select(engineName, libraryPath);
+        IndicatorEngines.install(engine);
+        log.info("Using the {} indicator engine", engine.name());
+    }
+
+    public IndicatorEngine engine() {
+        return engine;
+    }
+
+    @PreDestroy
+    public void release() throws Exception {
+        IndicatorEngines.reset();
+        if (engine instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    static IndicatorEngine select(String engineName, @Nullable String libraryPath) {
+        if (!"native".equalsIgnoreCase(engineName)) {
+            if (!"java".equalsIgnoreCase(engineName)) {
+                log.warn("Unknown indicator engine '{}', using java", engineName);
+            }
+            return JavaIndicatorEngine.INSTANCE;
+        }
+
+        try {
+            return loadNative(libraryPath == null || libraryPath.isBlank() ? null : Path.of(libraryPath));
+        } catch (LinkageError | RuntimeException | ReflectiveOperationException e) {
+            log.warn("Native indicator engine unavailable, falling back to java: {}", e.toString());
+            return JavaIndicatorEngine.INSTANCE;
+        }
+    }
+
+    /**
+     * @throws UnsupportedClassVersionError if the JVM was started without {@code --enable-preview}
+     */
+    static IndicatorEngine loadNative(@Nullable Path libraryPath) throws ReflectiveOperationException {
+        Class<?> nativeEngine = Class.forName(NATIVE_ENGINE_CLASS);
+        try {
+            return (IndicatorEngine) nativeEngine.getMethod("load", Path.class).invoke(null, libraryPath);
+        } catch (java.lang.reflect.InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.spring_backend.indicators.internal;
+
+import com.example.spring_backend.indicators.IndicatorEngine;
+import com.example.spring_backend.indicators.IndicatorUtils;
+
+import java.util.Map;
+
+public final class JavaIndicatorEngine implements IndicatorEngine {
+    public static final JavaIndicatorEngine INSTANCE = new JavaIndicatorEngine();
+
+    private JavaIndicatorEngine() {
+    }
+
+    @Override
+    public String name() {
+        return "java";
+    }
+
+    @Override
+    public double[] sma(double[] prices, int window) {
+        return IndicatorUtils.sma(prices, window);
+    }
+
+    @Override
+    public double[] ema(double[] prices, int window) {
+        return IndicatorUtils.ema(prices, window);
+    }
+
+    @Override
+    public Map<String, double[]> macd(double[] prices, int fast, int slow, int signal) {
+        return IndicatorUtils.macd(prices, fast, slow, signal);
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.spring_backend.indicators.internal;
+
+import com.example.spring_backend.indicators.IndicatorEngine;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SymbolLookup;
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_DOUBLE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+/**
+ * Indicators computed by the Rust {@code rust_native} library through the Foreign Function & Memory API.
+ * <p>
+ * The library exports C-ABI kernels that write into caller-provided buffers. The {@code *Into} methods take
+ * off-heap {@link MemorySegment} columns and hand them to Rust as they are, without copying. The
+ * {@code double[]} methods of {@link IndicatorEngine} stage the input and outputs in a confined arena.
+ * <p>
+ * FFM is a preview API in Java 21, so this class only loads on a JVM started with {@code --enable-preview}.
+ * {@link IndicatorEngineSelector} treats that like a missing library and falls back to Java.
+ */
+public final class NativeIndicatorEngine implements IndicatorEngine, AutoCloseable {
+    public static final String LIBRARY_NAME = "rust_native";
+
+    private static final int STATUS_OK = 0;
+
+    private final Arena libraryArena;
+    private final MethodHandle sma;
+    private final MethodHandle ema;
+    private final MethodHandle macd;
+
+    private NativeIndicatorEngine(Arena libraryArena, SymbolLookup lookup) {
+        Linker linker = Linker.nativeLinker();
+        FunctionDescriptor singleSeries = FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_LONG, JAVA_LONG, ADDRESS);
+
+        this.libraryArena = libraryArena;
+        this.sma = linker.downcallHandle(find(lookup, "rn_sma"), singleSeries);
+        this.ema = linker.downcallHandle(find(lookup, "rn_ema"), singleSeries);
+        this.macd = linker.downcallHandle(find(lookup, "rn_macd"), FunctionDescriptor.of(JAVA_INT,
+                ADDRESS, JAVA_LONG, JAVA_LONG, JAVA_LONG, JAVA_LONG, ADDRESS, ADDRESS, ADDRESS));
+    }
+
+    /**
+     * Loads the library from {@code libraryPath}, or by name from the platform's library search path.
+     *
+     * @throws IllegalArgumentException if the library or one of its symbols cannot be found
+     */
+    @Nonnull
+    public static NativeIndicatorEngine load(@Nullable Path libraryPath) {
+        Arena arena = Arena.ofShared();
+        try {
+            SymbolLookup lookup = libraryPath != null
+                    ? SymbolLookup.libraryLookup(libraryPath, arena)
+                    : SymbolLookup.libraryLookup(System.mapLibraryName(LIBRARY_NAME), arena);
+            return new NativeIndicatorEngine(arena, lookup);
+        } catch (RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public String name() {
+        return "native";
+    }
+
+    @Override
+    public double[] sma(double[] prices, int window) {
+        validateInputs(prices, window);
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment in = arena.allocateArray(JAVA_DOUBLE, prices);
+            MemorySegment out = arena.allocateArray(JAVA_DOUBLE, prices.length);
+            smaInto(in, window, out);
+            return out.toArray(JAVA_DOUBLE);
+        }
+    }
+
+    @Override
+    public double[] ema(double[] prices, int window) {
+        validateInputs(prices, window);
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment in = arena.allocateArray(JAVA_DOUBLE, prices);
+            MemorySegment out = arena.allocateArray(JAVA_DOUBLE, prices.length);
+            emaInto(in, window, out);
+            return out.toArray(JAVA_DOUBLE);
+        }
+    }
+
+    @Override
+    public Map<String, double[]> macd(double[] prices, int fast, int slow, int signal) {
+        validateInputs(prices, Math.min(Math.min(fast, slow), signal));
+        if (slow <= fast) {
+            throw new IllegalArgumentException("Slow period must be greater than fast period for MACD calculation");
+        }
+
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment in = arena.allocateArray(JAVA_DOUBLE, prices);
+            MemorySegment macdLine = arena.allocateArray(JAVA_DOUBLE, prices.length);
+            MemorySegment signalLine = arena.allocateArray(JAVA_DOUBLE, prices.length);
+            MemorySegment histogram = arena.allocateArray(JAVA_DOUBLE, prices.length);
+            macdInto(in, fast, slow, signal, macdLine, signalLine, histogram);
+
+            Map<String, double[]> result = new HashMap<>();
+            result.put("macdLine", macdLine.toArray(JAVA_DOUBLE));
+            result.put("signalLine", signalLine.toArray(JAVA_DOUBLE));
+            result.put("histogram", histogram.toArray(JAVA_DOUBLE));
+            return result;
+        }
+    }
+
+    public void smaInto(@Nonnull MemorySegment prices, int window, @Nonnull MemorySegment out) {
+        long length = length(prices, out);
+        check("sma", invoke(sma, prices, length, window, out));
+    }
+
+    public void emaInto(@Nonnull MemorySegment prices, int window, @Nonnull MemorySegment out) {
+        long length = length(prices, out);
+        check("ema", invoke(ema, prices, length, window, out));
+    }
+
+    public void macdInto(
+            @Nonnull MemorySegment prices,
+            int fast, int slow, int signal,
+            @Nonnull MemorySegment macdLine,
+            @Nonnull MemorySegment signalLine,
+            @Nonnull MemorySegment histogram) {
+        long length = length(prices, macdLine);
+        length(prices, signalLine);
+        length(prices, histogram);
+        try {
+            int status = (int) macd.invokeExact(prices, length, (long) fast, (long) slow, (long) signal,
+                    macdLine, signalLine, histogram);
+            check("macd", status);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Native macd call failed", t);
+        }
+    }
+
+    @Override
+    public void close() {
+        libraryArena.close();
+    }
+
+    private static int invoke(MethodHandle handle, MemorySegment prices, long length, int window, MemorySegment out) {
+        try {
+            return (int) handle.invokeExact(prices, length, (long) window, out);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Native indicator call failed", t);
+        }
+    }
+
+    private static long length(MemorySegment prices, MemorySegment out) {
+        long length = prices.byteSize() / JAVA_DOUBLE.byteSize();
+        if (out.byteSize() < prices.byteSize()) {
+            throw new IllegalArgumentException("Output segment is smaller than the price segment");
+        }
+        return length;
+    }
+
+    private static void check(String function, int status) {
+        if (status != STATUS_OK) {
+            throw new IllegalArgumentException("Native " + function + " rejected its arguments (status " + status + ")");
+        }
+    }
+
+    private static MemorySegment find(SymbolLookup lookup, String symbol) {
+        return lookup.find(symbol).orElseThrow(() ->
+                new IllegalArgumentException("Symbol " + symbol + " not found in " + LIBRARY_NAME));
+    }
+
+    private static void validateInputs(double[] prices, int window) {
+        if (prices == null) {
+            throw new IllegalArgumentException("Price array cannot be null");
+        }
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window size must be greater than 0");
+        }
+        if (prices.length == 0) {
+            throw new IllegalArgumentException("Price array cannot be empty");
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.spring_backend.indicators.internal;
+
+import com.example.spring_backend.indicators.PivotType;
+
+/**
+ * Plain-loop versions of the {@link SimdKernels} operations. They define the reference results:
+ * the SIMD kernels perform the same IEEE operations in the same order and must match them bit for bit.
+ * <p>
+ * Every kernel writes {@code [from, length)} and leaves the rest of its outputs untouched. Kernels that
+ * read the previous bar require {@code from >= 1}, {@link #roc} requires {@code from >= period}.
+ */
+public final class ScalarKernels {
+
+    private ScalarKernels() {
+        throw new AssertionError("ScalarKernels is a utility class and should not be instantiated");
+    }
+
+    public static void roc(double[] prices, int period, int from, double[] out) {
+        for (int i = from; i < prices.length; i++) {
+            out[i] = ((prices[i] - prices[i - period]) / prices[i - period]) * 100;
+        }
+    }
+
+    public static void signedVolume(double[] close, double[] volume, int from, double[] out) {
+        for (int i = from; i < close.length; i++) {
+            if (close[i] > close[i - 1]) {
+                out[i] = volume[i];
+            } else if (close[i] < close[i - 1]) {
+                out[i] = -volume[i];
+            } else {
+                out[i] = 0;
+            }
+        }
+    }
+
+    public static void subtract(double[] a, double[] b, int from, double[] out) {
+        for (int i = from; i < a.length; i++) {
+            out[i] = a[i] - b[i];
+        }
+    }
+
+    public static void bands(double[] middle, double[] stdDev, double numStd, int from, double[] upper, double[] lower) {
+        for (int i = from; i < middle.length; i++) {
+            upper[i] = middle[i] + (numStd * stdDev[i]);
+            lower[i] = middle[i] - (numStd * stdDev[i]);
+        }
+    }
+
+    public static void pivotPoints(double[] high, double[] low, double[] close, double[] open, PivotType type,
+                                   int from, double[] pp, double[] r1, double[] r2, double[] r3,
+                                   double[] s1, double[] s2, double[] s3) {
+        for (int i = from; i < high.length; i++) {
+            double prevHigh = high[i - 1];
+            double prevLow = low[i - 1];
+            double prevClose = close[i - 1];
+            double prevOpen = open[i - 1];
+            double range = prevHigh - prevLow;
+
+            switch (type) {
+                case STANDARD:
+                    pp[i] = (prevHigh + prevLow + prevClose) / 3;
+                    r1[i] = 2 * pp[i] - prevLow;
+                    s1[i] = 2 * pp[i] - prevHigh;
+                    r2[i] = pp[i] + range;
+                    s2[i] = pp[i] - range;
+                    r3[i] = prevHigh + 2 * (pp[i] - prevLow);
+                    s3[i] = prevLow - 2 * (prevHigh - pp[i]);
+                    break;
+
+                case FIBONACCI:
+                    pp[i] = (prevHigh + prevLow + prevClose) / 3;
+                    r1[i] = pp[i] + 0.382 * range;
+                    s1[i] = pp[i] - 0.382 * range;
+                    r2[i] = pp[i] + 0.618 * range;
+                    s2[i] = pp[i] - 0.618 * range;
+                    r3[i] = pp[i] + range;
+                    s3[i] = pp[i] - range;
+                    break;
+
+                case CAMARILLA:
+                    pp[i] = (prevHigh + prevLow + prevClose) / 3;
+                    double factor = 1.1 * range;
+                    r1[i] = prevClose + factor / 12;
+                    s1[i] = prevClose - factor / 12;
+                    r2[i] = prevClose + factor / 6;
+                    s2[i] = prevClose - factor / 6;
+                    r3[i] = prevClose + factor / 4;
+                    s3[i] = prevClose - factor / 4;
+                    break;
+
+                case WOODIE:
+                    pp[i] = (prevHigh + prevLow + 2 * prevClose) / 4;
+                    r1[i] = 2 * pp[i] - prevLow;
+                    s1[i] = 2 * pp[i] - prevHigh;
+                    r2[i] = pp[i] + range;
+                    s2[i] = pp[i] - range;
+                    r3[i] = prevHigh + 2 * (pp[i] - prevLow);
+                    s3[i] = prevLow - 2 * (prevHigh - pp[i]);
+                    break;
+
+                case DEMARK:
+                    double x;
+                    if (prevClose < prevOpen) {
+                        x = prevHigh + 2 * prevLow + prevClose;
+                    } else if (prevClose > prevOpen) {
+                        x = 2 * prevHigh + prevLow + prevClose;
+                    } else {
+                        x = prevHigh + prevLow + 2 * prevClose;
+                    }
+                    pp[i] = x / 4;
+                    r1[i] = x / 2 - prevLow;
+                    s1[i] = x / 2 - prevHigh;
+                    r2[i] = pp[i] + (r1[i] - pp[i]);
+                    s2[i] = pp[i] - (pp[i] - s1[i]);
+                    r3[i] = r1[i] + (r1[i] - pp[i]);
+                    s3[i] = s1[i] - (pp[i] - s1[i]);
+                    break;
+
+                default:
+                    throw new IllegalArgumentException("Unsupported pivot point type: " + type);
+            }
+        }
+    }
+
+    public static void greaterThan(double[] values, double threshold, int from, boolean[] out) {
+        for (int i = from; i < values.length; i++) {
+            out[i] = values[i] > threshold;
+        }
+    }
+
+    public static void lessThan(double[] values, double threshold, int from, boolean[] out) {
+        for (int i = from; i < values.length; i++) {
+            out[i] = values[i] < threshold;
+        }
+    }
+
+    public static void changeVersusScaled(double[] prices, double[] reference, double multiplier, boolean above,
+                                          int from, boolean[] out) {
+        for (int i = from; i < prices.length; i++) {
+            double change = Math.abs(prices[i] - prices[i - 1]);
+            double scaled = reference[i] * multiplier;
+            out[i] = above ? change > scaled : change < scaled;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.spring_backend.indicators.internal;
+
+import com.example.spring_backend.indicators.PivotType;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@code jdk.incubator.vector} versions of the element-wise indicator kernels.
+ * <p>
+ * Each loop runs full vectors of {@link DoubleVector#SPECIES_PREFERRED} from {@code from} and hands the
+ * remainder to the matching {@link ScalarKernels} loop. Lane arithmetic matches the scalar expressions
+ * operation for operation (no fused multiply-add), so results are bit-identical. NaNs need no special
+ * casing: arithmetic propagates them and every ordered comparison against NaN is false, exactly as the
+ * scalar {@code >} and {@code <}.
+ * <p>
+ * Only touch this class after {@link #isSupported()}; it fails to link when the incubator module is absent.
+ */
+public final class SimdKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    private SimdKernels() {
+        throw new AssertionError("SimdKernels is a utility class and should not be instantiated");
+    }
+
+    /**
+     * True when the preferred shape holds at least two doubles, i.e. the CPU has real vector registers.
+     */
+    public static boolean isSupported() {
+        return LANES >= 2;
+    }
+
+    public static void roc(double[] prices, int period, int from, double[] out) {
+        int i = from;
+        for (; i + LANES <= prices.length; i += LANES) {
+            DoubleVector current = DoubleVector.fromArray(SPECIES, prices, i);
+            DoubleVector previous = DoubleVector.fromArray(SPECIES, prices, i - period);
+            current.sub(previous).div(previous).mul(100).intoArray(out, i);
+        }
+        ScalarKernels.roc(prices, period, i, out);
+    }
+
+    public static void signedVolume(double[] close, double[] volume, int from, double[] out) {
+        DoubleVector zero = DoubleVector.zero(SPECIES);
+        int i = from;
+        for (; i + LANES <= close.length; i += LANES) {
+            DoubleVector current = DoubleVector.fromArray(SPECIES, close, i);
+            DoubleVector previous = DoubleVector.fromArray(SPECIES, close, i - 1);
+            DoubleVector v = DoubleVector.fromArray(SPECIES, volume, i);
+            zero.blend(v, current.compare(VectorOperators.GT, previous))
+                    .blend(v.neg(), current.compare(VectorOperators.LT, previous))
+                    .intoArray(out, i);
+        }
+        ScalarKernels.signedVolume(close, volume, i, out);
+    }
+
+    public static void subtract(double[] a, double[] b, int from, double[] out) {
+        int i = from;
+        for (; i + LANES <= a.length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).sub(DoubleVector.fromArray(SPECIES, b, i)).intoArray(out, i);
+        }
+        ScalarKernels.subtract(a, b, i, out);
+    }
+
+    public static void bands(double[] middle, double[] stdDev, double numStd, int from, double[] upper, double[] lower) {
+        int i = from;
+        for (; i + LANES <= middle.length; i += LANES) {
+            DoubleVector m = DoubleVector.fromArray(SPECIES, middle, i);
+            DoubleVector width = DoubleVector.fromArray(SPECIES, stdDev, i).mul(numStd);
+            m.add(width).intoArray(upper, i);
+            m.sub(width).intoArray(lower, i);
+        }
+        ScalarKernels.bands(middle, stdDev, numStd, i, upper, lower);
+    }
+
+    public static void pivotPoints(double[] high, double[] low, double[] close, double[] open, PivotType type,
+                                   int from, double[] pp, double[] r1, double[] r2, double[] r3,
+                                   double[] s1, double[] s2, double[] s3) {
+        int i = from;
+        for (; i + LANES <= high.length; i += LANES) {
+            DoubleVector h = DoubleVector.fromArray(SPECIES, high, i - 1);
+            DoubleVector l = DoubleVector.fromArray(SPECIES, low, i - 1);
+            DoubleVector c = DoubleVector.fromArray(SPECIES, close, i - 1);
+            DoubleVector range = h.sub(l);
+
+            switch (type) {
+                case STANDARD, WOODIE -> {
+                    DoubleVector p = type == PivotType.STANDARD
+                            ? h.add(l).add(c).div(3)
+                            : h.add(l).add(c.mul(2)).div(4);
+                    p.intoArray(pp, i);
+                    p.mul(2).sub(l).intoArray(r1, i);
+                    p.mul(2).sub(h).intoArray(s1, i);
+                    p.add(range).intoArray(r2, i);
+                    p.sub(range).intoArray(s2, i);
+                    h.add(p.sub(l).mul(2)).intoArray(r3, i);
+                    l.sub(h.sub(p).mul(2)).intoArray(s3, i);
+                }
+                case FIBONACCI -> {
+                    DoubleVector p = h.add(l).add(c).div(3);
+                    p.intoArray(pp, i);
+                    p.add(range.mul(0.382)).intoArray(r1, i);
+                    p.sub(range.mul(0.382)).intoArray(s1, i);
+                    p.add(range.mul(0.618)).intoArray(r2, i);
+                    p.sub(range.mul(0.618)).intoArray(s2, i);
+                    p.add(range).intoArray(r3, i);
+                    p.sub(range).intoArray(s3, i);
+                }
+                case CAMARILLA -> {
+                    h.add(l).add(c).div(3).intoArray(pp, i);
+                    DoubleVector factor = range.mul(1.1);
+                    c.add(factor.div(12)).intoArray(r1, i);
+                    c.sub(factor.div(12)).intoArray(s1, i);
+                    c.add(factor.div(6)).intoArray(r2, i);
+                    c.sub(factor.div(6)).intoArray(s2, i);
+                    c.add(factor.div(4)).intoArray(r3, i);
+                    c.sub(factor.div(4)).intoArray(s3, i);
+                }
+                case DEMARK -> {
+                    DoubleVector o = DoubleVector.fromArray(SPECIES, open, i - 1);
+                    VectorMask<Double> down = c.compare(VectorOperators.LT, o);
+                    VectorMask<Double> up = c.compare(VectorOperators.GT, o);
+                    DoubleVector x = h.add(l).add(c.mul(2))
+                            .blend(h.add(l.mul(2)).add(c), down)
+                            .blend(h.mul(2).add(l).add(c), up);
+                    DoubleVector p = x.div(4);
+                    DoubleVector half = x.div(2);
+                    DoubleVector res1 = half.sub(l);
+                    DoubleVector sup1 = half.sub(h);
+                    p.intoArray(pp, i);
+                    res1.intoArray(r1, i);
+                    sup1.intoArray(s1, i);
+                    p.add(res1.sub(p)).intoArray(r2, i);
+                    p.sub(p.sub(sup1)).intoArray(s2, i);
+                    res1.add(res1.sub(p)).intoArray(r3, i);
+                    sup1.sub(p.sub(sup1)).intoArray(s3, i);
+                }
+                default -> throw new IllegalArgumentException("Unsupported pivot point type: " + type);
+            }
+        }
+        ScalarKernels.pivotPoints(high, low, close, open, type, i, pp, r1, r2, r3, s1, s2, s3);
+    }
+
+    public static void greaterThan(double[] values, double threshold, int from, boolean[] out) {
+        int i = from;
+        for (; i + LANES <= values.length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, values, i).compare(VectorOperators.GT, threshold).intoArray(out, i);
+        }
+        ScalarKernels.greaterThan(values, threshold, i, out);
+    }
+
+    public static void lessThan(double[] values, double threshold, int from, boolean[] out) {
+        int i = from;
+        for (; i + LANES <= values.length; i += LANES) {
+            DoubleVector.fromArray(SPECIES, values, i).compare(VectorOperators.LT, threshold).intoArray(out, i);
+        }
+        ScalarKernels.lessThan(values, threshold, i, out);
+    }
+
+    public static void changeVersusScaled(double[] prices, double[] reference, double multiplier, boolean above,
+                                          int from, boolean[] out) {
+        // The comparison operator must be a constant for the intrinsic to apply, hence two loops
+        int i = from;
+        if (above) {
+            for (; i + LANES <= prices.length; i += LANES) {
+                absChange(prices, i).compare(VectorOperators.GT, scaled(reference, multiplier, i)).intoArray(out, i);
+            }
+        } else {
+            for (; i + LANES <= prices.length; i += LANES) {
+                absChange(prices, i).compare(VectorOperators.LT, scaled(reference, multiplier, i)).intoArray(out, i);
+            }
+        }
+        ScalarKernels.changeVersusScaled(prices, reference, multiplier, above, i, out);
+    }
+
+    private static DoubleVector absChange(double[] prices, int i) {
+        return DoubleVector.fromArray(SPECIES, prices, i).sub(DoubleVector.fromArray(SPECIES, prices, i - 1)).abs();
+    }
+
+    private static DoubleVector scaled(double[] reference, double multiplier, int i) {
+        return DoubleVector.fromArray(SPECIES, reference, i).mul(multiplier);
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.spring_backend.market;
+
+import jakarta.annotation.Nonnull;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Several symbols aligned on one shared, ascending timestamp index, stored column-wise.
+ * <p>
+ * Each field is a single contiguous block holding every symbol's series back to back (symbol-major), so a
+ * symbol's column is the range {@code [offset(s), offset(s) + barCount)} of the block. Memory is seven
+ * {@code double}s, one {@code long} and one {@code boolean} per symbol and bar plus one shared timestamp per
+ * bar, instead of a {@link MarketDataPoint} and its timestamp per symbol and bar.
+ * <p>
+ * The index is either the union of all symbols' timestamps ({@link #align}) or another series' timestamps
+ * ({@link #asOf}). A symbol without a bar at some timestamp carries its previous close forward as a flat,
+ * zero-volume bar; before its first bar it is back-filled the same way from its first open. Such bars are
+ * marked not {@link #isPresent(int, int) present}, so a portfolio never trades on them, while indicators
+ * still see a gap-free series. Dividends and splits stay on the bar they were reported with, so a symbol's
+ * {@link #series} adjusts like the original; when an as-of join takes several bars at once, their dividends
+ * add up and their splits multiply.
+ * <p>
+ * The getters hand out the blocks themselves, not copies; treat them as read-only.
+ */
+@Getter
+public final class AlignedMarketData {
+    private final List<String> symbols;
+    private final LocalDateTime[] timestamps;
+    private final int barCount;
+
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final double[] adjustedClose;
+    private final long[] volume;
+    private final double[] dividendAmount;
+    private final double[] splitCoefficient;
+    private final boolean[] present;
+
+    private AlignedMarketData(List<String> symbols, LocalDateTime[] timestamps) {
+        long cells = (long) symbols.size() * timestamps.length;
+        if (cells > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many symbols and bars to align in memory: " + symbols.size()
+                    + " symbols of " + timestamps.length + " bars");
+        }
+        this.symbols = List.copyOf(symbols);
+        this.timestamps = timestamps;
+        this.barCount = timestamps.length;
+        this.open = new double[(int) cells];
+        this.high = new double[(int) cells];
+        this.low = new double[(int) cells];
+        this.close = new double[(int) cells];
+        this.adjustedClose = new double[(int) cells];
+        this.volume = new long[(int) cells];
+        this.dividendAmount = new double[(int) cells];
+        this.splitCoefficient = new double[(int) cells];
+        this.present = new boolean[(int) cells];
+    }
+
+    /**
+     * Aligns the series on the union of their timestamps in {@code O(total bars · log)} for the index and one
+     * linear pass per symbol. Symbols keep the map's iteration order.
+     */
+    @Nonnull
+    public static AlignedMarketData align(@Nonnull Map<String, MarketData> series) {
+        List<String> symbols = new ArrayList<>(series.size());
+        List<List<MarketDataPoint>> sorted = sortedSeries(series, symbols);
+        int total = 0;
+        for (List<MarketDataPoint> points : sorted) {
+            total += points.size();
+        }
+
+        LocalDateTime[] union = new LocalDateTime[total];
+        int cursor = 0;
+        for (List<MarketDataPoint> points : sorted) {
+            for (MarketDataPoint point : points) {
+                union[cursor++] = point.timestamp();
+            }
+        }
+        Arrays.sort(union);
+        return build(symbols, sorted, distinct(union));
+    }
+
+    /**
+     * As-of join of the series onto the timestamps of {@code clock}: at each clock bar a symbol shows its latest
+     * bar at or before that time, in one merge pass per symbol. A symbol is {@link #isPresent(int, int) present}
+     * at a clock bar when at least one of its bars arrived since the previous clock bar; when several did, the
+     * latest is taken as is.
+     */
+    @Nonnull
+    public static AlignedMarketData asOf(@Nonnull MarketData clock, @Nonnull Map<String, MarketData> series) {
+        List<String> symbols = new ArrayList<>(series.size());
+        List<List<MarketDataPoint>> sorted = sortedSeries(series, symbols);
+        List<MarketDataPoint> clockPoints = ascending(clock.getDataPoints());
+        if (clockPoints.isEmpty()) {
+            throw new IllegalArgumentException("The clock series is empty");
+        }
+
+        LocalDateTime[] index = new LocalDateTime[clockPoints.size()];
+        for (int i = 0; i < index.length; i++) {
+            index[i] = clockPoints.get(i).timestamp();
+        }
+        return build(symbols, sorted, distinct(index));
+    }
+
+    private static List<List<MarketDataPoint>> sortedSeries(Map<String, MarketData> series, List<String> symbols) {
+        if (series.isEmpty()) {
+            throw new IllegalArgumentException("At least one series is required to align");
+        }
+        List<List<MarketDataPoint>> sorted = new ArrayList<>(series.size());
+        for (Map.Entry<String, MarketData> entry : series.entrySet()) {
+            List<MarketDataPoint> points = ascending(entry.getValue().getDataPoints());
+            if (points.isEmpty()) {
+                throw new IllegalArgumentException("Series for symbol " + entry.getKey() + " is empty");
+            }
+            symbols.add(entry.getKey());
+            sorted.add(points);
+        }
+        return sorted;
+    }
+
+    // Drops repeats from an ascending array
+    private static LocalDateTime[] distinct(LocalDateTime[] ascending) {
+        int distinct = 0;
+        for (int i = 0; i < ascending.length; i++) {
+            if (distinct == 0 || !ascending[i].equals(ascending[distinct - 1])) {
+                ascending[distinct++] = ascending[i];
+            }
+        }
+        return Arrays.copyOf(ascending, distinct);
+    }
+
+    private static AlignedMarketData build(List<String> symbols, List<List<MarketDataPoint>> sorted,
+                                           LocalDateTime[] index) {
+        AlignedMarketData aligned = new AlignedMarketData(symbols, index);
+        for (int s = 0; s < sorted.size(); s++) {
+            aligned.fill(s, sorted.get(s));
+        }
+        return aligned;
+    }
+
+    private void fill(int symbol, List<MarketDataPoint> points) {
+        int base = offset(symbol);
+        int next = 0;
+        double carried = points.getFirst().open();
+        double carriedAdjusted = points.getFirst().adjustedClose();
+        for (int i = 0; i < barCount; i++) {
+            int cell = base + i;
+            // Of the bars up to this timestamp not yet taken, the latest wins; duplicates keep the last bar
+            MarketDataPoint bar = null;
+            double dividend = 0.0;
+            double split = 1.0;
+            while (next < points.size() && !points.get(next).timestamp().isAfter(timestamps[i])) {
+                bar = points.get(next++);
+                dividend += bar.dividendAmount();
+                // Missing or zero coefficients mean no split
+                split *= bar.splitCoefficient() > 0 ? bar.splitCoefficient() : 1.0;
+            }
+            dividendAmount[cell] = dividend;
+            splitCoefficient[cell] = split;
+            if (bar != null) {
+                open[cell] = bar.open();
+                high[cell] = bar.high();
+                low[cell] = bar.low();
+                close[cell] = bar.close();
+                adjustedClose[cell] = bar.adjustedClose();
+                volume[cell] = bar.volume();
+                present[cell] = true;
+                carried = bar.close();
+                carriedAdjusted = bar.adjustedClose();
+            } else {
+                open[cell] = carried;
+                high[cell] = carried;
+                low[cell] = carried;
+                close[cell] = carried;
+                adjustedClose[cell] = carriedAdjusted;
+            }
+        }
+    }
+
+    private static List<MarketDataPoint> ascending(List<MarketDataPoint> points) {
+        for (int i = 1; i < points.size(); i++) {
+            if (points.get(i).timestamp().isBefore(points.get(i - 1).timestamp())) {
+                List<MarketDataPoint> copy = new ArrayList<>(points);
+                copy.sort(Comparator.comparing(MarketDataPoint::timestamp));
+                return copy;
+            }
+        }
+        return points;
+    }
+
+    public int symbolCount() {
+        return symbols.size();
+    }
+
+    /**
+     * @return index of {@code symbol}'s first bar in every field block
+     */
+    public int offset(int symbol) {
+        return symbol * barCount;
+    }
+
+    public boolean isPresent(int symbol, int bar) {
+        return present[offset(symbol) + bar];
+    }
+
+    /**
+     * One symbol's aligned series as {@link MarketData}, for evaluating conditions on it. It is a read-only view
+     * of the symbol's range of the blocks, so its columns are not copied and its dividends and splits are the
+     * aligned ones.
+     */
+    @Nonnull
+    public MarketData series(int symbol) {
+        Objects.checkIndex(symbol, symbols.size());
+        return new AlignedSeries(this, symbol);
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.spring_backend.market;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Read-only view of one symbol's range of the blocks of an {@link AlignedMarketData}; see
+ * {@link AlignedMarketData#series}. Columns are read straight from the blocks, and {@link #getDataPoints()} builds
+ * each point when it is read. The {@link #adjusted()} series is built column by column from the dividend and
+ * split blocks into arrays of its own.
+ */
+final class AlignedSeries extends MarketData {
+    private final LocalDateTime[] timestamps;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final double[] adjustedClose;
+    private final long[] volume;
+    // null once the actions have been applied, in an adjusted series
+    @Nullable
+    private final double[] dividendAmount;
+    @Nullable
+    private final double[] splitCoefficient;
+    private final int from;
+    private final int size;
+    private final List<MarketDataPoint> points = new PointView();
+
+    private volatile MarketData adjustedSeries;
+
+    AlignedSeries(@Nonnull AlignedMarketData data, int symbol) {
+        this(data.getTimestamps(), data.getOpen(), data.getHigh(), data.getLow(), data.getClose(),
+                data.getAdjustedClose(), data.getVolume(), data.getDividendAmount(), data.getSplitCoefficient(),
+                data.offset(symbol), data.getBarCount());
+    }
+
+    private AlignedSeries(LocalDateTime[] timestamps, double[] open, double[] high, double[] low, double[] close,
+                          double[] adjustedClose, long[] volume, @Nullable double[] dividendAmount,
+                          @Nullable double[] splitCoefficient, int from, int size) {
+        this.timestamps = timestamps;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.adjustedClose = adjustedClose;
+        this.volume = volume;
+        this.dividendAmount = dividendAmount;
+        this.splitCoefficient = splitCoefficient;
+        this.from = from;
+        this.size = size;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<MarketDataPoint> getDataPoints() {
+        return points;
+    }
+
+    @Override
+    public void addDataPoint(MarketDataPoint point) {
+        throw new UnsupportedOperationException("Aligned market data is read-only");
+    }
+
+    @Override
+    public void addDataPoints(List<MarketDataPoint> points) {
+        throw new UnsupportedOperationException("Aligned market data is read-only");
+    }
+
+    @Override
+    public int indexAtOrAfter(@Nonnull LocalDateTime time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[mid].isBefore(time)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Nonnull
+    @Override
+    public MarketData adjusted() {
+        MarketData current = adjustedSeries;
+        if (current == null) {
+            current = dividendAmount == null || splitCoefficient == null
+                    || !CorporateActions.hasActions(column(dividendAmount), column(splitCoefficient))
+                    ? this
+                    : adjust(dividendAmount, splitCoefficient);
+            adjustedSeries = current;
+        }
+        return current;
+    }
+
+    private AlignedSeries adjust(double[] dividends, double[] splits) {
+        double[] adjustedOpens = new double[size];
+        double[] adjustedHighs = new double[size];
+        double[] adjustedLows = new double[size];
+        double[] adjustedCloses = new double[size];
+        long[] adjustedVolumes = new long[size];
+        CorporateActions.factors(column(close), column(dividends), column(splits), (i, price, split) -> {
+            int cell = from + i;
+            adjustedOpens[i] = open[cell] * price;
+            adjustedHighs[i] = high[cell] * price;
+            adjustedLows[i] = low[cell] * price;
+            adjustedCloses[i] = close[cell] * price;
+            adjustedVolumes[i] = CorporateActions.adjustVolume(volume[cell], split);
+        });
+        return new AlignedSeries(timestamps, adjustedOpens, adjustedHighs, adjustedLows, adjustedCloses,
+                adjustedCloses, adjustedVolumes, null, null, 0, size);
+    }
+
+    @Nonnull
+    @Override
+    public DoubleColumn closeColumn() {
+        return column(close);
+    }
+
+    @Nonnull
+    @Override
+    public DoubleColumn openColumn() {
+        return column(open);
+    }
+
+    @Nonnull
+    @Override
+    public DoubleColumn highColumn() {
+        return column(high);
+    }
+
+    @Nonnull
+    @Override
+    public DoubleColumn lowColumn() {
+        return column(low);
+    }
+
+    @Override
+    public double[] close() {
+        return Arrays.copyOfRange(close, from, from + size);
+    }
+
+    @Override
+    public double[] open() {
+        return Arrays.copyOfRange(open, from, from + size);
+    }
+
+    @Override
+    public double[] high() {
+        return Arrays.copyOfRange(high, from, from + size);
+    }
+
+    @Override
+    public double[] low() {
+        return Arrays.copyOfRange(low, from, from + size);
+    }
+
+    @Override
+    public double[] volume() {
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = volume[from + i];
+        }
+        return values;
+    }
+
+    private DoubleColumn column(double[] block) {
+        return DoubleColumn.of(block, from, size);
+    }
+
+    private final class PointView extends AbstractList<MarketDataPoint> implements RandomAccess {
+        @Override
+        public MarketDataPoint get(int index) {
+            Objects.checkIndex(index, size);
+            int cell = from + index;
+            return new MarketDataPoint(timestamps[index], open[cell], high[cell], low[cell], close[cell],
+                    adjustedClose[cell], volume[cell],
+                    dividendAmount != null ? dividendAmount[cell] : 0.0,
+                    splitCoefficient != null ? splitCoefficient[cell] : 1.0);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.spring_backend.market;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State derived from a dataset that stays valid when bars are appended to it, such as the running values of an
+ * indicator at its last bar. Every snapshot of a dataset in the {@link MarketDataStore} hands out the same
+ * instance, so one backtest can continue where an earlier one stopped instead of recomputing from bar 0.
+ * <p>
+ * Each entry only ever describes a prefix of the dataset, and an entry may be longer than the snapshot a
+ * reader holds; readers check the length before using one. Entries are computed by the caller, outside any
+ * lock, and {@link #offer offered} back; only an entry covering more bars than the current one replaces it.
+ * <p>
+ * The entries of every dataset draw on one shared budget of bytes. To make room for a new entry, the least
+ * recently used entries of the same dataset are dropped; when that is not enough the new entry is not kept.
+ */
+public final class Checkpoints {
+    private static final long ENTRY_OVERHEAD_BYTES = 64;
+
+    private final AtomicLong freeBytes;
+    private final Map<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param freeBytes the bytes left in the budget shared with other datasets, debited and credited by each
+     */
+    public Checkpoints(@Nonnull AtomicLong freeBytes) {
+        this.freeBytes = freeBytes;
+    }
+
+    /**
+     * @param key value-comparable identity of the state, e.g. {@code List.of("rsi", period)}
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T get(@Nonnull Object key) {
+        Entry entry = entries.get(key);
+        return entry == null ? null : (T) entry.value();
+    }
+
+    /**
+     * Keeps {@code value} under {@code key} unless the current entry already covers {@code length} bars or the
+     * budget has no room for it.
+     *
+     * @param length bars the state covers
+     * @param bytes  estimated size of the state
+     * @return whether the value was kept
+     */
+    public synchronized boolean offer(@Nonnull Object key, @Nonnull Object value, int length, long bytes) {
+        Entry current = entries.get(key);
+        if (current != null && current.length() >= length) {
+            return false;
+        }
+        if (current != null) {
+            release(entries.remove(key));
+        }
+        long size = bytes + ENTRY_OVERHEAD_BYTES;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (!reserve(size)) {
+            if (!eldest.hasNext()) {
+                return false;
+            }
+            Entry dropped = eldest.next();
+            eldest.remove();
+            release(dropped);
+        }
+        entries.put(key, new Entry(value, length, size));
+        return true;
+    }
+
+    /**
+     * Drops every entry and returns its bytes to the budget, for a dataset leaving the store.
+     */
+    public synchronized void clear() {
+        entries.values().forEach(this::release);
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private boolean reserve(long size) {
+        long free = freeBytes.get();
+        while (free >= size) {
+            if (freeBytes.compareAndSet(free, free - size)) {
+                return true;
+            }
+            free = freeBytes.get();
+        }
+        return false;
+    }
+
+    private void release(Entry entry) {
+        freeBytes.addAndGet(entry.bytes());
+    }
+
+    private record Entry(Object value, int length, long bytes) {
+    }
+}
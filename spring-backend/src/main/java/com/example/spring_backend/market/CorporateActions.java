@@ -0,0 +1,118 @@
+package com.example.spring_backend.market;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Back-adjusts a series for splits and cash dividends, so prices before a corporate action are comparable with
+ * prices after it.
+ * <p>
+ * One backward pass carries two cumulative factors from the latest bar, which is left as is. A split with
+ * coefficient {@code s} on bar {@code i} divides every earlier price by {@code s} and multiplies every earlier
+ * volume by it. A dividend {@code d} going ex on bar {@code i} multiplies every earlier price by
+ * {@code 1 - d / close[i - 1]}, the usual total-return adjustment. Volume is only split-adjusted.
+ */
+final class CorporateActions {
+
+    private CorporateActions() {
+        throw new AssertionError("CorporateActions is a utility class and should not be instantiated");
+    }
+
+    static boolean hasActions(@Nonnull List<MarketDataPoint> points) {
+        for (MarketDataPoint point : points) {
+            if (isSplit(point.splitCoefficient()) || point.dividendAmount() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean hasActions(@Nonnull DoubleColumn dividends, @Nonnull DoubleColumn splits) {
+        for (int i = 0; i < dividends.length(); i++) {
+            if (isSplit(splits.get(i)) || dividends.get(i) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return adjusted bars with the actions applied, so their dividends are 0 and split coefficients 1
+     */
+    @Nonnull
+    static List<MarketDataPoint> adjust(@Nonnull List<MarketDataPoint> points) {
+        int n = points.size();
+        double[] close = new double[n];
+        double[] dividends = new double[n];
+        double[] splits = new double[n];
+        for (int i = 0; i < n; i++) {
+            MarketDataPoint point = points.get(i);
+            close[i] = point.close();
+            dividends[i] = point.dividendAmount();
+            splits[i] = point.splitCoefficient();
+        }
+
+        MarketDataPoint[] adjusted = new MarketDataPoint[n];
+        factors(DoubleColumn.of(close), DoubleColumn.of(dividends), DoubleColumn.of(splits), (i, price, split) -> {
+            MarketDataPoint point = points.get(i);
+            adjusted[i] = new MarketDataPoint(
+                    point.timestamp(),
+                    point.open() * price,
+                    point.high() * price,
+                    point.low() * price,
+                    point.close() * price,
+                    point.close() * price,
+                    adjustVolume(point.volume(), split),
+                    0.0,
+                    1.0);
+        });
+        return Arrays.asList(adjusted);
+    }
+
+    /**
+     * Computes the factors of every bar from the close, dividend and split columns alone, for series stored as
+     * columns, and hands them to {@code factors} from the last bar to the first.
+     */
+    static void factors(@Nonnull DoubleColumn close, @Nonnull DoubleColumn dividends, @Nonnull DoubleColumn splits,
+                        @Nonnull Factors factors) {
+        double splitFactor = 1.0;
+        double dividendFactor = 1.0;
+
+        for (int i = close.length() - 1; i >= 0; i--) {
+            factors.accept(i, splitFactor * dividendFactor, splitFactor);
+
+            // This bar's actions apply to every bar before it
+            if (i > 0) {
+                double coefficient = splits.get(i);
+                if (isSplit(coefficient)) {
+                    splitFactor /= coefficient;
+                }
+                double dividend = dividends.get(i);
+                double previousClose = close.get(i - 1);
+                if (dividend > 0 && previousClose > dividend) {
+                    dividendFactor *= 1 - dividend / previousClose;
+                }
+            }
+        }
+    }
+
+    static long adjustVolume(double volume, double splitFactor) {
+        return Math.round(volume / splitFactor);
+    }
+
+    /**
+     * Receives the factors of one bar: adjusted prices are {@code price} times the raw ones, and adjusted volume
+     * is the raw volume divided by {@code split}.
+     */
+    @FunctionalInterface
+    interface Factors {
+        void accept(int bar, double price, double split);
+    }
+
+    // Missing or zero coefficients are treated as no split
+    private static boolean isSplit(double coefficient) {
+        return coefficient > 0 && coefficient != 1.0;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.spring_backend.market;
+
+import jakarta.annotation.Nonnull;
+
+import java.nio.DoubleBuffer;
+import java.util.Objects;
+
+/**
+ * A read-only column of doubles, either a heap array or an off-heap {@link DoubleBuffer} (direct or memory
+ * mapped). The two implementations are final and the interface is sealed, so a loop over {@link #get} sees at
+ * most two receiver types and the JIT inlines the element access. {@link #copyTo} moves ranges in bulk for
+ * code that wants a plain array, e.g. in chunks that stay in cache.
+ */
+public sealed interface DoubleColumn permits DoubleColumn.Heap, DoubleColumn.OffHeap {
+
+    @Nonnull
+    static DoubleColumn of(@Nonnull double[] values) {
+        return new Heap(values, 0, values.length);
+    }
+
+    /**
+     * A view of {@code values[from, from + length)}, e.g. one symbol's range of a block holding several.
+     */
+    @Nonnull
+    static DoubleColumn of(@Nonnull double[] values, int from, int length) {
+        Objects.checkFromIndexSize(from, length, values.length);
+        return new Heap(values, from, length);
+    }
+
+    @Nonnull
+    static DoubleColumn of(@Nonnull DoubleBuffer values) {
+        return new OffHeap(values);
+    }
+
+    int length();
+
+    double get(int index);
+
+    /**
+     * Copies {@code count} values starting at {@code from} into {@code target} at {@code offset}.
+     */
+    void copyTo(int from, @Nonnull double[] target, int offset, int count);
+
+    /**
+     * Copies the whole column into {@code target}, which must be at least {@link #length()} long, and returns it.
+     */
+    @Nonnull
+    default double[] copyTo(@Nonnull double[] target) {
+        copyTo(0, target, 0, length());
+        return target;
+    }
+
+    @Nonnull
+    default double[] toArray() {
+        return copyTo(new double[length()]);
+    }
+
+    final class Heap implements DoubleColumn {
+        private final double[] values;
+        private final int from;
+        private final int length;
+
+        private Heap(double[] values, int from, int length) {
+            this.values = values;
+            this.from = from;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public double get(int index) {
+            return values[from + Objects.checkIndex(index, length)];
+        }
+
+        @Override
+        public void copyTo(int from, @Nonnull double[] target, int offset, int count) {
+            Objects.checkFromIndexSize(from, count, length);
+            System.arraycopy(values, this.from + from, target, offset, count);
+        }
+    }
+
+    final class OffHeap implements DoubleColumn {
+        private final DoubleBuffer values;
+
+        private OffHeap(DoubleBuffer values) {
+            // A private view, so callers moving the original buffer's position cannot affect reads
+            this.values = values.slice().asReadOnlyBuffer();
+        }
+
+        @Override
+        public int length() {
+            return values.capacity();
+        }
+
+        @Override
+        public double get(int index) {
+            return values.get(index);
+        }
+
+        @Override
+        public void copyTo(int from, @Nonnull double[] target, int offset, int count) {
+            values.get(from, target, offset, count);
+        }
+    }
+}
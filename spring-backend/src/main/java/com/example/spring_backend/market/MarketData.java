@@ -1,60 +1,185 @@
 package com.example.spring_backend.market;
 
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @Getter
 @RequiredArgsConstructor
 public class MarketData {
     private final List<MarketDataPoint> dataPoints = new ArrayList<>();
 
+    // Split- and dividend-adjusted series, built on first use and dropped when bars are added
+    @Getter(AccessLevel.NONE)
+    private volatile MarketData adjusted;
+
     public void addDataPoint(MarketDataPoint point) {
         dataPoints.add(point);
+        adjusted = null;
     }
 
     public void addDataPoints(List<MarketDataPoint> points) {
         dataPoints.addAll(points);
+        adjusted = null;
+    }
+
+    /**
+     * The series back-adjusted for splits and dividends, with the same timestamps; see {@link CorporateActions}.
+     * It is built once and kept, and a series without corporate actions is its own adjusted series. The
+     * importer builds it up front, so conditions reading adjusted prices never pay for it per evaluation.
+     */
+    @Nonnull
+    public MarketData adjusted() {
+        MarketData current = adjusted;
+        if (current == null) {
+            List<MarketDataPoint> points = getDataPoints();
+            if (CorporateActions.hasActions(points)) {
+                current = new MarketData();
+                current.addDataPoints(CorporateActions.adjust(points));
+            } else {
+                current = this;
+            }
+            adjusted = current;
+        }
+        return current;
+    }
+
+    /**
+     * Number of bars; unlike {@code close().length} it does not copy a column.
+     */
+    public int size() {
+        return getDataPoints().size();
+    }
+
+    /**
+     * Bars {@code [from, to)} as a view sharing this series' storage: nothing is copied until a column is read,
+     * and off-heap series slice their buffers. The view is read-only and has the length it was created with;
+     * bars added to this series later are not part of it. Its {@link #adjusted()} series is the matching range
+     * of this series' adjusted one, so corporate actions after {@code to} still adjust the earlier prices.
+     *
+     * @throws IndexOutOfBoundsException if the range is not within {@code [0, size())}
+     */
+    @Nonnull
+    public MarketData slice(int from, int to) {
+        Objects.checkFromToIndex(from, to, size());
+        return new MarketDataSlice(this, from, to);
+    }
+
+    /**
+     * The bars with {@code start <= timestamp < end} as a {@link #slice}; a {@code null} bound is open. The bounds
+     * are found by binary search, so timestamps must be ascending, as the importer leaves them.
+     */
+    @Nonnull
+    public MarketData sliceByTime(@Nullable LocalDateTime start, @Nullable LocalDateTime end) {
+        int from = start == null ? 0 : indexAtOrAfter(start);
+        int to = end == null ? size() : indexAtOrAfter(end);
+        return slice(from, Math.max(from, to));
+    }
+
+    /**
+     * Index of the first bar at or after {@code time}, or {@link #size()} when every bar is earlier.
+     */
+    public int indexAtOrAfter(@Nonnull LocalDateTime time) {
+        List<MarketDataPoint> points = getDataPoints();
+        int low = 0;
+        int high = points.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (points.get(mid).timestamp().isBefore(time)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * State derived from this series that survives appends, shared by every snapshot of a dataset in the
+     * {@link MarketDataStore}; {@code null} for series outside the store, including slices of stored ones.
+     */
+    @Nullable
+    public Checkpoints checkpoints() {
+        return null;
+    }
+
+    /**
+     * The close prices as a {@link DoubleColumn}. On the heap this wraps a fresh copy; {@link OffHeapMarketData}
+     * hands out a view of its storage instead.
+     */
+    @Nonnull
+    public DoubleColumn closeColumn() {
+        return DoubleColumn.of(close());
+    }
+
+    @Nonnull
+    public DoubleColumn openColumn() {
+        return DoubleColumn.of(open());
+    }
+
+    @Nonnull
+    public DoubleColumn highColumn() {
+        return DoubleColumn.of(high());
+    }
+
+    @Nonnull
+    public DoubleColumn lowColumn() {
+        return DoubleColumn.of(low());
+    }
+
+    @Nonnull
+    public DoubleColumn volumeColumn() {
+        return DoubleColumn.of(volume());
     }
 
     public double[] close() {
-        double[] close = new double[dataPoints.size()];
-        for (int i = 0; i < dataPoints.size(); i++) {
-            close[i] = dataPoints.get(i).close();
+        List<MarketDataPoint> points = getDataPoints();
+        double[] close = new double[points.size()];
+        for (int i = 0; i < close.length; i++) {
+            close[i] = points.get(i).close();
         }
         return close;
     }
 
     public double[] open() {
-        double[] open = new double[dataPoints.size()];
-        for (int i = 0; i < dataPoints.size(); i++) {
-            open[i] = dataPoints.get(i).open();
+        List<MarketDataPoint> points = getDataPoints();
+        double[] open = new double[points.size()];
+        for (int i = 0; i < open.length; i++) {
+            open[i] = points.get(i).open();
         }
         return open;
     }
 
     public double[] high() {
-        double[] high = new double[dataPoints.size()];
-        for (int i = 0; i < dataPoints.size(); i++) {
-            high[i] = dataPoints.get(i).high();
+        List<MarketDataPoint> points = getDataPoints();
+        double[] high = new double[points.size()];
+        for (int i = 0; i < high.length; i++) {
+            high[i] = points.get(i).high();
         }
         return high;
     }
 
     public double[] low() {
-        double[] low = new double[dataPoints.size()];
-        for (int i = 0; i < dataPoints.size(); i++) {
-            low[i] = dataPoints.get(i).low();
+        List<MarketDataPoint> points = getDataPoints();
+        double[] low = new double[points.size()];
+        for (int i = 0; i < low.length; i++) {
+            low[i] = points.get(i).low();
         }
         return low;
     }
 
     public double[] volume() {
-        double[] volume = new double[dataPoints.size()];
-        for (int i = 0; i < dataPoints.size(); i++) {
-            volume[i] = dataPoints.get(i).volume();
+        List<MarketDataPoint> points = getDataPoints();
+        double[] volume = new double[points.size()];
+        for (int i = 0; i < volume.length; i++) {
+            volume[i] = points.get(i).volume();
         }
         return volume;
     }
@@ -0,0 +1,141 @@
+package com.example.spring_backend.market;
+
+import com.example.spring_backend.common.PipelineMetrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Resamples a series into a higher {@link Timeframe} in one streaming pass.
+ * <p>
+ * Each bucket becomes one bar: first open, highest high, lowest low, last close and adjusted close, summed
+ * volume and dividends, and the product of the split coefficients. Empty buckets produce no bar. The input
+ * must be in ascending time order, as {@link CsvImporterService} produces it.
+ * <p>
+ * A bucket is complete at the close of the source bar that reaches its end time. A source bar is taken to
+ * last as long as the shortest gap between bars up to it, so whether a bucket is complete at a bar depends on
+ * that bar and the ones before it only.
+ * <p>
+ * Results are cached per {@link MarketData} instance and timeframe, so every condition of a strategy that
+ * asks for the same timeframe of the same dataset shares one resampled series. The cache holds its datasets
+ * weakly and drops an entry once its dataset has grown since it was resampled.
+ */
+@Slf4j
+public final class MarketDataResampler {
+    private static final Map<MarketData, Map<Timeframe, Resampled>> CACHE = new WeakHashMap<>();
+
+    private MarketDataResampler() {
+        throw new AssertionError("MarketDataResampler is a utility class and should not be instantiated");
+    }
+
+    /**
+     * The cached resampling of {@code data}, computing it on first use.
+     */
+    @Nonnull
+    public static Resampled resample(@Nonnull MarketData data, @Nonnull Timeframe timeframe) {
+        int size = data.size();
+        synchronized (CACHE) {
+            Resampled cached = CACHE.getOrDefault(data, Map.of()).get(timeframe);
+            if (cached != null && cached.bucketOf().length == size) {
+                return cached;
+            }
+        }
+        // Computed outside the lock; two threads racing on the same key both compute the same result
+        Resampled resampled = compute(data, timeframe);
+        synchronized (CACHE) {
+            CACHE.computeIfAbsent(data, ignored -> new HashMap<>()).put(timeframe, resampled);
+        }
+        return resampled;
+    }
+
+    /**
+     * Resamples without consulting or filling the cache.
+     */
+    @Nonnull
+    public static Resampled compute(@Nonnull MarketData data, @Nonnull Timeframe timeframe) {
+        List<MarketDataPoint> points = data.getDataPoints();
+        int n = points.size();
+        int[] bucketOf = new int[n];
+        int[] lastClosed = new int[n];
+        List<MarketDataPoint> bars = new ArrayList<>();
+        long barSeconds = Long.MAX_VALUE;
+
+        Timer.Sample sample = PipelineMetrics.start();
+        LocalDateTime previous = null;
+        int i = 0;
+        while (i < n) {
+            MarketDataPoint first = points.get(i);
+            long bucket = timeframe.bucket(first.timestamp());
+            double high = first.high();
+            double low = first.low();
+            long volume = 0;
+            double dividends = 0.0;
+            double split = 1.0;
+            MarketDataPoint last = first;
+
+            int index = bars.size();
+            LocalDateTime bucketEnd = timeframe.start(bucket + 1);
+            for (; i < n; i++) {
+                MarketDataPoint point = points.get(i);
+                if (previous != null && point.timestamp().isBefore(previous)) {
+                    throw new IllegalArgumentException("Market data must be in ascending time order to resample, "
+                            + "found " + point.timestamp() + " after " + previous);
+                }
+                if (timeframe.bucket(point.timestamp()) != bucket) {
+                    break;
+                }
+                if (previous != null && point.timestamp().isAfter(previous)) {
+                    barSeconds = Math.min(barSeconds, Duration.between(previous, point.timestamp()).toSeconds());
+                }
+                previous = point.timestamp();
+                high = Math.max(high, point.high());
+                low = Math.min(low, point.low());
+                volume += point.volume();
+                dividends += point.dividendAmount();
+                split *= point.splitCoefficient();
+                bucketOf[i] = index;
+                boolean closes = barSeconds != Long.MAX_VALUE
+                        && !point.timestamp().plusSeconds(barSeconds).isBefore(bucketEnd);
+                lastClosed[i] = closes ? index : index - 1;
+                last = point;
+            }
+            bars.add(new MarketDataPoint(timeframe.start(bucket), first.open(), high, low, last.close(),
+                    last.adjustedClose(), volume, dividends, split));
+        }
+        PipelineMetrics.stop(sample, PipelineMetrics.RESAMPLE, n);
+
+        MarketData resampled = new MarketData();
+        resampled.addDataPoints(bars);
+        log.debug("Resampled {} bars into {} bars of {}", n, bars.size(), timeframe.length());
+        return new Resampled(timeframe, resampled, bucketOf, lastClosed);
+    }
+
+    /**
+     * A resampled series together with its mapping back to the source bars.
+     *
+     * @param bars     one bar per non-empty bucket, in time order
+     * @param bucketOf   for each source bar, the index in {@code bars} of the bar it was aggregated into; the
+     *                   array is shared with the cache and must not be modified
+     * @param lastClosed for each source bar, the value of {@link #lastClosed(int)}; shared like {@code bucketOf}
+     */
+    public record Resampled(@Nonnull Timeframe timeframe, @Nonnull MarketData bars, @Nonnull int[] bucketOf,
+                            @Nonnull int[] lastClosed) {
+
+        /**
+         * Index of the latest resampled bar complete at the close of source bar {@code bar}, or -1 if none is
+         * yet: its own bucket once the bar reaches the bucket's end time, otherwise the one before. Values read
+         * through this never look ahead, and a bar's value does not change when later bars are appended.
+         */
+        public int lastClosed(int bar) {
+            return lastClosed[bar];
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.spring_backend.market;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Read-only view of bars {@code [from, to)} of a heap {@link MarketData}; see {@link MarketData#slice}.
+ * Slices of slices point at the original series, so views never chain.
+ */
+final class MarketDataSlice extends MarketData {
+    private final MarketData parent;
+    private final int from;
+    private final int size;
+    private final List<MarketDataPoint> points = new PointView();
+
+    // The adjusted parent this slice's adjusted view was cut from, rebuilt if the parent's changes
+    private volatile Adjusted adjustedView;
+
+    MarketDataSlice(@Nonnull MarketData parent, int from, int to) {
+        this.parent = parent;
+        this.from = from;
+        this.size = to - from;
+    }
+
+    @Override
+    public List<MarketDataPoint> getDataPoints() {
+        return points;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Nonnull
+    @Override
+    public MarketData slice(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return parent.slice(this.from + from, this.from + to);
+    }
+
+    @Override
+    public void addDataPoint(MarketDataPoint point) {
+        throw new UnsupportedOperationException("Market data slices are read-only");
+    }
+
+    @Override
+    public void addDataPoints(List<MarketDataPoint> points) {
+        throw new UnsupportedOperationException("Market data slices are read-only");
+    }
+
+    @Nonnull
+    @Override
+    public MarketData adjusted() {
+        MarketData source = parent.adjusted();
+        if (source == parent) {
+            return this;
+        }
+        Adjusted current = adjustedView;
+        if (current == null || current.source() != source) {
+            current = new Adjusted(source, source.slice(from, from + size));
+            adjustedView = current;
+        }
+        return current.view();
+    }
+
+    private record Adjusted(MarketData source, MarketData view) {
+    }
+
+    private final class PointView extends AbstractList<MarketDataPoint> implements RandomAccess {
+        @Override
+        public MarketDataPoint get(int index) {
+            Objects.checkIndex(index, size);
+            return parent.getDataPoints().get(from + index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
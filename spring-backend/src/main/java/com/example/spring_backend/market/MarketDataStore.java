@@ -0,0 +1,48 @@
+package com.example.spring_backend.market;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Datasets kept in memory between backtests, so a daily update appends its bars instead of re-uploading and
+ * re-parsing the whole history.
+ * <p>
+ * A dataset is handed out as a snapshot: a read-only {@link MarketData} that bars appended later do not change,
+ * so backtests running while an update lands keep a consistent series. Every snapshot of a dataset shares its
+ * {@link MarketData#checkpoints() checkpoints}.
+ */
+public interface MarketDataStore {
+
+    /**
+     * Keeps a copy of the bars of {@code data} and returns the id of the new dataset.
+     */
+    @Nonnull
+    String put(@Nonnull MarketData data);
+
+    /**
+     * The dataset as it is now, or empty if there is no dataset with that id.
+     */
+    @Nonnull
+    Optional<MarketData> get(@Nonnull String id);
+
+    /**
+     * Extends the dataset with {@code bars} and returns the new snapshot. Costs {@code O(bars)}: existing bars
+     * are neither copied nor re-validated.
+     *
+     * @throws NoSuchElementException   if there is no dataset with that id
+     * @throws IllegalArgumentException if the bars are not in strictly ascending time order after the last
+     *                                  bar of the dataset
+     */
+    @Nonnull
+    MarketData append(@Nonnull String id, @Nonnull List<MarketDataPoint> bars);
+
+    /**
+     * Drops the dataset; snapshots already handed out stay readable.
+     *
+     * @return whether there was a dataset with that id
+     */
+    boolean remove(@Nonnull String id);
+}
@@ -0,0 +1,398 @@
+package com.example.spring_backend.market;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A read-only {@link MarketData} whose columns live outside the Java heap: in direct buffers
+ * ({@link #copyOf}) or in a column file mapped into memory ({@link #write} and {@link #map}). A bar then costs
+ * 72 bytes of native memory instead of a {@link MarketDataPoint} with its timestamp objects on the heap, which
+ * is what makes series of tens of millions of bars practical.
+ * <p>
+ * The {@code *Column()} accessors and {@link #slice} hand out views of the storage without copying. The array
+ * accessors still return fresh heap copies, and {@link #getDataPoints()} is a view that builds each point when
+ * it is read. Timestamps are stored to the second. Adding bars is not supported; write a new file instead.
+ * <p>
+ * A column file is a 16-byte header (magic, format version, bar count) followed by the nine columns, one after
+ * the other, as little-endian 8-byte values: timestamp (epoch seconds, UTC), open, high, low, close, adjusted
+ * close, volume, dividend amount and split coefficient. Volume is stored as a double, exact up to 2^53.
+ * <p>
+ * The memory is released when the instance is garbage collected, as with any NIO buffer.
+ */
+public final class OffHeapMarketData extends MarketData {
+    private static final int MAGIC = 0x54564331; // "TVC1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int COLUMN_COUNT = 9;
+    private static final int TIMESTAMP = 0;
+    private static final int OPEN = 1;
+    private static final int HIGH = 2;
+    private static final int LOW = 3;
+    private static final int CLOSE = 4;
+    private static final int ADJUSTED_CLOSE = 5;
+    private static final int VOLUME = 6;
+    private static final int DIVIDEND = 7;
+    private static final int SPLIT = 8;
+    private static final int WRITE_CHUNK = 1 << 16;
+
+    private final int size;
+    private final LongBuffer timestamps;
+    private final DoubleBuffer[] values;
+    private final DoubleColumn open;
+    private final DoubleColumn high;
+    private final DoubleColumn low;
+    private final DoubleColumn close;
+    private final DoubleColumn volume;
+    private final List<MarketDataPoint> points = new PointView();
+    // The series this one was sliced from, if any, and where the slice starts in it
+    @Nullable
+    private final OffHeapMarketData parent;
+    private final int offset;
+
+    // Adjusted series, also off-heap; this instance itself when there are no corporate actions
+    private volatile MarketData adjustedSeries;
+
+    private OffHeapMarketData(int size, ByteBuffer[] storage) {
+        this(size, storage[TIMESTAMP].order(ByteOrder.LITTLE_ENDIAN).asLongBuffer(), doubleViews(storage), null, 0);
+    }
+
+    private OffHeapMarketData(int size, LongBuffer timestamps, DoubleBuffer[] values,
+                              @Nullable OffHeapMarketData parent, int offset) {
+        this.size = size;
+        this.timestamps = timestamps;
+        this.values = values;
+        this.parent = parent;
+        this.offset = offset;
+        this.open = DoubleColumn.of(values[OPEN]);
+        this.high = DoubleColumn.of(values[HIGH]);
+        this.low = DoubleColumn.of(values[LOW]);
+        this.close = DoubleColumn.of(values[CLOSE]);
+        this.volume = DoubleColumn.of(values[VOLUME]);
+    }
+
+    /**
+     * Copies {@code source} into direct buffers.
+     */
+    @Nonnull
+    public static OffHeapMarketData copyOf(@Nonnull MarketData source) {
+        return copyOf(source.getDataPoints());
+    }
+
+    /**
+     * Writes {@code source} to {@code file} in the column format, replacing any existing file.
+     */
+    public static void write(@Nonnull MarketData source, @Nonnull Path file) throws IOException {
+        List<MarketDataPoint> points = source.getDataPoints();
+        int size = points.size();
+        columnBytes(size);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(MAGIC).putInt(VERSION).putLong(size).flip();
+            writeFully(channel, header);
+
+            ByteBuffer chunk = ByteBuffer.allocate(WRITE_CHUNK * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int c = 0; c < COLUMN_COUNT; c++) {
+                for (int from = 0; from < size; from += WRITE_CHUNK) {
+                    chunk.clear();
+                    int to = Math.min(size, from + WRITE_CHUNK);
+                    for (int i = from; i < to; i++) {
+                        MarketDataPoint point = points.get(i);
+                        if (c == TIMESTAMP) {
+                            chunk.putLong(point.timestamp().toEpochSecond(ZoneOffset.UTC));
+                        } else {
+                            chunk.putDouble(value(point, c));
+                        }
+                    }
+                    writeFully(channel, chunk.flip());
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps a column file written by {@link #write} read-only. The file may be closed or replaced afterwards
+     * only at the cost of undefined reads, as with any mapping.
+     *
+     * @throws IOException if the file cannot be read or is not a column file
+     */
+    @Nonnull
+    public static OffHeapMarketData map(@Nonnull Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IOException("Not a market data column file: " + file);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported column file version " + version + ": " + file);
+            }
+            long count = header.getLong();
+            if (count < 0 || count > Integer.MAX_VALUE / Long.BYTES) {
+                throw new IOException("Invalid bar count " + count + ": " + file);
+            }
+            int size = (int) count;
+            long columnBytes = columnBytes(size);
+            if (channel.size() < HEADER_BYTES + COLUMN_COUNT * columnBytes) {
+                throw new IOException("Truncated column file: " + file);
+            }
+
+            ByteBuffer[] storage = new ByteBuffer[COLUMN_COUNT];
+            for (int c = 0; c < COLUMN_COUNT; c++) {
+                storage[c] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + c * columnBytes, columnBytes);
+            }
+            return new OffHeapMarketData(size, storage);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A read-only view that builds each point when it is read.
+     */
+    @Override
+    public List<MarketDataPoint> getDataPoints() {
+        return points;
+    }
+
+    @Override
+    public void addDataPoint(MarketDataPoint point) {
+        throw new UnsupportedOperationException("Off-heap market data is read-only");
+    }
+
+    @Override
+    public void addDataPoints(List<MarketDataPoint> points) {
+        throw new UnsupportedOperationException("Off-heap market data is read-only");
+    }
+
+    /**
+     * A slice of the same buffers, itself off-heap market data; nothing is copied.
+     */
+    @Nonnull
+    @Override
+    public MarketData slice(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        int length = to - from;
+        DoubleBuffer[] sliced = new DoubleBuffer[COLUMN_COUNT];
+        for (int c = OPEN; c < COLUMN_COUNT; c++) {
+            sliced[c] = values[c].slice(from, length);
+        }
+        OffHeapMarketData root = parent == null ? this : parent;
+        return new OffHeapMarketData(length, timestamps.slice(from, length), sliced, root, offset + from);
+    }
+
+    @Override
+    public int indexAtOrAfter(@Nonnull LocalDateTime time) {
+        // Stored seconds are whole, so a bar is at or after time exactly when it is at or after its ceiling
+        long seconds = time.toEpochSecond(ZoneOffset.UTC) + (time.getNano() > 0 ? 1 : 0);
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps.get(mid) < seconds) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Nonnull
+    @Override
+    public MarketData adjusted() {
+        MarketData current = adjustedSeries;
+        if (current == null) {
+            if (parent != null) {
+                // Later corporate actions of the full series still adjust the prices in this slice
+                MarketData source = parent.adjusted();
+                current = source == parent ? this : source.slice(offset, offset + size);
+            } else {
+                current = CorporateActions.hasActions(DoubleColumn.of(values[DIVIDEND]), DoubleColumn.of(values[SPLIT]))
+                        ? adjust()
+                        : this;
+            }
+            adjustedSeries = current;
+        }
+        return current;
+    }
+
+    @Nonnull
+    @Override
+    public DoubleColumn closeColumn() {
+        return close;
+    }
+
+    @Nonnull
+    @Override
+    public DoubleColumn openColumn() {
+        return open;
+    }
+
+    @Nonnull
+    @Override
+    public DoubleColumn highColumn() {
+        return high;
+    }
+
+    @Nonnull
+    @Override
+    public DoubleColumn lowColumn() {
+        return low;
+    }
+
+    @Nonnull
+    @Override
+    public DoubleColumn volumeColumn() {
+        return volume;
+    }
+
+    @Override
+    public double[] close() {
+        return close.toArray();
+    }
+
+    @Override
+    public double[] open() {
+        return open.toArray();
+    }
+
+    @Override
+    public double[] high() {
+        return high.toArray();
+    }
+
+    @Override
+    public double[] low() {
+        return low.toArray();
+    }
+
+    @Override
+    public double[] volume() {
+        return volume.toArray();
+    }
+
+    /**
+     * The adjusted series in new direct buffers, computed column by column without building points. It shares
+     * this series' timestamps.
+     */
+    private OffHeapMarketData adjust() {
+        int columnBytes = columnBytes(size);
+        ByteBuffer[] storage = new ByteBuffer[COLUMN_COUNT];
+        for (int c = OPEN; c < COLUMN_COUNT; c++) {
+            storage[c] = ByteBuffer.allocateDirect(columnBytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        DoubleBuffer[] adjusted = doubleViews(storage);
+        CorporateActions.factors(close, DoubleColumn.of(values[DIVIDEND]), DoubleColumn.of(values[SPLIT]),
+                (i, price, split) -> {
+                    double adjustedClose = values[CLOSE].get(i) * price;
+                    adjusted[OPEN].put(i, values[OPEN].get(i) * price);
+                    adjusted[HIGH].put(i, values[HIGH].get(i) * price);
+                    adjusted[LOW].put(i, values[LOW].get(i) * price);
+                    adjusted[CLOSE].put(i, adjustedClose);
+                    adjusted[ADJUSTED_CLOSE].put(i, adjustedClose);
+                    adjusted[VOLUME].put(i, CorporateActions.adjustVolume(values[VOLUME].get(i), split));
+                    adjusted[SPLIT].put(i, 1.0);
+                });
+        return new OffHeapMarketData(size, timestamps, adjusted, null, 0);
+    }
+
+    private static OffHeapMarketData copyOf(List<MarketDataPoint> points) {
+        int size = points.size();
+        int columnBytes = columnBytes(size);
+        ByteBuffer[] storage = new ByteBuffer[COLUMN_COUNT];
+        for (int c = 0; c < COLUMN_COUNT; c++) {
+            storage[c] = ByteBuffer.allocateDirect(columnBytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        for (int i = 0; i < size; i++) {
+            MarketDataPoint point = points.get(i);
+            int offset = i * Long.BYTES;
+            storage[TIMESTAMP].putLong(offset, point.timestamp().toEpochSecond(ZoneOffset.UTC));
+            for (int c = OPEN; c < COLUMN_COUNT; c++) {
+                storage[c].putDouble(offset, value(point, c));
+            }
+        }
+        return new OffHeapMarketData(size, storage);
+    }
+
+    private static DoubleBuffer[] doubleViews(ByteBuffer[] storage) {
+        DoubleBuffer[] views = new DoubleBuffer[COLUMN_COUNT];
+        for (int c = OPEN; c < COLUMN_COUNT; c++) {
+            views[c] = storage[c].order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+        return views;
+    }
+
+    private static int columnBytes(int size) {
+        if (size > Integer.MAX_VALUE / Long.BYTES) {
+            throw new IllegalArgumentException("Series of " + size + " bars is too long for one column buffer");
+        }
+        return size * Long.BYTES;
+    }
+
+    private static double value(MarketDataPoint point, int column) {
+        return switch (column) {
+            case OPEN -> point.open();
+            case HIGH -> point.high();
+            case LOW -> point.low();
+            case CLOSE -> point.close();
+            case ADJUSTED_CLOSE -> point.adjustedClose();
+            case VOLUME -> point.volume();
+            case DIVIDEND -> point.dividendAmount();
+            case SPLIT -> point.splitCoefficient();
+            default -> throw new IllegalArgumentException("Not a price column: " + column);
+        };
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private final class PointView extends AbstractList<MarketDataPoint> implements RandomAccess {
+        @Override
+        public MarketDataPoint get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+            }
+            return new MarketDataPoint(
+                    LocalDateTime.ofEpochSecond(timestamps.get(index), 0, ZoneOffset.UTC),
+                    values[OPEN].get(index),
+                    values[HIGH].get(index),
+                    values[LOW].get(index),
+                    values[CLOSE].get(index),
+                    values[ADJUSTED_CLOSE].get(index),
+                    (long) values[VOLUME].get(index),
+                    values[DIVIDEND].get(index),
+                    values[SPLIT].get(index));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.spring_backend.market;
+
+import lombok.Builder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Parameters for {@link SyntheticMarketData}. Drift and volatility are per bar, probabilities are per-bar
+ * chances. Start from {@link #defaults(long, long)} and override what the scenario needs.
+ *
+ * @param regimeSwitchProbability chance of flipping between the calm and the turbulent regime
+ * @param turbulentVolatilityMultiplier volatility of the turbulent regime relative to {@code volatility}
+ * @param turbulentDrift per-bar drift while turbulent, typically negative
+ * @param gapProbability chance that a bar opens away from the previous close
+ * @param gapVolatility standard deviation of the log gap size
+ * @param volumeSpikeProbability chance of a volume spike, gaps always spike
+ */
+@Builder(toBuilder = true)
+public record SyntheticDataSpec(
+        long seed,
+        long bars,
+        LocalDateTime start,
+        Duration barInterval,
+        double initialPrice,
+        double drift,
+        double volatility,
+        double regimeSwitchProbability,
+        double turbulentVolatilityMultiplier,
+        double turbulentDrift,
+        double gapProbability,
+        double gapVolatility,
+        long baseVolume,
+        double volumeSpikeProbability,
+        double volumeSpikeMultiplier) {
+
+    public SyntheticDataSpec {
+        if (bars < 0) {
+            throw new IllegalArgumentException("Bar count cannot be negative: " + bars);
+        }
+        if (start == null) {
+            throw new IllegalArgumentException("Start timestamp is required");
+        }
+        if (barInterval == null || barInterval.isNegative() || barInterval.isZero() || barInterval.getNano() != 0) {
+            throw new IllegalArgumentException("Bar interval must be a positive whole number of seconds: " + barInterval);
+        }
+        if (initialPrice <= 0 || volatility < 0 || gapVolatility < 0 || turbulentVolatilityMultiplier < 0) {
+            throw new IllegalArgumentException("Prices must be positive and volatilities non-negative");
+        }
+        if (baseVolume < 0 || volumeSpikeMultiplier < 0) {
+            throw new IllegalArgumentException("Volumes cannot be negative");
+        }
+        requireProbability("regimeSwitchProbability", regimeSwitchProbability);
+        requireProbability("gapProbability", gapProbability);
+        requireProbability("volumeSpikeProbability", volumeSpikeProbability);
+    }
+
+    /**
+     * One-minute bars of a liquid stock: ~1% per-bar volatility, a regime switch every ~500 bars,
+     * a gap every ~1000 bars and a volume spike every ~200 bars.
+     */
+    public static SyntheticDataSpecBuilder defaults(long seed, long bars) {
+        return builder()
+                .seed(seed)
+                .bars(bars)
+                .start(LocalDateTime.of(2000, 1, 3, 9, 30))
+                .barInterval(Duration.ofMinutes(1))
+                .initialPrice(100.0)
+                .drift(0.0)
+                .volatility(0.01)
+                .regimeSwitchProbability(0.002)
+                .turbulentVolatilityMultiplier(3.0)
+                .turbulentDrift(-0.0005)
+                .gapProbability(0.001)
+                .gapVolatility(0.03)
+                .baseVolume(1_000_000)
+                .volumeSpikeProbability(0.005)
+                .volumeSpikeMultiplier(8.0);
+    }
+
+    private static void requireProbability(String name, double value) {
+        if (value < 0 || value > 1) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1: " + value);
+        }
+    }
+}
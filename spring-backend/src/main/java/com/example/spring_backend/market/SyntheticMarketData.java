@@ -0,0 +1,217 @@
+package com.example.spring_backend.market;
+
+import jakarta.annotation.Nonnull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic OHLCV series for load tests and benchmarks.
+ * <p>
+ * Closes follow a geometric Brownian motion that switches between a calm and a turbulent regime, with
+ * occasional opening gaps and volume spikes. The same {@link SyntheticDataSpec} always yields the same
+ * bars, whether they are materialized as {@link MarketData} or streamed as CSV in the column layout the
+ * CSV importer reads. Streaming generates rows on demand, so even 100M-row files never sit in memory.
+ */
+public final class SyntheticMarketData {
+    private static final String CSV_HEADER =
+            "timestamp,open,high,low,close,adjusted_close,volume,dividend_amount,split_coefficient\n";
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private SyntheticMarketData() {
+        throw new AssertionError("SyntheticMarketData is a utility class and should not be instantiated");
+    }
+
+    @Nonnull
+    public static MarketData generate(@Nonnull SyntheticDataSpec spec) {
+        if (spec.bars() > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many bars to hold in memory, stream them as CSV instead: " + spec.bars());
+        }
+
+        BarCursor cursor = new BarCursor(spec);
+        List<MarketDataPoint> points = new ArrayList<>((int) spec.bars());
+        while (cursor.next()) {
+            points.add(MarketDataPoint.builder()
+                    .timestamp(cursor.timestamp)
+                    .open(cursor.open)
+                    .high(cursor.high)
+                    .low(cursor.low)
+                    .close(cursor.close)
+                    .adjustedClose(cursor.close)
+                    .volume(cursor.volume)
+                    .dividendAmount(0.0)
+                    .splitCoefficient(1.0)
+                    .build());
+        }
+
+        MarketData marketData = new MarketData();
+        marketData.addDataPoints(points);
+        return marketData;
+    }
+
+    /**
+     * CSV rendering of the series, generated lazily as the stream is read.
+     */
+    @Nonnull
+    public static InputStream csvStream(@Nonnull SyntheticDataSpec spec) {
+        return new CsvInputStream(spec);
+    }
+
+    public static void writeCsv(@Nonnull SyntheticDataSpec spec, @Nonnull OutputStream out) throws IOException {
+        try (InputStream csv = csvStream(spec)) {
+            csv.transferTo(out);
+        }
+    }
+
+    /**
+     * Produces one bar per {@link #next()} into mutable fields, so streaming allocates nothing per row
+     * beyond the timestamp. Every bar draws the same amount of randomness whichever branches it takes,
+     * which keeps the series identical for a given seed.
+     */
+    private static final class BarCursor {
+        private final SyntheticDataSpec spec;
+        private final SplittableRandom random;
+        private long remaining;
+        private boolean turbulent;
+        private double previousClose;
+
+        LocalDateTime timestamp;
+        double open;
+        double high;
+        double low;
+        double close;
+        long volume;
+
+        BarCursor(SyntheticDataSpec spec) {
+            this.spec = spec;
+            this.random = new SplittableRandom(spec.seed());
+            this.remaining = spec.bars();
+            this.previousClose = spec.initialPrice();
+        }
+
+        boolean next() {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            timestamp = timestamp == null ? spec.start() : timestamp.plus(spec.barInterval());
+
+            if (random.nextDouble() < spec.regimeSwitchProbability()) {
+                turbulent = !turbulent;
+            }
+            double sigma = turbulent ? spec.volatility() * spec.turbulentVolatilityMultiplier() : spec.volatility();
+            double mu = turbulent ? spec.turbulentDrift() : spec.drift();
+
+            boolean gap = random.nextDouble() < spec.gapProbability();
+            double gapShock = random.nextGaussian();
+            double openNoise = random.nextGaussian();
+            double returnShock = random.nextGaussian();
+            double highShock = Math.abs(random.nextGaussian());
+            double lowShock = Math.abs(random.nextGaussian());
+            double volumeNoise = random.nextGaussian();
+            boolean spike = random.nextDouble() < spec.volumeSpikeProbability();
+
+            open = previousClose * Math.exp(gap ? spec.gapVolatility() * gapShock : 0.1 * sigma * openNoise);
+            close = open * Math.exp(mu - 0.5 * sigma * sigma + sigma * returnShock);
+            high = Math.max(open, close) * Math.exp(0.5 * sigma * highShock);
+            low = Math.min(open, close) * Math.exp(-0.5 * sigma * lowShock);
+
+            double volumeScale = Math.exp(0.3 * volumeNoise) * (turbulent ? 1.5 : 1.0);
+            if (gap || spike) {
+                volumeScale *= spec.volumeSpikeMultiplier();
+            }
+            volume = Math.round(spec.baseVolume() * volumeScale);
+
+            previousClose = close;
+            return true;
+        }
+    }
+
+    /**
+     * Renders rows in chunks into a small reusable buffer as the reader consumes them.
+     */
+    private static final class CsvInputStream extends InputStream {
+        private static final int ROWS_PER_CHUNK = 1024;
+
+        private final BarCursor cursor;
+        private final DateTimeFormatter timestampFormat;
+        private final StringBuilder chunk = new StringBuilder(ROWS_PER_CHUNK * 128);
+        private byte[] buffer;
+        private int position;
+        private boolean exhausted;
+
+        CsvInputStream(SyntheticDataSpec spec) {
+            this.cursor = new BarCursor(spec);
+            boolean dailyBars = spec.barInterval().toSeconds() % 86_400 == 0
+                    && spec.start().toLocalTime().equals(LocalTime.MIDNIGHT);
+            this.timestampFormat = dailyBars ? DATE_FORMAT : DATE_TIME_FORMAT;
+            this.buffer = CSV_HEADER.getBytes(StandardCharsets.US_ASCII);
+        }
+
+        @Override
+        public int read() {
+            if (!ensureAvailable()) {
+                return -1;
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(@Nonnull byte[] target, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!ensureAvailable()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.length - position);
+            System.arraycopy(buffer, position, target, offset, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.length - position;
+        }
+
+        private boolean ensureAvailable() {
+            if (position < buffer.length) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+
+            chunk.setLength(0);
+            for (int row = 0; row < ROWS_PER_CHUNK; row++) {
+                if (!cursor.next()) {
+                    exhausted = true;
+                    break;
+                }
+                timestampFormat.formatTo(cursor.timestamp, chunk);
+                chunk.append(',').append(cursor.open)
+                        .append(',').append(cursor.high)
+                        .append(',').append(cursor.low)
+                        .append(',').append(cursor.close)
+                        .append(',').append(cursor.close)
+                        .append(',').append(cursor.volume)
+                        .append(",0.0,1.0\n");
+            }
+
+            buffer = chunk.toString().getBytes(StandardCharsets.US_ASCII);
+            position = 0;
+            return buffer.length > 0;
+        }
+    }
+}
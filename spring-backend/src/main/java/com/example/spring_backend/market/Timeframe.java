@@ -0,0 +1,73 @@
+package com.example.spring_backend.market;
+
+import jakarta.annotation.Nonnull;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Locale;
+
+/**
+ * Fixed bar length used for resampling, e.g. {@code 5m}, {@code 1h}, {@code 1d} or {@code 1w}.
+ * <p>
+ * Buckets are aligned to the epoch in the data's own local time: hourly bars start on the hour, daily bars at
+ * midnight, and weekly bars on Monday. A bucket is labelled with its start.
+ *
+ * @param length bar length, at least one second and a whole number of seconds
+ */
+public record Timeframe(@Nonnull Duration length) {
+    private static final long SECONDS_PER_WEEK = Duration.ofDays(7).toSeconds();
+    // 1970-01-01 was a Thursday; weekly buckets count from Monday 1970-01-05
+    private static final long WEEK_ORIGIN = Duration.ofDays(4).toSeconds();
+
+    public Timeframe {
+        if (length == null || length.toSeconds() < 1 || length.getNano() != 0) {
+            throw new IllegalArgumentException("Timeframe must be a positive whole number of seconds: " + length);
+        }
+    }
+
+    /**
+     * Parses an amount followed by a unit: {@code s}, {@code m}, {@code h}, {@code d} or {@code w}.
+     */
+    @Nonnull
+    public static Timeframe parse(@Nonnull String value) {
+        String text = value.trim().toLowerCase(Locale.ROOT);
+        if (text.length() < 2) {
+            throw new IllegalArgumentException("Invalid timeframe: " + value);
+        }
+        long amount;
+        try {
+            amount = Long.parseLong(text.substring(0, text.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid timeframe: " + value, e);
+        }
+        Duration length = switch (text.charAt(text.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            case 'd' -> Duration.ofDays(amount);
+            case 'w' -> Duration.ofDays(7 * amount);
+            default -> throw new IllegalArgumentException("Invalid timeframe unit: " + value);
+        };
+        return new Timeframe(length);
+    }
+
+    /**
+     * Bucket number of {@code timestamp}; consecutive buckets have consecutive numbers.
+     */
+    public long bucket(@Nonnull LocalDateTime timestamp) {
+        long seconds = length.toSeconds();
+        long origin = seconds % SECONDS_PER_WEEK == 0 ? WEEK_ORIGIN : 0;
+        return Math.floorDiv(timestamp.toEpochSecond(ZoneOffset.UTC) - origin, seconds);
+    }
+
+    /**
+     * Start of the bucket numbered {@code bucket}, the label of its resampled bar.
+     */
+    @Nonnull
+    public LocalDateTime start(long bucket) {
+        long seconds = length.toSeconds();
+        long origin = seconds % SECONDS_PER_WEEK == 0 ? WEEK_ORIGIN : 0;
+        return LocalDateTime.ofEpochSecond(bucket * seconds + origin, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.spring_backend.market.internal;
+
+import com.example.spring_backend.market.MarketDataPoint;
+import jakarta.annotation.Nonnull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Bars of a stored dataset, in fixed-size chunks that are never moved once written. Appends only touch the
+ * new bars (plus, every {@value #CHUNK_SIZE} bars, a copy of the chunk directory), and a {@link #snapshot}
+ * captures the directory and size at the time it is taken, so readers never see a bar appended after it.
+ * <p>
+ * Appends must be serialized by the caller; snapshots may be taken and read from any thread.
+ */
+final class AppendOnlyBars {
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    // Written before size, so a reader that sees a size also sees every chunk and bar below it
+    private volatile MarketDataPoint[][] chunks = new MarketDataPoint[0][];
+    private volatile int size;
+
+    void append(@Nonnull List<MarketDataPoint> bars) {
+        MarketDataPoint[][] directory = chunks;
+        int length = size;
+        for (MarketDataPoint bar : bars) {
+            int chunk = length >>> CHUNK_BITS;
+            if (chunk == directory.length) {
+                directory = Arrays.copyOf(directory, chunk + 1);
+                directory[chunk] = new MarketDataPoint[CHUNK_SIZE];
+            }
+            directory[chunk][length & (CHUNK_SIZE - 1)] = bar;
+            length++;
+        }
+        chunks = directory;
+        size = length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * The bars appended so far, as an immutable list that does not grow with later appends.
+     */
+    @Nonnull
+    List<MarketDataPoint> snapshot() {
+        int length = size;
+        return new Snapshot(chunks, length);
+    }
+
+    private static final class Snapshot extends AbstractList<MarketDataPoint> implements RandomAccess {
+        private final MarketDataPoint[][] chunks;
+        private final int size;
+
+        private Snapshot(MarketDataPoint[][] chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        @Override
+        public MarketDataPoint get(int index) {
+            Objects.checkIndex(index, size);
+            return chunks[index >>> CHUNK_BITS][index & (CHUNK_SIZE - 1)];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.spring_backend.market.internal;
+
+import com.example.spring_backend.market.Checkpoints;
+import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.market.MarketDataPoint;
+import com.example.spring_backend.market.MarketDataStore;
+import jakarta.annotation.Nonnull;
+
+import java.util.List;
+
+/**
+ * A stored dataset as of one point in time; see {@link MarketDataStore#get}. Read-only: new bars go through
+ * {@link MarketDataStore#append}, which hands out a new snapshot.
+ */
+final class DatasetSnapshot extends MarketData {
+    private final List<MarketDataPoint> points;
+    private final Checkpoints checkpoints;
+
+    DatasetSnapshot(@Nonnull List<MarketDataPoint> points, @Nonnull Checkpoints checkpoints) {
+        this.points = points;
+        this.checkpoints = checkpoints;
+    }
+
+    @Override
+    public List<MarketDataPoint> getDataPoints() {
+        return points;
+    }
+
+    @Override
+    public int size() {
+        return points.size();
+    }
+
+    @Nonnull
+    @Override
+    public Checkpoints checkpoints() {
+        return checkpoints;
+    }
+
+    @Override
+    public void addDataPoint(MarketDataPoint point) {
+        throw new UnsupportedOperationException("Stored datasets are extended through MarketDataStore.append");
+    }
+
+    @Override
+    public void addDataPoints(List<MarketDataPoint> points) {
+        throw new UnsupportedOperationException("Stored datasets are extended through MarketDataStore.append");
+    }
+}
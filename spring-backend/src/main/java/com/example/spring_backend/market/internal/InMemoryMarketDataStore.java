@@ -0,0 +1,133 @@
+package com.example.spring_backend.market.internal;
+
+import com.example.spring_backend.market.Checkpoints;
+import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.market.MarketDataPoint;
+import com.example.spring_backend.market.MarketDataStore;
+import jakarta.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link MarketDataStore} on the heap. Holds at most {@code market.store.max-datasets} datasets and drops the
+ * least recently used one to make room for a new one. The {@link Checkpoints} of all datasets share a budget of
+ * {@code market.store.checkpoint-bytes}.
+ */
+@Service
+@Slf4j
+public class InMemoryMarketDataStore implements MarketDataStore {
+    static final int DEFAULT_MAX_DATASETS = 32;
+    static final long DEFAULT_CHECKPOINT_BYTES = 256L * 1024 * 1024;
+
+    private final int maxDatasets;
+    private final Map<String, Dataset> datasets;
+    private final AtomicLong freeCheckpointBytes;
+
+    public InMemoryMarketDataStore(int maxDatasets) {
+        this(maxDatasets, DEFAULT_CHECKPOINT_BYTES);
+    }
+
+    @Autowired
+    public InMemoryMarketDataStore(@Value("${market.store.max-datasets:" + DEFAULT_MAX_DATASETS + "}") int maxDatasets,
+                                   @Value("${market.store.checkpoint-bytes:" + DEFAULT_CHECKPOINT_BYTES + "}") long checkpointBytes) {
+        if (maxDatasets <= 0) {
+            throw new IllegalArgumentException("market.store.max-datasets must be positive");
+        }
+        if (checkpointBytes < 0) {
+            throw new IllegalArgumentException("market.store.checkpoint-bytes must not be negative");
+        }
+        this.maxDatasets = maxDatasets;
+        this.datasets = new LinkedHashMap<>(16, 0.75f, true);
+        this.freeCheckpointBytes = new AtomicLong(checkpointBytes);
+    }
+
+    @Nonnull
+    @Override
+    public String put(@Nonnull MarketData data) {
+        Dataset dataset = new Dataset(new Checkpoints(freeCheckpointBytes));
+        dataset.append(data.getDataPoints());
+        String id = UUID.randomUUID().toString();
+        synchronized (datasets) {
+            datasets.put(id, dataset);
+            if (datasets.size() > maxDatasets) {
+                String eldest = datasets.keySet().iterator().next();
+                datasets.remove(eldest).checkpoints.clear();
+                log.info("Dropped least recently used dataset {} to stay within {} datasets", eldest, maxDatasets);
+            }
+        }
+        return id;
+    }
+
+    @Nonnull
+    @Override
+    public Optional<MarketData> get(@Nonnull String id) {
+        return dataset(id).map(Dataset::snapshot);
+    }
+
+    @Nonnull
+    @Override
+    public MarketData append(@Nonnull String id, @Nonnull List<MarketDataPoint> bars) {
+        return dataset(id)
+                .orElseThrow(() -> new NoSuchElementException("No dataset with id " + id))
+                .append(bars);
+    }
+
+    @Override
+    public boolean remove(@Nonnull String id) {
+        Dataset removed;
+        synchronized (datasets) {
+            removed = datasets.remove(id);
+        }
+        if (removed == null) {
+            return false;
+        }
+        removed.checkpoints.clear();
+        return true;
+    }
+
+    private Optional<Dataset> dataset(String id) {
+        synchronized (datasets) {
+            return Optional.ofNullable(datasets.get(id));
+        }
+    }
+
+    private static final class Dataset {
+        private final AppendOnlyBars bars = new AppendOnlyBars();
+        private final Checkpoints checkpoints;
+        private volatile MarketData snapshot;
+
+        Dataset(Checkpoints checkpoints) {
+            this.checkpoints = checkpoints;
+            this.snapshot = new DatasetSnapshot(List.of(), checkpoints);
+        }
+
+        synchronized MarketData append(List<MarketDataPoint> newBars) {
+            List<MarketDataPoint> current = snapshot.getDataPoints();
+            LocalDateTime last = current.isEmpty() ? null : current.getLast().timestamp();
+            for (MarketDataPoint bar : newBars) {
+                if (last != null && !bar.timestamp().isAfter(last)) {
+                    throw new IllegalArgumentException("Appended bars must be after " + last + ", got " + bar.timestamp());
+                }
+                last = bar.timestamp();
+            }
+            bars.append(newBars);
+            snapshot = new DatasetSnapshot(bars.snapshot(), checkpoints);
+            return snapshot;
+        }
+
+        MarketData snapshot() {
+            return snapshot;
+        }
+    }
+}
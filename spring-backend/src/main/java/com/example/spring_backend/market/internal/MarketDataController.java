@@ -0,0 +1,89 @@
+package com.example.spring_backend.market.internal;
+
+import com.example.spring_backend.market.CsvImporterService;
+import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.market.MarketDataStore;
+import jakarta.annotation.Nonnull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+
+/**
+ * Uploads datasets into the {@link MarketDataStore} and appends new bars to them, so backtests can be re-run
+ * by dataset id without sending the whole history again.
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/api/datasets")
+public class MarketDataController {
+    private final CsvImporterService csvImporterService;
+    private final MarketDataStore marketDataStore;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<DatasetSummary> upload(@RequestPart("file") @Nonnull MultipartFile file) {
+        try {
+            MarketData dataset = importCsv(file);
+            String id = marketDataStore.put(dataset);
+            log.info("Stored dataset {} with {} bars", id, dataset.size());
+            return ResponseEntity.status(HttpStatus.CREATED).body(DatasetSummary.of(id, dataset));
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Rejected dataset upload: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Appends the bars of {@code file}, which must all be later than the last bar of the dataset.
+     */
+    @PostMapping(value = "/{id}/bars", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<DatasetSummary> append(@PathVariable String id,
+                                                 @RequestPart("file") @Nonnull MultipartFile file) {
+        try {
+            MarketData dataset = marketDataStore.append(id, importCsv(file).getDataPoints());
+            log.info("Appended to dataset {}, now {} bars", id, dataset.size());
+            return ResponseEntity.ok(DatasetSummary.of(id, dataset));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Rejected bars for dataset {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<DatasetSummary> getDataset(@PathVariable String id) {
+        return marketDataStore.get(id)
+                .map(dataset -> ResponseEntity.ok(DatasetSummary.of(id, dataset)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable String id) {
+        return marketDataStore.remove(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    private MarketData importCsv(MultipartFile file) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return csvImporterService.importCsvFromStream(inputStream);
+        }
+    }
+
+    public record DatasetSummary(String id, int bars, LocalDateTime lastTimestamp) {
+        static DatasetSummary of(String id, MarketData dataset) {
+            int bars = dataset.size();
+            return new DatasetSummary(id, bars, bars == 0 ? null : dataset.getDataPoints().getLast().timestamp());
+        }
+    }
+}
@@ -1,8 +1,30 @@
 package com.example.spring_backend.strategies;
 
 import com.example.spring_backend.market.MarketData;
+import jakarta.annotation.Nullable;
 
+/**
+ * A signal over market data. Implementations should compare equal when their parameters are equal, which
+ * lets a {@link SignalPass} evaluate a node shared by several trees once.
+ */
 public interface Condition {
     boolean evaluate(MarketData data, int currentIndex);
     boolean[] evaluateVector(MarketData data);
+
+    /**
+     * Rough work per bar of {@link #evaluateVector}, in simple array operations. {@link ConditionScheduler}
+     * uses it to decide whether a subtree is worth another core, so an order of magnitude is enough.
+     */
+    default int relativeCost() {
+        return 1;
+    }
+
+    /**
+     * The indicator comparison this condition makes, for conditions simple enough to be fused into a generated
+     * {@link SignalKernel}; {@code null} keeps the condition, and any plan containing it, on the interpreted path.
+     */
+    @Nullable
+    default SignalShape shape() {
+        return null;
+    }
 }
@@ -0,0 +1,74 @@
+package com.example.spring_backend.strategies;
+
+import com.example.spring_backend.common.PipelineMetrics;
+import com.example.spring_backend.common.PipelineObservations;
+import com.example.spring_backend.market.MarketData;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import jakarta.annotation.Nonnull;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Evaluates a condition over a whole dataset with timing and tracing.
+ * <p>
+ * Every node of a condition tree goes through here: {@link Strategy} for its top-level conditions and
+ * composites for their children. Each node gets its own per-type timer sample and a span nested under its
+ * parent's span, which is what makes a slow leaf in a deep AND/OR/NOT tree visible.
+ */
+public final class ConditionEvaluator {
+
+    private ConditionEvaluator() {
+        throw new AssertionError("ConditionEvaluator is a utility class and should not be instantiated");
+    }
+
+    /**
+     * Inside a {@link SignalPass} a node equal to one already evaluated in that pass is not evaluated again;
+     * the earlier result is returned and must not be modified.
+     *
+     * @param dataSize number of bars in {@code data}, passed in so callers don't copy a column just to size it
+     */
+    @Nonnull
+    public static boolean[] evaluate(@Nonnull Condition condition, @Nonnull MarketData data, int dataSize) {
+        return SignalPass.shared(condition, () -> observe(condition, data, dataSize));
+    }
+
+    /**
+     * Evaluates {@code condition} over data other than that of the calling pass, e.g. a resampled series.
+     * Results memoized in a {@link SignalPass} belong to the pass's dataset, so the evaluation runs in a pass
+     * of its own.
+     */
+    @Nonnull
+    public static boolean[] evaluateDetached(@Nonnull Condition condition, @Nonnull MarketData data, int dataSize) {
+        try (SignalPass.Scope ignored = SignalPass.open()) {
+            return evaluate(condition, data, dataSize);
+        }
+    }
+
+    private static boolean[] observe(Condition condition, MarketData data, int dataSize) {
+        String conditionType = PipelineMetrics.conditionType(condition);
+        Observation observation = PipelineObservations.observation(PipelineObservations.CONDITION_EVALUATION)
+                .contextualName("evaluate " + conditionType.toLowerCase(Locale.ROOT))
+                .lowCardinalityKeyValue(PipelineMetrics.CONDITION_TYPE_TAG, conditionType)
+                .highCardinalityKeyValue(PipelineObservations.ROW_COUNT_KEY, String.valueOf(dataSize));
+
+        return observation.observe(() -> {
+            Timer.Sample sample = PipelineMetrics.start();
+            boolean[] signals = condition.evaluateVector(data);
+            PipelineMetrics.stop(sample, PipelineMetrics.CONDITION_EVALUATION, dataSize,
+                    PipelineMetrics.CONDITION_TYPE_TAG, conditionType);
+            return signals;
+        });
+    }
+
+    /**
+     * Evaluates sibling conditions, running costly ones on other cores when {@link ConditionScheduler} has
+     * budget to spare. Results are in the order of {@code conditions}.
+     */
+    @Nonnull
+    public static List<boolean[]> evaluateAll(
+            @Nonnull List<? extends Condition> conditions, @Nonnull MarketData data, int dataSize) {
+        return ConditionScheduler.evaluateAll(conditions, data, dataSize);
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.spring_backend.strategies;
+
+import com.example.spring_backend.common.Cancellation;
+import com.example.spring_backend.common.PipelineObservations;
+import com.example.spring_backend.market.MarketData;
+import io.micrometer.observation.Observation;
+import jakarta.annotation.Nonnull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs costly sibling condition subtrees on separate cores within a process-wide CPU budget.
+ * <p>
+ * The budget counts every thread doing condition work: each {@link Strategy} evaluation occupies one slot on
+ * its own thread for its duration, and each forked subtree or {@link #forEachIndex} helper takes one more. A
+ * thread holds at most one slot, so an evaluation running on a thread that already has one reuses it. A subtree is only forked when a slot
+ * is free, so five concurrent backtests on a four-slot budget evaluate strictly inline, while a single backtest
+ * spreads its heavy leaves over the idle cores. Forked subtrees run on dedicated worker threads that are handed
+ * a task directly and never queue, which rules out the pool deadlocking on nested forks.
+ * <p>
+ * Parallelism is off (a budget of one) until {@link #configure(int, long)} is called at startup.
+ */
+public final class ConditionScheduler {
+    public static final long DEFAULT_MIN_COST = 1_000_000L;
+
+    private static final AtomicInteger busySlots = new AtomicInteger();
+    private static final ThreadLocal<Boolean> holdsSlot = ThreadLocal.withInitial(() -> false);
+    private static final Slot HELD = () -> {
+    };
+    private static final AtomicInteger workerCount = new AtomicInteger();
+    private static final ExecutorService workers = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "condition-worker-" + workerCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static volatile int cpuBudget = 1;
+    private static volatile long minCost = DEFAULT_MIN_COST;
+
+    private ConditionScheduler() {
+        throw new AssertionError("ConditionScheduler is a utility class and should not be instantiated");
+    }
+
+    /**
+     * @param budget  maximum number of threads doing condition work at once, across all backtests
+     * @param minCost smallest {@link Condition#relativeCost()} times bar count worth a fork; cheaper
+     *                subtrees always stay on the calling thread
+     */
+    public static void configure(int budget, long minCost) {
+        if (budget < 1 || minCost < 0) {
+            throw new IllegalArgumentException("CPU budget must be positive and minimum cost non-negative");
+        }
+        ConditionScheduler.cpuBudget = budget;
+        ConditionScheduler.minCost = minCost;
+    }
+
+    public static void reset() {
+        configure(1, DEFAULT_MIN_COST);
+    }
+
+    public static int cpuBudget() {
+        return cpuBudget;
+    }
+
+    /**
+     * Holds a budget slot for the calling thread while it evaluates a strategy. A thread that already holds one,
+     * such as a {@link #forEachIndex} helper, keeps it and gets a slot whose closing does nothing.
+     */
+    @Nonnull
+    public static Slot occupy() {
+        if (holdsSlot.get()) {
+            return HELD;
+        }
+        busySlots.incrementAndGet();
+        holdsSlot.set(true);
+        return () -> {
+            holdsSlot.remove();
+            busySlots.decrementAndGet();
+        };
+    }
+
+    static int busySlots() {
+        return busySlots.get();
+    }
+
+    /**
+     * Evaluates siblings over the whole dataset, forking the costly ones while budget slots are free.
+     * Results are in the order of {@code conditions}.
+     */
+    @Nonnull
+    static List<boolean[]> evaluateAll(@Nonnull List<? extends Condition> conditions, @Nonnull MarketData data, int dataSize) {
+        boolean[][] results = new boolean[conditions.size()][];
+        List<Forked> forked = forkCostly(conditions, data, dataSize);
+
+        try {
+            for (int i = 0; i < conditions.size(); i++) {
+                if (!isForked(forked, i)) {
+                    Cancellation.throwIfCancelled();
+                    results[i] = ConditionEvaluator.evaluate(conditions.get(i), data, dataSize);
+                }
+            }
+            for (Forked fork : forked) {
+                results[fork.index()] = await(fork.task());
+            }
+        } finally {
+            // Stops the remaining subtrees when this thread failed or was cancelled; a no-op once all are done
+            forked.forEach(fork -> fork.task().cancel(true));
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Runs {@code task} once for every index in {@code [0, count)}, on the calling thread and on one worker per
+     * free budget slot. The calling thread occupies a slot of its own while it drains, so the run never uses
+     * more threads than the budget. Each thread claims the next unclaimed index, so uneven tasks balance out.
+     * The first exception stops the remaining indexes from being claimed and is rethrown here.
+     */
+    public static void forEachIndex(int count, @Nonnull IntConsumer task) {
+        AtomicInteger next = new AtomicInteger();
+        Runnable drain = () -> {
+            try {
+                for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                    Cancellation.throwIfCancelled();
+                    task.accept(i);
+                }
+            } catch (RuntimeException | Error e) {
+                next.set(count);
+                throw e;
+            }
+        };
+
+        Observation parent = PipelineObservations.currentObservation();
+        List<FutureTask<Void>> helpers = new ArrayList<>();
+        try (Slot caller = occupy()) {
+            for (int helper = 1; helper < count && tryAcquireSlot(); helper++) {
+                FutureTask<Void> future = new FutureTask<>(() -> holding(() -> {
+                    if (parent == null) {
+                        drain.run();
+                    } else {
+                        try (Observation.Scope observed = parent.openScope()) {
+                            drain.run();
+                        }
+                    }
+                    return null;
+                })) {
+                    @Override
+                    protected void done() {
+                        busySlots.decrementAndGet();
+                    }
+                };
+                workers.execute(future);
+                helpers.add(future);
+            }
+
+            drain.run();
+            for (FutureTask<Void> helper : helpers) {
+                await(helper);
+            }
+        } finally {
+            helpers.forEach(helper -> helper.cancel(true));
+        }
+    }
+
+    private static List<Forked> forkCostly(List<? extends Condition> conditions, MarketData data, int dataSize) {
+        if (conditions.size() < 2 || cpuBudget <= 1) {
+            return List.of();
+        }
+
+        List<Integer> costly = new ArrayList<>();
+        for (int i = 0; i < conditions.size(); i++) {
+            if ((long) conditions.get(i).relativeCost() * dataSize >= minCost) {
+                costly.add(i);
+            }
+        }
+        if (costly.size() < 2) {
+            return List.of();
+        }
+
+        // The last costly subtree stays on this thread, which would otherwise sit idle waiting
+        Observation parent = PipelineObservations.currentObservation();
+        SignalPass pass = SignalPass.current();
+        List<Forked> forked = new ArrayList<>();
+        for (int index : costly.subList(0, costly.size() - 1)) {
+            if (!tryAcquireSlot()) {
+                break;
+            }
+            Condition condition = conditions.get(index);
+            FutureTask<boolean[]> task = new FutureTask<>(
+                    () -> holding(() -> evaluateUnder(parent, pass, condition, data, dataSize))) {
+                @Override
+                protected void done() {
+                    // Runs exactly once, also when cancelled before a worker picked the task up
+                    busySlots.decrementAndGet();
+                }
+            };
+            workers.execute(task);
+            forked.add(new Forked(index, task));
+        }
+        return forked;
+    }
+
+    private static boolean[] evaluateUnder(Observation parent, SignalPass pass, Condition condition,
+                                           MarketData data, int dataSize) {
+        try (SignalPass.Scope ignored = SignalPass.bind(pass)) {
+            if (parent == null) {
+                return ConditionEvaluator.evaluate(condition, data, dataSize);
+            }
+            try (Observation.Scope observed = parent.openScope()) {
+                return ConditionEvaluator.evaluate(condition, data, dataSize);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code work} on a worker thread whose slot was acquired for it by the thread that handed it over.
+     */
+    private static <T> T holding(Callable<T> work) throws Exception {
+        holdsSlot.set(true);
+        try {
+            return work.call();
+        } finally {
+            holdsSlot.remove();
+        }
+    }
+
+    private static boolean tryAcquireSlot() {
+        int busy;
+        do {
+            busy = busySlots.get();
+            if (busy >= cpuBudget) {
+                return false;
+            }
+        } while (!busySlots.compareAndSet(busy, busy + 1));
+        return true;
+    }
+
+    private static <T> T await(FutureTask<T> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Backtest work was cancelled");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Condition evaluation failed", e.getCause());
+        }
+    }
+
+    private static boolean isForked(List<Forked> forked, int index) {
+        for (Forked fork : forked) {
+            if (fork.index() == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Forked(int index, FutureTask<boolean[]> task) {
+    }
+
+    /**
+     * A held budget slot; closing it frees the slot.
+     */
+    @FunctionalInterface
+    public interface Slot extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
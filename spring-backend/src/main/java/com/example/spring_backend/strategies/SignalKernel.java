@@ -0,0 +1,17 @@
+package com.example.spring_backend.strategies;
+
+/**
+ * Entry and exit signals of one {@link StrategyPlan} computed in a single loop over its indicator columns.
+ * Implementations are generated at runtime as hidden classes, one per plan, so the JIT sees a small
+ * monomorphic loop it can inline and unroll; see {@link StrategyPlan.Kernel}.
+ */
+public interface SignalKernel {
+
+    /**
+     * @param columns    the plan's indicator columns, in {@link StrategyPlan.Kernel#columns()} order
+     * @param thresholds the plan's threshold constants, in {@link StrategyPlan.Kernel#thresholds()} order
+     * @param entry      filled with the entry signals; its length is the bar count
+     * @param exit       filled with the exit signals, same length as {@code entry}
+     */
+    void evaluate(double[][] columns, double[] thresholds, boolean[] entry, boolean[] exit);
+}
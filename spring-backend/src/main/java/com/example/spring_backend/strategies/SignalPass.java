@@ -0,0 +1,123 @@
+package com.example.spring_backend.strategies;
+
+import com.example.spring_backend.indicators.ScratchBuffers;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+/**
+ * Memo shared by every node evaluated during one fused signal pass over a single dataset.
+ * <p>
+ * Entry and exit trees often repeat work: the same condition under both sides, or different conditions over
+ * the same indicator series (an RSI(14) oversold entry and an RSI(14) overbought exit). Inside a pass, each
+ * condition node and each {@link #shared(Object, Supplier) shared} series is computed once, by whichever
+ * thread asks first; concurrent askers wait for that result instead of recomputing it. Keys use value
+ * equality, so conditions with equal parameters are the same node. Results are handed out as-is and must be
+ * treated as read-only.
+ * <p>
+ * Outside a pass {@link #shared(Object, Supplier)} simply computes, so conditions behave the same whether
+ * they are evaluated alone or through {@link Strategy#calculateSignals}.
+ * <p>
+ * Each pass also owns a {@link ScratchBuffers.Arena}: series borrowed from {@link ScratchBuffers} while the pass
+ * is bound go back to the pool once the pass has ended and every worker has left it, so nothing computed inside
+ * a pass may be read after its scope closes.
+ */
+public final class SignalPass {
+    private static final ThreadLocal<SignalPass> CURRENT = new ThreadLocal<>();
+
+    private final Map<Object, FutureTask<?>> results = new ConcurrentHashMap<>();
+    private final ScratchBuffers.Arena arena = ScratchBuffers.arena();
+
+    private SignalPass() {
+    }
+
+    /**
+     * Starts a new pass on the calling thread; closing the scope ends it and drops its results.
+     */
+    @Nonnull
+    static Scope open() {
+        SignalPass pass = new SignalPass();
+        Scope bound = bind(pass);
+        return () -> {
+            bound.close();
+            pass.arena.close();
+        };
+    }
+
+    @Nullable
+    static SignalPass current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Joins {@code pass} on the calling thread, e.g. a worker evaluating a forked subtree. A {@code null}
+     * pass leaves the thread outside any pass.
+     */
+    @Nonnull
+    static Scope bind(@Nullable SignalPass pass) {
+        SignalPass previous = CURRENT.get();
+        CURRENT.set(pass);
+        ScratchBuffers.Scope scratch = ScratchBuffers.bind(pass == null ? null : pass.arena);
+        return () -> {
+            scratch.close();
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Returns the value for {@code key} in the current pass, computing it on first use.
+     *
+     * @param key value-comparable identity of the result, e.g. {@code List.of("rsi", period)}
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T shared(@Nonnull Object key, @Nonnull Supplier<T> compute) {
+        SignalPass pass = CURRENT.get();
+        if (pass == null) {
+            return compute.get();
+        }
+
+        FutureTask<T> task = new FutureTask<>(compute::get);
+        FutureTask<T> existing = (FutureTask<T>) pass.results.putIfAbsent(key, task);
+        if (existing == null) {
+            task.run();
+            return await(task);
+        }
+        return await(existing);
+    }
+
+    private static <T> T await(FutureTask<T> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Backtest work was cancelled");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Signal computation failed", e.getCause());
+        }
+    }
+
+    /**
+     * Membership of the calling thread in a pass; closing it restores the previous one.
+     */
+    @FunctionalInterface
+    interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
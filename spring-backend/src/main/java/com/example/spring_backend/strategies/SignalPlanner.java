@@ -0,0 +1,98 @@
+package com.example.spring_backend.strategies;
+
+import com.example.spring_backend.common.Cancellation;
+import com.example.spring_backend.common.PipelineMetrics;
+import com.example.spring_backend.market.MarketData;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Nonnull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates several condition lists (typically a strategy's entry and exit sides) as one DAG in one pass.
+ * <p>
+ * Top-level conditions of all sides are merged into a single list of distinct nodes, which is evaluated with
+ * one {@link ConditionEvaluator#evaluateAll} call so the scheduler can spread costly nodes of both sides over
+ * the same budget. The pass runs inside a {@link SignalPass}, so subtrees and indicator series shared deeper
+ * in the trees are computed once as well. Each side is then folded into a single output vector in place.
+ */
+final class SignalPlanner {
+
+    private SignalPlanner() {
+        throw new AssertionError("SignalPlanner is a utility class and should not be instantiated");
+    }
+
+    /**
+     * @return one signal vector per side, in the order of {@code sides}
+     */
+    @Nonnull
+    static boolean[][] evaluate(@Nonnull MarketData data, int dataSize, @Nonnull Side... sides) {
+        List<Condition> nodes = new ArrayList<>();
+        Map<Condition, Integer> slots = new HashMap<>();
+        int[][] sideSlots = new int[sides.length][];
+        for (int s = 0; s < sides.length; s++) {
+            sideSlots[s] = assignSlots(sides[s].conditions(), nodes, slots);
+        }
+
+        List<boolean[]> results = List.of();
+        if (!nodes.isEmpty()) {
+            try (SignalPass.Scope pass = SignalPass.open();
+                 ConditionScheduler.Slot slot = ConditionScheduler.occupy()) {
+                results = ConditionEvaluator.evaluateAll(nodes, data, dataSize);
+            }
+        }
+
+        boolean[][] signals = new boolean[sides.length][];
+        for (int s = 0; s < sides.length; s++) {
+            signals[s] = combine(results, sideSlots[s], sides[s], dataSize);
+        }
+        return signals;
+    }
+
+    private static int[] assignSlots(List<Condition> conditions, List<Condition> nodes, Map<Condition, Integer> slots) {
+        // Repeating a condition within one side does not change its AND or OR, so each slot is kept once
+        return conditions.stream()
+                .mapToInt(condition -> slots.computeIfAbsent(condition, key -> {
+                    nodes.add(key);
+                    return nodes.size() - 1;
+                }))
+                .distinct()
+                .toArray();
+    }
+
+    private static boolean[] combine(List<boolean[]> results, int[] slots, Side side, int dataSize) {
+        boolean[] signals = new boolean[dataSize];
+        if (slots.length == 0) {
+            return signals;
+        }
+
+        Timer.Sample compositionSample = PipelineMetrics.start();
+        // Node results may be shared with the other side, so they are read and never written
+        System.arraycopy(results.get(slots[0]), 0, signals, 0, dataSize);
+        for (int k = 1; k < slots.length; k++) {
+            Cancellation.throwIfCancelled();
+            boolean[] conditionResult = results.get(slots[k]);
+            if (side.requireAll()) {
+                for (int i = 0; i < dataSize; i++) {
+                    signals[i] &= conditionResult[i];
+                }
+            } else {
+                for (int i = 0; i < dataSize; i++) {
+                    signals[i] |= conditionResult[i];
+                }
+            }
+        }
+        PipelineMetrics.stop(compositionSample, PipelineMetrics.STRATEGY_COMPOSITION, dataSize, "side", side.name());
+        return signals;
+    }
+
+    /**
+     * @param name       metrics tag of the side, e.g. {@code entry}
+     * @param requireAll AND the conditions when true, OR them otherwise
+     */
+    record Side(@Nonnull String name, @Nonnull List<Condition> conditions, boolean requireAll) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.spring_backend.strategies;
+
+import com.example.spring_backend.market.MarketData;
+import jakarta.annotation.Nonnull;
+
+import java.util.function.Function;
+
+/**
+ * The comparison a simple {@link Condition} makes on indicator series, described as data so a
+ * {@link SignalKernel} can be generated for plans built only from such conditions.
+ * <p>
+ * A shape must produce exactly what the condition's {@link Condition#evaluateVector} does. Both comparisons
+ * are written so that a NaN on either side compares false, which is what the interpreted conditions do with
+ * their explicit NaN checks.
+ */
+public sealed interface SignalShape permits SignalShape.Threshold, SignalShape.Crossover {
+
+    /**
+     * {@code series[i] > threshold} ({@code above}) or {@code series[i] < threshold}, false before {@code from}.
+     */
+    record Threshold(@Nonnull Series series, boolean above, double threshold, int from) implements SignalShape {
+        public Threshold {
+            if (from < 0) {
+                throw new IllegalArgumentException("Threshold start index must not be negative");
+            }
+        }
+    }
+
+    /**
+     * {@code fast} crossing above ({@code above}) or below {@code slow} at bar {@code i}: on the other side or
+     * touching at {@code i - 1}, strictly past it at {@code i}. Bar 0 never crosses.
+     */
+    record Crossover(@Nonnull Series fast, @Nonnull Series slow, boolean above) implements SignalShape {
+    }
+
+    /**
+     * An indicator column. Two series with equal {@code key}s are the same column, and the key is the
+     * {@link SignalPass} key the owning condition computes it under, so the interpreted and generated paths
+     * share one computation per pass.
+     */
+    record Series(@Nonnull Object key, @Nonnull Function<MarketData, double[]> compute) {
+
+        @Nonnull
+        public double[] values(@Nonnull MarketData data) {
+            return SignalPass.shared(key, () -> compute.apply(data));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Series series && key.equals(series.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode();
+        }
+    }
+}
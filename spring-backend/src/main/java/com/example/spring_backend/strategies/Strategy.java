@@ -3,7 +3,6 @@ package com.example.spring_backend.strategies;
 import com.example.spring_backend.market.MarketData;
 import jakarta.annotation.Nonnull;
 import lombok.Getter;
-import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
@@ -15,65 +14,82 @@ public class Strategy {
     private final List<Condition> entryConditions = new ArrayList<>();
     private final List<Condition> exitConditions = new ArrayList<>();
 
-    @Setter
     private boolean requireAllEntryConditions = true;
-    @Setter
     private boolean requireAllExitConditions = false;
 
+    // Compiled form of the conditions above, dropped whenever they change
+    private StrategyPlan plan;
+
     // Cache for vectorized calculations (not currently in use)
     private boolean[] entrySignalsCache;
     private boolean[] exitSignalsCache;
     private MarketData lastMarketData;
 
+    public Strategy() {
+    }
+
+    Strategy(@Nonnull StrategyPlan plan) {
+        entryConditions.addAll(plan.getEntryConditions());
+        exitConditions.addAll(plan.getExitConditions());
+        requireAllEntryConditions = plan.isRequireAllEntryConditions();
+        requireAllExitConditions = plan.isRequireAllExitConditions();
+        this.plan = plan;
+    }
+
     // =============================================================================
     // BATCH PROCESSING METHODS (CURRENTLY USED IN MAIN FLOW)
     // =============================================================================
 
+    /**
+     * Pre-calculates entry and exit signals for the entire dataset in one fused pass. Conditions and
+     * indicator series shared between the two sides are evaluated once, through the compiled
+     * {@link StrategyPlan} when the strategy has one. This is the RECOMMENDED method for backtesting.
+     *
+     * @param marketData The market data to analyze
+     * @return entry and exit signals, where true indicates a signal at that index
+     */
+    @Nonnull
+    public Signals calculateSignals(@Nonnull MarketData marketData) {
+        int length = marketData.size();
+        log.debug("Pre-calculating signals for {} data points with {} entry and {} exit conditions",
+                length, entryConditions.size(), exitConditions.size());
+
+        Signals signals;
+        if (plan != null) {
+            signals = plan.evaluate(marketData);
+        } else {
+            boolean[][] sides = SignalPlanner.evaluate(marketData, length, entrySide(), exitSide());
+            signals = new Signals(sides[0], sides[1]);
+        }
+
+        log.debug("Signals calculated: {} entry and {} exit signals found out of {} data points",
+                countTrue(signals.entry()), countTrue(signals.exit()), length);
+
+        // Cache the results
+        entrySignalsCache = signals.entry();
+        exitSignalsCache = signals.exit();
+        lastMarketData = marketData;
+
+        return signals;
+    }
+
     /**
      * Pre-calculates entry signals for entire dataset using vectorized processing.
-     * This is the RECOMMENDED method for backtesting as it's significantly faster
-     * than calling shouldEnter() in a loop.
+     * This is significantly faster than calling shouldEnter() in a loop; prefer
+     * calculateSignals() when exit signals are needed too.
      *
      * @param marketData The market data to analyze
      * @return boolean array where true indicates an entry signal at that index
      */
     public boolean[] calculateEntrySignals(@Nonnull MarketData marketData) {
+        int length = marketData.size();
         log.debug("Pre-calculating entry signals for {} data points with {} conditions",
-                marketData.close().length, entryConditions.size());
-
-        if (entryConditions.isEmpty()) {
-            return new boolean[marketData.close().length];
-        }
+                length, entryConditions.size());
 
-        int length = marketData.close().length;
-        boolean[] signals = new boolean[length];
-
-        // Pre-calculate all conditions for entire dataset
-        List<boolean[]> conditionResults = new ArrayList<>();
-        for (Condition condition : entryConditions) {
-            long startTime = System.currentTimeMillis();
-            boolean[] conditionSignals = condition.evaluateVector(marketData);
-            long duration = System.currentTimeMillis() - startTime;
-            log.debug("ENTRY SIGNAL: Condition {} calculated in {}ms", condition.getClass().getSimpleName(), duration);
-            conditionResults.add(conditionSignals);
-        }
-
-        // Apply AND/OR logic across all conditions
-        for (int i = 0; i < length; i++) {
-            if (requireAllEntryConditions) {
-                // ALL conditions must be true (AND logic)
-                int finalI = i;
-                signals[i] = conditionResults.stream().allMatch(results -> results[finalI]);
-            } else {
-                // ANY condition can be true (OR logic)
-                int finalI1 = i;
-                signals[i] = conditionResults.stream().anyMatch(results -> results[finalI1]);
-            }
-        }
+        boolean[] signals = SignalPlanner.evaluate(marketData, length, entrySide())[0];
 
-        int signalCount = countTrue(signals);
         log.debug("Entry signals calculated: {} signals found out of {} data points",
-                signalCount, length);
+                countTrue(signals), length);
 
         // Cache the results
         entrySignalsCache = signals;
@@ -84,49 +100,21 @@ public class Strategy {
 
     /**
      * Pre-calculates exit signals for entire dataset using vectorized processing.
-     * This is the RECOMMENDED method for backtesting as it's significantly faster
-     * than calling shouldExit() in a loop.
+     * This is significantly faster than calling shouldExit() in a loop; prefer
+     * calculateSignals() when entry signals are needed too.
      *
      * @param marketData The market data to analyze
      * @return boolean array where true indicates an exit signal at that index
      */
     public boolean[] calculateExitSignals(@Nonnull MarketData marketData) {
+        int length = marketData.size();
         log.debug("Pre-calculating exit signals for {} data points with {} conditions",
-                marketData.close().length, exitConditions.size());
+                length, exitConditions.size());
 
-        if (exitConditions.isEmpty()) {
-            return new boolean[marketData.close().length];
-        }
-
-        int length = marketData.close().length;
-        boolean[] signals = new boolean[length];
-
-        // Pre-calculate all conditions for entire dataset
-        List<boolean[]> conditionResults = new ArrayList<>();
-        for (Condition condition : exitConditions) {
-            long startTime = System.currentTimeMillis();
-            boolean[] conditionSignals = condition.evaluateVector(marketData);
-            long duration = System.currentTimeMillis() - startTime;
-            log.debug("EXIT SIGNAL: Condition {} calculated in {}ms", condition.getClass().getSimpleName(), duration);
-            conditionResults.add(conditionSignals);
-        }
+        boolean[] signals = SignalPlanner.evaluate(marketData, length, exitSide())[0];
 
-        // Apply AND/OR logic across all conditions
-        for (int i = 0; i < length; i++) {
-            if (requireAllExitConditions) {
-                // ALL conditions must be true (AND logic)
-                int finalI = i;
-                signals[i] = conditionResults.stream().allMatch(results -> results[finalI]);
-            } else {
-                // ANY condition can be true (OR logic)
-                int finalI1 = i;
-                signals[i] = conditionResults.stream().anyMatch(results -> results[finalI1]);
-            }
-        }
-
-        int signalCount = countTrue(signals);
         log.debug("Exit signals calculated: {} signals found out of {} data points",
-                signalCount, length);
+                countTrue(signals), length);
 
         // Cache the results
         exitSignalsCache = signals;
@@ -135,6 +123,14 @@ public class Strategy {
         return signals;
     }
 
+    private SignalPlanner.Side entrySide() {
+        return new SignalPlanner.Side("entry", entryConditions, requireAllEntryConditions);
+    }
+
+    private SignalPlanner.Side exitSide() {
+        return new SignalPlanner.Side("exit", exitConditions, requireAllExitConditions);
+    }
+
     // =============================================================================
     // INDIVIDUAL EVALUATION METHODS (FOR SINGLE POINT EVALUATION)
     // =============================================================================
@@ -227,20 +223,51 @@ public class Strategy {
 
     public void addEntryCondition(@Nonnull Condition condition) {
         entryConditions.add(condition);
-        // Clear cache when conditions change
+        // Clear cache and plan when conditions change
         entrySignalsCache = null;
+        plan = null;
     }
 
     public void addExitCondition(@Nonnull Condition condition) {
         exitConditions.add(condition);
-        // Clear cache when conditions change
+        // Clear cache and plan when conditions change
+        exitSignalsCache = null;
+        plan = null;
+    }
+
+    public void setRequireAllEntryConditions(boolean requireAllEntryConditions) {
+        this.requireAllEntryConditions = requireAllEntryConditions;
+        entrySignalsCache = null;
+        plan = null;
+    }
+
+    public void setRequireAllExitConditions(boolean requireAllExitConditions) {
+        this.requireAllExitConditions = requireAllExitConditions;
         exitSignalsCache = null;
+        plan = null;
     }
 
     // =============================================================================
     // UTILITY METHODS
     // =============================================================================
 
+    /**
+     * A strategy over the same conditions and plan with its own signal cache, so several series can be evaluated
+     * concurrently. Conditions hold no per-run state and are shared.
+     */
+    @Nonnull
+    public Strategy copy() {
+        if (plan != null) {
+            return new Strategy(plan);
+        }
+        Strategy copy = new Strategy();
+        copy.entryConditions.addAll(entryConditions);
+        copy.exitConditions.addAll(exitConditions);
+        copy.requireAllEntryConditions = requireAllEntryConditions;
+        copy.requireAllExitConditions = requireAllExitConditions;
+        return copy;
+    }
+
     /**
      * Clears all cached signal results. Useful for testing or when you want
      * to force recalculation of signals.
@@ -263,6 +290,12 @@ public class Strategy {
                 lastMarketData == marketData;
     }
 
+    /**
+     * Entry and exit signal vectors over the same dataset.
+     */
+    public record Signals(@Nonnull boolean[] entry, @Nonnull boolean[] exit) {
+    }
+
     private int countTrue(boolean[] array) {
         int count = 0;
         for (boolean b : array) {
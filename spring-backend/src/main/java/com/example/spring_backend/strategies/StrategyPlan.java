@@ -0,0 +1,314 @@
+package com.example.spring_backend.strategies;
+
+import com.example.spring_backend.common.Cancellation;
+import com.example.spring_backend.common.PipelineMetrics;
+import com.example.spring_backend.common.PipelineObservations;
+import com.example.spring_backend.indicators.ScratchBuffers;
+import com.example.spring_backend.market.MarketData;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Immutable, compiled form of a strategy's entry and exit trees.
+ * <p>
+ * The plan is a DAG of {@link Node nodes} stored in topological order: every operand index is smaller than
+ * the index of the node using it, and equal subtrees appear once. The entry and exit sides each have one
+ * root. Evaluation runs all leaves in one scheduled {@link SignalPass}, so leaves reading the same indicator
+ * series share its slot, and then folds the logical nodes bottom-up. A buffer is recycled once the last
+ * node reading it has been computed.
+ * <p>
+ * A plan may also carry a generated {@link Kernel}, which replaces all of that with one fused loop over the
+ * indicator columns; plans the generator cannot handle keep the interpreted evaluation.
+ * <p>
+ * Plans hold no per-run state and can be shared between threads and cached; see {@link #toStrategy()}.
+ */
+@Getter
+public final class StrategyPlan {
+    private static final int RETAINED = Integer.MAX_VALUE;
+    private static final String KERNEL_TYPE = "SignalKernel";
+
+    /**
+     * Canonical hash of the request the plan was compiled from.
+     */
+    private final String fingerprint;
+    private final List<Node> nodes;
+    private final int entryRoot;
+    private final int exitRoot;
+
+    // The strategy as requested, before normalization, for callers that inspect its conditions
+    private final List<Condition> entryConditions;
+    private final List<Condition> exitConditions;
+    private final boolean requireAllEntryConditions;
+    private final boolean requireAllExitConditions;
+
+    /**
+     * Fused loop computing both sides, or {@code null} when the plan is evaluated node by node.
+     */
+    @Nullable
+    private final Kernel kernel;
+
+    @Getter(AccessLevel.NONE)
+    private final List<Condition> leaves = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    private final int[] leafNodes;
+    @Getter(AccessLevel.NONE)
+    private final int[] lastUse;
+
+    public StrategyPlan(@Nonnull String fingerprint, @Nonnull List<Node> nodes, int entryRoot, int exitRoot,
+                        @Nonnull Strategy source) {
+        this(fingerprint, nodes, entryRoot, exitRoot, source, null);
+    }
+
+    public StrategyPlan(@Nonnull String fingerprint, @Nonnull List<Node> nodes, int entryRoot, int exitRoot,
+                        @Nonnull Strategy source, @Nullable Kernel kernel) {
+        if (entryRoot < 0 || entryRoot >= nodes.size() || exitRoot < 0 || exitRoot >= nodes.size()) {
+            throw new IllegalArgumentException("Plan roots must reference plan nodes");
+        }
+        this.fingerprint = fingerprint;
+        this.nodes = List.copyOf(nodes);
+        this.entryRoot = entryRoot;
+        this.exitRoot = exitRoot;
+        this.entryConditions = List.copyOf(source.getEntryConditions());
+        this.exitConditions = List.copyOf(source.getExitConditions());
+        this.requireAllEntryConditions = source.isRequireAllEntryConditions();
+        this.requireAllExitConditions = source.isRequireAllExitConditions();
+        this.kernel = kernel;
+
+        List<Integer> leafIndexes = new ArrayList<>();
+        lastUse = new int[this.nodes.size()];
+        for (int n = 0; n < this.nodes.size(); n++) {
+            Node node = this.nodes.get(n);
+            if (node instanceof Leaf leaf) {
+                leaves.add(leaf.condition());
+                leafIndexes.add(n);
+            }
+            for (int operand : operands(node)) {
+                if (operand < 0 || operand >= n) {
+                    throw new IllegalArgumentException("Plan node " + n + " must only reference earlier nodes");
+                }
+                lastUse[operand] = n;
+            }
+        }
+        leafNodes = leafIndexes.stream().mapToInt(Integer::intValue).toArray();
+        lastUse[entryRoot] = RETAINED;
+        lastUse[exitRoot] = RETAINED;
+    }
+
+    /**
+     * A new strategy over the requested conditions that evaluates through this plan.
+     */
+    @Nonnull
+    public Strategy toStrategy() {
+        return new Strategy(this);
+    }
+
+    @Nonnull
+    public Strategy.Signals evaluate(@Nonnull MarketData data) {
+        int dataSize = data.size();
+        if (kernel != null) {
+            return kernel.evaluate(data, dataSize);
+        }
+        boolean[][] values = new boolean[nodes.size()][];
+
+        if (!leaves.isEmpty()) {
+            List<boolean[]> results;
+            try (SignalPass.Scope pass = SignalPass.open();
+                 ConditionScheduler.Slot slot = ConditionScheduler.occupy()) {
+                results = ConditionEvaluator.evaluateAll(leaves, data, dataSize);
+            }
+            for (int k = 0; k < leafNodes.length; k++) {
+                values[leafNodes[k]] = results.get(k);
+            }
+        }
+
+        Scratch scratch = new Scratch(dataSize);
+        fold(values, scratch, 0, entryRoot + 1, dataSize, "entry");
+        fold(values, scratch, entryRoot + 1, nodes.size(), dataSize, "exit");
+
+        boolean[] entry = values[entryRoot];
+        boolean[] exit = entryRoot == exitRoot ? entry.clone() : values[exitRoot];
+        scratch.releaseExcept(entry, exit);
+        return new Strategy.Signals(entry, exit);
+    }
+
+    /**
+     * Computes the logical nodes in {@code [from, to)}. The compiler emits the entry tree first, so the nodes up
+     * to the entry root are timed as entry composition and the rest, used by the exit side only, as exit.
+     */
+    private void fold(boolean[][] values, Scratch scratch, int from, int to, int dataSize, String side) {
+        if (from >= to) {
+            return;
+        }
+        Timer.Sample compositionSample = PipelineMetrics.start();
+        for (int n = from; n < to; n++) {
+            Cancellation.throwIfCancelled();
+            Node node = nodes.get(n);
+            switch (node) {
+                case Leaf ignored -> {
+                }
+                case Constant constant -> {
+                    boolean[] out = scratch.take();
+                    Arrays.fill(out, constant.value());
+                    values[n] = out;
+                }
+                case Not not -> {
+                    boolean[] operand = values[not.operand()];
+                    boolean[] out = scratch.take();
+                    for (int i = 0; i < dataSize; i++) {
+                        out[i] = !operand[i];
+                    }
+                    values[n] = out;
+                }
+                case And and -> values[n] = combine(values, and.operands(), true, scratch.take());
+                case Or or -> values[n] = combine(values, or.operands(), false, scratch.take());
+            }
+            for (int operand : operands(node)) {
+                if (lastUse[operand] == n) {
+                    scratch.free.push(values[operand]);
+                    values[operand] = null;
+                }
+            }
+        }
+        PipelineMetrics.stop(compositionSample, PipelineMetrics.STRATEGY_COMPOSITION, dataSize, "side", side);
+    }
+
+    private static boolean[] combine(boolean[][] values, List<Integer> operands, boolean and, boolean[] out) {
+        System.arraycopy(values[operands.getFirst()], 0, out, 0, out.length);
+        for (int k = 1; k < operands.size(); k++) {
+            boolean[] operand = values[operands.get(k)];
+            if (and) {
+                for (int i = 0; i < out.length; i++) {
+                    out[i] &= operand[i];
+                }
+            } else {
+                for (int i = 0; i < out.length; i++) {
+                    out[i] |= operand[i];
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Buffers for composite nodes: operands past their last use are recycled within the fold, and buffers taken
+     * from {@link ScratchBuffers} go back to the pool afterwards unless they hold a root's signals.
+     */
+    private static final class Scratch {
+        private final Deque<boolean[]> free = new ArrayDeque<>();
+        private final List<boolean[]> borrowed = new ArrayList<>();
+        private final int dataSize;
+
+        private Scratch(int dataSize) {
+            this.dataSize = dataSize;
+        }
+
+        private boolean[] take() {
+            boolean[] recycled = free.poll();
+            if (recycled != null) {
+                return recycled;
+            }
+            boolean[] buffer = ScratchBuffers.booleans(dataSize);
+            borrowed.add(buffer);
+            return buffer;
+        }
+
+        private void releaseExcept(boolean[] entry, boolean[] exit) {
+            for (boolean[] buffer : borrowed) {
+                if (buffer != entry && buffer != exit) {
+                    ScratchBuffers.release(buffer);
+                }
+            }
+        }
+    }
+
+    private static List<Integer> operands(Node node) {
+        return switch (node) {
+            case Not not -> List.of(not.operand());
+            case And and -> and.operands();
+            case Or or -> or.operands();
+            case Leaf ignored -> List.of();
+            case Constant ignored -> List.of();
+        };
+    }
+
+    /**
+     * A generated {@link SignalKernel} with the inputs it reads: indicator columns, each computed once per pass,
+     * and the threshold constants, passed in rather than baked into the bytecode so the generated class only
+     * encodes the plan's structure.
+     */
+    public record Kernel(@Nonnull SignalKernel code, @Nonnull List<SignalShape.Series> columns,
+                         @Nonnull double[] thresholds) {
+        public Kernel {
+            columns = List.copyOf(columns);
+            thresholds = thresholds.clone();
+        }
+
+        Strategy.Signals evaluate(MarketData data, int dataSize) {
+            double[][] values = new double[columns.size()][];
+            boolean[] entry = new boolean[dataSize];
+            boolean[] exit = new boolean[dataSize];
+            // The columns may be pass scratch buffers, so the kernel has to run before the pass ends
+            try (SignalPass.Scope pass = SignalPass.open()) {
+                for (int c = 0; c < values.length; c++) {
+                    values[c] = columns.get(c).values(data);
+                }
+                Cancellation.throwIfCancelled();
+
+                Observation observation = PipelineObservations.observation(PipelineObservations.CONDITION_EVALUATION)
+                        .contextualName("evaluate signalkernel")
+                        .lowCardinalityKeyValue(PipelineMetrics.CONDITION_TYPE_TAG, KERNEL_TYPE)
+                        .highCardinalityKeyValue(PipelineObservations.ROW_COUNT_KEY, String.valueOf(dataSize));
+                observation.observe(() -> {
+                    Timer.Sample sample = PipelineMetrics.start();
+                    code.evaluate(values, thresholds, entry, exit);
+                    PipelineMetrics.stop(sample, PipelineMetrics.CONDITION_EVALUATION, dataSize,
+                            PipelineMetrics.CONDITION_TYPE_TAG, KERNEL_TYPE);
+                });
+            }
+            return new Strategy.Signals(entry, exit);
+        }
+    }
+
+    /**
+     * A plan node; logical nodes reference their operands by index into {@link #getNodes()}.
+     */
+    public sealed interface Node permits Leaf, Not, And, Or, Constant {
+    }
+
+    public record Leaf(@Nonnull Condition condition) implements Node {
+    }
+
+    public record Not(int operand) implements Node {
+    }
+
+    public record And(@Nonnull List<Integer> operands) implements Node {
+        public And {
+            if (operands.size() < 2) {
+                throw new IllegalArgumentException("AND needs at least two operands");
+            }
+            operands = List.copyOf(operands);
+        }
+    }
+
+    public record Or(@Nonnull List<Integer> operands) implements Node {
+        public Or {
+            if (operands.size() < 2) {
+                throw new IllegalArgumentException("OR needs at least two operands");
+            }
+            operands = List.copyOf(operands);
+        }
+    }
+
+    public record Constant(boolean value) implements Node {
+    }
+}
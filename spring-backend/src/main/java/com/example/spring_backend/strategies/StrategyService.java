@@ -6,4 +6,9 @@ import com.example.spring_backend.common.ConditionConfig;
 public interface StrategyService {
     Strategy buildStrategyFromRequest(BackTestRequest userRequest);
     Condition createConditionFromConfig(ConditionConfig config);
+
+    /**
+     * Canonical hash of the strategy part of a request, equal for requests that build the same strategy.
+     */
+    String strategyHash(BackTestRequest request);
 }
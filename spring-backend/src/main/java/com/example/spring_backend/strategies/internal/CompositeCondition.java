@@ -2,7 +2,11 @@ package com.example.spring_backend.strategies.internal;
 
 import com.example.spring_backend.market.MarketData;
 import com.example.spring_backend.strategies.Condition;
+import com.example.spring_backend.strategies.ConditionEvaluator;
 import jakarta.annotation.Nonnull;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import java.util.ArrayList;
@@ -10,6 +14,8 @@ import java.util.Arrays;
 import java.util.List;
 
 @RequiredArgsConstructor
+@EqualsAndHashCode
+@Getter(AccessLevel.PACKAGE)
 public class CompositeCondition implements Condition {
 
     public enum LogicalOperator {
@@ -48,9 +54,21 @@ public class CompositeCondition implements Condition {
         return conditions.stream().anyMatch(c -> c.evaluate(data, currentIndex));
     }
 
+    @Override
+    public int relativeCost() {
+        if (operator == LogicalOperator.NOT) {
+            return negatedCondition == null ? 1 : negatedCondition.relativeCost() + 1;
+        }
+        int cost = 1;
+        for (Condition condition : conditions) {
+            cost += condition.relativeCost();
+        }
+        return cost;
+    }
+
     @Override
     public boolean[] evaluateVector(@Nonnull MarketData data) {
-        int dataSize = data.close().length;
+        int dataSize = data.size();
         boolean[] result = new boolean[dataSize];
 
         if (operator == LogicalOperator.NOT) {
@@ -58,7 +76,7 @@ public class CompositeCondition implements Condition {
                 // If no condition to negate, return all false
                 return result;
             }
-            boolean[] childResult = negatedCondition.evaluateVector(data);
+            boolean[] childResult = ConditionEvaluator.evaluate(negatedCondition, data, dataSize);
             for (int i = 0; i < dataSize; i++) {
                 result[i] = !childResult[i];
             }
@@ -72,13 +90,15 @@ public class CompositeCondition implements Condition {
             return result;
         }
 
+        // Children are independent, so costly ones may run on other cores
+        List<boolean[]> conditionResults = ConditionEvaluator.evaluateAll(conditions, data, dataSize);
+
         if (operator == LogicalOperator.AND) {
             // Initialize result to all true for AND operation
             Arrays.fill(result, true);
 
             // AND all conditions together
-            for (Condition condition : conditions) {
-                boolean[] conditionResult = condition.evaluateVector(data);
+            for (boolean[] conditionResult : conditionResults) {
                 for (int i = 0; i < dataSize; i++) {
                     result[i] = result[i] && conditionResult[i];
                 }
@@ -87,14 +107,12 @@ public class CompositeCondition implements Condition {
         }
 
         // OR all conditions together
-        for (Condition condition : conditions) {
-            boolean[] conditionResult = condition.evaluateVector(data);
+        for (boolean[] conditionResult : conditionResults) {
             for (int i = 0; i < dataSize; i++) {
                 result[i] = result[i] || conditionResult[i];
-                // Early termination: if already true, skip remaining conditions for this index
             }
         }
 
         return result;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,30 @@
+package com.example.spring_backend.strategies.internal;
+
+import com.example.spring_backend.strategies.ConditionScheduler;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizes the {@link ConditionScheduler} CPU budget from {@code strategies.parallel.*}. A budget of zero means
+ * one slot per available processor; {@code strategies.parallel.enabled=false} keeps evaluation inline.
+ */
+@Slf4j
+@Component
+public class ConditionSchedulerConfigurer {
+
+    public ConditionSchedulerConfigurer(
+            @Value("${strategies.parallel.enabled:true}") boolean enabled,
+            @Value("${strategies.parallel.cpu-budget:0}") int cpuBudget,
+            @Value("${strategies.parallel.min-cost:" + ConditionScheduler.DEFAULT_MIN_COST + "}") long minCost) {
+        int budget = !enabled ? 1 : cpuBudget > 0 ? cpuBudget : Runtime.getRuntime().availableProcessors();
+        ConditionScheduler.configure(budget, minCost);
+        log.info("Condition evaluation CPU budget: {} threads, forking subtrees costing at least {}", budget, minCost);
+    }
+
+    @PreDestroy
+    public void release() {
+        ConditionScheduler.reset();
+    }
+}
@@ -0,0 +1,308 @@
+package com.example.spring_backend.strategies.internal;
+
+import com.example.spring_backend.strategies.SignalKernel;
+import com.example.spring_backend.strategies.SignalShape;
+import com.example.spring_backend.strategies.StrategyPlan;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates a {@link SignalKernel} hidden class for a compiled plan whose leaves all have a {@link SignalShape}.
+ * <p>
+ * The kernel is one counted loop over the bars. Each iteration computes every plan node in topological order
+ * into an {@code int} local (leaves by comparing column values, logical nodes with {@code iand}, {@code ior}
+ * and {@code ixor}) and stores the two roots. No intermediate {@code boolean[]} is allocated, and since the
+ * class is specific to the plan the JIT compiles a loop without virtual calls or per-node dispatch.
+ * <p>
+ * Plans with a leaf that has no shape, or too many nodes to stay under the JIT's method size limit, get no
+ * kernel and keep the interpreted evaluation. So does any plan whose class fails to generate or load.
+ */
+@Slf4j
+final class SignalKernelGenerator implements Opcodes {
+    /**
+     * Keeps the generated method well below HotSpot's 8000-byte {@code HugeMethodLimit}.
+     */
+    static final int MAX_NODES = 128;
+
+    private static final String CLASS_NAME =
+            Type.getInternalName(SignalKernelGenerator.class).replace("SignalKernelGenerator", "GeneratedSignalKernel");
+    private static final String EVALUATE_DESCRIPTOR = "([[D[D[Z[Z)V";
+
+    // Fixed locals of evaluate(columns, thresholds, entry, exit)
+    private static final int COLUMNS = 1;
+    private static final int THRESHOLDS = 2;
+    private static final int ENTRY = 3;
+    private static final int EXIT = 4;
+    private static final int LENGTH = 5;
+    private static final int INDEX = 6;
+    private static final int FIRST_FREE = 7;
+
+    private SignalKernelGenerator() {
+        throw new AssertionError("SignalKernelGenerator is a utility class and should not be instantiated");
+    }
+
+    /**
+     * @return the kernel for the plan made of {@code nodes}, or {@code null} when it has to stay interpreted
+     */
+    @Nullable
+    static StrategyPlan.Kernel generate(List<StrategyPlan.Node> nodes, int entryRoot, int exitRoot) {
+        if (nodes.size() > MAX_NODES) {
+            return null;
+        }
+        Map<SignalShape.Series, Integer> columns = new LinkedHashMap<>();
+        List<Double> thresholds = new ArrayList<>();
+        List<SignalShape> shapes = new ArrayList<>(nodes.size());
+        for (StrategyPlan.Node node : nodes) {
+            SignalShape shape = null;
+            if (node instanceof StrategyPlan.Leaf leaf) {
+                shape = leaf.condition().shape();
+                if (shape == null) {
+                    return null;
+                }
+                switch (shape) {
+                    case SignalShape.Threshold threshold -> {
+                        columns.putIfAbsent(threshold.series(), columns.size());
+                        thresholds.add(threshold.threshold());
+                    }
+                    case SignalShape.Crossover crossover -> {
+                        columns.putIfAbsent(crossover.fast(), columns.size());
+                        columns.putIfAbsent(crossover.slow(), columns.size());
+                    }
+                }
+            }
+            shapes.add(shape);
+        }
+
+        try {
+            byte[] bytes = new Emitter(nodes, shapes, columns, thresholds.size()).emit(entryRoot, exitRoot);
+            MethodHandles.Lookup kernelClass = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            SignalKernel code = (SignalKernel) kernelClass
+                    .findConstructor(kernelClass.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+            double[] constants = thresholds.stream().mapToDouble(Double::doubleValue).toArray();
+            return new StrategyPlan.Kernel(code, new ArrayList<>(columns.keySet()), constants);
+        } catch (Throwable e) {
+            log.warn("Could not generate a signal kernel for a {}-node plan, evaluating it interpreted", nodes.size(), e);
+            return null;
+        }
+    }
+
+    private static final class Emitter {
+        private final List<StrategyPlan.Node> nodes;
+        private final List<SignalShape> shapes;
+        private final Map<SignalShape.Series, Integer> columns;
+        private final int thresholdCount;
+        private MethodVisitor method;
+
+        Emitter(List<StrategyPlan.Node> nodes, List<SignalShape> shapes, Map<SignalShape.Series, Integer> columns,
+                int thresholdCount) {
+            this.nodes = nodes;
+            this.shapes = shapes;
+            this.columns = columns;
+            this.thresholdCount = thresholdCount;
+        }
+
+        byte[] emit(int entryRoot, int exitRoot) {
+            ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+            writer.visit(V21, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, CLASS_NAME, null, "java/lang/Object",
+                    new String[]{Type.getInternalName(SignalKernel.class)});
+
+            MethodVisitor constructor = writer.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+            constructor.visitCode();
+            constructor.visitVarInsn(ALOAD, 0);
+            constructor.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+            constructor.visitInsn(RETURN);
+            constructor.visitMaxs(0, 0);
+            constructor.visitEnd();
+
+            method = writer.visitMethod(ACC_PUBLIC, "evaluate", EVALUATE_DESCRIPTOR, null, null);
+            method.visitCode();
+            // Hoist the column arrays and thresholds into locals so the loop body only indexes them
+            for (int c = 0; c < columns.size(); c++) {
+                method.visitVarInsn(ALOAD, COLUMNS);
+                push(c);
+                method.visitInsn(AALOAD);
+                method.visitVarInsn(ASTORE, columnLocal(c));
+            }
+            for (int t = 0; t < thresholdCount; t++) {
+                method.visitVarInsn(ALOAD, THRESHOLDS);
+                push(t);
+                method.visitInsn(DALOAD);
+                method.visitVarInsn(DSTORE, thresholdLocal(t));
+            }
+            method.visitVarInsn(ALOAD, ENTRY);
+            method.visitInsn(ARRAYLENGTH);
+            method.visitVarInsn(ISTORE, LENGTH);
+            method.visitInsn(ICONST_0);
+            method.visitVarInsn(ISTORE, INDEX);
+
+            Label loop = new Label();
+            Label done = new Label();
+            method.visitLabel(loop);
+            method.visitVarInsn(ILOAD, INDEX);
+            method.visitVarInsn(ILOAD, LENGTH);
+            method.visitJumpInsn(IF_ICMPGE, done);
+
+            int threshold = 0;
+            for (int n = 0; n < nodes.size(); n++) {
+                switch (nodes.get(n)) {
+                    case StrategyPlan.Leaf ignored -> {
+                        switch (shapes.get(n)) {
+                            case SignalShape.Threshold shape -> emitThreshold(shape, threshold++);
+                            case SignalShape.Crossover shape -> emitCrossover(shape);
+                        }
+                    }
+                    case StrategyPlan.Constant constant -> method.visitInsn(constant.value() ? ICONST_1 : ICONST_0);
+                    case StrategyPlan.Not not -> {
+                        method.visitVarInsn(ILOAD, nodeLocal(not.operand()));
+                        method.visitInsn(ICONST_1);
+                        method.visitInsn(IXOR);
+                    }
+                    case StrategyPlan.And and -> emitJunction(and.operands(), IAND);
+                    case StrategyPlan.Or or -> emitJunction(or.operands(), IOR);
+                }
+                method.visitVarInsn(ISTORE, nodeLocal(n));
+            }
+            store(ENTRY, entryRoot);
+            store(EXIT, exitRoot);
+
+            method.visitIincInsn(INDEX, 1);
+            method.visitJumpInsn(GOTO, loop);
+            method.visitLabel(done);
+            method.visitInsn(RETURN);
+            method.visitMaxs(0, 0);
+            method.visitEnd();
+
+            writer.visitEnd();
+            return writer.toByteArray();
+        }
+
+        /**
+         * Pushes 1 when the column value at the current bar passes the threshold.
+         */
+        private void emitThreshold(SignalShape.Threshold shape, int threshold) {
+            Label fail = new Label();
+            Label end = new Label();
+            if (shape.from() > 0) {
+                method.visitVarInsn(ILOAD, INDEX);
+                push(shape.from());
+                method.visitJumpInsn(IF_ICMPLT, fail);
+            }
+            method.visitVarInsn(ALOAD, columnLocal(columns.get(shape.series())));
+            method.visitVarInsn(ILOAD, INDEX);
+            method.visitInsn(DALOAD);
+            method.visitVarInsn(DLOAD, thresholdLocal(threshold));
+            compare(shape.above(), true, fail);
+            pushResult(fail, end);
+        }
+
+        /**
+         * Pushes 1 when {@code fast} crosses {@code slow} at the current bar: {@code fast <= slow} (or
+         * {@code >=}) on the previous bar and {@code fast > slow} (or {@code <}) on this one.
+         */
+        private void emitCrossover(SignalShape.Crossover shape) {
+            Label fail = new Label();
+            Label end = new Label();
+            int fast = columnLocal(columns.get(shape.fast()));
+            int slow = columnLocal(columns.get(shape.slow()));
+
+            method.visitVarInsn(ILOAD, INDEX);
+            method.visitJumpInsn(IFLE, fail);
+            loadPrevious(fast);
+            loadPrevious(slow);
+            compare(!shape.above(), false, fail);
+            method.visitVarInsn(ALOAD, fast);
+            method.visitVarInsn(ILOAD, INDEX);
+            method.visitInsn(DALOAD);
+            method.visitVarInsn(ALOAD, slow);
+            method.visitVarInsn(ILOAD, INDEX);
+            method.visitInsn(DALOAD);
+            compare(shape.above(), true, fail);
+            pushResult(fail, end);
+        }
+
+        /**
+         * Compares the two doubles on the stack and jumps to {@code fail} unless the first is greater than
+         * ({@code greater}) or less than the second, strictly or not; NaN always jumps.
+         */
+        private void compare(boolean greater, boolean strict, Label fail) {
+            if (greater) {
+                // dcmpl pushes -1 for NaN, which fails both > and >=
+                method.visitInsn(DCMPL);
+                method.visitJumpInsn(strict ? IFLE : IFLT, fail);
+            } else {
+                // dcmpg pushes 1 for NaN, which fails both < and <=
+                method.visitInsn(DCMPG);
+                method.visitJumpInsn(strict ? IFGE : IFGT, fail);
+            }
+        }
+
+        private void emitJunction(List<Integer> operands, int opcode) {
+            method.visitVarInsn(ILOAD, nodeLocal(operands.getFirst()));
+            for (int k = 1; k < operands.size(); k++) {
+                method.visitVarInsn(ILOAD, nodeLocal(operands.get(k)));
+                method.visitInsn(opcode);
+            }
+        }
+
+        private void loadPrevious(int column) {
+            method.visitVarInsn(ALOAD, column);
+            method.visitVarInsn(ILOAD, INDEX);
+            method.visitInsn(ICONST_1);
+            method.visitInsn(ISUB);
+            method.visitInsn(DALOAD);
+        }
+
+        private void pushResult(Label fail, Label end) {
+            method.visitInsn(ICONST_1);
+            method.visitJumpInsn(GOTO, end);
+            method.visitLabel(fail);
+            method.visitInsn(ICONST_0);
+            method.visitLabel(end);
+        }
+
+        private void store(int array, int node) {
+            method.visitVarInsn(ALOAD, array);
+            method.visitVarInsn(ILOAD, INDEX);
+            method.visitVarInsn(ILOAD, nodeLocal(node));
+            method.visitInsn(BASTORE);
+        }
+
+        private void push(int value) {
+            if (value <= 5) {
+                method.visitInsn(ICONST_0 + value);
+            } else if (value <= Byte.MAX_VALUE) {
+                method.visitIntInsn(BIPUSH, value);
+            } else if (value <= Short.MAX_VALUE) {
+                method.visitIntInsn(SIPUSH, value);
+            } else {
+                method.visitLdcInsn(value);
+            }
+        }
+
+        private int columnLocal(int column) {
+            return FIRST_FREE + column;
+        }
+
+        private int thresholdLocal(int threshold) {
+            // Doubles take two slots
+            return FIRST_FREE + columns.size() + 2 * threshold;
+        }
+
+        private int nodeLocal(int node) {
+            return FIRST_FREE + columns.size() + 2 * thresholdCount + node;
+        }
+    }
+}
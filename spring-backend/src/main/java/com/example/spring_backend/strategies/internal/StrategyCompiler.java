@@ -0,0 +1,163 @@
+package com.example.spring_backend.strategies.internal;
+
+import com.example.spring_backend.strategies.Condition;
+import com.example.spring_backend.strategies.Strategy;
+import com.example.spring_backend.strategies.StrategyPlan;
+import jakarta.annotation.Nonnull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiles a built {@link Strategy} into a {@link StrategyPlan}.
+ * <p>
+ * Each side becomes one boolean expression (AND or OR of its conditions) that is normalized before emission:
+ * NOT is pushed down to the leaves with De Morgan's laws and double negation removed, nested ANDs and ORs are
+ * flattened, duplicate operands dropped, constants folded (empty composites, {@code x AND NOT x}) and operands
+ * put in a canonical order. The two sides are then emitted into one DAG in which equal subtrees, and leaves
+ * with equal parameters, are a single node.
+ * <p>
+ * With kernel generation on, the plan also gets a {@link SignalKernelGenerator generated} fused loop when all
+ * of its leaves can be expressed as {@link com.example.spring_backend.strategies.SignalShape shapes}.
+ */
+public final class StrategyCompiler {
+    private final boolean generateKernels;
+
+    public StrategyCompiler() {
+        this(false);
+    }
+
+    public StrategyCompiler(boolean generateKernels) {
+        this.generateKernels = generateKernels;
+    }
+
+    @Nonnull
+    public StrategyPlan compile(@Nonnull Strategy strategy, @Nonnull String fingerprint) {
+        Expr entry = normalize(side(strategy.getEntryConditions(), strategy.isRequireAllEntryConditions()), false);
+        Expr exit = normalize(side(strategy.getExitConditions(), strategy.isRequireAllExitConditions()), false);
+
+        List<StrategyPlan.Node> nodes = new ArrayList<>();
+        Map<Expr, Integer> emitted = new HashMap<>();
+        int entryRoot = emit(entry, nodes, emitted);
+        int exitRoot = emit(exit, nodes, emitted);
+        StrategyPlan.Kernel kernel = generateKernels ? SignalKernelGenerator.generate(nodes, entryRoot, exitRoot) : null;
+        return new StrategyPlan(fingerprint, nodes, entryRoot, exitRoot, strategy, kernel);
+    }
+
+    private static Expr side(List<Condition> conditions, boolean requireAll) {
+        if (conditions.isEmpty()) {
+            // A side without conditions never signals, whatever its operator
+            return new Constant(false);
+        }
+        List<Expr> operands = conditions.stream().map(StrategyCompiler::toExpr).toList();
+        return requireAll ? new And(operands) : new Or(operands);
+    }
+
+    private static Expr toExpr(Condition condition) {
+        if (!(condition instanceof CompositeCondition composite)) {
+            return new Leaf(condition);
+        }
+        return switch (composite.getOperator()) {
+            case NOT -> composite.getNegatedCondition() == null
+                    ? new Constant(false)
+                    : new Not(toExpr(composite.getNegatedCondition()));
+            case AND -> new And(composite.getConditions().stream().map(StrategyCompiler::toExpr).toList());
+            case OR -> new Or(composite.getConditions().stream().map(StrategyCompiler::toExpr).toList());
+        };
+    }
+
+    private static Expr normalize(Expr expr, boolean negate) {
+        return switch (expr) {
+            case Leaf leaf -> negate ? new Not(leaf) : leaf;
+            case Constant constant -> new Constant(constant.value() != negate);
+            case Not not -> normalize(not.operand(), !negate);
+            case And and -> junction(!negate, and.operands().stream().map(e -> normalize(e, negate)).toList());
+            case Or or -> junction(negate, or.operands().stream().map(e -> normalize(e, negate)).toList());
+        };
+    }
+
+    /**
+     * Builds an AND ({@code and}) or OR of already normalized operands.
+     */
+    private static Expr junction(boolean and, List<Expr> operands) {
+        Set<Expr> flat = new LinkedHashSet<>();
+        for (Expr operand : operands) {
+            switch (operand) {
+                case And nested when and -> flat.addAll(nested.operands());
+                case Or nested when !and -> flat.addAll(nested.operands());
+                // TRUE is the identity of AND and absorbs OR, FALSE the other way round
+                case Constant constant when constant.value() == and -> {
+                }
+                case Constant ignored -> {
+                    return new Constant(!and);
+                }
+                default -> flat.add(operand);
+            }
+        }
+        for (Expr operand : flat) {
+            if (operand instanceof Not not && flat.contains(not.operand())) {
+                return new Constant(!and);
+            }
+        }
+
+        if (flat.isEmpty()) {
+            return new Constant(and);
+        }
+        if (flat.size() == 1) {
+            return flat.iterator().next();
+        }
+        // Operand order carries no meaning; a fixed one lets permuted subtrees meet as one node
+        List<Expr> ordered = new ArrayList<>(flat);
+        ordered.sort(Comparator.comparingInt(Expr::hashCode));
+        return and ? new And(ordered) : new Or(ordered);
+    }
+
+    private static int emit(Expr expr, List<StrategyPlan.Node> nodes, Map<Expr, Integer> emitted) {
+        Integer existing = emitted.get(expr);
+        if (existing != null) {
+            return existing;
+        }
+
+        StrategyPlan.Node node = switch (expr) {
+            case Leaf leaf -> new StrategyPlan.Leaf(leaf.condition());
+            case Constant constant -> new StrategyPlan.Constant(constant.value());
+            case Not not -> new StrategyPlan.Not(emit(not.operand(), nodes, emitted));
+            case And and -> new StrategyPlan.And(emitAll(and.operands(), nodes, emitted));
+            case Or or -> new StrategyPlan.Or(emitAll(or.operands(), nodes, emitted));
+        };
+        nodes.add(node);
+        emitted.put(expr, nodes.size() - 1);
+        return nodes.size() - 1;
+    }
+
+    private static List<Integer> emitAll(List<Expr> operands, List<StrategyPlan.Node> nodes, Map<Expr, Integer> emitted) {
+        List<Integer> indexes = new ArrayList<>(operands.size());
+        for (Expr operand : operands) {
+            indexes.add(emit(operand, nodes, emitted));
+        }
+        return indexes;
+    }
+
+    private sealed interface Expr permits Leaf, Not, And, Or, Constant {
+    }
+
+    private record Leaf(Condition condition) implements Expr {
+    }
+
+    private record Not(Expr operand) implements Expr {
+    }
+
+    private record And(List<Expr> operands) implements Expr {
+    }
+
+    private record Or(List<Expr> operands) implements Expr {
+    }
+
+    private record Constant(boolean value) implements Expr {
+    }
+}
@@ -1,23 +1,65 @@
 package com.example.spring_backend.strategies.internal;
 
 import com.example.spring_backend.common.BackTestRequest;
+import com.example.spring_backend.common.CanonicalForm;
 import com.example.spring_backend.indicators.PivotType;
+import com.example.spring_backend.market.Timeframe;
 import com.example.spring_backend.strategies.Condition;
 import com.example.spring_backend.common.ConditionConfig;
 import com.example.spring_backend.strategies.Strategy;
+import com.example.spring_backend.strategies.StrategyPlan;
 import com.example.spring_backend.strategies.StrategyService;
 import com.example.spring_backend.strategies.internal.conditions.*;
 import com.example.spring_backend.strategies.internal.enums.*;
 import jakarta.annotation.Nonnull;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Service
 @Slf4j
 public class StrategyServiceImpl implements StrategyService {
+    public static final int DEFAULT_PLAN_CACHE_SIZE = 256;
+
+    private final StrategyCompiler compiler;
+    private final Map<String, StrategyPlan> planCache;
+
+    public StrategyServiceImpl() {
+        this(DEFAULT_PLAN_CACHE_SIZE);
+    }
+
+    public StrategyServiceImpl(int planCacheSize) {
+        this(planCacheSize, false);
+    }
+
+    /**
+     * @param planCacheSize   compiled plans kept for repeated requests, least recently used evicted first;
+     *                        zero disables the cache
+     * @param generateKernels whether plans get a generated fused loop where their conditions allow it; such
+     *                        plans report one {@code SignalKernel} condition timer instead of one per leaf
+     */
+    @Autowired
+    public StrategyServiceImpl(@Value("${strategies.plan-cache.max-entries:" + DEFAULT_PLAN_CACHE_SIZE + "}") int planCacheSize,
+                               @Value("${strategies.codegen.enabled:false}") boolean generateKernels) {
+        this.compiler = new StrategyCompiler(generateKernels);
+        if (planCacheSize < 0) {
+            throw new IllegalArgumentException("Plan cache size must not be negative");
+        }
+        this.planCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StrategyPlan> eldest) {
+                return size() > planCacheSize;
+            }
+        });
+    }
 
     @Nonnull
     @Override
@@ -26,6 +68,13 @@ public class StrategyServiceImpl implements StrategyService {
                 request.getEntryConditions() != null ? request.getEntryConditions().size() : 0,
                 request.getExitConditions() != null ? request.getExitConditions().size() : 0);
 
+        String fingerprint = fingerprint(request);
+        StrategyPlan cached = planCache.get(fingerprint);
+        if (cached != null) {
+            log.info("Reusing compiled strategy plan {}", fingerprint);
+            return cached.toStrategy();
+        }
+
         Strategy strategy = new Strategy();
 
         if (request.getEntryConditions() != null) {
@@ -61,10 +110,74 @@ public class StrategyServiceImpl implements StrategyService {
         strategy.setRequireAllEntryConditions(request.isRequireAllEntryConditions());
         strategy.setRequireAllExitConditions(request.isRequireAllExitConditions());
 
-        log.info("Strategy built successfully. Entry conditions: {}, Exit conditions: {}",
-                strategy.getEntryConditions().size(), strategy.getExitConditions().size());
+        StrategyPlan plan = compiler.compile(strategy, fingerprint);
+        planCache.put(fingerprint, plan);
+
+        log.info("Strategy built successfully. Entry conditions: {}, Exit conditions: {}, plan nodes: {}",
+                strategy.getEntryConditions().size(), strategy.getExitConditions().size(), plan.getNodes().size());
+
+        return plan.toStrategy();
+    }
+
+    @Nonnull
+    @Override
+    public String strategyHash(@Nonnull BackTestRequest request) {
+        return fingerprint(request);
+    }
+
+    /**
+     * Canonical hash of the strategy part of a request. Equal parameter values hash the same whatever their
+     * numeric type, and the order of conditions within a side or an AND/OR does not matter.
+     */
+    @Nonnull
+    static String fingerprint(@Nonnull BackTestRequest request) {
+        String canonical = "entry:" + (request.isRequireAllEntryConditions() ? "AND" : "OR")
+                + canonicalConditions(request.getEntryConditions())
+                + ";exit:" + (request.isRequireAllExitConditions() ? "AND" : "OR")
+                + canonicalConditions(request.getExitConditions());
+        return CanonicalForm.hash(canonical);
+    }
+
+    private static String canonicalConditions(List<?> configs) {
+        Set<String> texts = new TreeSet<>();
+        if (configs != null) {
+            configs.forEach(config -> texts.add(canonicalCondition(config)));
+        }
+        return texts.toString();
+    }
+
+    private static String canonicalCondition(Object config) {
+        String type;
+        Map<?, ?> parameters;
+        if (config instanceof ConditionConfig conditionConfig) {
+            type = conditionConfig.getType();
+            parameters = conditionConfig.getParameters();
+        } else if (config instanceof Map<?, ?> map && map.get("type") instanceof String mapType) {
+            type = mapType;
+            parameters = map.get("parameters") instanceof Map<?, ?> mapParameters ? mapParameters : null;
+        } else {
+            return CanonicalForm.of(config);
+        }
+
+        // Composites keep only their structure, so the adjusted flag every condition may carry is added back
+        if (parameters != null && ("AND".equals(type) || "OR".equals(type))
+                && parameters.get("conditions") instanceof List<?> children) {
+            return adjusted(parameters, type + canonicalConditions(children));
+        }
+        if (parameters != null && "NOT".equals(type) && parameters.get("condition") != null) {
+            return adjusted(parameters, "NOT(" + canonicalCondition(parameters.get("condition")) + ")");
+        }
+        if (parameters != null && "TIMEFRAME".equals(type) && parameters.get("condition") != null) {
+            return adjusted(parameters, "TIMEFRAME" + CanonicalForm.of(parameters.get("timeframe"))
+                    + "(" + canonicalCondition(parameters.get("condition")) + ")");
+        }
+        return CanonicalForm.of(type) + CanonicalForm.of(parameters);
+    }
 
-        return strategy;
+    private static String adjusted(Map<?, ?> parameters, String canonical) {
+        Object adjusted = parameters.get("adjusted");
+        boolean enabled = adjusted instanceof Boolean b ? b : adjusted instanceof String s && Boolean.parseBoolean(s);
+        return enabled ? "ADJ(" + canonical + ")" : canonical;
     }
 
     @Nonnull
@@ -73,7 +186,7 @@ public class StrategyServiceImpl implements StrategyService {
         log.debug("Creating condition from config of type: {}", config.getType());
 
         try {
-            return switch (config.getType()) {
+            Condition condition = switch (config.getType()) {
                 case "SMA_CROSSOVER" -> createSmaCrossover(config);
                 case "RSI_THRESHOLD" -> createRsiThreshold(config);
                 case "MACD_CROSSOVER" -> createMacdCrossover(config);
@@ -92,11 +205,19 @@ public class StrategyServiceImpl implements StrategyService {
                 case "AND" -> createAndComposite(config);
                 case "OR" -> createOrComposite(config);
                 case "NOT" -> createNotComposite(config);
+                case "TIMEFRAME" -> createTimeframe(config);
                 default -> {
                     log.error("Unknown condition type: {}", config.getType());
                     throw new IllegalArgumentException("Unknown condition type: " + config.getType());
                 }
             };
+            // Any condition may ask for split- and dividend-adjusted prices instead of raw ones
+            if (config.getParameters() != null && config.getParameters().containsKey("adjusted")
+                    && getBooleanParam(config, "adjusted")) {
+                log.debug("Evaluating {} condition on adjusted prices", config.getType());
+                return new AdjustedCondition(condition);
+            }
+            return condition;
         } catch (Exception e) {
             log.error("Error creating condition of type: {}", config.getType(), e);
             throw e;
@@ -330,6 +451,21 @@ public class StrategyServiceImpl implements StrategyService {
         }
     }
 
+    @Nonnull
+    private TimeframeCondition createTimeframe(@Nonnull ConditionConfig config) {
+        Object timeframeObj = config.getParameters().get("timeframe");
+        Object childConfigObj = config.getParameters().get("condition");
+
+        if (!(timeframeObj instanceof String timeframeText) || childConfigObj == null) {
+            log.error("TIMEFRAME condition requires a timeframe and a child condition");
+            throw new IllegalArgumentException("TIMEFRAME condition requires timeframe and condition parameters");
+        }
+
+        Timeframe timeframe = Timeframe.parse(timeframeText);
+        log.debug("Creating {} timeframe condition", timeframe.length());
+        return new TimeframeCondition(timeframe, createChildCondition(childConfigObj));
+    }
+
     private void addChildConditions(
             @Nonnull ConditionConfig config,
             @Nonnull CompositeCondition composite,
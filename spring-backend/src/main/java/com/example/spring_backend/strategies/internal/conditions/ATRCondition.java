@@ -1,26 +1,37 @@
 package com.example.spring_backend.strategies.internal.conditions;
 
 import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.indicators.IncrementalIndicators;
+import com.example.spring_backend.indicators.IndicatorKernels;
 import com.example.spring_backend.indicators.IndicatorUtils;
+import com.example.spring_backend.indicators.ScratchBuffers;
 import com.example.spring_backend.strategies.Condition;
+import com.example.spring_backend.strategies.SignalShape;
 import jakarta.annotation.Nonnull;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
+
 @RequiredArgsConstructor
+@EqualsAndHashCode
 public class ATRCondition implements Condition {
     private final int period;
     private final double multiplier;
     private final boolean isAbove;
     private final boolean compareWithPrice;
 
+    @Override
+    public int relativeCost() {
+        return 10;
+    }
+
     @Override
     public boolean evaluate(MarketData data, int currentIndex) {
         if (currentIndex < period) return false;
 
-        double[] high = data.high();
-        double[] low = data.low();
-        double[] close = data.close();
-        double[] atr = IndicatorUtils.atr(high, low, close, period);
+        double[] close = Columns.close(data);
+        double[] atr = IndicatorUtils.atr(Columns.high(data), Columns.low(data), close, period);
 
         if (Double.isNaN(atr[currentIndex])) {
             return false;
@@ -51,57 +62,48 @@ public class ATRCondition implements Condition {
 
     @Override
     public boolean[] evaluateVector(@Nonnull MarketData data) {
-        final int length = data.close().length;
+        final int length = data.size();
         boolean[] signals = new boolean[length];
 
         if (length < period) {
             return signals;
         }
 
-        double[] high = data.high();
-        double[] low = data.low();
-        double[] close = data.close();
-        double[] atr = IndicatorUtils.atr(high, low, close, period);
+        double[] atr = atrSeries().values(data);
+        double[] close = Columns.close(data);
 
+        // NaN ATR values compare false, so warm-up bars stay false
         if (compareWithPrice) {
             // Compare price difference with ATR threshold
-            for (int i = period; i < length; i++) {
-                // Skip if ATR is invalid
-                if (Double.isNaN(atr[i])) {
-                    signals[i] = false;
-                    continue;
-                }
-
-                double currentPrice = close[i];
-                double previousPrice = close[i - 1];
-                double priceDifference = Math.abs(currentPrice - previousPrice);
-                double atrThreshold = atr[i] * multiplier;
-
-                if (isAbove) {
-                    signals[i] = priceDifference > atrThreshold;
-                } else {
-                    signals[i] = priceDifference < atrThreshold;
-                }
-            }
-        } else {
+            IndicatorKernels.changeVersusScaled(close, atr, multiplier, isAbove, period, signals);
+        } else if (isAbove) {
             // Compare ATR value directly with threshold
-            double threshold = multiplier;
-
-            for (int i = period; i < length; i++) {
-                // Skip if ATR is invalid
-                if (Double.isNaN(atr[i])) {
-                    signals[i] = false;
-                    continue;
-                }
-
-                if (isAbove) {
-                    signals[i] = atr[i] > threshold;
-                } else {
-                    signals[i] = atr[i] < threshold;
-                }
-            }
+            IndicatorKernels.greaterThan(atr, multiplier, period, signals);
+        } else {
+            IndicatorKernels.lessThan(atr, multiplier, period, signals);
         }
 
         return signals;
     }
+
+    @Override
+    public SignalShape shape() {
+        // Price-relative comparisons read two columns per bar and stay interpreted
+        return compareWithPrice ? null : new SignalShape.Threshold(atrSeries(), isAbove, multiplier, period);
+    }
+
+    private SignalShape.Series atrSeries() {
+        List<Object> key = List.of("atr", period);
+        return new SignalShape.Series(key, data -> {
+            int length = data.size();
+            if (length < period) {
+                // Too short for any ATR value; the threshold starts at period, so these bars are never read
+                return ScratchBuffers.doubles(length);
+            }
+            return Checkpointed.series(data, key,
+                    previous -> IncrementalIndicators.atr(Columns.high(data), Columns.low(data), Columns.close(data),
+                            period, previous),
+                    () -> IndicatorUtils.atr(Columns.high(data), Columns.low(data), Columns.close(data), period));
+        });
+    }
 }
\ No newline at end of file
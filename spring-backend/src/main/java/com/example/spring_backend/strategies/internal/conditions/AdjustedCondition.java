@@ -0,0 +1,40 @@
+package com.example.spring_backend.strategies.internal.conditions;
+
+import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.strategies.Condition;
+import com.example.spring_backend.strategies.ConditionEvaluator;
+import jakarta.annotation.Nonnull;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Evaluates a condition on the split- and dividend-adjusted series instead of raw prices, so a split does not
+ * look like a crash to its indicators. The adjusted series is built once per dataset, normally at import.
+ */
+@RequiredArgsConstructor
+@EqualsAndHashCode
+@Getter
+public class AdjustedCondition implements Condition {
+    private final Condition condition;
+
+    @Override
+    public int relativeCost() {
+        return condition.relativeCost() + 1;
+    }
+
+    @Override
+    public boolean evaluate(@Nonnull MarketData data, int currentIndex) {
+        return condition.evaluate(data.adjusted(), currentIndex);
+    }
+
+    @Override
+    public boolean[] evaluateVector(@Nonnull MarketData data) {
+        MarketData adjusted = data.adjusted();
+        int dataSize = adjusted.size();
+        // Without corporate actions the raw series is the adjusted one, so results can be shared with raw nodes
+        return adjusted == data
+                ? ConditionEvaluator.evaluate(condition, data, dataSize).clone()
+                : ConditionEvaluator.evaluateDetached(condition, adjusted, dataSize);
+    }
+}
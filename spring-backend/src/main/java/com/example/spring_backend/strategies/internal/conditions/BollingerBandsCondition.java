@@ -3,23 +3,34 @@ package com.example.spring_backend.strategies.internal.conditions;
 import com.example.spring_backend.market.MarketData;
 import com.example.spring_backend.indicators.IndicatorUtils;
 import com.example.spring_backend.strategies.Condition;
+import com.example.spring_backend.strategies.SignalPass;
 import jakarta.annotation.Nonnull;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
 import java.util.Map;
 
 @RequiredArgsConstructor
+@EqualsAndHashCode
 public class BollingerBandsCondition implements Condition {
     private final int period;
     private final double numStd;
     private final boolean checkUpper;
 
+    @Override
+    public int relativeCost() {
+        // SMA and standard deviation each rescan the window
+        return 2 * period + 5;
+    }
+
     @Override
     public boolean evaluate(@Nonnull MarketData data, int currentIndex) {
-        Map<String, double[]> bb = IndicatorUtils.bollingerBands(data.close(), period, numStd);
+        double[] close = Columns.close(data);
+        Map<String, double[]> bb = IndicatorUtils.bollingerBands(close, period, numStd);
         double[] upper = bb.get("upper");
         double[] lower = bb.get("lower");
-        double price = data.close()[currentIndex];
+        double price = close[currentIndex];
 
         if (Double.isNaN(upper[currentIndex]) || Double.isNaN(lower[currentIndex])) {
             return false;
@@ -34,7 +45,7 @@ public class BollingerBandsCondition implements Condition {
 
     @Override
     public boolean[] evaluateVector(@Nonnull MarketData data) {
-        final int length = data.close().length;
+        final int length = data.size();
         boolean[] signals = new boolean[length];
 
         // Early exit if not enough data
@@ -42,9 +53,10 @@ public class BollingerBandsCondition implements Condition {
             return signals; // All false
         }
 
-        double[] close = data.close();
+        double[] close = Columns.close(data);
 
-        Map<String, double[]> bb = IndicatorUtils.bollingerBands(close, period, numStd);
+        Map<String, double[]> bb = SignalPass.shared(List.of("bollinger", period, numStd),
+                () -> IndicatorUtils.bollingerBands(close, period, numStd));
         double[] upper = bb.get("upper");
         double[] lower = bb.get("lower");
 
@@ -0,0 +1,49 @@
+package com.example.spring_backend.strategies.internal.conditions;
+
+import com.example.spring_backend.indicators.IncrementalIndicators;
+import com.example.spring_backend.indicators.IndicatorCheckpoint;
+import com.example.spring_backend.market.Checkpoints;
+import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.market.MarketDataStore;
+import jakarta.annotation.Nonnull;
+
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Indicator series continued from the {@link Checkpoints} of a dataset in the {@link MarketDataStore}. After
+ * bars are appended to a stored dataset, the next backtest only computes the new bars through
+ * {@link IncrementalIndicators} and offers the longer checkpoint for the one after it. Backtests racing on the
+ * same new bars may each compute them; the checkpoint kept is the same either way. Series outside the store
+ * are computed as before.
+ */
+final class Checkpointed {
+
+    private Checkpointed() {
+        throw new AssertionError("Checkpointed is a utility class and should not be instantiated");
+    }
+
+    /**
+     * The series under {@code key} for the whole of {@code data}.
+     *
+     * @param extend  continues a checkpoint, or starts from bar 0 given {@code null}, over the current input
+     * @param compute the batch computation, for series without checkpoints
+     */
+    @Nonnull
+    static double[] series(@Nonnull MarketData data, @Nonnull Object key,
+                           @Nonnull UnaryOperator<IndicatorCheckpoint> extend, @Nonnull Supplier<double[]> compute) {
+        Checkpoints checkpoints = data.checkpoints();
+        if (checkpoints == null) {
+            return compute.get();
+        }
+        int length = data.size();
+        IndicatorCheckpoint previous = checkpoints.get(key);
+        if (previous != null && previous.length() == length) {
+            return previous.values();
+        }
+        // A longer checkpoint belongs to a newer snapshot than the one being run
+        IndicatorCheckpoint checkpoint = extend.apply(previous != null && previous.length() < length ? previous : null);
+        checkpoints.offer(key, checkpoint, length, (long) length * Double.BYTES);
+        return checkpoint.values();
+    }
+}
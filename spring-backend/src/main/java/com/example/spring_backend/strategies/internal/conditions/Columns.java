@@ -0,0 +1,51 @@
+package com.example.spring_backend.strategies.internal.conditions;
+
+import com.example.spring_backend.indicators.ScratchBuffers;
+import com.example.spring_backend.market.DoubleColumn;
+import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.strategies.SignalPass;
+import jakarta.annotation.Nonnull;
+
+import java.util.List;
+
+/**
+ * Price columns shared through the current {@link SignalPass}. Conditions in one pass that read the same
+ * column take one copy between them, made in bulk from the series' {@link DoubleColumn} into a pass scratch
+ * buffer, so off-heap series are read without building their points. The arrays are shared and must not be
+ * modified.
+ */
+final class Columns {
+
+    private Columns() {
+        throw new AssertionError("Columns is a utility class and should not be instantiated");
+    }
+
+    @Nonnull
+    static double[] close(@Nonnull MarketData data) {
+        return SignalPass.shared(List.of("column", "close"), () -> copy(data.closeColumn()));
+    }
+
+    @Nonnull
+    static double[] open(@Nonnull MarketData data) {
+        return SignalPass.shared(List.of("column", "open"), () -> copy(data.openColumn()));
+    }
+
+    @Nonnull
+    static double[] high(@Nonnull MarketData data) {
+        return SignalPass.shared(List.of("column", "high"), () -> copy(data.highColumn()));
+    }
+
+    @Nonnull
+    static double[] low(@Nonnull MarketData data) {
+        return SignalPass.shared(List.of("column", "low"), () -> copy(data.lowColumn()));
+    }
+
+    @Nonnull
+    static double[] volume(@Nonnull MarketData data) {
+        return SignalPass.shared(List.of("column", "volume"), () -> copy(data.volumeColumn()));
+    }
+
+    private static double[] copy(DoubleColumn column) {
+        return column.copyTo(ScratchBuffers.doubles(column.length()));
+    }
+}
@@ -1,15 +1,26 @@
 package com.example.spring_backend.strategies.internal.conditions;
 
+import com.example.spring_backend.indicators.DirectionalMovement;
+import com.example.spring_backend.indicators.ScratchBuffers;
 import com.example.spring_backend.market.MarketData;
-import com.example.spring_backend.indicators.IndicatorUtils;
 import com.example.spring_backend.strategies.Condition;
+import com.example.spring_backend.strategies.SignalPass;
 import com.example.spring_backend.strategies.internal.enums.DMISignalType;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 
-import java.util.Map;
+import java.util.List;
 
+/**
+ * Signals on Wilder's directional movement index: +DI against -DI, ADX against a threshold, or both.
+ * <p>
+ * The indicator comes from the fused {@link DirectionalMovement} pass, shared through the {@link SignalPass}
+ * and limited to the series the signal type actually reads.
+ */
 @RequiredArgsConstructor
+@EqualsAndHashCode
 public class DMICondition implements Condition {
     private final int period;
     private final DMISignalType signalType;
@@ -29,74 +40,20 @@ public class DMICondition implements Condition {
     }
 
     @Override
-    public boolean evaluate(MarketData data, int currentIndex) {
-        // Check if we have enough data for calculation (ADX needs 2*period-1 bars)
-        if (currentIndex < 2 * period - 1) {
-            return false;
-        }
-
-        Map<String, double[]> dmiResult = IndicatorUtils.dmi(
-                data.high(), data.low(), data.close(), period
-        );
-
-        // Validate map contains all required keys
-        if (!dmiResult.containsKey("plusDI") || !dmiResult.containsKey("minusDI") || !dmiResult.containsKey("ADX")) {
-            return false;
-        }
-
-        double[] plusDI = dmiResult.get("plusDI");
-        double[] minusDI = dmiResult.get("minusDI");
-        double[] adx = dmiResult.get("ADX");
-
-        // Check for NaN values to avoid false signals
-        if (Double.isNaN(plusDI[currentIndex]) || Double.isNaN(minusDI[currentIndex]) ||
-                Double.isNaN(adx[currentIndex])) {
-            return false;
-        }
-
-        if (requiresHistoricalComparison(signalType) && currentIndex == 0) {
-            return false;
-        }
-
-        return switch (signalType) {
-            case PLUS_DI_ABOVE_MINUS_DI -> plusDI[currentIndex] > minusDI[currentIndex];
-            case MINUS_DI_ABOVE_PLUS_DI -> minusDI[currentIndex] > plusDI[currentIndex];
-
-            case PLUS_DI_CROSSES_ABOVE_MINUS_DI -> plusDI[currentIndex - 1] <= minusDI[currentIndex - 1] &&
-                    plusDI[currentIndex] > minusDI[currentIndex];
-
-            case MINUS_DI_CROSSES_ABOVE_PLUS_DI -> minusDI[currentIndex - 1] <= plusDI[currentIndex - 1] &&
-                    minusDI[currentIndex] > plusDI[currentIndex];
-
-            case ADX_ABOVE_THRESHOLD -> adx[currentIndex] > threshold;
-            case ADX_BELOW_THRESHOLD -> adx[currentIndex] < threshold;
-
-            case WEAK_TREND -> adx[currentIndex] < threshold &&
-                    Math.abs(plusDI[currentIndex] - minusDI[currentIndex]) < divergenceThreshold;
-
-            case ADX_RISING -> adx[currentIndex] > adx[currentIndex - 1];
-            case ADX_FALLING -> adx[currentIndex] < adx[currentIndex - 1];
-
-            case STRONG_TREND -> adx[currentIndex] > threshold &&
-                    Math.abs(plusDI[currentIndex] - minusDI[currentIndex]) > divergenceThreshold;
-
-            case STRONG_BULLISH -> adx[currentIndex] > threshold &&
-                    plusDI[currentIndex] > minusDI[currentIndex] &&
-                    (plusDI[currentIndex] - minusDI[currentIndex]) > divergenceThreshold;
-
-            case STRONG_BEARISH -> adx[currentIndex] > threshold &&
-                    minusDI[currentIndex] > plusDI[currentIndex] &&
-                    (minusDI[currentIndex] - plusDI[currentIndex]) > divergenceThreshold;
+    public int relativeCost() {
+        return 15;
+    }
 
-            case DI_DIVERGENCE -> currentIndex > period &&
-                    Math.abs(plusDI[currentIndex] - minusDI[currentIndex]) >
-                            Math.abs(plusDI[currentIndex - period] - minusDI[currentIndex - period]);
-        };
+    @Override
+    public boolean evaluate(@Nonnull MarketData data, int currentIndex) {
+        // Single bars use the vectorized path so both always agree
+        return currentIndex >= 2 * period - 1 && evaluateVector(data)[currentIndex];
     }
 
     @Override
     public boolean[] evaluateVector(@Nonnull MarketData data) {
-        final int length = data.close().length;
+        double[] close = Columns.close(data);
+        final int length = close.length;
         boolean[] signals = new boolean[length];
 
         // Early exit if not enough data (ADX needs 2*period-1 bars)
@@ -104,20 +61,14 @@ public class DMICondition implements Condition {
             return signals; // All false
         }
 
-        double[] high = data.high();
-        double[] low = data.low();
-        double[] close = data.close();
-
-        Map<String, double[]> dmiResult = IndicatorUtils.dmi(high, low, close, period);
-
-        // Validate map contains all required keys
-        if (!dmiResult.containsKey("plusDI") || !dmiResult.containsKey("minusDI") || !dmiResult.containsKey("ADX")) {
-            return signals; // All false
-        }
-
-        double[] plusDI = dmiResult.get("plusDI");
-        double[] minusDI = dmiResult.get("minusDI");
-        double[] adx = dmiResult.get("ADX");
+        // Only the series this signal type reads are materialized
+        boolean usesDI = usesDI(signalType);
+        boolean usesADX = usesADX(signalType);
+        Series series = SignalPass.shared(List.of("dmi", period, usesDI, usesADX),
+                () -> Series.compute(Columns.high(data), Columns.low(data), close, period, usesDI, usesADX));
+        double[] plusDI = series.plusDI();
+        double[] minusDI = series.minusDI();
+        double[] adx = series.adx();
 
         // Determine starting index based on signal type requirements
         int startIndex = 2 * period - 1;
@@ -131,17 +82,13 @@ public class DMICondition implements Condition {
         // Single loop through data points
         for (int i = startIndex; i < length; i++) {
             // Skip if DMI values are invalid
-            if (Double.isNaN(plusDI[i]) || Double.isNaN(minusDI[i]) || Double.isNaN(adx[i])) {
-                signals[i] = false;
+            if (!series.isDefined(i)) {
                 continue;
             }
 
             // Additional historical value checks for crossover signals
-            if (requiresHistoricalComparison(signalType) && i > 0) {
-                if (Double.isNaN(plusDI[i - 1]) || Double.isNaN(minusDI[i - 1]) || Double.isNaN(adx[i - 1])) {
-                    signals[i] = false;
-                    continue;
-                }
+            if (requiresHistoricalComparison(signalType) && i > 0 && !series.isDefined(i - 1)) {
+                continue;
             }
 
             signals[i] = switch (signalType) {
@@ -183,6 +130,21 @@ public class DMICondition implements Condition {
         return signals;
     }
 
+    private static boolean usesDI(@Nonnull DMISignalType signalType) {
+        return switch (signalType) {
+            case ADX_ABOVE_THRESHOLD, ADX_BELOW_THRESHOLD, ADX_RISING, ADX_FALLING -> false;
+            default -> true;
+        };
+    }
+
+    private static boolean usesADX(@Nonnull DMISignalType signalType) {
+        return switch (signalType) {
+            case PLUS_DI_ABOVE_MINUS_DI, MINUS_DI_ABOVE_PLUS_DI, PLUS_DI_CROSSES_ABOVE_MINUS_DI,
+                 MINUS_DI_CROSSES_ABOVE_PLUS_DI, DI_DIVERGENCE -> false;
+            default -> true;
+        };
+    }
+
     private boolean requiresHistoricalComparison(@Nonnull DMISignalType signalType) {
         return signalType == DMISignalType.PLUS_DI_CROSSES_ABOVE_MINUS_DI ||
                 signalType == DMISignalType.MINUS_DI_CROSSES_ABOVE_PLUS_DI ||
@@ -190,4 +152,23 @@ public class DMICondition implements Condition {
                 signalType == DMISignalType.ADX_FALLING ||
                 signalType == DMISignalType.DI_DIVERGENCE;
     }
-}
\ No newline at end of file
+
+    /**
+     * The DMI series one signal type reads; the ones it does not read are {@code null}.
+     */
+    private record Series(@Nullable double[] plusDI, @Nullable double[] minusDI, @Nullable double[] adx) {
+        static Series compute(double[] high, double[] low, double[] close, int period, boolean withDI, boolean withADX) {
+            int length = close.length;
+            double[] plusDI = withDI ? ScratchBuffers.doubles(length) : null;
+            double[] minusDI = withDI ? ScratchBuffers.doubles(length) : null;
+            double[] adx = withADX ? ScratchBuffers.doubles(length) : null;
+            DirectionalMovement.compute(high, low, close, period, plusDI, minusDI, null, adx);
+            return new Series(plusDI, minusDI, adx);
+        }
+
+        boolean isDefined(int i) {
+            return (plusDI == null || !Double.isNaN(plusDI[i]) && !Double.isNaN(minusDI[i]))
+                    && (adx == null || !Double.isNaN(adx[i]));
+        }
+    }
+}
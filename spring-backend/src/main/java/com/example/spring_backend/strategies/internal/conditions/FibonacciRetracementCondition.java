@@ -1,11 +1,25 @@
 package com.example.spring_backend.strategies.internal.conditions;
 
+import com.example.spring_backend.indicators.RollingExtremes;
 import com.example.spring_backend.market.MarketData;
 import com.example.spring_backend.strategies.Condition;
+import com.example.spring_backend.strategies.SignalPass;
 import jakarta.annotation.Nonnull;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
+
+/**
+ * Price bouncing off a Fibonacci retracement of the swing high and low over the previous
+ * {@code lookbackPeriod} bars, in the direction of the most recent swing.
+ * <p>
+ * The swing bars come from rolling {@link RollingExtremes#argMax argmax} and {@link RollingExtremes#argMin argmin}
+ * columns shared through the {@link SignalPass}, so a whole series takes {@code O(n)} instead of rescanning the
+ * window at every bar.
+ */
 @RequiredArgsConstructor
+@EqualsAndHashCode
 public class FibonacciRetracementCondition implements Condition {
     private final int lookbackPeriod;
     private final double level;
@@ -13,151 +27,67 @@ public class FibonacciRetracementCondition implements Condition {
     private final double tolerance;
 
     @Override
-    public boolean evaluate(@Nonnull MarketData data, int currentIndex) {
-        if (currentIndex < lookbackPeriod) {
-            return false;
-        }
-
-        double[] high = data.high();
-        double[] low = data.low();
-        double[] close = data.close();
-
-        // Find swing high and swing low in the lookback period
-        double swingHigh = Double.MIN_VALUE;
-        double swingLow = Double.MAX_VALUE;
-        int swingHighIndex = -1;
-        int swingLowIndex = -1;
-
-        for (int i = currentIndex - lookbackPeriod; i < currentIndex; i++) {
-            if (high[i] > swingHigh) {
-                swingHigh = high[i];
-                swingHighIndex = i;
-            }
-            if (low[i] < swingLow) {
-                swingLow = low[i];
-                swingLowIndex = i;
-            }
-        }
-
-        if (swingHighIndex == -1 || swingLowIndex == -1) {
-            return false;
-        }
-
-        double currentPrice = close[currentIndex];
-        double retracementLevel;
-
-        // Determine the most recent trend
-        boolean recentTrendIsBullish = swingHighIndex > swingLowIndex;
-
-        // If we're looking for a bullish condition but recent trend is bearish (or vice versa),
-        // we might want to ignore this condition
-        if (isBullish != recentTrendIsBullish) {
-            return false;
-        }
-
-        // Calculate the retracement level
-        if (isBullish) {
-            retracementLevel = swingHigh - (swingHigh - swingLow) * level;
-
-            // Check if price is near the retracement level and bouncing up from it (support)
-            double lowerBound = retracementLevel * (1 - tolerance);
-            double upperBound = retracementLevel * (1 + tolerance);
-
-            return currentPrice >= lowerBound && currentPrice <= upperBound &&
-                    close[currentIndex] > close[currentIndex - 1]; // Showing some upward movement
-        } else {
-            // For bearish trends, we calculate retracement up from low to high
-            retracementLevel = swingLow + (swingHigh - swingLow) * level;
-
-            // Check if price is near the retracement level and bouncing down from it (resistance)
-            double lowerBound = retracementLevel * (1 - tolerance);
-            double upperBound = retracementLevel * (1 + tolerance);
+    public int relativeCost() {
+        return 10;
+    }
 
-            return currentPrice >= lowerBound && currentPrice <= upperBound &&
-                    close[currentIndex] < close[currentIndex - 1];
-        }
+    @Override
+    public boolean evaluate(@Nonnull MarketData data, int currentIndex) {
+        // Single bars use the vectorized path so both always agree
+        return currentIndex >= lookbackPeriod && evaluateVector(data)[currentIndex];
     }
 
     @Override
     public boolean[] evaluateVector(@Nonnull MarketData data) {
-        final int length = data.close().length;
+        double[] close = Columns.close(data);
+        final int length = close.length;
         boolean[] signals = new boolean[length];
 
-        if (length < lookbackPeriod + 1) { // +1 because we need previous close for trend check
+        if (lookbackPeriod < 1 || length < lookbackPeriod + 1) { // +1 because we need previous close for trend check
             return signals;
         }
 
-        double[] high = data.high();
-        double[] low = data.low();
-        double[] close = data.close();
+        double[] high = Columns.high(data);
+        double[] low = Columns.low(data);
+        int[] highIndex = SignalPass.shared(List.of("argMax", "high", lookbackPeriod),
+                () -> RollingExtremes.argMax(high, lookbackPeriod));
+        int[] lowIndex = SignalPass.shared(List.of("argMin", "low", lookbackPeriod),
+                () -> RollingExtremes.argMin(low, lookbackPeriod));
 
-        // Main loop starting from lookbackPeriod
         for (int currentIndex = lookbackPeriod; currentIndex < length; currentIndex++) {
-            // Skip if we can't check previous close for trend direction
-            if (currentIndex == 0) {
-                signals[currentIndex] = false;
-                continue;
-            }
-
-            // Find swing high and swing low in the lookback period for this data point
-            double swingHigh = Double.MIN_VALUE;
-            double swingLow = Double.MAX_VALUE;
-            int swingHighIndex = -1;
-            int swingLowIndex = -1;
-
-            // Look back from current position
-            for (int i = currentIndex - lookbackPeriod; i < currentIndex; i++) {
-                if (high[i] > swingHigh) {
-                    swingHigh = high[i];
-                    swingHighIndex = i;
-                }
-                if (low[i] < swingLow) {
-                    swingLow = low[i];
-                    swingLowIndex = i;
-                }
-            }
+            // Swing high and low over [currentIndex - lookbackPeriod, currentIndex - 1]
+            int swingHighIndex = highIndex[currentIndex - 1];
+            int swingLowIndex = lowIndex[currentIndex - 1];
 
-            // Skip if we couldn't find valid swing points
-            if (swingHighIndex == -1 || swingLowIndex == -1) {
-                signals[currentIndex] = false;
+            // Bounds the window scan started from: a high must beat Double.MIN_VALUE, a low must beat MAX_VALUE
+            if (swingHighIndex == -1 || swingLowIndex == -1
+                    || !(high[swingHighIndex] > Double.MIN_VALUE) || !(low[swingLowIndex] < Double.MAX_VALUE)) {
                 continue;
             }
 
-            double currentPrice = close[currentIndex];
-
-            // Determine the most recent trend
+            // Only signal in the direction of the most recent trend
             boolean recentTrendIsBullish = swingHighIndex > swingLowIndex;
-
-            // If we're looking for a bullish condition but recent trend is bearish (or vice versa),
-            // skip this condition
             if (isBullish != recentTrendIsBullish) {
-                signals[currentIndex] = false;
                 continue;
             }
 
-            // Calculate the retracement level and check condition
-            if (isBullish) {
-                double retracementLevel = swingHigh - (swingHigh - swingLow) * level;
-
-                // Check if price is near the retracement level and bouncing up from it (support)
-                double lowerBound = retracementLevel * (1 - tolerance);
-                double upperBound = retracementLevel * (1 + tolerance);
-
-                signals[currentIndex] = currentPrice >= lowerBound && currentPrice <= upperBound &&
-                        close[currentIndex] > close[currentIndex - 1]; // Showing some upward movement
-            } else {
-                // For bearish trends, we calculate retracement up from low to high
-                double retracementLevel = swingLow + (swingHigh - swingLow) * level;
+            double swingHigh = high[swingHighIndex];
+            double swingLow = low[swingLowIndex];
+            double currentPrice = close[currentIndex];
 
-                // Check if price is near the retracement level and bouncing down from it (resistance)
-                double lowerBound = retracementLevel * (1 - tolerance);
-                double upperBound = retracementLevel * (1 + tolerance);
+            // Bullish retraces down from the high (support), bearish retraces up from the low (resistance)
+            double retracementLevel = isBullish
+                    ? swingHigh - (swingHigh - swingLow) * level
+                    : swingLow + (swingHigh - swingLow) * level;
+            double lowerBound = retracementLevel * (1 - tolerance);
+            double upperBound = retracementLevel * (1 + tolerance);
 
-                signals[currentIndex] = currentPrice >= lowerBound && currentPrice <= upperBound &&
-                        close[currentIndex] < close[currentIndex - 1];
-            }
+            signals[currentIndex] = currentPrice >= lowerBound && currentPrice <= upperBound
+                    && (isBullish
+                    ? close[currentIndex] > close[currentIndex - 1]   // Showing some upward movement
+                    : close[currentIndex] < close[currentIndex - 1]);
         }
 
         return signals;
     }
-}
\ No newline at end of file
+}
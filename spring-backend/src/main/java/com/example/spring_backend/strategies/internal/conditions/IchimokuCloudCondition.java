@@ -3,13 +3,17 @@ package com.example.spring_backend.strategies.internal.conditions;
 import com.example.spring_backend.market.MarketData;
 import com.example.spring_backend.indicators.IndicatorUtils;
 import com.example.spring_backend.strategies.Condition;
+import com.example.spring_backend.strategies.SignalPass;
 import com.example.spring_backend.strategies.internal.enums.IchimokuSignalType;
 import jakarta.annotation.Nonnull;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
 import java.util.Map;
 
 @RequiredArgsConstructor
+@EqualsAndHashCode
 public class IchimokuCloudCondition implements Condition {
     private final int tenkanPeriod;
     private final int kijunPeriod;
@@ -20,23 +24,27 @@ public class IchimokuCloudCondition implements Condition {
         this(9, 26, 52, signalType);
     }
 
+    @Override
+    public int relativeCost() {
+        // Each line rescans its window for the high and low
+        return 2 * (tenkanPeriod + kijunPeriod + chikouPeriod);
+    }
+
     @Override
     public boolean evaluate(@Nonnull MarketData data, int currentIndex) {
         if (currentIndex < Math.max(Math.max(tenkanPeriod, kijunPeriod), chikouPeriod)) {
             return false; // Not enough data for calculation
         }
 
-        Map<String, double[]> ichimoku = IndicatorUtils.ichimokuCloud(
-                data.high(), data.low(), data.close(),
-                tenkanPeriod, kijunPeriod, chikouPeriod
-        );
+        Map<String, double[]> ichimoku = SignalPass.shared(List.of("ichimoku", tenkanPeriod, kijunPeriod, chikouPeriod),
+                () -> IndicatorUtils.ichimokuCloud(Columns.high(data), Columns.low(data), Columns.close(data),
+                        tenkanPeriod, kijunPeriod, chikouPeriod));
 
         double[] tenkanSen = ichimoku.get("tenkanSen");
         double[] kijunSen = ichimoku.get("kijunSen");
         double[] senkouSpanA = ichimoku.get("senkouSpanA");
         double[] senkouSpanB = ichimoku.get("senkouSpanB");
         double[] chikouSpan = ichimoku.get("chikouSpan");
-        double currentPrice = data.close()[currentIndex];
 
         // Check for NaN values to avoid false signals
         if (Double.isNaN(tenkanSen[currentIndex]) || Double.isNaN(kijunSen[currentIndex]) ||
@@ -45,25 +53,24 @@ public class IchimokuCloudCondition implements Condition {
         }
 
         return evaluateSignal(tenkanSen, kijunSen, senkouSpanA, senkouSpanB, chikouSpan,
-                data.close(), currentIndex);
+                Columns.close(data), currentIndex);
     }
 
     @Override
     public boolean[] evaluateVector(@Nonnull MarketData data) {
-        int length = data.close().length;
+        int length = data.size();
         boolean[] signals = new boolean[length];
 
-        Map<String, double[]> ichimoku = IndicatorUtils.ichimokuCloud(
-                data.high(), data.low(), data.close(),
-                tenkanPeriod, kijunPeriod, chikouPeriod
-        );
+        Map<String, double[]> ichimoku = SignalPass.shared(List.of("ichimoku", tenkanPeriod, kijunPeriod, chikouPeriod),
+                () -> IndicatorUtils.ichimokuCloud(Columns.high(data), Columns.low(data), Columns.close(data),
+                        tenkanPeriod, kijunPeriod, chikouPeriod));
 
         double[] tenkanSen = ichimoku.get("tenkanSen");
         double[] kijunSen = ichimoku.get("kijunSen");
         double[] senkouSpanA = ichimoku.get("senkouSpanA");
         double[] senkouSpanB = ichimoku.get("senkouSpanB");
         double[] chikouSpan = ichimoku.get("chikouSpan");
-        double[] closePrices = data.close();
+        double[] closePrices = Columns.close(data);
 
         int minRequiredIndex = Math.max(Math.max(tenkanPeriod, kijunPeriod), chikouPeriod);
 
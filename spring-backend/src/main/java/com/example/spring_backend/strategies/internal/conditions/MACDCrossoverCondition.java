@@ -1,25 +1,35 @@
 package com.example.spring_backend.strategies.internal.conditions;
 
 import com.example.spring_backend.market.MarketData;
-import com.example.spring_backend.indicators.IndicatorUtils;
+import com.example.spring_backend.indicators.IndicatorEngines;
 import com.example.spring_backend.strategies.Condition;
+import com.example.spring_backend.strategies.SignalPass;
+import com.example.spring_backend.strategies.SignalShape;
 import jakarta.annotation.Nonnull;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
 import java.util.Map;
 
 @RequiredArgsConstructor
+@EqualsAndHashCode
 public class MACDCrossoverCondition implements Condition {
     private final int fastPeriod;
     private final int slowPeriod;
     private final int signalPeriod;
     private final boolean crossAbove;
 
+    @Override
+    public int relativeCost() {
+        return 15;
+    }
+
     @Override
     public boolean evaluate(@Nonnull MarketData data, int currentIndex) {
         if (currentIndex < 1) return false;
 
-        Map<String, double[]> macd = IndicatorUtils.macd(data.close(), fastPeriod, slowPeriod, signalPeriod);
+        Map<String, double[]> macd = IndicatorEngines.current().macd(Columns.close(data), fastPeriod, slowPeriod, signalPeriod);
         double[] macdLine = macd.get("macdLine");
         double[] signalLine = macd.get("signalLine");
 
@@ -33,10 +43,10 @@ public class MACDCrossoverCondition implements Condition {
 
     @Override
     public boolean[] evaluateVector(@Nonnull MarketData data) {
-        int length = data.close().length;
+        int length = data.size();
         boolean[] signals = new boolean[length];
 
-        Map<String, double[]> macd = IndicatorUtils.macd(data.close(), fastPeriod, slowPeriod, signalPeriod);
+        Map<String, double[]> macd = sharedMacd(data);
         double[] macdLine = macd.get("macdLine");
         double[] signalLine = macd.get("signalLine");
 
@@ -55,6 +65,21 @@ public class MACDCrossoverCondition implements Condition {
         return signals;
     }
 
+    @Override
+    public SignalShape shape() {
+        return new SignalShape.Crossover(line("macdLine"), line("signalLine"), crossAbove);
+    }
+
+    private SignalShape.Series line(String name) {
+        return new SignalShape.Series(List.of("macd", fastPeriod, slowPeriod, signalPeriod, name),
+                data -> sharedMacd(data).get(name));
+    }
+
+    private Map<String, double[]> sharedMacd(MarketData data) {
+        return SignalPass.shared(List.of("macd", fastPeriod, slowPeriod, signalPeriod),
+                () -> IndicatorEngines.current().macd(Columns.close(data), fastPeriod, slowPeriod, signalPeriod));
+    }
+
     private boolean evaluateCrossover(double[] macdLine, double[] signalLine, int currentIndex) {
         if (crossAbove) {
             // MACD crosses above signal line
@@ -1,13 +1,20 @@
 package com.example.spring_backend.strategies.internal.conditions;
 
 import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.indicators.IncrementalIndicators;
+import com.example.spring_backend.indicators.IndicatorEngines;
 import com.example.spring_backend.indicators.IndicatorUtils;
 import com.example.spring_backend.strategies.Condition;
+import com.example.spring_backend.strategies.SignalPass;
 import com.example.spring_backend.strategies.internal.enums.ConditionType;
 import jakarta.annotation.Nonnull;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
+
 @RequiredArgsConstructor
+@EqualsAndHashCode
 public class OBVCondition implements Condition {
     private final int period;
     private final ConditionType conditionType;
@@ -26,16 +33,21 @@ public class OBVCondition implements Condition {
         }
     }
 
+    @Override
+    public int relativeCost() {
+        return period + 5;
+    }
+
     @Override
     public boolean evaluate(@Nonnull MarketData data, int currentIndex) {
         if (currentIndex < 1) {
             return false;
         }
 
-        double[] obv = IndicatorUtils.obv(data.close(), data.volume());
+        double[] obv = IndicatorUtils.obv(Columns.close(data), Columns.volume(data));
 
         if (conditionType.name().contains("MA")) {
-            double[] obvMA = IndicatorUtils.sma(obv, period);
+            double[] obvMA = IndicatorEngines.current().sma(obv, period);
 
             if (currentIndex >= obvMA.length || Double.isNaN(obvMA[currentIndex])) {
                 return false;
@@ -49,14 +61,22 @@ public class OBVCondition implements Condition {
 
     @Override
     public boolean[] evaluateVector(@Nonnull MarketData data) {
-        int length = data.close().length;
+        int length = data.size();
         boolean[] signals = new boolean[length];
 
-        double[] obv = IndicatorUtils.obv(data.close(), data.volume());
+        List<Object> obvKey = List.of("obv");
+        double[] obv = SignalPass.shared(obvKey, () -> Checkpointed.series(data, obvKey,
+                previous -> IncrementalIndicators.obv(Columns.close(data), Columns.volume(data), previous),
+                () -> IndicatorUtils.obv(Columns.close(data), Columns.volume(data))));
         double[] obvMA = null;
 
         if (conditionType.name().contains("MA")) {
-            obvMA = IndicatorUtils.sma(obv, period);
+            List<Object> smaKey = List.of("obv.sma", period);
+            obvMA = SignalPass.shared(smaKey, () -> IndicatorEngines.isDefault()
+                    ? Checkpointed.series(data, smaKey,
+                            previous -> IncrementalIndicators.sma(obv, period, previous),
+                            () -> IndicatorUtils.sma(obv, period))
+                    : IndicatorEngines.current().sma(obv, period));
         }
 
         // Start from index 1 since we need to compare with previous value
@@ -4,29 +4,37 @@ import com.example.spring_backend.indicators.PivotType;
 import com.example.spring_backend.market.MarketData;
 import com.example.spring_backend.indicators.IndicatorUtils;
 import com.example.spring_backend.strategies.Condition;
+import com.example.spring_backend.strategies.SignalPass;
 import com.example.spring_backend.strategies.internal.enums.PivotLevel;
 import jakarta.annotation.Nonnull;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
 import java.util.Map;
 
 @RequiredArgsConstructor
+@EqualsAndHashCode
 public class PivotPointsCondition implements Condition {
     private final PivotType pivotType;
     private final PivotLevel pivotLevel;
     private final boolean crossAbove; // true for crossing above, false for crossing below
     private final boolean useClose; // true to use close price, false to use low/high
 
+    @Override
+    public int relativeCost() {
+        return 20;
+    }
+
     @Override
     public boolean evaluate(MarketData data, int currentIndex) {
         if (currentIndex < 1) return false;
 
-        double[] high = data.high();
-        double[] low = data.low();
-        double[] close = data.close();
-        double[] open = data.open();
+        double[] high = Columns.high(data);
+        double[] low = Columns.low(data);
+        double[] close = Columns.close(data);
 
-        Map<String, double[]> pivotPoints = IndicatorUtils.pivotPoints(high, low, close, open, pivotType);
+        Map<String, double[]> pivotPoints = IndicatorUtils.pivotPoints(high, low, close, Columns.open(data), pivotType);
         String pivotLevelKey = pivotLevel.name();
 
         if (!pivotPoints.containsKey(pivotLevelKey)) {
@@ -67,15 +75,15 @@ public class PivotPointsCondition implements Condition {
 
     @Override
     public boolean[] evaluateVector(@Nonnull MarketData data) {
-        double[] high = data.high();
-        double[] low = data.low();
-        double[] close = data.close();
-        double[] open = data.open();
-        int length = close.length;
+        double[] high = Columns.high(data);
+        double[] low = Columns.low(data);
+        double[] close = Columns.close(data);
+        int length = data.size();
 
         boolean[] signals = new boolean[length];
 
-        Map<String, double[]> pivotPoints = IndicatorUtils.pivotPoints(high, low, close, open, pivotType);
+        Map<String, double[]> pivotPoints = SignalPass.shared(List.of("pivots", pivotType),
+                () -> IndicatorUtils.pivotPoints(high, low, close, Columns.open(data), pivotType));
         String pivotLevelKey = pivotLevel.name();
 
         if (!pivotPoints.containsKey(pivotLevelKey)) {
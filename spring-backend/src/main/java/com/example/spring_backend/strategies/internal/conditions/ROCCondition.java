@@ -3,16 +3,26 @@ package com.example.spring_backend.strategies.internal.conditions;
 import com.example.spring_backend.market.MarketData;
 import com.example.spring_backend.indicators.IndicatorUtils;
 import com.example.spring_backend.strategies.Condition;
+import com.example.spring_backend.strategies.SignalShape;
 import com.example.spring_backend.strategies.internal.enums.Direction;
 import jakarta.annotation.Nonnull;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
+
 @RequiredArgsConstructor
+@EqualsAndHashCode
 public class ROCCondition implements Condition {
     private final int period;       // Period for ROC calculation
     private final double threshold; // Value to compare ROC against
     private final Direction direction; // Direction for comparison
 
+    @Override
+    public int relativeCost() {
+        return 3;
+    }
+
     @Override
     public boolean evaluate(MarketData data, int currentIndex) {
         // Ensure we have enough data points
@@ -20,8 +30,7 @@ public class ROCCondition implements Condition {
             return false;
         }
 
-        double[] prices = data.close(); // Using close prices for ROC calculation
-        double[] rocValues = IndicatorUtils.roc(prices, period);
+        double[] rocValues = IndicatorUtils.roc(Columns.close(data), period);
 
         if (Double.isNaN(rocValues[currentIndex])) {
             return false;
@@ -32,10 +41,10 @@ public class ROCCondition implements Condition {
 
     @Override
     public boolean[] evaluateVector(@Nonnull MarketData data) {
-        int length = data.close().length;
+        int length = data.size();
         boolean[] signals = new boolean[length];
 
-        double[] rocValues = IndicatorUtils.roc(data.close(), period);
+        double[] rocValues = rocSeries().values(data);
 
         // Start from period index since we need enough data for ROC calculation
         for (int i = period; i < length; i++) {
@@ -50,6 +59,19 @@ public class ROCCondition implements Condition {
         return signals;
     }
 
+    @Override
+    public SignalShape shape() {
+        return switch (direction) {
+            case ABOVE -> new SignalShape.Threshold(rocSeries(), true, threshold, period);
+            case BELOW -> new SignalShape.Threshold(rocSeries(), false, threshold, period);
+            default -> null;
+        };
+    }
+
+    private SignalShape.Series rocSeries() {
+        return new SignalShape.Series(List.of("roc", period), data -> IndicatorUtils.roc(Columns.close(data), period));
+    }
+
     private boolean evaluateROC(double[] rocValues, int currentIndex) {
         double currentROC = rocValues[currentIndex];
 
@@ -1,40 +1,50 @@
 package com.example.spring_backend.strategies.internal.conditions;
 
+import com.example.spring_backend.indicators.ScratchBuffers;
+import com.example.spring_backend.market.DoubleColumn;
 import com.example.spring_backend.market.MarketData;
 import com.example.spring_backend.strategies.Condition;
 import jakarta.annotation.Nonnull;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 
 @RequiredArgsConstructor
+@EqualsAndHashCode
 public class ROCCrossoverCondition implements Condition {
     private final int period;
     private final double threshold;
     private final boolean crossAbove;
 
+    @Override
+    public int relativeCost() {
+        return 3;
+    }
+
     @Override
     public boolean evaluate(@Nonnull MarketData data, int currentIndex) {
         if (currentIndex <= period) {
             return false;
         }
 
-        double[] prices = data.close();
+        // Three prices are enough, so read them from the column instead of copying it
+        DoubleColumn prices = data.closeColumn();
 
-        double currentROC = calculateROC(prices, currentIndex, period);
-        double previousROC = calculateROC(prices, currentIndex - 1, period);
+        double currentROC = calculateROC(prices.get(currentIndex), prices.get(currentIndex - period));
+        double previousROC = calculateROC(prices.get(currentIndex - 1), prices.get(currentIndex - 1 - period));
 
         return evaluateCrossover(currentROC, previousROC);
     }
 
     @Override
     public boolean[] evaluateVector(@Nonnull MarketData data) {
-        int length = data.close().length;
+        int length = data.size();
         boolean[] signals = new boolean[length];
-        double[] prices = data.close();
+        double[] prices = Columns.close(data);
 
-        double[] rocValues = new double[length];
+        double[] rocValues = ScratchBuffers.doubles(length);
 
         for (int i = period; i < length; i++) {
-            rocValues[i] = calculateROC(prices, i, period);
+            rocValues[i] = calculateROC(prices[i], prices[i - period]);
         }
 
         // Start from period + 1 since we need both current and previous ROC values
@@ -56,10 +66,7 @@ public class ROCCrossoverCondition implements Condition {
         }
     }
 
-    private double calculateROC(double[] prices, int index, int period) {
-        double currentPrice = prices[index];
-        double pastPrice = prices[index - period];
-
+    private static double calculateROC(double currentPrice, double pastPrice) {
         return ((currentPrice - pastPrice) / pastPrice) * 100;
     }
 
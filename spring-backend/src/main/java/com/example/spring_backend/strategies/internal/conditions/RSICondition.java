@@ -1,13 +1,20 @@
 package com.example.spring_backend.strategies.internal.conditions;
 
 import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.indicators.IncrementalIndicators;
+import com.example.spring_backend.indicators.IndicatorKernels;
 import com.example.spring_backend.indicators.IndicatorUtils;
 import com.example.spring_backend.strategies.Condition;
+import com.example.spring_backend.strategies.SignalShape;
 import jakarta.annotation.Nonnull;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+
 @RequiredArgsConstructor
+@EqualsAndHashCode
 @Slf4j
 public class RSICondition implements Condition {
     private final int period;
@@ -15,10 +22,15 @@ public class RSICondition implements Condition {
     private final double lowerThreshold;
     private final boolean checkOverbought;
 
+    @Override
+    public int relativeCost() {
+        return 10;
+    }
+
     @Override
     public boolean evaluate(@Nonnull MarketData data, int currentIndex) {
         // Keep original implementation for single-point evaluation
-        double[] rsi = IndicatorUtils.rsi(data.close(), period);
+        double[] rsi = IndicatorUtils.rsi(Columns.close(data), period);
 
         if (Double.isNaN(rsi[currentIndex])) {
             return false;
@@ -33,35 +45,36 @@ public class RSICondition implements Condition {
 
     @Override
     public boolean[] evaluateVector(@Nonnull MarketData data) {
-        long startTime = System.currentTimeMillis();
-
-        double[] prices = data.close();
-        int length = prices.length;
+        int length = data.size();
         boolean[] signals = new boolean[length];
 
         // Calculate RSI once for the entire dataset
-        double[] rsi = IndicatorUtils.rsi(prices, period);
+        double[] rsi = rsiSeries().values(data);
 
-        // Vectorized threshold comparison
+        // Vectorized threshold comparison, NaN RSI values compare false
         if (checkOverbought) {
-            // Check for overbought condition (RSI > upperThreshold)
-            for (int i = 0; i < length; i++) {
-                signals[i] = !Double.isNaN(rsi[i]) && rsi[i] > upperThreshold;
-            }
+            IndicatorKernels.greaterThan(rsi, upperThreshold, 0, signals);
         } else {
-            // Check for oversold condition (RSI < lowerThreshold)
-            for (int i = 0; i < length; i++) {
-                signals[i] = !Double.isNaN(rsi[i]) && rsi[i] < lowerThreshold;
-            }
+            IndicatorKernels.lessThan(rsi, lowerThreshold, 0, signals);
         }
 
-        long duration = System.currentTimeMillis() - startTime;
-        log.debug("RSICondition ({}) vectorized evaluation completed in {}ms",
-                checkOverbought ? "overbought" : "oversold", duration);
-
         return signals;
     }
 
+    @Override
+    public SignalShape shape() {
+        return checkOverbought
+                ? new SignalShape.Threshold(rsiSeries(), true, upperThreshold, 0)
+                : new SignalShape.Threshold(rsiSeries(), false, lowerThreshold, 0);
+    }
+
+    private SignalShape.Series rsiSeries() {
+        List<Object> key = List.of("rsi", period);
+        return new SignalShape.Series(key, data -> Checkpointed.series(data, key,
+                previous -> IncrementalIndicators.rsi(Columns.close(data), period, previous),
+                () -> IndicatorUtils.rsi(Columns.close(data), period)));
+    }
+
     // Factory methods for common RSI conditions
     public static RSICondition overbought(int period, double threshold) {
         return new RSICondition(period, threshold, 0, true);
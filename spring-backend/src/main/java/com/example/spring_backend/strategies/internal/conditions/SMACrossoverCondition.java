@@ -1,24 +1,37 @@
 package com.example.spring_backend.strategies.internal.conditions;
 
 import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.indicators.IncrementalIndicators;
+import com.example.spring_backend.indicators.IndicatorEngines;
 import com.example.spring_backend.indicators.IndicatorUtils;
 import com.example.spring_backend.strategies.Condition;
+import com.example.spring_backend.strategies.SignalShape;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+
 @RequiredArgsConstructor
+@EqualsAndHashCode
 @Slf4j
 public class SMACrossoverCondition implements Condition {
     private final int fastPeriod;
     private final int slowPeriod;
     private final boolean crossAbove;
 
+    @Override
+    public int relativeCost() {
+        return fastPeriod + slowPeriod;
+    }
+
     @Override
     public boolean evaluate(MarketData data, int currentIndex) {
         if (currentIndex < 1) return false;
 
-        double[] fastSMA = IndicatorUtils.sma(data.close(), fastPeriod);
-        double[] slowSMA = IndicatorUtils.sma(data.close(), slowPeriod);
+        double[] close = Columns.close(data);
+        double[] fastSMA = IndicatorEngines.current().sma(close, fastPeriod);
+        double[] slowSMA = IndicatorEngines.current().sma(close, slowPeriod);
 
         if (Double.isNaN(fastSMA[currentIndex]) || Double.isNaN(slowSMA[currentIndex]) ||
                 Double.isNaN(fastSMA[currentIndex-1]) || Double.isNaN(slowSMA[currentIndex-1])) {
@@ -36,14 +49,11 @@ public class SMACrossoverCondition implements Condition {
 
     @Override
     public boolean[] evaluateVector(MarketData data) {
-        long startTime = System.currentTimeMillis();
-
-        double[] prices = data.close();
-        int length = prices.length;
+        int length = data.size();
         boolean[] signals = new boolean[length];
 
-        double[] fastSMA = IndicatorUtils.sma(prices, fastPeriod);
-        double[] slowSMA = IndicatorUtils.sma(prices, slowPeriod);
+        double[] fastSMA = smaSeries(fastPeriod).values(data);
+        double[] slowSMA = smaSeries(slowPeriod).values(data);
 
         for (int i = 1; i < length; i++) {
             if (Double.isNaN(fastSMA[i]) || Double.isNaN(slowSMA[i]) ||
@@ -61,13 +71,23 @@ public class SMACrossoverCondition implements Condition {
             }
         }
 
-        long duration = System.currentTimeMillis() - startTime;
-        log.debug("SMACrossoverCondition ({}/{} {}) vectorized evaluation completed in {}ms",
-                fastPeriod, slowPeriod, crossAbove ? "golden cross" : "death cross", duration);
-
         return signals;
     }
 
+    @Override
+    public SignalShape shape() {
+        return new SignalShape.Crossover(smaSeries(fastPeriod), smaSeries(slowPeriod), crossAbove);
+    }
+
+    private static SignalShape.Series smaSeries(int period) {
+        List<Object> key = List.of("sma", period);
+        return new SignalShape.Series(key, data -> IndicatorEngines.isDefault()
+                ? Checkpointed.series(data, key,
+                        previous -> IncrementalIndicators.sma(Columns.close(data), period, previous),
+                        () -> IndicatorUtils.sma(Columns.close(data), period))
+                : IndicatorEngines.current().sma(Columns.close(data), period));
+    }
+
     public static SMACrossoverCondition goldenCross(int fastPeriod, int slowPeriod) {
         return new SMACrossoverCondition(fastPeriod, slowPeriod, true);
     }
@@ -3,12 +3,16 @@ package com.example.spring_backend.strategies.internal.conditions;
 import com.example.spring_backend.market.MarketData;
 import com.example.spring_backend.indicators.IndicatorUtils;
 import com.example.spring_backend.strategies.Condition;
+import com.example.spring_backend.strategies.SignalPass;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
 import java.util.Map;
 
 @RequiredArgsConstructor
+@EqualsAndHashCode
 @Slf4j
 public class StochasticCondition implements Condition {
     private final int kPeriod;
@@ -17,10 +21,15 @@ public class StochasticCondition implements Condition {
     private final double lowerThreshold;
     private final boolean checkOverbought;
 
+    @Override
+    public int relativeCost() {
+        return 2 * kPeriod + dPeriod;
+    }
+
     @Override
     public boolean evaluate(MarketData data, int currentIndex) {
         Map<String, double[]> stoch = IndicatorUtils.stochastic(
-                data.high(), data.low(), data.close(), kPeriod, dPeriod);
+                Columns.high(data), Columns.low(data), Columns.close(data), kPeriod, dPeriod);
 
         double[] k = stoch.get("%K");
         double[] d = stoch.get("%D");
@@ -38,15 +47,12 @@ public class StochasticCondition implements Condition {
 
     @Override
     public boolean[] evaluateVector(MarketData data) {
-        long startTime = System.currentTimeMillis();
-
-        double[] highs = data.high();
-        double[] lows = data.low();
-        double[] closes = data.close();
-        int length = closes.length;
+        int length = data.size();
         boolean[] signals = new boolean[length];
 
-        Map<String, double[]> stoch = IndicatorUtils.stochastic(highs, lows, closes, kPeriod, dPeriod);
+        Map<String, double[]> stoch = SignalPass.shared(List.of("stochastic", kPeriod, dPeriod),
+                () -> IndicatorUtils.stochastic(Columns.high(data), Columns.low(data), Columns.close(data),
+                        kPeriod, dPeriod));
         double[] k = stoch.get("%K");
         double[] d = stoch.get("%D");
 
@@ -64,10 +70,6 @@ public class StochasticCondition implements Condition {
             }
         }
 
-        long duration = System.currentTimeMillis() - startTime;
-        log.debug("StochasticCondition ({}/{} {}) vectorized evaluation completed in {}ms",
-                kPeriod, dPeriod, checkOverbought ? "overbought" : "oversold", duration);
-
         return signals;
     }
 
@@ -0,0 +1,53 @@
+package com.example.spring_backend.strategies.internal.conditions;
+
+import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.market.MarketDataResampler;
+import com.example.spring_backend.market.Timeframe;
+import com.example.spring_backend.strategies.Condition;
+import com.example.spring_backend.strategies.ConditionEvaluator;
+import jakarta.annotation.Nonnull;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Evaluates a condition on a higher timeframe and projects its signal back onto the base bars, e.g. a daily
+ * RSI under 30 on 5-minute data.
+ * <p>
+ * The resampled series comes from the {@link MarketDataResampler} cache, so conditions sharing a timeframe
+ * resample once. Each base bar sees the signal of the latest higher-timeframe bar already complete at its
+ * close, read through the resampler's index map in one linear pass; a bar never sees the bucket it is still
+ * part of, which would leak the rest of that bucket into the past.
+ */
+@RequiredArgsConstructor
+@EqualsAndHashCode
+@Getter
+public class TimeframeCondition implements Condition {
+    private final Timeframe timeframe;
+    private final Condition condition;
+
+    @Override
+    public int relativeCost() {
+        return condition.relativeCost() + 2;
+    }
+
+    @Override
+    public boolean evaluate(@Nonnull MarketData data, int currentIndex) {
+        return evaluateVector(data)[currentIndex];
+    }
+
+    @Override
+    public boolean[] evaluateVector(@Nonnull MarketData data) {
+        MarketDataResampler.Resampled resampled = MarketDataResampler.resample(data, timeframe);
+        MarketData bars = resampled.bars();
+        boolean[] higher = ConditionEvaluator.evaluateDetached(condition, bars, bars.size());
+
+        int length = resampled.bucketOf().length;
+        boolean[] signals = new boolean[length];
+        for (int i = 0; i < length; i++) {
+            int closed = resampled.lastClosed(i);
+            signals[i] = closed >= 0 && higher[closed];
+        }
+        return signals;
+    }
+}
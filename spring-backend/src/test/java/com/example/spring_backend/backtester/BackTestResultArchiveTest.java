@@ -0,0 +1,134 @@
+package com.example.spring_backend.backtester;
+
+import com.example.spring_backend.backtester.internal.BackTestResult;
+import com.example.spring_backend.backtester.internal.BackTestResultArchive;
+import com.example.spring_backend.backtester.internal.BackTestRun;
+import com.example.spring_backend.backtester.internal.BackTestRunRepository;
+import com.example.spring_backend.backtester.internal.BackTestRunSummary;
+import com.example.spring_backend.backtester.internal.LeaderboardMetric;
+import com.example.spring_backend.backtester.internal.Trade;
+import com.example.spring_backend.common.BackTestRequest;
+import com.example.spring_backend.common.ConditionConfig;
+import com.example.spring_backend.strategies.internal.StrategyServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@DisplayName("Backtest Result Archive Tests")
+class BackTestResultArchiveTest {
+
+    @Autowired
+    private BackTestRunRepository repository;
+
+    private BackTestResultArchive archive;
+
+    @BeforeEach
+    void setUp() {
+        archive = new BackTestResultArchive(repository, new StrategyServiceImpl(), new ObjectMapper().findAndRegisterModules());
+    }
+
+    private static BackTestRequest request(int period) {
+        return BackTestRequest.builder()
+                .initialCapital(10000)
+                .entryConditions(List.of(ConditionConfig.builder().type("RSI_THRESHOLD").parameters(Map.of("period", period)).build()))
+                .exitConditions(List.of())
+                .build();
+    }
+
+    // Equity growing by the same step every bar, with a small wobble so the returns have a spread
+    private static BackTestResult result(double step, double totalReturn) {
+        double[] equity = new double[2000];
+        equity[0] = 10000;
+        for (int i = 1; i < equity.length; i++) {
+            equity[i] = equity[i - 1] * (1 + step + (i % 2 == 0 ? 0.001 : -0.001));
+        }
+        return BackTestResult.builder()
+                .totalReturn(totalReturn)
+                .finalCapital(equity[equity.length - 1])
+                .tradeCount(1)
+                .winRatio(1)
+                .maxDrawdown(0.01)
+                .trades(List.of(new Trade(100, 110, 5, 50, LocalDateTime.of(2024, 3, 1, 9, 30, 0, 500))))
+                .equityCurve(equity)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Storage Tests")
+    class StorageTests {
+        @Test
+        @DisplayName("Should load back exactly the result that was saved")
+        void shouldRoundTripResult() {
+            BackTestResult result = result(0.0005, 12.5);
+
+            UUID id = archive.save("prices", 2000, request(14), result, null);
+            BackTestResult loaded = archive.load(id).orElseThrow();
+
+            assertThat(loaded.equityCurve()).containsExactly(result.equityCurve());
+            assertThat(loaded.trades()).isEqualTo(result.trades());
+            assertThat(loaded.totalReturn()).isEqualTo(12.5);
+            assertThat(archive.load(UUID.randomUUID())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should store the equity curve as a compressed blob")
+        void shouldCompressEquityCurve() {
+            UUID id = archive.save("prices", 2000, request(14), result(0.0005, 12.5), null);
+
+            BackTestRun run = repository.findById(id).orElseThrow();
+
+            assertThat(run.getEquityCurve().length).isLessThan(2000 * Double.BYTES);
+            assertThat(run.getRequest()).contains("RSI_THRESHOLD");
+        }
+    }
+
+    @Nested
+    @DisplayName("Query Tests")
+    class QueryTests {
+        @Test
+        @DisplayName("Should rank runs on a dataset by Sharpe ratio, leaving out runs without one")
+        void shouldRankBySharpeRatio() {
+            UUID low = archive.save("prices", 2000, request(10), result(0.0001, 1), null);
+            UUID high = archive.save("prices", 2000, request(11), result(0.0008, 2), null);
+            UUID flat = archive.save("prices", 2000, request(12), BackTestResult.builder()
+                    .trades(List.of()).equityCurve(new double[]{10000, 10000, 10000}).build(), null);
+            archive.save("other", 2000, request(13), result(0.002, 3), null);
+
+            List<BackTestRunSummary> board = archive.leaderboard("prices", LeaderboardMetric.SHARPE_RATIO, 20);
+
+            assertThat(board).extracting(BackTestRunSummary::getId).containsExactly(high, low);
+            assertThat(board.getFirst().getSharpeRatio()).isGreaterThan(board.get(1).getSharpeRatio());
+            assertThat(archive.leaderboard("prices", LeaderboardMetric.TOTAL_RETURN, 1))
+                    .extracting(BackTestRunSummary::getId).containsExactly(high);
+            assertThat(archive.leaderboard("prices", LeaderboardMetric.MAX_DRAWDOWN, 20).getFirst().getId())
+                    .isEqualTo(flat);
+        }
+
+        @Test
+        @DisplayName("Should find runs of the same strategy whatever the numeric type of its parameters")
+        void shouldFindRunsByStrategy() {
+            UUID first = archive.save("prices", 2000, request(14), result(0.0005, 1), null);
+            UUID second = archive.save("other", 2000, request(14), result(0.0005, 1), null);
+            archive.save("prices", 2000, request(20), result(0.0005, 1), null);
+
+            String hash = new StrategyServiceImpl().strategyHash(BackTestRequest.builder()
+                    .entryConditions(List.of(ConditionConfig.builder().type("RSI_THRESHOLD").parameters(Map.of("period", 14.0)).build()))
+                    .build());
+
+            assertThat(archive.runsOfStrategy(hash, 20))
+                    .extracting(BackTestRunSummary::getId).containsExactlyInAnyOrder(first, second);
+        }
+    }
+}
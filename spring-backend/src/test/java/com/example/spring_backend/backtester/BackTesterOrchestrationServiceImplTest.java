@@ -3,18 +3,24 @@ package com.example.spring_backend.backtester;
 import com.example.spring_backend.backtester.internal.BackTestResult;
 import com.example.spring_backend.backtester.internal.BackTesterExceptions;
 import com.example.spring_backend.backtester.internal.BackTesterOrchestrationServiceImpl;
+import com.example.spring_backend.backtester.internal.PortfolioBackTestResult;
+import com.example.spring_backend.backtester.internal.ResultCache;
 import com.example.spring_backend.common.BackTestRequest;
+import com.example.spring_backend.market.AlignedMarketData;
 import com.example.spring_backend.market.CsvImporterService;
 import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.market.MarketDataStore;
+import com.example.spring_backend.market.SyntheticDataSpec;
+import com.example.spring_backend.market.SyntheticMarketData;
 import com.example.spring_backend.strategies.Strategy;
 import com.example.spring_backend.strategies.StrategyService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -25,9 +31,12 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.*;
 
 import static org.assertj.core.api.Assertions.*;
@@ -43,16 +52,21 @@ class BackTesterOrchestrationServiceImplTest {
     @Mock
     private CsvImporterService csvImporterService;
 
+    @Mock
+    private MarketDataStore marketDataStore;
+
     @Mock
     private StrategyService strategyService;
 
     @Mock
     private BackTesterService backTesterService;
 
+    @Mock
+    private ResultCache resultCache;
+
     @Mock
     private Executor backtestExecutor;
 
-    @InjectMocks
     private BackTesterOrchestrationServiceImpl orchestrationService;
 
     private MultipartFile mockFile;
@@ -60,13 +74,16 @@ class BackTesterOrchestrationServiceImplTest {
     private MarketData mockMarketData;
     private Strategy mockStrategy;
     private BackTestResult mockResult;
+    private ExecutorService pool;
 
     @BeforeEach
     void setUp() {
         orchestrationService = new BackTesterOrchestrationServiceImpl(
                 csvImporterService,
+                marketDataStore,
                 strategyService,
                 backTesterService,
+                resultCache,
                 backtestExecutor
         );
 
@@ -89,6 +106,14 @@ class BackTesterOrchestrationServiceImplTest {
                 .build();
     }
 
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
     @Nested
     @DisplayName("Happy Path Tests")
     class HappyPathTests {
@@ -331,6 +356,308 @@ class BackTesterOrchestrationServiceImplTest {
             verify(csvImporterService, times(3)).importCsvFromStream(inputStreamCaptor.capture());
             assertThat(inputStreamCaptor.getAllValues()).allMatch(stream -> stream instanceof ByteArrayInputStream);
         }
+
+        @Test
+        @DisplayName("Should interrupt running sibling backtests when one of them fails")
+        void shouldInterruptRunningSiblingsWhenOneFails() throws Exception {
+            List<BackTestRequest> multipleRequests = createValidBackTestRequests(2);
+            CountDownLatch slowStarted = new CountDownLatch(1);
+            CountDownLatch slowInterrupted = new CountDownLatch(1);
+            when(csvImporterService.importCsvFromStream(any(InputStream.class))).thenReturn(mockMarketData);
+            when(strategyService.buildStrategyFromRequest(any(BackTestRequest.class))).thenReturn(mockStrategy);
+            when(backTesterService.runBackTest(any(Strategy.class), any(MarketData.class), same(multipleRequests.get(0))))
+                    .thenAnswer(invocation -> blockUntilInterrupted(slowStarted, slowInterrupted));
+            when(backTesterService.runBackTest(any(Strategy.class), any(MarketData.class), same(multipleRequests.get(1))))
+                    .thenAnswer(invocation -> {
+                        slowStarted.await(5, TimeUnit.SECONDS);
+                        throw new RuntimeException("Second backtest failed");
+                    });
+            setupPooledExecution(3);
+
+            CompletableFuture<List<BackTestResult>> future = orchestrationService.runOrchestration(mockFile, multipleRequests);
+
+            assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(BackTesterExceptions.BackTestOrchestrationException.class);
+            assertThat(slowInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should interrupt running backtests when the caller cancels the returned future")
+        void shouldInterruptRunningBacktestsWhenCallerCancels() throws Exception {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch interrupted = new CountDownLatch(1);
+            when(csvImporterService.importCsvFromStream(any(InputStream.class))).thenReturn(mockMarketData);
+            when(strategyService.buildStrategyFromRequest(any(BackTestRequest.class))).thenReturn(mockStrategy);
+            when(backTesterService.runBackTest(any(Strategy.class), any(MarketData.class), any(BackTestRequest.class)))
+                    .thenAnswer(invocation -> blockUntilInterrupted(started, interrupted));
+            setupPooledExecution(2);
+
+            CompletableFuture<List<BackTestResult>> future = orchestrationService.runOrchestration(mockFile, validRequests);
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            future.cancel(true);
+
+            assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(future).isCancelled();
+        }
+    }
+
+    @Nested
+    @DisplayName("Portfolio Tests")
+    class PortfolioTests {
+
+        @Test
+        @DisplayName("Should align one series per file, named after the file, into a single portfolio run")
+        void shouldRunPortfolioOverUploadedFiles() throws Exception {
+            MarketData series = SyntheticMarketData.generate(SyntheticDataSpec.defaults(1, 50).build());
+            PortfolioBackTestResult portfolioResult = PortfolioBackTestResult.builder()
+                    .symbols(List.of("AAPL", "MSFT"))
+                    .build();
+            when(csvImporterService.importCsvFromStream(any(InputStream.class))).thenReturn(series);
+            when(strategyService.buildStrategyFromRequest(any(BackTestRequest.class))).thenReturn(mockStrategy);
+            when(backTesterService.runPortfolioBackTest(any(Strategy.class), any(AlignedMarketData.class), any(BackTestRequest.class)))
+                    .thenReturn(portfolioResult);
+            setupSynchronousExecutor();
+
+            List<MultipartFile> files = List.of(
+                    new MockMultipartFile("files", "AAPL.csv", "text/csv", new byte[0]),
+                    new MockMultipartFile("files", "data/MSFT.csv", "text/csv", new byte[0]));
+            PortfolioBackTestResult result = orchestrationService.runPortfolio(files, validRequests.getFirst()).get();
+
+            assertThat(result).isSameAs(portfolioResult);
+            ArgumentCaptor<AlignedMarketData> aligned = ArgumentCaptor.forClass(AlignedMarketData.class);
+            verify(backTesterService).runPortfolioBackTest(eq(mockStrategy), aligned.capture(), eq(validRequests.getFirst()));
+            assertThat(aligned.getValue().getSymbols()).containsExactly("AAPL", "MSFT");
+            assertThat(aligned.getValue().getBarCount()).isEqualTo(50);
+        }
+
+        @Test
+        @DisplayName("Should accept a portfolio of hundreds of symbols")
+        void shouldRunLargePortfolio() throws Exception {
+            when(csvImporterService.importCsvFromStream(any(InputStream.class)))
+                    .thenReturn(SyntheticMarketData.generate(SyntheticDataSpec.defaults(1, 50).build()));
+            when(strategyService.buildStrategyFromRequest(any(BackTestRequest.class))).thenReturn(mockStrategy);
+            when(backTesterService.runPortfolioBackTest(any(Strategy.class), any(AlignedMarketData.class), any(BackTestRequest.class)))
+                    .thenReturn(PortfolioBackTestResult.builder().symbols(List.of()).build());
+            setupSynchronousExecutor();
+
+            List<MultipartFile> files = new ArrayList<>();
+            for (int s = 0; s < 600; s++) {
+                files.add(new MockMultipartFile("files", "S" + s + ".csv", "text/csv", new byte[0]));
+            }
+            orchestrationService.runPortfolio(files, validRequests.getFirst()).get();
+
+            ArgumentCaptor<AlignedMarketData> aligned = ArgumentCaptor.forClass(AlignedMarketData.class);
+            verify(backTesterService).runPortfolioBackTest(eq(mockStrategy), aligned.capture(), eq(validRequests.getFirst()));
+            assertThat(aligned.getValue().symbolCount()).isEqualTo(600);
+            assertThat(aligned.getValue().getSymbols().getLast()).isEqualTo("S599");
+        }
+
+        @Test
+        @DisplayName("Should reject more symbols than configured")
+        void shouldRejectTooManySymbols() {
+            BackTesterOrchestrationServiceImpl limited = new BackTesterOrchestrationServiceImpl(csvImporterService,
+                    marketDataStore, strategyService, backTesterService, resultCache, backtestExecutor, 1);
+            List<MultipartFile> files = List.of(
+                    new MockMultipartFile("files", "AAPL.csv", "text/csv", new byte[0]),
+                    new MockMultipartFile("files", "MSFT.csv", "text/csv", new byte[0]));
+
+            CompletableFuture<PortfolioBackTestResult> future = limited.runPortfolio(files, validRequests.getFirst());
+
+            assertThatThrownBy(future::get)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(BackTesterExceptions.InvalidRequestException.class)
+                    .hasMessageContaining("maximum for a portfolio backtest: 1");
+            verifyNoInteractions(csvImporterService, backTesterService);
+        }
+
+        @Test
+        @DisplayName("Should reject two files for the same symbol")
+        void shouldRejectDuplicateSymbols() throws Exception {
+            when(csvImporterService.importCsvFromStream(any(InputStream.class)))
+                    .thenReturn(SyntheticMarketData.generate(SyntheticDataSpec.defaults(1, 50).build()));
+            setupSynchronousExecutor();
+
+            List<MultipartFile> files = List.of(
+                    new MockMultipartFile("files", "AAPL.csv", "text/csv", new byte[0]),
+                    new MockMultipartFile("files", "AAPL.csv", "text/csv", new byte[0]));
+            CompletableFuture<PortfolioBackTestResult> future = orchestrationService.runPortfolio(files, validRequests.getFirst());
+
+            assertThatThrownBy(future::get)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(BackTesterExceptions.InvalidRequestException.class)
+                    .hasMessageContaining("Duplicate symbol in portfolio: AAPL");
+            verifyNoInteractions(backTesterService);
+        }
+
+        @Test
+        @DisplayName("Should reject a portfolio without files by returning a failed future")
+        void shouldRejectEmptyPortfolio() {
+            CompletableFuture<PortfolioBackTestResult> future = orchestrationService.runPortfolio(List.of(), validRequests.getFirst());
+
+            assertThatThrownBy(future::get)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(BackTesterExceptions.InvalidRequestException.class);
+            verifyNoInteractions(csvImporterService, strategyService, backTesterService, backtestExecutor);
+        }
+    }
+
+    @Nested
+    @DisplayName("Stored Dataset Tests")
+    class StoredDatasetTests {
+
+        @Test
+        @DisplayName("Should run every request on the stored snapshot without importing a file")
+        void shouldRunOnStoredDataset() throws Exception {
+            MarketData dataset = SyntheticMarketData.generate(SyntheticDataSpec.defaults(1, 50).build());
+            when(marketDataStore.get("prices")).thenReturn(Optional.of(dataset));
+            when(strategyService.buildStrategyFromRequest(any(BackTestRequest.class))).thenReturn(mockStrategy);
+            when(backTesterService.runBackTest(any(Strategy.class), any(MarketData.class), any(BackTestRequest.class))).thenReturn(mockResult);
+            setupSynchronousExecutor();
+            List<BackTestRequest> requests = createValidBackTestRequests(2);
+
+            List<BackTestResult> results = orchestrationService.runOnDataset("prices", requests).get();
+
+            assertThat(results).containsExactly(mockResult, mockResult);
+            verify(marketDataStore).get("prices");
+            verify(backTesterService, times(2)).runBackTest(eq(mockStrategy), same(dataset), any(BackTestRequest.class));
+            verifyNoInteractions(csvImporterService);
+        }
+
+        @Test
+        @DisplayName("Should cache each result under the dataset id and bar count")
+        void shouldCacheResults() throws Exception {
+            MarketData dataset = SyntheticMarketData.generate(SyntheticDataSpec.defaults(1, 50).build());
+            when(marketDataStore.get("prices")).thenReturn(Optional.of(dataset));
+            when(strategyService.buildStrategyFromRequest(any(BackTestRequest.class))).thenReturn(mockStrategy);
+            when(backTesterService.runBackTest(any(Strategy.class), any(MarketData.class), any(BackTestRequest.class))).thenReturn(mockResult);
+            when(resultCache.key(anyString(), any(BackTestRequest.class))).thenReturn("key");
+            setupSynchronousExecutor();
+            List<BackTestRequest> requests = createValidBackTestRequests(2);
+
+            orchestrationService.runOnDataset("prices", requests).get();
+
+            verify(resultCache).key("prices@50", requests.get(0));
+            verify(resultCache).put("key", "prices", 50, requests.get(0), mockResult);
+            verify(resultCache).put("key", "prices", 50, requests.get(1), mockResult);
+        }
+    }
+
+    @Nested
+    @DisplayName("Result Cache Tests")
+    class ResultCacheTests {
+
+        @Test
+        @DisplayName("Should return a cached result without importing or running anything")
+        void shouldReturnCachedResult() throws Exception {
+            when(resultCache.key(anyString(), any(BackTestRequest.class))).thenReturn("key");
+            when(resultCache.get("key")).thenReturn(Optional.of(mockResult));
+            setupSynchronousExecutor();
+
+            List<BackTestResult> results = orchestrationService.runOrchestration(mockFile, validRequests).get();
+
+            assertThat(results).containsExactly(mockResult);
+            verify(resultCache).key(startsWith("sha256:"), eq(validRequests.getFirst()));
+            verify(resultCache, never()).put(anyString(), anyString(), anyInt(), any(BackTestRequest.class), any(BackTestResult.class));
+            verifyNoInteractions(csvImporterService, strategyService, backTesterService);
+        }
+
+        @Test
+        @DisplayName("Should key uploads by their content")
+        void shouldKeyUploadsByContent() throws Exception {
+            setupSuccessfulMocks();
+            setupSynchronousExecutor();
+            MultipartFile sameContent = new MockMultipartFile("other.csv", "other.csv", "text/csv", mockFile.getBytes());
+
+            orchestrationService.runOrchestration(mockFile, validRequests).get();
+            orchestrationService.runOrchestration(sameContent, validRequests).get();
+
+            ArgumentCaptor<String> content = ArgumentCaptor.forClass(String.class);
+            verify(resultCache, times(2)).key(content.capture(), eq(validRequests.getFirst()));
+            assertThat(content.getAllValues().getFirst()).isEqualTo(content.getAllValues().getLast());
+        }
+    }
+
+    @Nested
+    @DisplayName("Date Range Tests")
+    class DateRangeTests {
+
+        @Test
+        @DisplayName("Should run on a view of the bars between the start and end dates, both inclusive")
+        void shouldSliceImportedSeriesToDateRange() throws Exception {
+            MarketData series = SyntheticMarketData.generate(SyntheticDataSpec.defaults(1, 100)
+                    .barInterval(Duration.ofDays(1))
+                    .build());
+            LocalDate startDate = series.getDataPoints().get(20).timestamp().toLocalDate();
+            LocalDate endDate = series.getDataPoints().get(59).timestamp().toLocalDate();
+            BackTestRequest request = validRequests.getFirst();
+            request.setStartDate(startDate);
+            request.setEndDate(endDate);
+            when(csvImporterService.importCsvFromStream(any(InputStream.class))).thenReturn(series);
+            when(strategyService.buildStrategyFromRequest(any(BackTestRequest.class))).thenReturn(mockStrategy);
+            when(backTesterService.runBackTest(any(Strategy.class), any(MarketData.class), any(BackTestRequest.class))).thenReturn(mockResult);
+            setupSynchronousExecutor();
+
+            orchestrationService.runOrchestration(mockFile, validRequests).get();
+
+            ArgumentCaptor<MarketData> data = ArgumentCaptor.forClass(MarketData.class);
+            verify(backTesterService).runBackTest(eq(mockStrategy), data.capture(), eq(request));
+            assertThat(data.getValue().getDataPoints()).isEqualTo(series.getDataPoints().subList(20, 60));
+        }
+
+        @Test
+        @DisplayName("Should reject a range without bars")
+        void shouldRejectEmptyDateRange() throws Exception {
+            MarketData series = SyntheticMarketData.generate(SyntheticDataSpec.defaults(1, 100).build());
+            BackTestRequest request = validRequests.getFirst();
+            request.setStartDate(series.getDataPoints().getLast().timestamp().toLocalDate().plusDays(1));
+            when(csvImporterService.importCsvFromStream(any(InputStream.class))).thenReturn(series);
+            setupSynchronousExecutor();
+
+            CompletableFuture<List<BackTestResult>> future = orchestrationService.runOrchestration(mockFile, validRequests);
+
+            assertThatThrownBy(future::get)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(BackTesterExceptions.InvalidRequestException.class);
+            verifyNoInteractions(backTesterService);
+        }
+
+        @Test
+        @DisplayName("Should reject a start date after the end date")
+        void shouldRejectInvertedDateRange() {
+            BackTestRequest request = validRequests.getFirst();
+            request.setStartDate(LocalDate.of(2024, 2, 1));
+            request.setEndDate(LocalDate.of(2024, 1, 1));
+
+            CompletableFuture<List<BackTestResult>> future = orchestrationService.runOrchestration(mockFile, validRequests);
+
+            assertThatThrownBy(future::get)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(BackTesterExceptions.InvalidRequestException.class)
+                    .hasMessageContaining("Start date must not be after end date");
+            verifyNoInteractions(csvImporterService, strategyService, backTesterService, backtestExecutor);
+        }
+    }
+
+    private BackTestResult blockUntilInterrupted(CountDownLatch started, CountDownLatch interrupted) {
+        started.countDown();
+        try {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+            throw new CancellationException("Interrupted");
+        }
+        return mockResult;
+    }
+
+    private void setupPooledExecution(int threads) {
+        pool = Executors.newFixedThreadPool(threads);
+        doAnswer(invocation -> {
+            Runnable task = invocation.getArgument(0);
+            pool.submit(task);
+            return null;
+        }).when(backtestExecutor).execute(any(Runnable.class));
     }
 
     private void setupSuccessfulMocks() throws Exception {
@@ -2,12 +2,18 @@ package com.example.spring_backend.backtester;
 
 import com.example.spring_backend.backtester.internal.*;
 import com.example.spring_backend.common.BackTestRequest;
+import com.example.spring_backend.market.AlignedMarketData;
 import com.example.spring_backend.market.MarketData;
 import com.example.spring_backend.market.MarketDataPoint;
+import com.example.spring_backend.market.OffHeapMarketData;
 import com.example.spring_backend.strategies.Condition;
 import com.example.spring_backend.strategies.Strategy;
 import com.example.spring_backend.strategies.StrategyService;
 import com.example.spring_backend.common.ConditionConfig;
+import com.example.spring_backend.common.PipelineMetrics;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -85,6 +91,19 @@ class BackTesterServiceImplTest {
         assertEquals(result.equityCurve().length, marketData.getDataPoints().size(), "Equity curve should match data length + initial point");
     }
 
+    @Test
+    @DisplayName("Should produce the same result on off-heap market data")
+    void testOffHeapMarketData() {
+        BackTestRequest request = createComplexBackTestRequest();
+
+        BackTestResult heap = backTesterService.runBackTest(createMatchingComplexStrategy(), marketData, request);
+        BackTestResult offHeap = backTesterService.runBackTest(createMatchingComplexStrategy(),
+                OffHeapMarketData.copyOf(marketData), request);
+
+        assertEquals(heap.trades(), offHeap.trades());
+        assertArrayEquals(heap.equityCurve(), offHeap.equityCurve());
+    }
+
     @Test
     @DisplayName("Should generate valid results with complex composite strategy")
     void testComplexCompositeStrategy() {
@@ -288,6 +307,207 @@ class BackTesterServiceImplTest {
         assertNotNull(result);
     }
 
+    @Test
+    @DisplayName("Should open shorts on exit signals when short selling is allowed")
+    void testShortSelling() {
+        Strategy strategy = new Strategy();
+        strategy.addEntryCondition(new TestCondition(10.5, false));
+        strategy.addExitCondition(new TestCondition(12.2, true));
+
+        BackTestRequest.BackTestRequestBuilder request = BackTestRequest.builder().initialCapital(10000);
+
+        BackTestResult longOnly = backTesterService.runBackTest(strategy, marketData, request.build());
+        BackTestResult withShorts = backTesterService.runBackTest(strategy, marketData, request.allowShort(true).build());
+
+        assertEquals(1, longOnly.tradeCount());
+        assertEquals(2, withShorts.tradeCount());
+        // Long from 10 to 12.5, then short at 12.3 held to the final 12.5
+        Trade shortTrade = withShorts.trades().get(1);
+        assertEquals(12.3, shortTrade.entryPrice(), 1e-9);
+        assertTrue(shortTrade.positionSize() < 0, "Short positions should have a negative size");
+        assertEquals(shortTrade.positionSize() * (12.5 - 12.3), shortTrade.pnl(), 1e-9);
+        assertTrue(withShorts.finalCapital() < longOnly.finalCapital(), "The losing short should cost capital");
+    }
+
+    @Test
+    @DisplayName("Should fill entries above and exits below the close by the slippage")
+    void testSlippageFills() {
+        Strategy strategy = new Strategy();
+        strategy.addEntryCondition(new TestCondition(12.2, true));
+        strategy.addExitCondition(new TestCondition(12.2, false));
+
+        BackTestRequest request = BackTestRequest.builder()
+                .initialCapital(10000)
+                .slippagePercent(1.0)
+                .build();
+
+        BackTestResult result = backTesterService.runBackTest(strategy, marketData, request);
+
+        Trade trade = result.trades().getFirst();
+        assertEquals(12.5 * 1.01, trade.entryPrice(), 1e-9);
+        assertEquals(12.0 * 0.99, trade.exitPrice(), 1e-9);
+        assertEquals(trade.positionSize() * (trade.exitPrice() - trade.entryPrice()), trade.pnl(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should size positions so an adverse move of two ATRs loses the risk per trade")
+    void testAtrRiskSizing() {
+        Strategy strategy = new Strategy();
+        strategy.addEntryCondition(new TestCondition(12.7, true));
+
+        BackTestRequest request = BackTestRequest.builder()
+                .initialCapital(10000)
+                .riskPerTrade(0.01)
+                .build();
+
+        BackTestResult result = backTesterService.runBackTest(strategy, marketData, request);
+
+        double[] high = marketData.high();
+        double[] low = marketData.low();
+        double[] close = marketData.close();
+        double atr = 0;
+        for (int j = 4; j <= 17; j++) {
+            atr += Math.max(high[j] - low[j], Math.max(Math.abs(high[j] - close[j - 1]), Math.abs(low[j] - close[j - 1]))) / 14;
+        }
+        Trade trade = result.trades().getFirst();
+        assertEquals(10000 * 0.01 / (2 * atr), trade.positionSize(), 1e-9);
+        assertTrue(trade.positionSize() < 10000 / 12.8, "Risk sizing should use less than the full capital");
+        assertEquals(10000 + trade.pnl(), result.finalCapital(), 1e-9);
+        assertEquals(10000 + trade.positionSize() * (13 - 12.8), result.equityCurve()[18], 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should match the single-series backtest when the portfolio holds one symbol")
+    void testSingleSymbolPortfolio() {
+        Strategy strategy = new Strategy();
+        strategy.addEntryCondition(new TestCondition(10.5, false));
+        strategy.addExitCondition(new TestCondition(12.2, true));
+        BackTestRequest request = BackTestRequest.builder()
+                .initialCapital(10000)
+                .commissionRate(0.001)
+                .slippagePercent(0.5)
+                .allowShort(true)
+                .build();
+
+        BackTestResult single = backTesterService.runBackTest(strategy, marketData, request);
+        PortfolioBackTestResult portfolio = backTesterService.runPortfolioBackTest(
+                strategy, AlignedMarketData.align(Map.of("AAA", marketData)), request);
+
+        assertEquals(single.tradeCount(), portfolio.tradeCount());
+        assertEquals(single.finalCapital(), portfolio.finalCapital(), 1e-6);
+        assertEquals(single.maxDrawdown(), portfolio.maxDrawdown(), 1e-9);
+        assertArrayEquals(single.equityCurve(), portfolio.equityCurve(), 1e-6);
+        assertEquals(single.trades().size(), portfolio.trades().get("AAA").size());
+    }
+
+    @Test
+    @DisplayName("Should split equity across symbols and respect the position limit")
+    void testPortfolioAllocation() {
+        Strategy strategy = new Strategy();
+        strategy.addEntryCondition(new TestCondition(10.5, false));
+        strategy.addExitCondition(new TestCondition(12.2, true));
+        Map<String, MarketData> series = new LinkedHashMap<>();
+        series.put("AAA", marketData);
+        series.put("BBB", marketData);
+        AlignedMarketData aligned = AlignedMarketData.align(series);
+
+        BackTestResult single = backTesterService.runBackTest(strategy, marketData,
+                BackTestRequest.builder().initialCapital(10000).build());
+        PortfolioBackTestResult shared = backTesterService.runPortfolioBackTest(strategy, aligned,
+                BackTestRequest.builder().initialCapital(10000).build());
+        PortfolioBackTestResult limited = backTesterService.runPortfolioBackTest(strategy, aligned,
+                BackTestRequest.builder().initialCapital(10000).maxPositions(1).build());
+
+        assertEquals(List.of("AAA", "BBB"), shared.symbols());
+        assertEquals(2 * single.tradeCount(), shared.tradeCount());
+        // Half the capital in each of two identical symbols returns the same as all of it in one
+        assertEquals(single.finalCapital(), shared.finalCapital(), 1e-6);
+        Trade first = shared.trades().get("AAA").getFirst();
+        assertEquals(5000 / first.entryPrice(), first.positionSize(), 1e-9);
+
+        // With one slot the first symbol takes it whenever both signal on the same bar
+        assertEquals(single.tradeCount(), limited.tradeCount());
+        assertTrue(limited.trades().get("BBB").isEmpty());
+        assertEquals(single.finalCapital(), limited.finalCapital(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Should run a portfolio of hundreds of symbols with an equal share each")
+    void testLargePortfolio() {
+        Strategy strategy = new Strategy();
+        strategy.addEntryCondition(new TestCondition(10.5, false));
+        strategy.addExitCondition(new TestCondition(12.2, true));
+        Map<String, MarketData> series = new LinkedHashMap<>();
+        for (int s = 0; s < 600; s++) {
+            series.put("S" + s, marketData);
+        }
+        BackTestRequest request = BackTestRequest.builder().initialCapital(10000).build();
+
+        BackTestResult single = backTesterService.runBackTest(strategy, marketData, request);
+        PortfolioBackTestResult portfolio = backTesterService.runPortfolioBackTest(strategy,
+                AlignedMarketData.align(series), request);
+
+        assertEquals(600, portfolio.symbols().size());
+        assertEquals(600 * single.tradeCount(), portfolio.tradeCount());
+        assertEquals(single.finalCapital(), portfolio.finalCapital(), 1e-6);
+        assertEquals(single.trades().size(), portfolio.trades().get("S599").size());
+    }
+
+    @Test
+    @DisplayName("Should not trade a symbol on bars it has no data for")
+    void testPortfolioSkipsMissingBars() {
+        Strategy strategy = new Strategy();
+        strategy.addEntryCondition(new TestCondition(10.9, false));
+        strategy.addExitCondition(new TestCondition(12.2, true));
+        // The second symbol starts ten bars late; its back-filled 10.8 would signal an entry on every early bar
+        MarketData late = new MarketData();
+        late.addDataPoints(marketData.getDataPoints().subList(10, 20));
+        Map<String, MarketData> series = new LinkedHashMap<>();
+        series.put("AAA", marketData);
+        series.put("BBB", late);
+
+        PortfolioBackTestResult result = backTesterService.runPortfolioBackTest(strategy,
+                AlignedMarketData.align(series), BackTestRequest.builder().initialCapital(10000).build());
+
+        assertEquals(20, result.equityCurve().length);
+        assertTrue(result.trades().get("BBB").isEmpty(), "Back-filled bars should never be traded");
+        assertFalse(result.trades().get("AAA").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should record stage timers tagged by condition type and data size")
+    void testPipelineTimersRecorded() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        try {
+            Strategy strategy = new Strategy();
+            strategy.addEntryCondition(new TestCondition(11, true));
+            strategy.addExitCondition(new TestCondition(10.5, false));
+
+            BackTestRequest request = BackTestRequest.builder()
+                    .initialCapital(10000)
+                    .commissionRate(0.001)
+                    .build();
+
+            backTesterService.runBackTest(strategy, marketData, request);
+
+            Timer conditionTimer = registry.find(PipelineMetrics.CONDITION_EVALUATION)
+                    .tag(PipelineMetrics.CONDITION_TYPE_TAG, "Test")
+                    .tag(PipelineMetrics.DATA_SIZE_TAG, "<1k")
+                    .timer();
+            assertNotNull(conditionTimer, "Condition evaluation should be timed per condition type");
+            assertEquals(2, conditionTimer.count(), "Entry and exit condition should both be recorded");
+            assertEquals(2, registry.find(PipelineMetrics.STRATEGY_COMPOSITION).timers().size(),
+                    "Entry and exit composition should be tagged separately");
+            assertEquals(1, registry.get(PipelineMetrics.BACKTEST_LOOP)
+                    .tag(PipelineMetrics.DATA_SIZE_TAG, "<1k")
+                    .timer().count());
+        } finally {
+            Metrics.removeRegistry(registry);
+            registry.close();
+        }
+    }
+
     @Test
     @DisplayName("Should ensure market data methods provide consistent values")
     void testMarketDataMethodsMatch() {
@@ -0,0 +1,159 @@
+package com.example.spring_backend.backtester;
+
+import com.example.spring_backend.backtester.internal.BackTestResult;
+import com.example.spring_backend.backtester.internal.ResultCache;
+import com.example.spring_backend.backtester.internal.BackTesterOrchestrationServiceImpl;
+import com.example.spring_backend.backtester.internal.BackTesterServiceImpl;
+import com.example.spring_backend.common.BackTestRequest;
+import com.example.spring_backend.common.ConditionConfig;
+import com.example.spring_backend.common.PipelineObservations;
+import com.example.spring_backend.market.internal.CsvImporterServiceImpl;
+import com.example.spring_backend.market.internal.DataExtractor;
+import com.example.spring_backend.market.internal.InMemoryMarketDataStore;
+import com.example.spring_backend.strategies.internal.StrategyServiceImpl;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.test.simple.SimpleSpan;
+import io.micrometer.tracing.test.simple.SimpleTracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Backtest Tracing Tests")
+class BackTesterTracingTest {
+    private static final int ROWS = 120;
+
+    private final SimpleTracer tracer = new SimpleTracer();
+    private ExecutorService executor;
+    private BackTesterOrchestrationServiceImpl orchestrationService;
+
+    @BeforeEach
+    void setUp() {
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new DefaultTracingObservationHandler(tracer));
+        PipelineObservations.bind(registry);
+
+        executor = Executors.newFixedThreadPool(2);
+        orchestrationService = new BackTesterOrchestrationServiceImpl(
+                new CsvImporterServiceImpl(new DataExtractor()),
+                new InMemoryMarketDataStore(1),
+                new StrategyServiceImpl(),
+                new BackTesterServiceImpl(),
+                mock(ResultCache.class),
+                executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        PipelineObservations.reset();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should trace every stage and nest leaf condition spans under the backtest")
+    void shouldTraceEveryStage() throws Exception {
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "data.csv", "text/csv", createCsv().getBytes(StandardCharsets.UTF_8));
+
+        List<BackTestResult> results = orchestrationService.runOrchestration(file, List.of(createRequest()))
+                .get(10, TimeUnit.SECONDS);
+
+        SimpleSpan orchestration = span(PipelineObservations.ORCHESTRATION);
+        SimpleSpan single = span(PipelineObservations.SINGLE_BACKTEST);
+        SimpleSpan csvImport = span(PipelineObservations.CSV_IMPORT);
+        SimpleSpan execution = span(PipelineObservations.BACKTEST_EXECUTION);
+        SimpleSpan smaLeaf = conditionSpan("SMACrossover");
+
+        assertEquals(orchestration.context().spanId(), single.context().parentId(),
+                "Backtest span should be parented across the executor hop");
+        assertEquals(single.context().spanId(), csvImport.context().parentId());
+        assertEquals(single.context().spanId(), execution.context().parentId());
+        assertEquals(execution.context().spanId(), smaLeaf.context().parentId(),
+                "The compiled plan evaluates leaves directly under the backtest span");
+
+        assertEquals("1", orchestration.getTags().get(PipelineObservations.REQUEST_COUNT_KEY));
+        assertEquals(String.valueOf(ROWS), csvImport.getTags().get(PipelineObservations.ROW_COUNT_KEY));
+        assertEquals(String.valueOf(results.getFirst().tradeCount()),
+                execution.getTags().get(PipelineObservations.TRADE_COUNT_KEY));
+    }
+
+    @Test
+    @DisplayName("Should record the failure on the orchestration span")
+    void shouldRecordErrorOnFailure() {
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "data.csv", "text/csv", "not,a,valid\ncsv,file,here".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(Exception.class, () -> orchestrationService.runOrchestration(file, List.of(createRequest()))
+                .get(10, TimeUnit.SECONDS));
+
+        assertNotNull(span(PipelineObservations.ORCHESTRATION).getError());
+        assertNotNull(span(PipelineObservations.SINGLE_BACKTEST).getError());
+    }
+
+    private SimpleSpan span(String name) {
+        return tracer.getSpans().stream()
+                .filter(span -> name.equals(span.getName()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No span named " + name + " in " + tracer.getSpans()));
+    }
+
+    private SimpleSpan conditionSpan(String conditionType) {
+        return tracer.getSpans().stream()
+                .filter(span -> conditionType.equals(span.getTags().get("condition.type")))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No span for condition " + conditionType));
+    }
+
+    private static BackTestRequest createRequest() {
+        Map<String, Object> sma = Map.of(
+                "type", "SMA_CROSSOVER",
+                "parameters", Map.of("fastPeriod", 5, "slowPeriod", 20, "crossAbove", true));
+        Map<String, Object> rsi = Map.of(
+                "type", "RSI_THRESHOLD",
+                "parameters", Map.of("period", 14, "upperThreshold", 70.0, "lowerThreshold", 30.0,
+                        "checkOverbought", false));
+
+        return BackTestRequest.builder()
+                .initialCapital(10000)
+                .commissionRate(0.001)
+                .entryConditions(List.of(ConditionConfig.builder()
+                        .type("OR")
+                        .parameters(Map.of("conditions", List.of(sma, rsi)))
+                        .build()))
+                .exitConditions(List.of(ConditionConfig.builder()
+                        .type("RSI_THRESHOLD")
+                        .parameters(Map.of("period", 14, "upperThreshold", 60.0, "lowerThreshold", 30.0,
+                                "checkOverbought", true))
+                        .build()))
+                .requireAllEntryConditions(true)
+                .build();
+    }
+
+    private static String createCsv() {
+        StringBuilder csv = new StringBuilder("timestamp,open,high,low,close,volume\n");
+        LocalDate date = LocalDate.of(2023, 1, 1);
+        for (int i = 0; i < ROWS; i++) {
+            double close = 100 + 10 * Math.sin(i / 8.0);
+            csv.append(date.plusDays(i)).append(',')
+                    .append(close - 0.5).append(',')
+                    .append(close + 1).append(',')
+                    .append(close - 1).append(',')
+                    .append(close).append(',')
+                    .append(1000 + i).append('\n');
+        }
+        return csv.toString();
+    }
+}
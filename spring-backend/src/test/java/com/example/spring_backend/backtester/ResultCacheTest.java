@@ -0,0 +1,241 @@
+package com.example.spring_backend.backtester;
+
+import com.example.spring_backend.backtester.internal.BackTestResult;
+import com.example.spring_backend.backtester.internal.BackTestResultArchive;
+import com.example.spring_backend.backtester.internal.ResultCache;
+import com.example.spring_backend.common.BackTestRequest;
+import com.example.spring_backend.common.ConditionConfig;
+import com.example.spring_backend.indicators.IndicatorEngine;
+import com.example.spring_backend.indicators.IndicatorEngines;
+import com.example.spring_backend.strategies.internal.StrategyServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.info.BuildProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Result Cache Tests")
+class ResultCacheTest {
+    private static final BackTestResult RESULT = BackTestResult.builder()
+            .totalReturn(12.5)
+            .trades(List.of())
+            .equityCurve(new double[]{10000, 11250})
+            .build();
+    // An equity curve of 10,000 bars, about 80 KB
+    private static final BackTestResult LARGE_RESULT = BackTestResult.builder()
+            .totalReturn(12.5)
+            .trades(List.of())
+            .equityCurve(new double[10_000])
+            .build();
+    private static final long CACHE_BYTES = 200_000;
+
+    private BackTestResultArchive archive;
+    private ResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        archive = mock(BackTestResultArchive.class);
+        when(archive.findByResultKey(anyString())).thenReturn(Optional.empty());
+        cache = new ResultCache(new StrategyServiceImpl(), archive, Runnable::run, CACHE_BYTES, "1");
+    }
+
+    @AfterEach
+    void resetEngine() {
+        IndicatorEngines.reset();
+    }
+
+    private static ConditionConfig condition(String type, Map<String, Object> parameters) {
+        return ConditionConfig.builder().type(type).parameters(parameters).build();
+    }
+
+    private static BackTestRequest request(Object period, double capital, ConditionConfig... entries) {
+        List<ConditionConfig> conditions = new ArrayList<>(List.of(entries));
+        conditions.add(condition("RSI_THRESHOLD", Map.of("period", period, "lowerThreshold", 30)));
+        return BackTestRequest.builder()
+                .initialCapital(capital)
+                .riskPerTrade(0.02)
+                .entryConditions(conditions)
+                .exitConditions(List.of())
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Key Tests")
+    class KeyTests {
+        @Test
+        @DisplayName("Should give requests that mean the same thing the same key")
+        void shouldNormalizeRequests() {
+            ConditionConfig sma = condition("SMA_CROSSOVER", Map.of("fastPeriod", 5, "slowPeriod", 20));
+
+            String key = cache.key("data", request(14, 10000, sma));
+
+            assertThat(cache.key("data", request(14.0, 10000.0, sma))).isEqualTo(key);
+            assertThat(cache.key("data", request(14L, 10000, sma))).isEqualTo(key);
+        }
+
+        @Test
+        @DisplayName("Should give a different key to other data, parameters or capital")
+        void shouldDistinguishRequests() {
+            String key = cache.key("data", request(14, 10000));
+
+            assertThat(cache.key("other", request(14, 10000))).isNotEqualTo(key);
+            assertThat(cache.key("data", request(15, 10000))).isNotEqualTo(key);
+            assertThat(cache.key("data", request(14, 20000))).isNotEqualTo(key);
+        }
+    }
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+        @Test
+        @DisplayName("Should return a result put under the same key and archive it")
+        void shouldReturnPutResult() {
+            BackTestRequest request = request(14, 10000);
+            String key = cache.key("data", request);
+
+            cache.put(key, "prices", 2, request, RESULT);
+
+            assertThat(cache.get(cache.key("data", request(14.0, 10000)))).containsSame(RESULT);
+            verify(archive).save("prices", 2, request, RESULT, key);
+            verify(archive, never()).findByResultKey(anyString());
+        }
+
+        @Test
+        @DisplayName("Should archive on the archive executor rather than the calling thread")
+        void shouldArchiveInBackground() {
+            List<Runnable> writes = new ArrayList<>();
+            ResultCache deferred = new ResultCache(new StrategyServiceImpl(), archive, writes::add, CACHE_BYTES, "1");
+            BackTestRequest request = request(14, 10000);
+
+            deferred.put("key", "prices", 2, request, RESULT);
+
+            assertThat(deferred.get("key")).containsSame(RESULT);
+            verify(archive, never()).save(anyString(), anyInt(), any(), any(), any());
+            writes.forEach(Runnable::run);
+            verify(archive).save("prices", 2, request, RESULT, "key");
+        }
+
+        @Test
+        @DisplayName("Should fall back to the archive and keep what it finds")
+        void shouldLoadFromArchive() {
+            when(archive.findByResultKey("archived")).thenReturn(Optional.of(RESULT));
+
+            assertThat(cache.get("archived")).containsSame(RESULT);
+            assertThat(cache.get("archived")).containsSame(RESULT);
+            assertThat(cache.get("missing")).isEmpty();
+            verify(archive, times(1)).findByResultKey("archived");
+        }
+
+        @Test
+        @DisplayName("Should keep working when the archive fails")
+        void shouldIgnoreArchiveFailures() {
+            when(archive.findByResultKey(anyString())).thenThrow(new IllegalStateException("database unavailable"));
+            doThrow(new IllegalStateException("database unavailable"))
+                    .when(archive).save(anyString(), anyInt(), any(), any(), any());
+
+            cache.put("key", "prices", 2, request(14, 10000), RESULT);
+
+            assertThat(cache.get("key")).containsSame(RESULT);
+            assertThat(cache.get("other")).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Eviction Tests")
+    class EvictionTests {
+        @Test
+        @DisplayName("Should drop the least recently used results beyond its size in bytes")
+        void shouldEvictLeastRecentlyUsed() {
+            BackTestRequest request = request(14, 10000);
+            cache.put("first", "prices", 10_000, request, LARGE_RESULT);
+            cache.put("second", "prices", 10_000, request, LARGE_RESULT);
+            cache.get("first");
+
+            cache.put("third", "prices", 10_000, request, LARGE_RESULT);
+
+            assertThat(cache.get("first")).isPresent();
+            assertThat(cache.get("second")).isEmpty();
+            assertThat(cache.get("third")).isPresent();
+        }
+
+        @Test
+        @DisplayName("Should hold many small results in the space of a few large ones")
+        void shouldWeighResultsBySize() {
+            BackTestRequest request = request(14, 10000);
+            for (int i = 0; i < 100; i++) {
+                cache.put("small" + i, "prices", 2, request, RESULT);
+            }
+            cache.put("large", "prices", 10_000, request, LARGE_RESULT);
+
+            assertThat(cache.get("small0")).isPresent();
+            assertThat(cache.get("large")).isPresent();
+        }
+
+        @Test
+        @DisplayName("Should not hold a result larger than the whole cache")
+        void shouldSkipOversizedResults() {
+            ResultCache small = new ResultCache(new StrategyServiceImpl(), archive, Runnable::run, 50_000, "1");
+            BackTestRequest request = request(14, 10000);
+            small.put("small", "prices", 2, request, RESULT);
+
+            small.put("large", "prices", 10_000, request, LARGE_RESULT);
+
+            assertThat(small.get("large")).isEmpty();
+            assertThat(small.get("small")).isPresent();
+            verify(archive).save("prices", 10_000, request, LARGE_RESULT, "large");
+        }
+
+        @Test
+        @DisplayName("Should drop every result and change keys when the engine changes")
+        void shouldInvalidateOnEngineChange() {
+            BackTestRequest request = request(14, 10000);
+            String key = cache.key("data", request);
+            cache.put(key, "prices", 2, request, RESULT);
+            IndicatorEngine engine = mock(IndicatorEngine.class);
+            when(engine.name()).thenReturn("native");
+
+            IndicatorEngines.install(engine);
+
+            assertThat(cache.get(key)).isEmpty();
+            assertThat(cache.key("data", request)).isNotEqualTo(key);
+            assertThat(new ResultCache(new StrategyServiceImpl(), archive, Runnable::run, CACHE_BYTES, "2").key("data", request))
+                    .isNotEqualTo(cache.key("data", request));
+        }
+
+        @Test
+        @DisplayName("Should version results by build unless an engine version is configured")
+        void shouldVersionByBuild() {
+            BackTestRequest request = request(14, 10000);
+
+            String morning = cacheBuiltAt("", "2026-01-01T09:00:00Z").key("data", request);
+            String evening = cacheBuiltAt("", "2026-01-01T18:00:00Z").key("data", request);
+            String pinnedMorning = cacheBuiltAt("7", "2026-01-01T09:00:00Z").key("data", request);
+            String pinnedEvening = cacheBuiltAt("7", "2026-01-01T18:00:00Z").key("data", request);
+
+            assertThat(morning).isNotEqualTo(evening);
+            assertThat(pinnedMorning).isEqualTo(pinnedEvening);
+        }
+
+        private ResultCache cacheBuiltAt(String engineVersion, String buildTime) {
+            Properties build = new Properties();
+            build.setProperty("version", "0.0.1-SNAPSHOT");
+            build.setProperty("time", buildTime);
+            StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("build", new BuildProperties(build)));
+            return new ResultCache(new StrategyServiceImpl(), archive, Runnable::run, CACHE_BYTES, engineVersion,
+                    beans.getBeanProvider(BuildProperties.class));
+        }
+    }
+}
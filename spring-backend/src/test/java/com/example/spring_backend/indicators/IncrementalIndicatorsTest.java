@@ -0,0 +1,121 @@
+package com.example.spring_backend.indicators;
+
+import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.market.SyntheticDataSpec;
+import com.example.spring_backend.market.SyntheticMarketData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Incremental indicators must match {@link IndicatorUtils} bit for bit, whether computed from bar 0 or
+ * continued from a checkpoint over a prefix of the input.
+ */
+@DisplayName("Incremental Indicator Tests")
+class IncrementalIndicatorsTest {
+    private static final MarketData DATA = SyntheticMarketData.generate(SyntheticDataSpec.defaults(41, 600).build());
+    private static final double[] HIGH = DATA.high();
+    private static final double[] LOW = DATA.low();
+    private static final double[] CLOSE = DATA.close();
+    private static final double[] VOLUME = DATA.volume();
+
+    private static double[] prefix(double[] values, int length) {
+        return Arrays.copyOf(values, length);
+    }
+
+    @Nested
+    @DisplayName("Parity Tests")
+    class ParityTests {
+        @Test
+        @DisplayName("Should match the batch indicators from bar 0")
+        void shouldMatchBatchIndicators() {
+            assertArrayEquals(IndicatorUtils.sma(CLOSE, 20), IncrementalIndicators.sma(CLOSE, 20, null).values());
+            assertArrayEquals(IndicatorUtils.ema(CLOSE, 20), IncrementalIndicators.ema(CLOSE, 20, null).values());
+            assertArrayEquals(IndicatorUtils.rsi(CLOSE, 14), IncrementalIndicators.rsi(CLOSE, 14, null).values());
+            assertArrayEquals(IndicatorUtils.atr(HIGH, LOW, CLOSE, 14),
+                    IncrementalIndicators.atr(HIGH, LOW, CLOSE, 14, null).values());
+            assertArrayEquals(IndicatorUtils.obv(CLOSE, VOLUME), IncrementalIndicators.obv(CLOSE, VOLUME, null).values());
+        }
+
+        @Test
+        @DisplayName("Should seed a series shorter than its window the way the batch EMA does")
+        void shouldMatchShortEma() {
+            double[] prices = prefix(CLOSE, 10);
+
+            assertArrayEquals(IndicatorUtils.ema(prices, 20), IncrementalIndicators.ema(prices, 20, null).values());
+        }
+
+        @Test
+        @DisplayName("Should reject inputs the batch indicators reject")
+        void shouldRejectTooShortInputs() {
+            assertThrows(IllegalArgumentException.class, () -> IncrementalIndicators.rsi(prefix(CLOSE, 14), 14, null));
+            assertThrows(IllegalArgumentException.class, () -> IncrementalIndicators.sma(new double[0], 5, null));
+            assertThrows(IllegalArgumentException.class, () -> IncrementalIndicators.obv(CLOSE, prefix(VOLUME, 10), null));
+        }
+    }
+
+    @Nested
+    @DisplayName("Checkpoint Tests")
+    class CheckpointTests {
+        @Test
+        @DisplayName("Should continue every indicator from a checkpoint over a prefix")
+        void shouldContinueFromCheckpoint() {
+            int cut = 450;
+            double[] high = prefix(HIGH, cut);
+            double[] low = prefix(LOW, cut);
+            double[] close = prefix(CLOSE, cut);
+            double[] volume = prefix(VOLUME, cut);
+
+            assertArrayEquals(IndicatorUtils.sma(CLOSE, 20),
+                    IncrementalIndicators.sma(CLOSE, 20, IncrementalIndicators.sma(close, 20, null)).values());
+            assertArrayEquals(IndicatorUtils.ema(CLOSE, 20),
+                    IncrementalIndicators.ema(CLOSE, 20, IncrementalIndicators.ema(close, 20, null)).values());
+            assertArrayEquals(IndicatorUtils.rsi(CLOSE, 14),
+                    IncrementalIndicators.rsi(CLOSE, 14, IncrementalIndicators.rsi(close, 14, null)).values());
+            assertArrayEquals(IndicatorUtils.atr(HIGH, LOW, CLOSE, 14), IncrementalIndicators.atr(HIGH, LOW, CLOSE, 14,
+                    IncrementalIndicators.atr(high, low, close, 14, null)).values());
+            assertArrayEquals(IndicatorUtils.obv(CLOSE, VOLUME), IncrementalIndicators.obv(CLOSE, VOLUME,
+                    IncrementalIndicators.obv(close, volume, null)).values());
+        }
+
+        @Test
+        @DisplayName("Should stay exact over many one-bar appends")
+        void shouldStayExactOverDailyAppends() {
+            IndicatorCheckpoint rsi = IncrementalIndicators.rsi(prefix(CLOSE, 100), 14, null);
+            for (int length = 101; length <= CLOSE.length; length++) {
+                rsi = IncrementalIndicators.rsi(prefix(CLOSE, length), 14, rsi);
+            }
+
+            assertArrayEquals(IndicatorUtils.rsi(CLOSE, 14), rsi.values());
+        }
+
+        @Test
+        @DisplayName("Should copy the checkpoint rather than extend it in place")
+        void shouldLeaveCheckpointUnchanged() {
+            IndicatorCheckpoint previous = IncrementalIndicators.ema(prefix(CLOSE, 300), 20, null);
+            double[] before = previous.values().clone();
+
+            IndicatorCheckpoint next = IncrementalIndicators.ema(CLOSE, 20, previous);
+
+            assertNotSame(previous.values(), next.values());
+            assertArrayEquals(before, previous.values());
+            assertEquals(CLOSE.length, next.length());
+        }
+
+        @Test
+        @DisplayName("Should recompute when the checkpoint cannot be continued")
+        void shouldIgnoreUnusableCheckpoints() {
+            // Longer than the input, and an EMA still seeded from its first price
+            IndicatorCheckpoint longer = IncrementalIndicators.ema(CLOSE, 20, null);
+            IndicatorCheckpoint seededShort = IncrementalIndicators.ema(prefix(CLOSE, 10), 20, null);
+            double[] close = prefix(CLOSE, 300);
+
+            assertArrayEquals(IndicatorUtils.ema(close, 20), IncrementalIndicators.ema(close, 20, longer).values());
+            assertArrayEquals(IndicatorUtils.ema(close, 20), IncrementalIndicators.ema(close, 20, seededShort).values());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.spring_backend.indicators;
+
+import com.example.spring_backend.indicators.internal.IndicatorEngineSelector;
+import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.market.MarketDataPoint;
+import com.example.spring_backend.market.SyntheticDataSpec;
+import com.example.spring_backend.market.SyntheticMarketData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("Indicator Engine Tests")
+class IndicatorEngineTest {
+    // The engines agree to rounding, not bit for bit: the native SMA keeps a rolling sum
+    private static final double RELATIVE_TOLERANCE = 1e-9;
+
+    @AfterEach
+    void tearDown() {
+        IndicatorEngines.reset();
+    }
+
+    @Nested
+    @DisplayName("Engine Selection Tests")
+    class SelectionTests {
+        @Test
+        @DisplayName("Should use the Java engine by default")
+        void shouldDefaultToJava() throws Exception {
+            IndicatorEngineSelector selector = new IndicatorEngineSelector("java", "");
+
+            assertEquals("java", IndicatorEngines.current().name());
+            selector.release();
+        }
+
+        @Test
+        @DisplayName("Should fall back to the Java engine when the native library is missing")
+        void shouldFallBackWhenLibraryIsMissing() throws Exception {
+            IndicatorEngineSelector selector = new IndicatorEngineSelector("native", "/nonexistent/librust_native.so");
+
+            assertEquals("java", selector.engine().name());
+            assertSame(selector.engine(), IndicatorEngines.current());
+            selector.release();
+        }
+
+        @Test
+        @DisplayName("Should restore the Java engine on shutdown")
+        void shouldResetOnRelease() throws Exception {
+            IndicatorEngines.install(new IndicatorEngineSelector("java", "").engine());
+            new IndicatorEngineSelector("native", "/nonexistent/librust_native.so").release();
+
+            assertEquals("java", IndicatorEngines.current().name());
+        }
+    }
+
+    /**
+     * Runs only when the Rust library has been built, e.g. {@code cargo build --release} in {@code engine/}.
+     */
+    @Nested
+    @DisplayName("Native Parity Tests")
+    class NativeParityTests {
+        private static double[] close;
+        private static double[] volume;
+
+        @BeforeAll
+        static void generateSeries() {
+            MarketData data = SyntheticMarketData.generate(SyntheticDataSpec.defaults(31, 20_000).build());
+            close = data.getDataPoints().stream().mapToDouble(MarketDataPoint::close).toArray();
+            volume = data.getDataPoints().stream().mapToDouble(MarketDataPoint::volume).toArray();
+            close[100] = Double.NaN;
+        }
+
+        private IndicatorEngine nativeEngine() {
+            IndicatorEngineSelector selector = new IndicatorEngineSelector(
+                    "native", System.getProperty("indicators.native.library-path", ""));
+            assumeTrue("native".equals(selector.engine().name()), "Native indicator library not built");
+            return selector.engine();
+        }
+
+        @Test
+        @DisplayName("SMA should match IndicatorUtils")
+        void smaShouldMatch() {
+            IndicatorEngine engine = nativeEngine();
+
+            for (int window : new int[]{1, 14, 50, 200}) {
+                assertParity(IndicatorUtils.sma(close, window), engine.sma(close, window));
+            }
+            double[] obv = IndicatorUtils.obv(close, volume);
+            assertParity(IndicatorUtils.sma(obv, 20), engine.sma(obv, 20));
+        }
+
+        @Test
+        @DisplayName("EMA should match IndicatorUtils")
+        void emaShouldMatch() {
+            IndicatorEngine engine = nativeEngine();
+            double[] clean = close.clone();
+            clean[100] = clean[99];
+
+            for (int window : new int[]{1, 12, 26, 200}) {
+                assertParity(IndicatorUtils.ema(clean, window), engine.ema(clean, window));
+            }
+        }
+
+        @Test
+        @DisplayName("MACD should match IndicatorUtils")
+        void macdShouldMatch() {
+            IndicatorEngine engine = nativeEngine();
+            // Without the NaN, which would otherwise carry through both EMAs and leave no signal line to compare
+            double[] clean = close.clone();
+            clean[100] = clean[99];
+
+            Map<String, double[]> expected = IndicatorUtils.macd(clean, 12, 26, 9);
+            Map<String, double[]> actual = engine.macd(clean, 12, 26, 9);
+
+            assertFalse(Double.isNaN(expected.get("signalLine")[clean.length - 1]), "Signal line must be defined");
+            for (String line : new String[]{"macdLine", "signalLine", "histogram"}) {
+                assertParity(expected.get(line), actual.get(line));
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject the same arguments as IndicatorUtils")
+        void shouldRejectInvalidArguments() {
+            IndicatorEngine engine = nativeEngine();
+
+            assertThrows(IllegalArgumentException.class, () -> engine.sma(null, 3));
+            assertThrows(IllegalArgumentException.class, () -> engine.sma(close, 0));
+            assertThrows(IllegalArgumentException.class, () -> engine.ema(new double[0], 3));
+            assertThrows(IllegalArgumentException.class, () -> engine.macd(close, 26, 12, 9));
+        }
+
+        private static void assertParity(double[] expected, double[] actual) {
+            assertEquals(expected.length, actual.length);
+            for (int i = 0; i < expected.length; i++) {
+                if (Double.isNaN(expected[i])) {
+                    assertTrue(Double.isNaN(actual[i]), "Expected NaN at " + i);
+                } else {
+                    double tolerance = RELATIVE_TOLERANCE * Math.max(1.0, Math.abs(expected[i]));
+                    assertEquals(expected[i], actual[i], tolerance, "Mismatch at " + i);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.spring_backend.indicators;
+
+import com.example.spring_backend.indicators.internal.ScalarKernels;
+import com.example.spring_backend.indicators.internal.SimdKernels;
+import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.market.SyntheticDataSpec;
+import com.example.spring_backend.market.SyntheticMarketData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The SIMD kernels must match the scalar ones bit for bit, including NaN positions and the scalar tail
+ * that covers lengths which are not a multiple of the vector width.
+ */
+@DisplayName("Indicator Kernel Tests")
+class IndicatorKernelsTest {
+    private double[] open;
+    private double[] high;
+    private double[] low;
+    private double[] close;
+    private double[] volume;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(IndicatorKernels.simdEnabled(), "Vector API unavailable");
+    }
+
+    private void generate(int bars) {
+        MarketData data = SyntheticMarketData.generate(SyntheticDataSpec.defaults(32, bars).build());
+        open = data.open();
+        high = data.high();
+        low = data.low();
+        close = data.close();
+        volume = data.volume();
+        // Flat bars and NaN gaps exercise the equality and NaN branches
+        for (int i = 7; i < bars; i += 11) {
+            close[i] = close[i - 1];
+            open[i] = close[i];
+        }
+        for (int i = 5; i < bars; i += 13) {
+            close[i] = Double.NaN;
+            high[i] = Double.NaN;
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 9, 64, 1001})
+    @DisplayName("Arithmetic kernels should match the scalar kernels")
+    void arithmeticKernelsShouldMatch(int bars) {
+        generate(bars);
+        int period = Math.min(12, bars - 1);
+
+        assertArrayEquals(
+                run(out -> ScalarKernels.roc(close, period, period, out)),
+                run(out -> SimdKernels.roc(close, period, period, out)));
+        assertArrayEquals(
+                run(out -> ScalarKernels.signedVolume(close, volume, 1, out)),
+                run(out -> SimdKernels.signedVolume(close, volume, 1, out)));
+        assertArrayEquals(
+                run(out -> ScalarKernels.subtract(close, open, 0, out)),
+                run(out -> SimdKernels.subtract(close, open, 0, out)));
+
+        double[] scalarUpper = new double[bars];
+        double[] scalarLower = new double[bars];
+        double[] simdUpper = new double[bars];
+        double[] simdLower = new double[bars];
+        ScalarKernels.bands(close, high, 2.0, 1, scalarUpper, scalarLower);
+        SimdKernels.bands(close, high, 2.0, 1, simdUpper, simdLower);
+        assertArrayEquals(scalarUpper, simdUpper);
+        assertArrayEquals(scalarLower, simdLower);
+    }
+
+    @ParameterizedTest
+    @EnumSource(PivotType.class)
+    @DisplayName("Pivot point kernels should match the scalar kernels")
+    void pivotPointsShouldMatch(PivotType type) {
+        generate(257);
+        double[][] scalar = new double[7][257];
+        double[][] simd = new double[7][257];
+
+        ScalarKernels.pivotPoints(high, low, close, open, type, 1,
+                scalar[0], scalar[1], scalar[2], scalar[3], scalar[4], scalar[5], scalar[6]);
+        SimdKernels.pivotPoints(high, low, close, open, type, 1,
+                simd[0], simd[1], simd[2], simd[3], simd[4], simd[5], simd[6]);
+
+        for (int level = 0; level < 7; level++) {
+            assertArrayEquals(scalar[level], simd[level], "Level " + level);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 33, 1000})
+    @DisplayName("Comparison kernels should match the scalar kernels and treat NaN as false")
+    void comparisonKernelsShouldMatch(int bars) {
+        generate(bars + 1);
+        double threshold = close[0];
+
+        assertArrayEquals(
+                compare(out -> ScalarKernels.greaterThan(close, threshold, 0, out)),
+                compare(out -> SimdKernels.greaterThan(close, threshold, 0, out)));
+        assertArrayEquals(
+                compare(out -> ScalarKernels.lessThan(close, threshold, 1, out)),
+                compare(out -> SimdKernels.lessThan(close, threshold, 1, out)));
+        for (boolean above : new boolean[]{true, false}) {
+            assertArrayEquals(
+                    compare(out -> ScalarKernels.changeVersusScaled(close, high, 0.001, above, 1, out)),
+                    compare(out -> SimdKernels.changeVersusScaled(close, high, 0.001, above, 1, out)));
+        }
+
+        boolean[] nanSignals = compare(out -> SimdKernels.greaterThan(close, Double.NEGATIVE_INFINITY, 0, out));
+        for (int i = 0; i < close.length; i++) {
+            assertEquals(!Double.isNaN(close[i]), nanSignals[i], "Index " + i);
+        }
+    }
+
+    private double[] run(Consumer<double[]> kernel) {
+        double[] out = new double[close.length];
+        kernel.accept(out);
+        return out;
+    }
+
+    private boolean[] compare(Consumer<boolean[]> kernel) {
+        boolean[] out = new boolean[close.length];
+        kernel.accept(out);
+        return out;
+    }
+}
@@ -115,6 +115,12 @@ public class IndicatorUtilsUnitTest {
         int signalPeriod = 3;
         int startIdx = 10 + signalPeriod - 1;
 
+        // The signal line is seeded with the SMA of the first defined MACD values, at bar slow - 1
+        double[] customMacd = customResult.get("macdLine");
+        assertTrue(Double.isNaN(customResult.get("signalLine")[startIdx - 2]));
+        assertEquals((customMacd[9] + customMacd[10] + customMacd[11]) / 3, customResult.get("signalLine")[11], DELTA);
+        assertFalse(Double.isNaN(defaultResult.get("signalLine")[prices.length - 1]));
+
         for (int i = startIdx; i < prices.length; i++) {
             assertEquals(
                     customResult.get("macdLine")[i] - customResult.get("signalLine")[i],
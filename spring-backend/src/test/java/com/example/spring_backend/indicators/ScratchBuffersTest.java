@@ -0,0 +1,106 @@
+package com.example.spring_backend.indicators;
+
+import com.example.spring_backend.market.SyntheticDataSpec;
+import com.example.spring_backend.market.SyntheticMarketData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Each test borrows its own buffer length so tests running alongside cannot take its buffers from the pool.
+ */
+@DisplayName("Scratch Buffer Tests")
+class ScratchBuffersTest {
+    private static final int LENGTH = ScratchBuffers.MIN_POOLED_LENGTH;
+
+    @Nested
+    @DisplayName("Pool Tests")
+    class PoolTests {
+        @Test
+        @DisplayName("Should hand a released buffer out again, zero-filled")
+        void shouldRecycleReleasedBuffers() {
+            double[] buffer = ScratchBuffers.doubles(LENGTH + 1);
+            Arrays.fill(buffer, 3.0);
+            ScratchBuffers.release(buffer);
+
+            double[] recycled = ScratchBuffers.doubles(LENGTH + 1);
+
+            assertSame(buffer, recycled);
+            assertTrue(Arrays.stream(recycled).allMatch(value -> value == 0.0));
+        }
+
+        @Test
+        @DisplayName("Should recycle boolean buffers separately from double buffers")
+        void shouldRecycleBooleans() {
+            boolean[] buffer = ScratchBuffers.booleans(LENGTH + 2);
+            buffer[5] = true;
+            ScratchBuffers.release(buffer);
+
+            assertNotSame(buffer, ScratchBuffers.booleans(LENGTH + 3));
+            boolean[] recycled = ScratchBuffers.booleans(LENGTH + 2);
+            assertSame(buffer, recycled);
+            assertFalse(recycled[5]);
+        }
+
+        @Test
+        @DisplayName("Should not pool short buffers")
+        void shouldNotPoolShortBuffers() {
+            double[] buffer = ScratchBuffers.doubles(16);
+            ScratchBuffers.release(buffer);
+
+            assertNotSame(buffer, ScratchBuffers.doubles(16));
+        }
+    }
+
+    @Nested
+    @DisplayName("Arena Tests")
+    class ArenaTests {
+        @Test
+        @DisplayName("Should return borrowed buffers once the creator and every bound thread have left")
+        void shouldReclaimAfterLastHolder() {
+            ScratchBuffers.Arena arena = ScratchBuffers.arena();
+            ScratchBuffers.Scope worker = ScratchBuffers.bind(arena);
+            double[] borrowed = ScratchBuffers.doubles(LENGTH + 4);
+
+            arena.close();
+            // The bound thread still holds the arena, so the buffer is not back yet
+            assertNotSame(borrowed, ScratchBuffers.doubles(LENGTH + 4));
+
+            worker.close();
+            assertSame(borrowed, ScratchBuffers.doubles(LENGTH + 4));
+        }
+
+        @Test
+        @DisplayName("Should leave a thread unbound when the arena was already released")
+        void shouldNotBindReleasedArena() {
+            ScratchBuffers.Arena arena = ScratchBuffers.arena();
+            arena.close();
+
+            double[] borrowed;
+            try (ScratchBuffers.Scope ignored = ScratchBuffers.bind(arena)) {
+                borrowed = ScratchBuffers.doubles(LENGTH + 5);
+            }
+
+            assertNotSame(borrowed, ScratchBuffers.doubles(LENGTH + 5));
+        }
+
+        @Test
+        @DisplayName("Indicators computed on recycled buffers should match fresh ones")
+        void shouldComputeOnRecycledBuffers() {
+            double[] close = SyntheticMarketData.generate(SyntheticDataSpec.defaults(7, LENGTH + 6).build()).close();
+            double[] expected = IndicatorUtils.rsi(close, 14).clone();
+
+            for (int run = 0; run < 3; run++) {
+                ScratchBuffers.Arena arena = ScratchBuffers.arena();
+                try (ScratchBuffers.Scope ignored = ScratchBuffers.bind(arena)) {
+                    assertArrayEquals(expected, IndicatorUtils.rsi(close, 14));
+                }
+                arena.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.spring_backend.market;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Aligned Market Data Tests")
+class AlignedMarketDataTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Nested
+    @DisplayName("Alignment Tests")
+    class AlignmentTests {
+        @Test
+        @DisplayName("Should align series on the union of their timestamps")
+        void shouldAlignOnUnionIndex() {
+            Map<String, MarketData> series = new LinkedHashMap<>();
+            series.put("AAA", bars(0, 1, 2, 4));
+            series.put("BBB", bars(1, 3, 4));
+
+            AlignedMarketData aligned = AlignedMarketData.align(series);
+
+            assertEquals(List.of("AAA", "BBB"), aligned.getSymbols());
+            assertEquals(5, aligned.getBarCount());
+            assertEquals(START.plusDays(3), aligned.getTimestamps()[3]);
+            assertEquals(10, aligned.getClose().length, "One contiguous block per field");
+
+            // AAA has no bar on day 3, so day 2's close is carried forward
+            assertFalse(aligned.isPresent(0, 3));
+            assertEquals(102.5, aligned.getClose()[aligned.offset(0) + 3]);
+            assertEquals(0, aligned.getVolume()[aligned.offset(0) + 3]);
+
+            // BBB starts on day 1 and is back-filled from its first open
+            assertFalse(aligned.isPresent(1, 0));
+            assertEquals(101.0, aligned.getClose()[aligned.offset(1)]);
+            assertTrue(aligned.isPresent(1, 1));
+            assertEquals(101.5, aligned.getClose()[aligned.offset(1) + 1]);
+        }
+
+        @Test
+        @DisplayName("Should sort unsorted series before aligning")
+        void shouldSortUnsortedSeries() {
+            MarketData data = new MarketData();
+            data.addDataPoint(bar(2));
+            data.addDataPoint(bar(0));
+            data.addDataPoint(bar(1));
+
+            AlignedMarketData aligned = AlignedMarketData.align(Map.of("AAA", data));
+
+            assertArrayEquals(new double[]{100.5, 101.5, 102.5}, aligned.getClose());
+        }
+
+        @Test
+        @DisplayName("Should rebuild each symbol's aligned series")
+        void shouldBuildSymbolSeries() {
+            Map<String, MarketData> series = new LinkedHashMap<>();
+            series.put("AAA", bars(0, 1, 2));
+            series.put("BBB", bars(0, 2));
+
+            MarketData bbb = AlignedMarketData.align(series).series(1);
+
+            assertEquals(3, bbb.getDataPoints().size());
+            assertArrayEquals(new double[]{100.5, 100.5, 102.5}, bbb.close());
+            assertEquals(START.plusDays(1), bbb.getDataPoints().get(1).timestamp());
+        }
+
+        @Test
+        @DisplayName("Should keep dividends and splits, so a symbol's series adjusts like the original")
+        void shouldCarryCorporateActions() {
+            List<MarketDataPoint> points = new ArrayList<>(bars(0, 1, 2, 3).getDataPoints());
+            points.set(1, new MarketDataPoint(START.plusDays(1), 50.5, 51.5, 49.5, 51.0, 51.0, 2_000, 0.0, 2.0));
+            points.set(3, new MarketDataPoint(START.plusDays(3), 52.0, 53.0, 51.0, 52.5, 52.5, 2_000, 0.5, 1.0));
+            MarketData split = new MarketData();
+            split.addDataPoints(points);
+            Map<String, MarketData> series = new LinkedHashMap<>();
+            series.put("AAA", bars(0, 1, 2, 3));
+            series.put("BBB", split);
+
+            MarketData bbb = AlignedMarketData.align(series).series(1);
+
+            assertEquals(2.0, bbb.getDataPoints().get(1).splitCoefficient());
+            assertEquals(0.5, bbb.getDataPoints().get(3).dividendAmount());
+            assertArrayEquals(split.adjusted().close(), bbb.adjusted().close(), 1e-12);
+            assertArrayEquals(split.adjusted().volume(), bbb.adjusted().volume());
+            assertEquals(split.adjusted().getDataPoints(), bbb.adjusted().getDataPoints());
+        }
+
+        @Test
+        @DisplayName("Should combine the actions of bars an as-of join takes together")
+        void shouldCombineJoinedActions() {
+            List<MarketDataPoint> points = new ArrayList<>(bars(0, 1, 2).getDataPoints());
+            points.set(1, new MarketDataPoint(START.plusDays(1), 101, 102, 100, 101.5, 101.5, 1_000, 0.25, 2.0));
+            points.set(2, new MarketDataPoint(START.plusDays(2), 102, 103, 101, 102.5, 102.5, 1_000, 0.5, 3.0));
+            MarketData actions = new MarketData();
+            actions.addDataPoints(points);
+
+            MarketData joined = AlignedMarketData.asOf(bars(0, 2), Map.of("AAA", actions)).series(0);
+
+            assertEquals(0.75, joined.getDataPoints().get(1).dividendAmount());
+            assertEquals(6.0, joined.getDataPoints().get(1).splitCoefficient());
+            assertEquals(0.0, joined.getDataPoints().get(0).dividendAmount());
+            assertEquals(1.0, joined.getDataPoints().get(0).splitCoefficient());
+        }
+
+        @Test
+        @DisplayName("Should join each series as of the clock's timestamps")
+        void shouldJoinAsOfClock() {
+            Map<String, MarketData> series = new LinkedHashMap<>();
+            series.put("AAA", bars(0, 1, 2, 3, 4));
+            series.put("BBB", bars(1, 3));
+
+            AlignedMarketData joined = AlignedMarketData.asOf(bars(0, 2, 4), series);
+
+            assertEquals(3, joined.getBarCount());
+            // BBB is back-filled from its first open on day 0, then day 2 sees day 1 and day 4 sees day 3
+            assertArrayEquals(new double[]{100.5, 102.5, 104.5, 101.0, 101.5, 103.5}, joined.getClose());
+            assertArrayEquals(new boolean[]{true, true, true, false, true, true}, joined.getPresent());
+        }
+
+        @Test
+        @DisplayName("Should reject empty input")
+        void shouldRejectEmptyInput() {
+            assertThrows(IllegalArgumentException.class, () -> AlignedMarketData.align(Map.of()));
+            assertThrows(IllegalArgumentException.class, () -> AlignedMarketData.align(Map.of("AAA", new MarketData())));
+        }
+    }
+
+    private static MarketData bars(int... days) {
+        List<MarketDataPoint> points = new ArrayList<>();
+        for (int day : days) {
+            points.add(bar(day));
+        }
+        MarketData data = new MarketData();
+        data.addDataPoints(points);
+        return data;
+    }
+
+    // Prices depend only on the day, so every symbol shares them
+    private static MarketDataPoint bar(int day) {
+        double open = 100 + day;
+        return new MarketDataPoint(START.plusDays(day), open, open + 1, open - 1, open + 0.5, open + 0.5,
+                1_000, 0.0, 1.0);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.spring_backend.market;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Corporate Action Adjustment Tests")
+class CorporateActionsTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Nested
+    @DisplayName("Adjustment Tests")
+    class AdjustmentTests {
+        @Test
+        @DisplayName("Should divide prices and multiply volume before a split")
+        void shouldAdjustForSplit() {
+            MarketData data = series(
+                    bar(0, 200, 1_000, 0.0, 1.0),
+                    bar(1, 210, 1_000, 0.0, 1.0),
+                    bar(2, 104, 2_000, 0.0, 2.0),
+                    bar(3, 106, 2_000, 0.0, 1.0));
+
+            List<MarketDataPoint> adjusted = data.adjusted().getDataPoints();
+
+            assertArrayEquals(new double[]{100, 105, 104, 106}, data.adjusted().close(), 1e-9);
+            assertEquals(2_000, adjusted.get(0).volume());
+            assertEquals(2_000, adjusted.get(3).volume());
+            assertEquals(adjusted.get(0).close(), adjusted.get(0).adjustedClose());
+            assertEquals(1.0, adjusted.get(2).splitCoefficient());
+            // The raw columns stay as imported
+            assertArrayEquals(new double[]{200, 210, 104, 106}, data.close(), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Should scale prices before an ex-dividend bar by one minus the yield")
+        void shouldAdjustForDividend() {
+            MarketData data = series(
+                    bar(0, 50, 100, 0.0, 1.0),
+                    bar(1, 50, 100, 0.0, 1.0),
+                    bar(2, 49, 100, 1.0, 1.0));
+
+            double[] close = data.adjusted().close();
+
+            assertEquals(50 * 0.98, close[0], 1e-9);
+            assertEquals(50 * 0.98, close[1], 1e-9);
+            assertEquals(49, close[2], 1e-9);
+            assertEquals(100, data.adjusted().getDataPoints().getFirst().volume());
+        }
+
+        @Test
+        @DisplayName("Should compound splits and dividends over the history")
+        void shouldCompoundActions() {
+            MarketData data = series(
+                    bar(0, 400, 10, 0.0, 1.0),
+                    bar(1, 198, 20, 2.0, 2.0),
+                    bar(2, 100, 40, 0.0, 2.0));
+
+            double[] close = data.adjusted().close();
+
+            // Bar 1 carries the second split; bar 0 carries both splits and the dividend 2 on a raw close of 400
+            assertEquals(99, close[1], 1e-9);
+            assertEquals(400 / 4.0 * (1 - 2.0 / 400), close[0], 1e-9);
+            assertEquals(40, data.adjusted().getDataPoints().getFirst().volume());
+        }
+    }
+
+    @Nested
+    @DisplayName("Storage Tests")
+    class StorageTests {
+        @Test
+        @DisplayName("Should reuse the raw series when there are no corporate actions")
+        void shouldReuseRawSeries() {
+            MarketData data = series(bar(0, 10, 1, 0.0, 1.0), bar(1, 11, 1, 0.0, 1.0));
+
+            assertSame(data, data.adjusted());
+        }
+
+        @Test
+        @DisplayName("Should build the adjusted series once and rebuild it after bars are added")
+        void shouldCacheUntilBarsAreAdded() {
+            MarketData data = series(bar(0, 200, 1, 0.0, 1.0), bar(1, 100, 1, 0.0, 2.0));
+            MarketData adjusted = data.adjusted();
+
+            assertSame(adjusted, data.adjusted());
+
+            data.addDataPoint(bar(2, 50, 1, 0.0, 2.0));
+
+            assertNotSame(adjusted, data.adjusted());
+            assertArrayEquals(new double[]{50, 50, 50}, data.adjusted().close(), 1e-9);
+        }
+    }
+
+    private static MarketData series(MarketDataPoint... points) {
+        MarketData data = new MarketData();
+        data.addDataPoints(List.of(points));
+        return data;
+    }
+
+    private static MarketDataPoint bar(int day, double close, long volume, double dividend, double split) {
+        return new MarketDataPoint(START.plusDays(day), close, close, close, close, close, volume, dividend, split);
+    }
+}
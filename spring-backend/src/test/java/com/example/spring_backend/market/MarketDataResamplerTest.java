@@ -0,0 +1,179 @@
+package com.example.spring_backend.market;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Market Data Resampler Tests")
+class MarketDataResamplerTest {
+
+    @Nested
+    @DisplayName("Timeframe Tests")
+    class TimeframeTests {
+        @Test
+        @DisplayName("Should parse amounts with a unit suffix")
+        void shouldParseTimeframes() {
+            assertEquals(Duration.ofMinutes(5), Timeframe.parse("5m").length());
+            assertEquals(Duration.ofHours(4), Timeframe.parse("4H").length());
+            assertEquals(Duration.ofDays(1), Timeframe.parse("1d").length());
+            assertEquals(Duration.ofDays(14), Timeframe.parse("2w").length());
+            assertThrows(IllegalArgumentException.class, () -> Timeframe.parse("d"));
+            assertThrows(IllegalArgumentException.class, () -> Timeframe.parse("5y"));
+            assertThrows(IllegalArgumentException.class, () -> Timeframe.parse("0m"));
+        }
+
+        @Test
+        @DisplayName("Should start daily buckets at midnight and weekly buckets on Monday")
+        void shouldAlignBuckets() {
+            LocalDateTime wednesdayNoon = LocalDateTime.of(2024, 1, 3, 12, 0);
+
+            Timeframe daily = Timeframe.parse("1d");
+            Timeframe weekly = Timeframe.parse("1w");
+
+            assertEquals(LocalDateTime.of(2024, 1, 3, 0, 0), daily.start(daily.bucket(wednesdayNoon)));
+            assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), weekly.start(weekly.bucket(wednesdayNoon)));
+            assertEquals(weekly.bucket(wednesdayNoon) + 1, weekly.bucket(LocalDateTime.of(2024, 1, 8, 0, 0)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Resampling Tests")
+    class ResamplingTests {
+        @Test
+        @DisplayName("Should aggregate OHLC, sum volume and keep the last adjusted close")
+        void shouldAggregateBars() {
+            LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+            MarketData minutes = new MarketData();
+            minutes.addDataPoints(List.of(
+                    new MarketDataPoint(start, 10, 11, 9, 10.5, 10.4, 100, 0.0, 1.0),
+                    new MarketDataPoint(start.plusMinutes(1), 10.5, 12, 10, 11.5, 11.4, 200, 0.0, 1.0),
+                    new MarketDataPoint(start.plusMinutes(4), 11.5, 11.8, 8, 9, 8.9, 300, 0.5, 1.0),
+                    // Minute 5 opens the next bucket; the empty minutes 10-14 produce no bar
+                    new MarketDataPoint(start.plusMinutes(5), 9, 9.5, 8.5, 9.2, 9.1, 50, 0.0, 2.0),
+                    new MarketDataPoint(start.plusMinutes(15), 9.2, 9.3, 9.1, 9.3, 9.2, 70, 0.0, 1.0)));
+
+            MarketDataResampler.Resampled resampled = MarketDataResampler.compute(minutes, Timeframe.parse("5m"));
+
+            List<MarketDataPoint> bars = resampled.bars().getDataPoints();
+            assertEquals(3, bars.size());
+            assertEquals(new MarketDataPoint(start, 10, 12, 8, 9, 8.9, 600, 0.5, 1.0), bars.get(0));
+            assertEquals(start.plusMinutes(5), bars.get(1).timestamp());
+            assertEquals(2.0, bars.get(1).splitCoefficient());
+            assertEquals(start.plusMinutes(15), bars.get(2).timestamp());
+            assertArrayEquals(new int[]{0, 0, 0, 1, 2}, resampled.bucketOf());
+        }
+
+        @Test
+        @DisplayName("Should match a direct aggregation of synthetic minute bars")
+        void shouldMatchDirectAggregation() {
+            MarketData minutes = SyntheticMarketData.generate(SyntheticDataSpec.defaults(21, 5_000)
+                    .barInterval(Duration.ofMinutes(1))
+                    .build());
+
+            MarketData hourly = MarketDataResampler.compute(minutes, Timeframe.parse("1h")).bars();
+
+            double volume = 0;
+            for (MarketDataPoint bar : hourly.getDataPoints()) {
+                volume += bar.volume();
+                List<MarketDataPoint> members = minutes.getDataPoints().stream()
+                        .filter(point -> !point.timestamp().isBefore(bar.timestamp())
+                                && point.timestamp().isBefore(bar.timestamp().plusHours(1)))
+                        .toList();
+                assertEquals(members.getFirst().open(), bar.open());
+                assertEquals(members.getLast().close(), bar.close());
+                assertEquals(members.stream().mapToDouble(MarketDataPoint::high).max().orElseThrow(), bar.high());
+                assertEquals(members.stream().mapToDouble(MarketDataPoint::low).min().orElseThrow(), bar.low());
+            }
+            assertEquals(minutes.getDataPoints().stream().mapToLong(MarketDataPoint::volume).sum(), volume);
+        }
+
+        @Test
+        @DisplayName("Should reject series that are not in ascending time order")
+        void shouldRejectUnsortedSeries() {
+            LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+            MarketData data = new MarketData();
+            data.addDataPoint(new MarketDataPoint(start.plusHours(2), 1, 1, 1, 1, 1, 1, 0.0, 1.0));
+            data.addDataPoint(new MarketDataPoint(start, 1, 1, 1, 1, 1, 1, 0.0, 1.0));
+
+            assertThrows(IllegalArgumentException.class, () -> MarketDataResampler.compute(data, Timeframe.parse("1h")));
+        }
+    }
+
+    @Nested
+    @DisplayName("Completion Tests")
+    class CompletionTests {
+        @Test
+        @DisplayName("Should complete a bucket at the bar reaching its end time")
+        void shouldCloseBucketAtItsEnd() {
+            LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+            MarketData minutes = new MarketData();
+            for (int minute : new int[]{0, 1, 2, 3, 4, 5, 6, 8}) {
+                minutes.addDataPoint(new MarketDataPoint(start.plusMinutes(minute), 1, 1, 1, 1, 1, 1, 0.0, 1.0));
+            }
+
+            MarketDataResampler.Resampled resampled = MarketDataResampler.compute(minutes, Timeframe.parse("5m"));
+
+            // Minute 4 closes at 9:05; minute 8 closes at 9:09, short of the second bucket's end
+            assertArrayEquals(new int[]{-1, -1, -1, -1, 0, 0, 0, 0},
+                    IntStream.range(0, 8).map(resampled::lastClosed).toArray());
+        }
+
+        @Test
+        @DisplayName("Should not change earlier bars when bars are appended")
+        void shouldNotDependOnLaterBars() {
+            MarketData minutes = SyntheticMarketData.generate(SyntheticDataSpec.defaults(9, 600)
+                    .barInterval(Duration.ofMinutes(1))
+                    .build());
+            Timeframe quarterHour = Timeframe.parse("15m");
+            MarketDataResampler.Resampled full = MarketDataResampler.compute(minutes, quarterHour);
+
+            // Cuts on and off bucket boundaries, the way appends to a stored dataset arrive
+            for (int end : new int[]{1, 14, 15, 16, 29, 30, 299, 300, 451}) {
+                MarketData head = new MarketData();
+                head.addDataPoints(minutes.getDataPoints().subList(0, end));
+                MarketDataResampler.Resampled prefix = MarketDataResampler.compute(head, quarterHour);
+                for (int bar = 0; bar < end; bar++) {
+                    assertEquals(full.lastClosed(bar), prefix.lastClosed(bar), "Bar " + bar + " of " + end);
+                }
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Cache Tests")
+    class CacheTests {
+        @Test
+        @DisplayName("Should reuse the resampled series per dataset and timeframe")
+        void shouldCachePerDatasetAndTimeframe() {
+            MarketData data = SyntheticMarketData.generate(SyntheticDataSpec.defaults(3, 500).build());
+            MarketData sameBars = SyntheticMarketData.generate(SyntheticDataSpec.defaults(3, 500).build());
+
+            MarketDataResampler.Resampled first = MarketDataResampler.resample(data, Timeframe.parse("1h"));
+
+            assertSame(first, MarketDataResampler.resample(data, Timeframe.parse("1h")));
+            assertNotSame(first, MarketDataResampler.resample(data, Timeframe.parse("1d")));
+            assertNotSame(first, MarketDataResampler.resample(sameBars, Timeframe.parse("1h")));
+        }
+
+        @Test
+        @DisplayName("Should resample again once the dataset has grown")
+        void shouldRefreshGrownDataset() {
+            MarketData data = SyntheticMarketData.generate(SyntheticDataSpec.defaults(4, 500).build());
+            MarketDataResampler.Resampled before = MarketDataResampler.resample(data, Timeframe.parse("1h"));
+
+            MarketDataPoint last = data.getDataPoints().getLast();
+            data.addDataPoint(new MarketDataPoint(last.timestamp().plusDays(1), 1, 1, 1, 1, 1, 1, 0.0, 1.0));
+            MarketDataResampler.Resampled after = MarketDataResampler.resample(data, Timeframe.parse("1h"));
+
+            assertNotSame(before, after);
+            assertEquals(501, after.bucketOf().length);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.spring_backend.market;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Market Data Slice Tests")
+class MarketDataSliceTest {
+    private static final MarketData DATA = SyntheticMarketData.generate(SyntheticDataSpec.defaults(23, 400).build());
+
+    @Nested
+    @DisplayName("Index Slice Tests")
+    class IndexSliceTests {
+        @Test
+        @DisplayName("Should expose the bars of the range without copying them")
+        void shouldViewRange() {
+            MarketData slice = DATA.slice(100, 250);
+
+            assertEquals(150, slice.size());
+            assertEquals(DATA.getDataPoints().subList(100, 250), slice.getDataPoints());
+            assertSame(DATA.getDataPoints().get(100), slice.getDataPoints().getFirst());
+            assertArrayEquals(Arrays.copyOfRange(DATA.close(), 100, 250), slice.close());
+            assertEquals(150, slice.closeColumn().length());
+        }
+
+        @Test
+        @DisplayName("Should cut slices of slices from the original series")
+        void shouldFlattenNestedSlices() {
+            MarketData nested = DATA.slice(100, 250).slice(10, 20);
+
+            assertEquals(DATA.getDataPoints().subList(110, 120), nested.getDataPoints());
+            assertThrows(IndexOutOfBoundsException.class, () -> DATA.slice(100, 250).slice(0, 151));
+        }
+
+        @Test
+        @DisplayName("Should reject ranges outside the series")
+        void shouldRejectInvalidRanges() {
+            assertThrows(IndexOutOfBoundsException.class, () -> DATA.slice(-1, 10));
+            assertThrows(IndexOutOfBoundsException.class, () -> DATA.slice(20, 10));
+            assertThrows(IndexOutOfBoundsException.class, () -> DATA.slice(0, DATA.size() + 1));
+            assertEquals(0, DATA.slice(10, 10).size());
+        }
+
+        @Test
+        @DisplayName("Should be read-only")
+        void shouldRejectNewBars() {
+            MarketData slice = DATA.slice(0, 10);
+
+            assertThrows(UnsupportedOperationException.class,
+                    () -> slice.addDataPoint(DATA.getDataPoints().getFirst()));
+            assertThrows(UnsupportedOperationException.class, () -> slice.getDataPoints().clear());
+        }
+
+        @Test
+        @DisplayName("Should adjust with the corporate actions of the whole series")
+        void shouldAdjustAgainstParent() {
+            LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+            MarketData split = new MarketData();
+            split.addDataPoints(List.of(
+                    new MarketDataPoint(start, 200, 200, 200, 200, 200, 10, 0.0, 1.0),
+                    new MarketDataPoint(start.plusDays(1), 210, 210, 210, 210, 210, 10, 0.0, 1.0),
+                    new MarketDataPoint(start.plusDays(2), 100, 100, 100, 100, 100, 20, 0.0, 2.0)));
+
+            MarketData slice = split.slice(0, 2);
+
+            // The split after the slice still rescales the bars inside it
+            assertArrayEquals(Arrays.copyOfRange(split.adjusted().close(), 0, 2), slice.adjusted().close());
+            assertSame(slice.adjusted(), slice.adjusted());
+            MarketData plain = DATA.slice(0, 10);
+            assertSame(plain, plain.adjusted());
+        }
+
+        @Test
+        @DisplayName("Should slice off-heap series into off-heap views")
+        void shouldSliceOffHeap() {
+            OffHeapMarketData offHeap = OffHeapMarketData.copyOf(DATA);
+
+            MarketData slice = offHeap.slice(100, 250).slice(10, 20);
+
+            assertInstanceOf(OffHeapMarketData.class, slice);
+            assertEquals(DATA.getDataPoints().subList(110, 120), slice.getDataPoints());
+            assertArrayEquals(Arrays.copyOfRange(DATA.high(), 110, 120), slice.high());
+        }
+    }
+
+    @Nested
+    @DisplayName("Time Slice Tests")
+    class TimeSliceTests {
+        @Test
+        @DisplayName("Should find the first bar at or after a time")
+        void shouldSearchTimestamps() {
+            List<MarketDataPoint> points = DATA.getDataPoints();
+            LocalDateTime at = points.get(42).timestamp();
+
+            assertEquals(42, DATA.indexAtOrAfter(at));
+            assertEquals(43, DATA.indexAtOrAfter(at.plusSeconds(1)));
+            assertEquals(0, DATA.indexAtOrAfter(points.getFirst().timestamp().minusYears(1)));
+            assertEquals(DATA.size(), DATA.indexAtOrAfter(points.getLast().timestamp().plusSeconds(1)));
+        }
+
+        @Test
+        @DisplayName("Should keep bars from the start up to but excluding the end")
+        void shouldSliceHalfOpen() {
+            List<MarketDataPoint> points = DATA.getDataPoints();
+
+            MarketData slice = DATA.sliceByTime(points.get(50).timestamp(), points.get(80).timestamp());
+
+            assertEquals(points.subList(50, 80), slice.getDataPoints());
+            assertEquals(points.subList(0, 80), DATA.sliceByTime(null, points.get(80).timestamp()).getDataPoints());
+            assertEquals(points.subList(50, points.size()),
+                    DATA.sliceByTime(points.get(50).timestamp(), null).getDataPoints());
+        }
+
+        @Test
+        @DisplayName("Should return an empty view for ranges without bars")
+        void shouldReturnEmptyRanges() {
+            List<MarketDataPoint> points = DATA.getDataPoints();
+
+            assertEquals(0, DATA.sliceByTime(points.get(80).timestamp(), points.get(50).timestamp()).size());
+            assertEquals(0, DATA.sliceByTime(points.getLast().timestamp().plusDays(1), null).size());
+        }
+
+        @Test
+        @DisplayName("Should search off-heap timestamps the same way")
+        void shouldSearchOffHeap() {
+            OffHeapMarketData offHeap = OffHeapMarketData.copyOf(DATA);
+            List<MarketDataPoint> points = DATA.getDataPoints();
+            LocalDateTime start = points.get(50).timestamp().plusNanos(1);
+            LocalDateTime end = points.get(80).timestamp();
+
+            assertEquals(DATA.sliceByTime(start, end).getDataPoints(),
+                    offHeap.sliceByTime(start, end).getDataPoints());
+            assertEquals(51, offHeap.indexAtOrAfter(start));
+        }
+    }
+}
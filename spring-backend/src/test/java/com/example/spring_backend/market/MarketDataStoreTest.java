@@ -0,0 +1,195 @@
+package com.example.spring_backend.market;
+
+import com.example.spring_backend.market.internal.InMemoryMarketDataStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Market Data Store Tests")
+class MarketDataStoreTest {
+    // Spans two storage chunks, so appends cross a chunk boundary
+    private static final MarketData DATA = SyntheticMarketData.generate(SyntheticDataSpec.defaults(5, 5000).build());
+
+    private MarketDataStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryMarketDataStore(4);
+    }
+
+    private static MarketData head(int bars) {
+        MarketData head = new MarketData();
+        head.addDataPoints(DATA.getDataPoints().subList(0, bars));
+        return head;
+    }
+
+    @Nested
+    @DisplayName("Append Tests")
+    class AppendTests {
+        @Test
+        @DisplayName("Should extend a dataset with later bars")
+        void shouldAppendBars() {
+            String id = store.put(head(4000));
+
+            MarketData appended = store.append(id, DATA.getDataPoints().subList(4000, 5000));
+
+            assertEquals(DATA.getDataPoints(), appended.getDataPoints());
+            assertEquals(DATA.getDataPoints(), store.get(id).orElseThrow().getDataPoints());
+            assertArrayEquals(DATA.close(), appended.close());
+        }
+
+        @Test
+        @DisplayName("Should leave earlier snapshots unchanged")
+        void shouldIsolateSnapshots() {
+            String id = store.put(head(100));
+            MarketData before = store.get(id).orElseThrow();
+
+            store.append(id, DATA.getDataPoints().subList(100, 101));
+
+            assertEquals(100, before.size());
+            assertEquals(DATA.getDataPoints().subList(0, 100), before.getDataPoints());
+            assertEquals(101, store.get(id).orElseThrow().size());
+        }
+
+        @Test
+        @DisplayName("Should reject bars that are not after the last bar")
+        void shouldRejectOverlappingBars() {
+            String id = store.put(head(100));
+            List<MarketDataPoint> points = DATA.getDataPoints();
+
+            assertThrows(IllegalArgumentException.class, () -> store.append(id, points.subList(99, 101)));
+            assertThrows(IllegalArgumentException.class, () -> store.append(id, List.of(points.get(102), points.get(101))));
+            assertEquals(100, store.get(id).orElseThrow().size());
+        }
+
+        @Test
+        @DisplayName("Should reject appends to unknown datasets")
+        void shouldRejectUnknownDataset() {
+            assertThrows(NoSuchElementException.class, () -> store.append("missing", DATA.getDataPoints()));
+            assertTrue(store.get("missing").isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should make snapshots read-only")
+        void shouldRejectDirectWrites() {
+            MarketData snapshot = store.get(store.put(head(10))).orElseThrow();
+
+            assertThrows(UnsupportedOperationException.class,
+                    () -> snapshot.addDataPoint(DATA.getDataPoints().get(10)));
+            assertThrows(UnsupportedOperationException.class, () -> snapshot.getDataPoints().clear());
+        }
+    }
+
+    @Nested
+    @DisplayName("Lifecycle Tests")
+    class LifecycleTests {
+        @Test
+        @DisplayName("Should share checkpoints between snapshots of a dataset only")
+        void shouldShareCheckpoints() {
+            String id = store.put(head(100));
+            MarketData before = store.get(id).orElseThrow();
+            MarketData after = store.append(id, DATA.getDataPoints().subList(100, 110));
+
+            assertNotNull(before.checkpoints());
+            assertSame(before.checkpoints(), after.checkpoints());
+            assertNotSame(before.checkpoints(), store.get(store.put(head(100))).orElseThrow().checkpoints());
+            assertNull(after.slice(0, 10).checkpoints());
+            assertNull(DATA.checkpoints());
+        }
+
+        @Test
+        @DisplayName("Should drop the least recently used dataset beyond its capacity")
+        void shouldEvictLeastRecentlyUsed() {
+            String first = store.put(head(10));
+            String second = store.put(head(10));
+            store.put(head(10));
+            store.put(head(10));
+            store.get(first);
+
+            store.put(head(10));
+
+            assertTrue(store.get(first).isPresent());
+            assertTrue(store.get(second).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should remove datasets on request")
+        void shouldRemoveDataset() {
+            String id = store.put(head(10));
+            MarketData snapshot = store.get(id).orElseThrow();
+
+            assertTrue(store.remove(id));
+            assertFalse(store.remove(id));
+            assertTrue(store.get(id).isEmpty());
+            assertEquals(10, snapshot.size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Checkpoint Tests")
+    class CheckpointTests {
+        @Test
+        @DisplayName("Should only replace an entry with one covering more bars")
+        void shouldKeepLongerEntries() {
+            Checkpoints checkpoints = new Checkpoints(new AtomicLong(10_000));
+
+            assertTrue(checkpoints.offer("sma", "100 bars", 100, 800));
+            assertFalse(checkpoints.offer("sma", "other 100 bars", 100, 800));
+            assertFalse(checkpoints.offer("sma", "50 bars", 50, 400));
+            assertEquals("100 bars", checkpoints.get("sma"));
+            assertTrue(checkpoints.offer("sma", "120 bars", 120, 960));
+            assertEquals("120 bars", checkpoints.get("sma"));
+        }
+
+        @Test
+        @DisplayName("Should drop the least recently used entries to stay within the shared budget")
+        void shouldStayWithinBudget() {
+            AtomicLong free = new AtomicLong(2_000);
+            Checkpoints first = new Checkpoints(free);
+            Checkpoints second = new Checkpoints(free);
+            first.offer("rsi", "rsi", 100, 800);
+            first.offer("atr", "atr", 100, 800);
+            first.get("rsi");
+
+            assertTrue(first.offer("obv", "obv", 100, 800));
+            assertFalse(second.offer("sma", "sma", 100, 800));
+
+            assertNotNull(first.get("rsi"));
+            assertNull(first.get("atr"));
+            assertNotNull(first.get("obv"));
+            assertTrue(free.get() >= 0);
+        }
+
+        @Test
+        @DisplayName("Should not keep an entry larger than the whole budget")
+        void shouldRejectOversizedEntries() {
+            Checkpoints checkpoints = new Checkpoints(new AtomicLong(1_000));
+            checkpoints.offer("rsi", "rsi", 10, 80);
+
+            assertFalse(checkpoints.offer("sma", "sma", 1_000, 8_000));
+            assertNull(checkpoints.get("sma"));
+        }
+
+        @Test
+        @DisplayName("Should return the bytes of removed and evicted datasets to the budget")
+        void shouldReleaseBytesOfRemovedDatasets() {
+            InMemoryMarketDataStore small = new InMemoryMarketDataStore(1, 2_000);
+            String id = small.put(head(10));
+            Checkpoints checkpoints = small.get(id).orElseThrow().checkpoints();
+            assertTrue(checkpoints.offer("rsi", "rsi", 10, 1_500));
+
+            small.put(head(10));
+
+            assertEquals(0, checkpoints.size());
+            Checkpoints replacement = small.get(small.put(head(10))).orElseThrow().checkpoints();
+            assertTrue(replacement.offer("rsi", "rsi", 10, 1_500));
+        }
+    }
+}
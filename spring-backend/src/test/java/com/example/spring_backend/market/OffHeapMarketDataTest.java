@@ -0,0 +1,103 @@
+package com.example.spring_backend.market;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Off-Heap Market Data Tests")
+class OffHeapMarketDataTest {
+    private static final MarketData DATA = SyntheticMarketData.generate(SyntheticDataSpec.defaults(11, 500).build());
+
+    @Nested
+    @DisplayName("Storage Tests")
+    class StorageTests {
+        @Test
+        @DisplayName("Should copy every column into direct buffers")
+        void shouldCopyColumns() {
+            OffHeapMarketData offHeap = OffHeapMarketData.copyOf(DATA);
+
+            assertEquals(DATA.size(), offHeap.size());
+            assertEquals(DATA.getDataPoints(), offHeap.getDataPoints());
+            assertArrayEquals(DATA.close(), offHeap.close());
+            assertArrayEquals(DATA.volume(), offHeap.volume());
+        }
+
+        @Test
+        @DisplayName("Should read a written column file back through a mapping")
+        void shouldMapWrittenFile(@TempDir Path directory) throws IOException {
+            Path file = directory.resolve("series.col");
+            OffHeapMarketData.write(DATA, file);
+
+            OffHeapMarketData mapped = OffHeapMarketData.map(file);
+
+            assertEquals(DATA.getDataPoints(), mapped.getDataPoints());
+            assertEquals(16 + 9 * 8L * DATA.size(), Files.size(file));
+        }
+
+        @Test
+        @DisplayName("Should reject files that are not column files")
+        void shouldRejectForeignFiles(@TempDir Path directory) throws IOException {
+            Path file = Files.writeString(directory.resolve("prices.csv"), "timestamp,open,high,low,close\n");
+
+            assertThrows(IOException.class, () -> OffHeapMarketData.map(file));
+        }
+
+        @Test
+        @DisplayName("Should be read-only")
+        void shouldRejectNewBars() {
+            OffHeapMarketData offHeap = OffHeapMarketData.copyOf(DATA);
+
+            assertThrows(UnsupportedOperationException.class,
+                    () -> offHeap.addDataPoint(DATA.getDataPoints().getFirst()));
+            assertThrows(UnsupportedOperationException.class, () -> offHeap.getDataPoints().clear());
+        }
+    }
+
+    @Nested
+    @DisplayName("Column Tests")
+    class ColumnTests {
+        @Test
+        @DisplayName("Should serve columns as views that copy in bulk")
+        void shouldServeColumnViews() {
+            OffHeapMarketData offHeap = OffHeapMarketData.copyOf(DATA);
+            DoubleColumn close = offHeap.closeColumn();
+            double[] expected = DATA.close();
+
+            assertSame(close, offHeap.closeColumn());
+            assertEquals(expected[123], close.get(123));
+            double[] range = new double[10];
+            close.copyTo(100, range, 0, 10);
+            assertArrayEquals(Arrays.copyOfRange(expected, 100, 110), range);
+        }
+
+        @Test
+        @DisplayName("Should keep the adjusted series off-heap")
+        void shouldAdjustOffHeap() {
+            LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+            MarketData split = new MarketData();
+            split.addDataPoints(List.of(
+                    new MarketDataPoint(start, 200, 200, 200, 200, 200, 10, 0.0, 1.0),
+                    new MarketDataPoint(start.plusDays(1), 100, 100, 100, 100, 100, 20, 0.0, 2.0),
+                    new MarketDataPoint(start.plusDays(2), 104, 106, 102, 105, 105, 30, 2.0, 1.0)));
+
+            OffHeapMarketData offHeap = OffHeapMarketData.copyOf(split);
+
+            assertInstanceOf(OffHeapMarketData.class, offHeap.adjusted());
+            assertArrayEquals(split.adjusted().close(), offHeap.adjusted().close());
+            assertEquals(split.adjusted().getDataPoints(), offHeap.adjusted().getDataPoints());
+            assertSame(offHeap.adjusted(), offHeap.adjusted());
+            OffHeapMarketData plain = OffHeapMarketData.copyOf(DATA);
+            assertSame(plain, plain.adjusted());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.spring_backend.market;
+
+import com.example.spring_backend.market.internal.CsvImporterServiceImpl;
+import com.example.spring_backend.market.internal.DataExtractor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Synthetic Market Data Tests")
+class SyntheticMarketDataTest {
+
+    @Nested
+    @DisplayName("Series Generation Tests")
+    class GenerationTests {
+        @Test
+        @DisplayName("Should produce identical series for the same seed")
+        void shouldBeDeterministic() {
+            List<MarketDataPoint> first = SyntheticMarketData.generate(SyntheticDataSpec.defaults(7, 5_000).build()).getDataPoints();
+            List<MarketDataPoint> second = SyntheticMarketData.generate(SyntheticDataSpec.defaults(7, 5_000).build()).getDataPoints();
+            List<MarketDataPoint> otherSeed = SyntheticMarketData.generate(SyntheticDataSpec.defaults(8, 5_000).build()).getDataPoints();
+
+            assertEquals(first, second);
+            assertNotEquals(first, otherSeed);
+        }
+
+        @Test
+        @DisplayName("Should produce valid OHLCV bars at the requested frequency")
+        void shouldProduceValidBars() {
+            SyntheticDataSpec spec = SyntheticDataSpec.defaults(1, 20_000)
+                    .barInterval(Duration.ofMinutes(5))
+                    .build();
+
+            List<MarketDataPoint> points = SyntheticMarketData.generate(spec).getDataPoints();
+
+            assertEquals(20_000, points.size());
+            assertEquals(spec.start(), points.getFirst().timestamp());
+            assertEquals(spec.start().plusMinutes(5L * 19_999), points.getLast().timestamp());
+            for (MarketDataPoint point : points) {
+                assertTrue(point.low() > 0, "Prices should stay positive");
+                assertTrue(point.low() <= Math.min(point.open(), point.close()));
+                assertTrue(point.high() >= Math.max(point.open(), point.close()));
+                assertTrue(point.volume() >= 0);
+            }
+        }
+
+        @Test
+        @DisplayName("Should include volume spikes when enabled")
+        void shouldIncludeVolumeSpikes() {
+            SyntheticDataSpec spec = SyntheticDataSpec.defaults(3, 10_000)
+                    .volumeSpikeProbability(0.01)
+                    .build();
+
+            long spikes = SyntheticMarketData.generate(spec).getDataPoints().stream()
+                    .filter(point -> point.volume() > spec.baseVolume() * 4)
+                    .count();
+
+            assertTrue(spikes > 50, "Expected roughly 1% of bars to spike, got " + spikes);
+        }
+
+        @Test
+        @DisplayName("Should reject invalid specifications")
+        void shouldRejectInvalidSpec() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> SyntheticDataSpec.defaults(1, -1).build());
+            assertThrows(IllegalArgumentException.class,
+                    () -> SyntheticDataSpec.defaults(1, 10).gapProbability(1.5).build());
+            assertThrows(IllegalArgumentException.class,
+                    () -> SyntheticDataSpec.defaults(1, 10).barInterval(Duration.ofMillis(500)).build());
+        }
+    }
+
+    @Nested
+    @DisplayName("CSV Streaming Tests")
+    class CsvStreamingTests {
+        @Test
+        @DisplayName("Should stream CSV that imports back to the generated series")
+        void shouldRoundTripThroughImporter() throws IOException {
+            SyntheticDataSpec spec = SyntheticDataSpec.defaults(11, 2_000).build();
+            CsvImporterServiceImpl importer = new CsvImporterServiceImpl(new DataExtractor());
+
+            MarketData imported = importer.importCsvFromStream(SyntheticMarketData.csvStream(spec));
+
+            assertEquals(SyntheticMarketData.generate(spec).getDataPoints(), imported.getDataPoints());
+        }
+
+        @Test
+        @DisplayName("Should write date-only timestamps for daily bars")
+        void shouldWriteDailyTimestamps() throws IOException {
+            SyntheticDataSpec spec = SyntheticDataSpec.defaults(5, 3)
+                    .start(LocalDateTime.of(2024, 1, 1, 0, 0))
+                    .barInterval(Duration.ofDays(1))
+                    .build();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            SyntheticMarketData.writeCsv(spec, out);
+
+            String[] lines = out.toString().split("\n");
+            assertEquals(4, lines.length);
+            assertTrue(lines[1].startsWith("2024-01-01,"));
+            assertTrue(lines[3].startsWith("2024-01-03,"));
+
+            MarketData imported = new CsvImporterServiceImpl(new DataExtractor())
+                    .importCsvFromStream(new ByteArrayInputStream(out.toByteArray()));
+            assertEquals(3, imported.getDataPoints().size());
+        }
+
+        @Test
+        @DisplayName("Should generate rows lazily while the stream is read")
+        void shouldStreamWithoutMaterializing() throws IOException {
+            int rows = 1_000_000;
+            byte[] buffer = new byte[8192];
+            long newlines = 0;
+
+            try (InputStream csv = SyntheticMarketData.csvStream(SyntheticDataSpec.defaults(13, rows).build())) {
+                int read;
+                while ((read = csv.read(buffer)) != -1) {
+                    for (int i = 0; i < read; i++) {
+                        if (buffer[i] == '\n') newlines++;
+                    }
+                    assertTrue(csv.available() < 1 << 20, "Only a small chunk should be buffered at a time");
+                }
+            }
+
+            assertEquals(rows + 1, newlines, "Header plus one line per bar");
+        }
+    }
+}
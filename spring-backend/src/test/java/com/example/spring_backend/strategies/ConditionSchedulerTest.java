@@ -0,0 +1,256 @@
+package com.example.spring_backend.strategies;
+
+import com.example.spring_backend.common.Cancellation;
+import com.example.spring_backend.market.MarketData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Condition Scheduler Tests")
+class ConditionSchedulerTest {
+    private static final int BARS = 1_000;
+
+    private MarketData marketData;
+
+    @BeforeEach
+    void setUp() {
+        marketData = mock(MarketData.class);
+        ConditionScheduler.configure(4, 100_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ConditionScheduler.reset();
+    }
+
+    @Nested
+    @DisplayName("Forking Tests")
+    class ForkingTests {
+        @Test
+        @DisplayName("Should run costly siblings on other threads and keep result order")
+        void shouldForkCostlySiblings() {
+            RecordingCondition first = new RecordingCondition(1_000, 0);
+            RecordingCondition second = new RecordingCondition(1_000, 1);
+            RecordingCondition third = new RecordingCondition(1_000, 2);
+
+            List<boolean[]> results = ConditionEvaluator.evaluateAll(List.of(first, second, third), marketData, BARS);
+
+            assertTrue(results.get(0)[0] && !results.get(0)[1]);
+            assertTrue(results.get(1)[1] && !results.get(1)[0]);
+            assertTrue(results.get(2)[2]);
+            assertNotEquals(Thread.currentThread(), first.thread);
+            assertNotEquals(Thread.currentThread(), second.thread);
+            assertEquals(Thread.currentThread(), third.thread, "The last costly subtree runs on the caller");
+        }
+
+        @Test
+        @DisplayName("Should keep cheap leaves on the calling thread")
+        void shouldKeepCheapLeavesInline() {
+            RecordingCondition cheap = new RecordingCondition(1, 0);
+            RecordingCondition costly = new RecordingCondition(1_000, 1);
+
+            ConditionEvaluator.evaluateAll(List.of(cheap, costly), marketData, BARS);
+
+            assertEquals(Thread.currentThread(), cheap.thread);
+            assertEquals(Thread.currentThread(), costly.thread);
+        }
+
+        @Test
+        @DisplayName("Should stay inline when the CPU budget is used up")
+        void shouldRespectCpuBudget() throws InterruptedException {
+            RecordingCondition first = new RecordingCondition(1_000, 0);
+            RecordingCondition second = new RecordingCondition(1_000, 1);
+
+            holdingSlotsElsewhere(4, () -> ConditionEvaluator.evaluateAll(List.of(first, second), marketData, BARS));
+
+            assertEquals(Thread.currentThread(), first.thread);
+            assertEquals(Thread.currentThread(), second.thread);
+        }
+
+        @Test
+        @DisplayName("Should stay inline when parallelism is not configured")
+        void shouldStayInlineByDefault() {
+            ConditionScheduler.reset();
+            RecordingCondition first = new RecordingCondition(1_000, 0);
+            RecordingCondition second = new RecordingCondition(1_000, 1);
+
+            ConditionEvaluator.evaluateAll(List.of(first, second), marketData, BARS);
+
+            assertEquals(Thread.currentThread(), first.thread);
+        }
+    }
+
+    @Nested
+    @DisplayName("Slot Accounting Tests")
+    class SlotAccountingTests {
+        @Test
+        @DisplayName("Should hold one slot per thread when occupying again")
+        void shouldReuseHeldSlot() {
+            try (ConditionScheduler.Slot outer = ConditionScheduler.occupy()) {
+                try (ConditionScheduler.Slot inner = ConditionScheduler.occupy()) {
+                    assertEquals(1, ConditionScheduler.busySlots());
+                }
+                assertEquals(1, ConditionScheduler.busySlots(), "Closing the nested slot keeps the outer one");
+            }
+            assertEquals(0, ConditionScheduler.busySlots());
+        }
+
+        @Test
+        @DisplayName("Should count the caller and keep per-index evaluations within the budget")
+        void shouldKeepForEachIndexWithinBudget() {
+            AtomicInteger peak = new AtomicInteger();
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+            ConditionScheduler.forEachIndex(64, index -> {
+                try (ConditionScheduler.Slot slot = ConditionScheduler.occupy()) {
+                    threads.add(Thread.currentThread());
+                    peak.accumulateAndGet(ConditionScheduler.busySlots(), Math::max);
+                    LockSupport.parkNanos(1_000_000);
+                }
+            });
+
+            assertTrue(peak.get() <= 4, "At most the budget of slots should be busy, was " + peak.get());
+            assertTrue(threads.size() <= 4, "At most the budget of threads should drain, was " + threads.size());
+            assertTrue(threads.contains(Thread.currentThread()), "The caller drains too");
+            assertEquals(0, ConditionScheduler.busySlots());
+        }
+    }
+
+    @Nested
+    @DisplayName("Failure Tests")
+    class FailureTests {
+        @Test
+        @DisplayName("Should rethrow the failure of a forked subtree")
+        void shouldPropagateForkedFailure() {
+            Condition failing = new CostlyCondition() {
+                @Override
+                public boolean[] evaluateVector(MarketData data) {
+                    throw new IllegalArgumentException("bad period");
+                }
+            };
+
+            IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () ->
+                    ConditionEvaluator.evaluateAll(List.of(failing, new RecordingCondition(1_000, 0)), marketData, BARS));
+            assertEquals("bad period", thrown.getMessage());
+        }
+
+        @Test
+        @DisplayName("Should cancel forked subtrees when the caller fails")
+        void shouldCancelForkedSubtrees() throws InterruptedException {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch cancelled = new CountDownLatch(1);
+            Condition blocking = new CostlyCondition() {
+                @Override
+                public boolean[] evaluateVector(MarketData data) {
+                    started.countDown();
+                    try {
+                        while (true) {
+                            Cancellation.throwIfCancelled();
+                            Thread.onSpinWait();
+                        }
+                    } catch (CancellationException e) {
+                        cancelled.countDown();
+                        throw e;
+                    }
+                }
+            };
+            Condition failing = new CostlyCondition() {
+                @Override
+                public boolean[] evaluateVector(MarketData data) {
+                    try {
+                        started.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IllegalStateException("inline failure");
+                }
+            };
+
+            assertThrows(IllegalStateException.class, () ->
+                    ConditionEvaluator.evaluateAll(List.of(blocking, failing), marketData, BARS));
+            assertTrue(cancelled.await(5, TimeUnit.SECONDS), "Forked subtree should observe the cancellation");
+        }
+    }
+
+    // Fills slots from other threads, the way concurrent backtests would, while body runs
+    private static void holdingSlotsElsewhere(int count, Runnable body) throws InterruptedException {
+        CountDownLatch held = new CountDownLatch(count);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Thread> holders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            holders.add(Thread.startVirtualThread(() -> {
+                try (ConditionScheduler.Slot slot = ConditionScheduler.occupy()) {
+                    held.countDown();
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        try {
+            assertTrue(held.await(5, TimeUnit.SECONDS), "Slot holders should start");
+            body.run();
+        } finally {
+            release.countDown();
+            for (Thread holder : holders) {
+                holder.join();
+            }
+        }
+    }
+
+    private abstract static class CostlyCondition implements Condition {
+        @Override
+        public boolean evaluate(MarketData data, int currentIndex) {
+            return false;
+        }
+
+        @Override
+        public int relativeCost() {
+            return 1_000;
+        }
+    }
+
+    private static class RecordingCondition implements Condition {
+        private final int cost;
+        private final int signalIndex;
+        private volatile Thread thread;
+
+        RecordingCondition(int cost, int signalIndex) {
+            this.cost = cost;
+            this.signalIndex = signalIndex;
+        }
+
+        @Override
+        public boolean evaluate(MarketData data, int currentIndex) {
+            return currentIndex == signalIndex;
+        }
+
+        @Override
+        public boolean[] evaluateVector(MarketData data) {
+            thread = Thread.currentThread();
+            boolean[] signals = new boolean[BARS];
+            signals[signalIndex] = true;
+            return signals;
+        }
+
+        @Override
+        public int relativeCost() {
+            return cost;
+        }
+    }
+}
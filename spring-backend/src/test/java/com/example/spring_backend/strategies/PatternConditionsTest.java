@@ -0,0 +1,340 @@
+package com.example.spring_backend.strategies;
+
+import com.example.spring_backend.indicators.DirectionalMovement;
+import com.example.spring_backend.indicators.IndicatorUtils;
+import com.example.spring_backend.indicators.RollingExtremes;
+import com.example.spring_backend.indicators.SwingPoints;
+import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.market.SyntheticDataSpec;
+import com.example.spring_backend.market.SyntheticMarketData;
+import com.example.spring_backend.strategies.internal.conditions.DMICondition;
+import com.example.spring_backend.strategies.internal.conditions.FibonacciRetracementCondition;
+import com.example.spring_backend.strategies.internal.conditions.ROCDivergenceCondition;
+import com.example.spring_backend.strategies.internal.enums.DMISignalType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Single-pass pattern and trend conditions against the straightforward searches and multi-pass indicators
+ * they replaced, over the same data.
+ */
+@DisplayName("Pattern Condition Tests")
+class PatternConditionsTest {
+    private static final MarketData DATA = SyntheticMarketData.generate(SyntheticDataSpec.defaults(29, 3_000).build());
+
+    @Nested
+    @DisplayName("Swing Point Tests")
+    class SwingPointTests {
+        @Test
+        @DisplayName("Should index strict local minima and maxima in bar order")
+        void shouldIndexSwings() {
+            SwingPoints swings = SwingPoints.of(new double[]{5, 3, 4, 4, 6, 2, 2, 7, 1});
+
+            assertArrayEquals(new int[]{1}, swings.lows());
+            assertArrayEquals(new int[]{4, 7}, swings.highs());
+        }
+
+        @Test
+        @DisplayName("Should map each bar to the latest swing at or before it")
+        void shouldFindLatestSwing() {
+            assertArrayEquals(new int[]{-1, -1, -1, 0, 0, 1, 1}, SwingPoints.latest(new int[]{2, 4, 6}, 7));
+            assertArrayEquals(new int[]{-1, -1}, SwingPoints.latest(new int[0], 2));
+        }
+    }
+
+    @Nested
+    @DisplayName("ROC Divergence Tests")
+    class RocDivergenceTests {
+        @ParameterizedTest
+        @ValueSource(booleans = {true, false})
+        @DisplayName("Should match a windowed search for the two latest swings")
+        void shouldMatchWindowedSearch(boolean bullish) {
+            ROCDivergenceCondition condition = new ROCDivergenceCondition(12, 20, bullish);
+
+            boolean[] signals = condition.evaluateVector(DATA);
+
+            boolean[] expected = referenceDivergence(DATA.close(), 12, 20, bullish);
+            assertArrayEquals(expected, signals);
+            assertTrue(countTrue(signals) > 0, "The test data should produce some divergences");
+            assertEquals(signals[1_500], condition.evaluate(DATA, 1_500));
+        }
+
+        @Test
+        @DisplayName("Should produce no signals on series shorter than the ROC period")
+        void shouldHandleShortSeries() {
+            MarketData shortData = SyntheticMarketData.generate(SyntheticDataSpec.defaults(1, 5).build());
+
+            assertArrayEquals(new boolean[5], ROCDivergenceCondition.bullish(12, 20).evaluateVector(shortData));
+        }
+
+        // The search each bar used to make: collect the window's swings, compare the last two. A swing needs the
+        // bar after it, so bar i only sees swings up to i - 1
+        private static boolean[] referenceDivergence(double[] prices, int period, int divergencePeriod, boolean bullish) {
+            double[] roc = new double[prices.length];
+            for (int i = period; i < prices.length; i++) {
+                roc[i] = ((prices[i] - prices[i - period]) / prices[i - period]) * 100;
+            }
+            boolean[] signals = new boolean[prices.length];
+            for (int i = period + divergencePeriod; i < prices.length; i++) {
+                List<Integer> swings = new ArrayList<>();
+                for (int j = Math.max(1, i - divergencePeriod); j < i; j++) {
+                    boolean low = prices[j] < prices[j - 1] && prices[j] < prices[j + 1];
+                    boolean high = prices[j] > prices[j - 1] && prices[j] > prices[j + 1];
+                    if (bullish ? low : high) {
+                        swings.add(j);
+                    }
+                }
+                if (swings.size() < 2) {
+                    continue;
+                }
+                int newer = swings.getLast();
+                int older = swings.get(swings.size() - 2);
+                signals[i] = bullish
+                        ? prices[newer] < prices[older] && roc[newer] > roc[older]
+                        : prices[newer] > prices[older] && roc[newer] < roc[older];
+            }
+            return signals;
+        }
+    }
+
+    @Nested
+    @DisplayName("Rolling Extreme Tests")
+    class RollingExtremeTests {
+        @Test
+        @DisplayName("Should keep the earliest bar of a tied extreme and skip NaN")
+        void shouldFindTrailingExtremes() {
+            double[] values = {3, 5, 5, Double.NaN, 1, 2, 1};
+
+            assertArrayEquals(new int[]{0, 1, 1, 1, 2, 5, 5}, RollingExtremes.argMax(values, 3));
+            assertArrayEquals(new int[]{0, 0, 0, 1, 4, 4, 4}, RollingExtremes.argMin(values, 3));
+            assertArrayEquals(new int[]{-1, -1}, RollingExtremes.argMax(new double[]{Double.NaN, Double.NaN}, 2));
+        }
+
+        @Test
+        @DisplayName("Should reject non-positive windows")
+        void shouldRejectEmptyWindow() {
+            assertThrows(IllegalArgumentException.class, () -> RollingExtremes.argMin(new double[]{1}, 0));
+        }
+    }
+
+    @Nested
+    @DisplayName("Fibonacci Retracement Tests")
+    class FibonacciRetracementTests {
+        @ParameterizedTest
+        @CsvSource({"20, 0.382, true", "20, 0.618, false", "50, 0.5, true", "1, 0.5, false"})
+        @DisplayName("Should match a scan of the lookback window at every bar")
+        void shouldMatchWindowScan(int lookback, double level, boolean bullish) {
+            FibonacciRetracementCondition condition = new FibonacciRetracementCondition(lookback, level, bullish, 0.02);
+
+            boolean[] signals = condition.evaluateVector(DATA);
+
+            assertArrayEquals(referenceRetracement(DATA, lookback, level, bullish, 0.02), signals);
+            assertEquals(signals[1_500], condition.evaluate(DATA, 1_500));
+        }
+
+        @Test
+        @DisplayName("Should produce signals on the test data")
+        void shouldProduceSignals() {
+            boolean[] signals = new FibonacciRetracementCondition(20, 0.382, true, 0.02).evaluateVector(DATA);
+
+            assertTrue(countTrue(signals) > 0, "The test data should produce some retracements");
+        }
+
+        @Test
+        @DisplayName("Should produce no signals on series no longer than the lookback")
+        void shouldHandleShortSeries() {
+            MarketData shortData = SyntheticMarketData.generate(SyntheticDataSpec.defaults(1, 5).build());
+
+            assertArrayEquals(new boolean[5], new FibonacciRetracementCondition(5, 0.5, true, 0.02).evaluateVector(shortData));
+        }
+
+        // The window rescan each bar used to make
+        private static boolean[] referenceRetracement(MarketData data, int lookback, double level, boolean bullish,
+                                                      double tolerance) {
+            double[] high = data.high();
+            double[] low = data.low();
+            double[] close = data.close();
+            boolean[] signals = new boolean[close.length];
+            for (int i = lookback; i < close.length; i++) {
+                double swingHigh = Double.MIN_VALUE;
+                double swingLow = Double.MAX_VALUE;
+                int highIndex = -1;
+                int lowIndex = -1;
+                for (int j = i - lookback; j < i; j++) {
+                    if (high[j] > swingHigh) {
+                        swingHigh = high[j];
+                        highIndex = j;
+                    }
+                    if (low[j] < swingLow) {
+                        swingLow = low[j];
+                        lowIndex = j;
+                    }
+                }
+                if (highIndex == -1 || lowIndex == -1 || bullish != highIndex > lowIndex) {
+                    continue;
+                }
+                double retracement = bullish
+                        ? swingHigh - (swingHigh - swingLow) * level
+                        : swingLow + (swingHigh - swingLow) * level;
+                boolean near = close[i] >= retracement * (1 - tolerance) && close[i] <= retracement * (1 + tolerance);
+                signals[i] = near && (bullish ? close[i] > close[i - 1] : close[i] < close[i - 1]);
+            }
+            return signals;
+        }
+    }
+
+    @Nested
+    @DisplayName("DMI Tests")
+    class DmiTests {
+        @ParameterizedTest
+        @ValueSource(ints = {1, 5, 14, 40})
+        @DisplayName("Fused pass should match the multi-pass series bit for bit")
+        void shouldMatchMultiPass(int period) {
+            double[] high = DATA.high();
+            double[] low = DATA.low();
+            double[] close = DATA.close();
+            int length = close.length;
+            double[] plusDI = new double[length];
+            double[] minusDI = new double[length];
+            double[] dx = new double[length];
+            double[] adx = new double[length];
+
+            DirectionalMovement.compute(high, low, close, period, plusDI, minusDI, dx, adx);
+
+            double[][] expected = referenceDmi(high, low, close, period);
+            assertArrayEquals(expected[0], plusDI);
+            assertArrayEquals(expected[1], minusDI);
+            assertArrayEquals(expected[2], dx);
+            assertArrayEquals(expected[3], adx);
+
+            double[] adxOnly = new double[length];
+            DirectionalMovement.compute(high, low, close, period, null, null, null, adxOnly);
+            assertArrayEquals(expected[3], adxOnly);
+        }
+
+        @Test
+        @DisplayName("Should leave every series NaN on data shorter than the period")
+        void shouldHandleShortSeries() {
+            double[] values = {1, 2, 3};
+            double[] adx = {7, 7, 7};
+
+            DirectionalMovement.compute(values, values, values, 5, null, null, null, adx);
+
+            assertTrue(Double.isNaN(adx[0]) && Double.isNaN(adx[1]) && Double.isNaN(adx[2]));
+        }
+
+        @ParameterizedTest
+        @EnumSource(DMISignalType.class)
+        @DisplayName("Signals should match evaluation over the full DMI map")
+        void shouldMatchFullMap(DMISignalType signalType) {
+            DMICondition condition = new DMICondition(14, signalType, 25.0, 10.0);
+
+            boolean[] signals = condition.evaluateVector(DATA);
+
+            assertArrayEquals(referenceSignals(signalType, 14, 25.0, 10.0), signals);
+            assertEquals(signals[1_500], condition.evaluate(DATA, 1_500));
+        }
+
+        private static boolean[] referenceSignals(DMISignalType type, int period, double threshold, double spread) {
+            Map<String, double[]> dmi = IndicatorUtils.dmi(DATA.high(), DATA.low(), DATA.close(), period);
+            double[] p = dmi.get("plusDI");
+            double[] m = dmi.get("minusDI");
+            double[] a = dmi.get("ADX");
+            boolean[] signals = new boolean[p.length];
+            for (int i = 2 * period - 1; i < p.length; i++) {
+                signals[i] = switch (type) {
+                    case PLUS_DI_ABOVE_MINUS_DI -> p[i] > m[i];
+                    case MINUS_DI_ABOVE_PLUS_DI -> m[i] > p[i];
+                    case PLUS_DI_CROSSES_ABOVE_MINUS_DI -> p[i - 1] <= m[i - 1] && p[i] > m[i];
+                    case MINUS_DI_CROSSES_ABOVE_PLUS_DI -> m[i - 1] <= p[i - 1] && m[i] > p[i];
+                    case ADX_ABOVE_THRESHOLD -> a[i] > threshold;
+                    case ADX_BELOW_THRESHOLD -> a[i] < threshold;
+                    case WEAK_TREND -> a[i] < threshold && Math.abs(p[i] - m[i]) < spread;
+                    case ADX_RISING -> a[i] > a[i - 1];
+                    case ADX_FALLING -> a[i] < a[i - 1];
+                    case STRONG_TREND -> a[i] > threshold && Math.abs(p[i] - m[i]) > spread;
+                    case STRONG_BULLISH -> a[i] > threshold && p[i] - m[i] > spread;
+                    case STRONG_BEARISH -> a[i] > threshold && m[i] - p[i] > spread;
+                    case DI_DIVERGENCE -> i > period
+                            && Math.abs(p[i] - m[i]) > Math.abs(p[i - period] - m[i - period]);
+                };
+            }
+            return signals;
+        }
+
+        // The array-per-stage computation the fused pass replaced: +DI, -DI, DX, ADX
+        private static double[][] referenceDmi(double[] high, double[] low, double[] close, int period) {
+            int n = high.length;
+            double[] tr = new double[n];
+            double[] plusDM = new double[n];
+            double[] minusDM = new double[n];
+            tr[0] = high[0] - low[0];
+            for (int i = 1; i < n; i++) {
+                tr[i] = Math.max(high[i] - low[i],
+                        Math.max(Math.abs(high[i] - close[i - 1]), Math.abs(low[i] - close[i - 1])));
+                double up = high[i] - high[i - 1];
+                double down = low[i - 1] - low[i];
+                plusDM[i] = up > down && up > 0 ? up : 0;
+                minusDM[i] = down > up && down > 0 ? down : 0;
+            }
+            double[] plusDI = new double[n];
+            double[] minusDI = new double[n];
+            double[] dx = new double[n];
+            double[] adx = new double[n];
+            Arrays.fill(plusDI, Double.NaN);
+            Arrays.fill(minusDI, Double.NaN);
+            Arrays.fill(dx, Double.NaN);
+            Arrays.fill(adx, Double.NaN);
+            double sTR = 0;
+            double sPlus = 0;
+            double sMinus = 0;
+            for (int i = 0; i < period; i++) {
+                sTR += tr[i];
+                sPlus += plusDM[i];
+                sMinus += minusDM[i];
+            }
+            for (int i = period - 1; i < n; i++) {
+                if (i >= period) {
+                    sTR = sTR - (sTR / period) + tr[i];
+                    sPlus = sPlus - (sPlus / period) + plusDM[i];
+                    sMinus = sMinus - (sMinus / period) + minusDM[i];
+                }
+                plusDI[i] = sTR > 0 ? 100 * (sPlus / sTR) : 0;
+                minusDI[i] = sTR > 0 ? 100 * (sMinus / sTR) : 0;
+                double total = plusDI[i] + minusDI[i];
+                dx[i] = total > 0 ? 100 * Math.abs(plusDI[i] - minusDI[i]) / total : 0;
+            }
+            if (n >= 2 * period - 1) {
+                double sumDX = 0;
+                for (int i = period - 1; i < 2 * period - 1; i++) {
+                    sumDX += dx[i];
+                }
+                adx[2 * period - 2] = sumDX / period;
+                for (int i = 2 * period - 1; i < n; i++) {
+                    adx[i] = ((period - 1) * adx[i - 1] + dx[i]) / period;
+                }
+            }
+            return new double[][]{plusDI, minusDI, dx, adx};
+        }
+    }
+
+    private static int countTrue(boolean[] values) {
+        int count = 0;
+        for (boolean value : values) {
+            if (value) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.spring_backend.strategies;
+
+import com.example.spring_backend.indicators.IndicatorCheckpoint;
+import com.example.spring_backend.indicators.PivotType;
+import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.market.MarketDataStore;
+import com.example.spring_backend.market.OffHeapMarketData;
+import com.example.spring_backend.market.SyntheticDataSpec;
+import com.example.spring_backend.market.SyntheticMarketData;
+import com.example.spring_backend.market.internal.InMemoryMarketDataStore;
+import com.example.spring_backend.strategies.internal.CompositeCondition;
+import com.example.spring_backend.strategies.internal.conditions.ATRCondition;
+import com.example.spring_backend.strategies.internal.conditions.BollingerBandsCondition;
+import com.example.spring_backend.strategies.internal.conditions.IchimokuCloudCondition;
+import com.example.spring_backend.strategies.internal.conditions.MACDCrossoverCondition;
+import com.example.spring_backend.strategies.internal.conditions.OBVCondition;
+import com.example.spring_backend.strategies.internal.conditions.PivotPointsCondition;
+import com.example.spring_backend.strategies.internal.conditions.ROCCondition;
+import com.example.spring_backend.strategies.internal.conditions.ROCCrossoverCondition;
+import com.example.spring_backend.strategies.internal.conditions.RSICondition;
+import com.example.spring_backend.strategies.internal.conditions.SMACrossoverCondition;
+import com.example.spring_backend.strategies.internal.conditions.StochasticCondition;
+import com.example.spring_backend.strategies.internal.enums.IchimokuSignalType;
+import com.example.spring_backend.strategies.internal.enums.PivotLevel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Signal Planner Tests")
+class SignalPlannerTest {
+    private static final int BARS = 600;
+
+    private final MarketData marketData = SyntheticMarketData.generate(SyntheticDataSpec.defaults(7, BARS).build());
+
+    @Nested
+    @DisplayName("Deduplication Tests")
+    class DeduplicationTests {
+        @Test
+        @DisplayName("Should evaluate a condition shared by entry and exit once")
+        void shouldEvaluateSharedConditionOnce() {
+            CountingCondition shared = new CountingCondition(3);
+            Strategy strategy = new Strategy();
+            strategy.addEntryCondition(shared);
+            strategy.addEntryCondition(new CountingCondition(5));
+            strategy.addExitCondition(shared);
+
+            Strategy.Signals signals = strategy.calculateSignals(marketData);
+
+            assertEquals(1, shared.evaluations.get());
+            assertFalse(signals.entry()[3], "Entry ANDs the two leaves");
+            assertTrue(signals.exit()[3]);
+        }
+
+        @Test
+        @DisplayName("Should evaluate a subtree shared inside composites once")
+        void shouldEvaluateNestedSharedSubtreeOnce() {
+            CountingCondition shared = new CountingCondition(4);
+            CompositeCondition entry = new CompositeCondition(CompositeCondition.LogicalOperator.OR);
+            entry.addCondition(shared);
+            entry.addCondition(new CountingCondition(8));
+            Strategy strategy = new Strategy();
+            strategy.addEntryCondition(entry);
+            strategy.addExitCondition(new CompositeCondition(shared));
+
+            Strategy.Signals signals = strategy.calculateSignals(marketData);
+
+            assertEquals(1, shared.evaluations.get());
+            assertTrue(signals.entry()[4] && signals.entry()[8]);
+            assertFalse(signals.exit()[4]);
+            assertTrue(signals.exit()[5]);
+        }
+
+        @Test
+        @DisplayName("Should treat conditions with equal parameters as one node")
+        void shouldShareEqualConditions() {
+            assertEquals(RSICondition.oversold(14), RSICondition.oversold(14));
+            assertNotEquals(RSICondition.oversold(14), RSICondition.overbought(14));
+
+            CompositeCondition left = new CompositeCondition(CompositeCondition.LogicalOperator.AND);
+            left.addCondition(RSICondition.oversold(14));
+            CompositeCondition right = new CompositeCondition(CompositeCondition.LogicalOperator.AND);
+            right.addCondition(RSICondition.oversold(14));
+            assertEquals(left, right);
+        }
+
+        @Test
+        @DisplayName("Should compute a shared series once per pass and again outside it")
+        void shouldShareSeriesWithinPass() {
+            AtomicInteger computations = new AtomicInteger();
+
+            try (SignalPass.Scope ignored = SignalPass.open()) {
+                SignalPass.shared(List.of("rsi", 14), computations::incrementAndGet);
+                SignalPass.shared(List.of("rsi", 14), computations::incrementAndGet);
+                SignalPass.shared(List.of("rsi", 21), computations::incrementAndGet);
+            }
+            SignalPass.shared(List.of("rsi", 14), computations::incrementAndGet);
+
+            assertEquals(3, computations.get());
+            assertNull(SignalPass.current());
+        }
+    }
+
+    @Nested
+    @DisplayName("Parity Tests")
+    class ParityTests {
+        @Test
+        @DisplayName("Fused signals should match the per-side calculations")
+        void fusedSignalsShouldMatchSeparateCalculation() {
+            Strategy strategy = new Strategy();
+            strategy.addEntryCondition(RSICondition.oversold(14, 45));
+            strategy.addEntryCondition(new SMACrossoverCondition(5, 20, true));
+            strategy.setRequireAllEntryConditions(false);
+            strategy.addExitCondition(RSICondition.overbought(14, 55));
+            strategy.addExitCondition(new MACDCrossoverCondition(12, 26, 9, false));
+            strategy.addExitCondition(new SMACrossoverCondition(5, 20, false));
+
+            Strategy.Signals signals = strategy.calculateSignals(marketData);
+
+            assertArrayEquals(strategy.calculateEntrySignals(marketData), signals.entry());
+            assertArrayEquals(strategy.calculateExitSignals(marketData), signals.exit());
+            assertTrue(strategy.hasCachedSignals(marketData));
+        }
+
+        @Test
+        @DisplayName("Conditions should give the same signals on off-heap columns as on the heap")
+        void shouldMatchOffHeapSignals() {
+            MarketData offHeap = OffHeapMarketData.copyOf(marketData);
+            List<Condition> conditions = List.of(
+                    RSICondition.oversold(14, 45),
+                    new ATRCondition(14, 0.5, true, true),
+                    new MACDCrossoverCondition(12, 26, 9, true),
+                    new OBVCondition(10, true),
+                    new IchimokuCloudCondition(IchimokuSignalType.PRICE_ABOVE_CLOUD),
+                    new BollingerBandsCondition(20, 1.0, false),
+                    StochasticCondition.oversold(14, 3, 30),
+                    new PivotPointsCondition(PivotType.STANDARD, PivotLevel.PP, true, false),
+                    new SMACrossoverCondition(5, 20, true),
+                    ROCCondition.above(10, 0),
+                    ROCCrossoverCondition.bullishCrossover(10));
+
+            for (Condition condition : conditions) {
+                String name = condition.getClass().getSimpleName();
+                assertArrayEquals(condition.evaluateVector(marketData), condition.evaluateVector(offHeap), name);
+                for (int i = BARS - 20; i < BARS; i++) {
+                    assertEquals(condition.evaluate(marketData, i), condition.evaluate(offHeap, i), name + " at " + i);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should return all-false vectors for empty sides")
+        void shouldHandleEmptySides() {
+            Strategy.Signals signals = new Strategy().calculateSignals(marketData);
+
+            assertEquals(BARS, signals.entry().length);
+            assertEquals(BARS, signals.exit().length);
+            for (int i = 0; i < BARS; i++) {
+                assertFalse(signals.entry()[i] || signals.exit()[i]);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Checkpoint Tests")
+    class CheckpointTests {
+        @Test
+        @DisplayName("Should continue indicators of a stored dataset after an append and match a fresh run")
+        void shouldMatchFreshRunAfterAppend() {
+            Strategy strategy = new Strategy();
+            strategy.addEntryCondition(RSICondition.oversold(14, 45));
+            strategy.addEntryCondition(new SMACrossoverCondition(5, 20, true));
+            strategy.addEntryCondition(new OBVCondition(10, true));
+            strategy.setRequireAllEntryConditions(false);
+            strategy.addExitCondition(RSICondition.overbought(14, 55));
+            strategy.addExitCondition(new ATRCondition(14, 0.5, true, false));
+
+            MarketData head = new MarketData();
+            head.addDataPoints(marketData.getDataPoints().subList(0, BARS - 50));
+            MarketDataStore store = new InMemoryMarketDataStore(1);
+            String id = store.put(head);
+            strategy.calculateSignals(store.get(id).orElseThrow());
+            IndicatorCheckpoint before = store.get(id).orElseThrow().checkpoints().get(List.of("rsi", 14));
+
+            MarketData appended = store.append(id, marketData.getDataPoints().subList(BARS - 50, BARS));
+            Strategy.Signals continued = strategy.calculateSignals(appended);
+            Strategy.Signals fresh = strategy.calculateSignals(marketData);
+
+            assertArrayEquals(fresh.entry(), continued.entry());
+            assertArrayEquals(fresh.exit(), continued.exit());
+            assertEquals(BARS - 50, before.length());
+            IndicatorCheckpoint after = appended.checkpoints().get(List.of("rsi", 14));
+            assertEquals(BARS, after.length());
+            assertArrayEquals(before.values(), Arrays.copyOf(after.values(), BARS - 50));
+            assertNotNull(appended.checkpoints().get(List.of("atr", 14)));
+            assertNotNull(appended.checkpoints().get(List.of("obv.sma", 10)));
+        }
+    }
+
+    private static class CountingCondition implements Condition {
+        private final int signalIndex;
+        private final AtomicInteger evaluations = new AtomicInteger();
+
+        CountingCondition(int signalIndex) {
+            this.signalIndex = signalIndex;
+        }
+
+        @Override
+        public boolean evaluate(MarketData data, int currentIndex) {
+            return currentIndex == signalIndex;
+        }
+
+        @Override
+        public boolean[] evaluateVector(MarketData data) {
+            evaluations.incrementAndGet();
+            boolean[] signals = new boolean[BARS];
+            signals[signalIndex] = true;
+            return signals;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.spring_backend.strategies;
+
+import com.example.spring_backend.common.BackTestRequest;
+import com.example.spring_backend.common.ConditionConfig;
+import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.market.SyntheticDataSpec;
+import com.example.spring_backend.market.SyntheticMarketData;
+import com.example.spring_backend.strategies.internal.CompositeCondition;
+import com.example.spring_backend.strategies.internal.StrategyCompiler;
+import com.example.spring_backend.strategies.internal.StrategyServiceImpl;
+import com.example.spring_backend.strategies.internal.conditions.ATRCondition;
+import com.example.spring_backend.strategies.internal.conditions.BollingerBandsCondition;
+import com.example.spring_backend.strategies.internal.conditions.MACDCrossoverCondition;
+import com.example.spring_backend.strategies.internal.conditions.ROCCondition;
+import com.example.spring_backend.strategies.internal.conditions.RSICondition;
+import com.example.spring_backend.strategies.internal.conditions.SMACrossoverCondition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Strategy Compiler Tests")
+class StrategyCompilerTest {
+    private final StrategyCompiler compiler = new StrategyCompiler();
+
+    @Nested
+    @DisplayName("Normalization Tests")
+    class NormalizationTests {
+        @Test
+        @DisplayName("Should push NOT down to the leaves and flatten nested composites")
+        void shouldPushNotDownAndFlatten() {
+            CompositeCondition inner = and(RSICondition.oversold(14), not(not(new SMACrossoverCondition(5, 20, true))));
+            Strategy strategy = new Strategy();
+            strategy.addEntryCondition(not(inner));
+            strategy.addEntryCondition(new BollingerBandsCondition(20, 2.0, false));
+            strategy.setRequireAllEntryConditions(false);
+
+            StrategyPlan plan = compiler.compile(strategy, "test");
+
+            // NOT(rsi AND sma) OR bb becomes one OR of NOT rsi, NOT sma and bb
+            StrategyPlan.Or root = assertInstanceOf(StrategyPlan.Or.class, plan.getNodes().get(plan.getEntryRoot()));
+            assertEquals(3, root.operands().size());
+            assertEquals(2, count(plan, StrategyPlan.Not.class));
+            assertEquals(0, count(plan, StrategyPlan.And.class));
+        }
+
+        @Test
+        @DisplayName("Should fold contradictions and empty composites into constants")
+        void shouldFoldConstants() {
+            Strategy strategy = new Strategy();
+            strategy.addEntryCondition(RSICondition.oversold(14));
+            strategy.addEntryCondition(not(RSICondition.oversold(14)));
+            strategy.addExitCondition(new CompositeCondition(CompositeCondition.LogicalOperator.OR));
+            strategy.addExitCondition(new MACDCrossoverCondition(12, 26, 9, false));
+            strategy.setRequireAllExitConditions(true);
+
+            StrategyPlan plan = compiler.compile(strategy, "test");
+
+            assertEquals(new StrategyPlan.Constant(false), plan.getNodes().get(plan.getEntryRoot()));
+            assertEquals(new StrategyPlan.Constant(false), plan.getNodes().get(plan.getExitRoot()));
+            assertEquals(0, count(plan, StrategyPlan.Leaf.class));
+        }
+
+        @Test
+        @DisplayName("Should share equal leaves and permuted subtrees between the sides")
+        void shouldDeduplicateAcrossSides() {
+            Strategy strategy = new Strategy();
+            strategy.addEntryCondition(and(RSICondition.oversold(14), new SMACrossoverCondition(5, 20, true)));
+            strategy.addEntryCondition(RSICondition.oversold(14));
+            strategy.addExitCondition(and(new SMACrossoverCondition(5, 20, true), RSICondition.oversold(14)));
+            strategy.addExitCondition(new BollingerBandsCondition(20, 2.0, true));
+            strategy.setRequireAllExitConditions(false);
+
+            StrategyPlan plan = compiler.compile(strategy, "test");
+
+            // Entry is rsi AND sma (duplicate dropped after flattening); exit ORs that same node with bb
+            assertEquals(3, count(plan, StrategyPlan.Leaf.class));
+            assertEquals(1, count(plan, StrategyPlan.And.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Evaluation Tests")
+    class EvaluationTests {
+        @Test
+        @DisplayName("Compiled signals should match the interpreted condition trees")
+        void compiledSignalsShouldMatchInterpreted() {
+            MarketData data = SyntheticMarketData.generate(SyntheticDataSpec.defaults(11, 800).build());
+            Strategy strategy = new Strategy();
+            strategy.addEntryCondition(not(and(RSICondition.overbought(14, 55), not(new SMACrossoverCondition(5, 20, true)))));
+            strategy.addEntryCondition(or(new BollingerBandsCondition(20, 2.0, false), RSICondition.oversold(14, 45)));
+            strategy.addExitCondition(RSICondition.overbought(14, 55));
+            strategy.addExitCondition(not(new MACDCrossoverCondition(12, 26, 9, true)));
+            strategy.setRequireAllExitConditions(true);
+
+            Strategy.Signals interpreted = strategy.calculateSignals(data);
+            Strategy.Signals compiled = compiler.compile(strategy, "test").evaluate(data);
+
+            assertArrayEquals(interpreted.entry(), compiled.entry());
+            assertArrayEquals(interpreted.exit(), compiled.exit());
+        }
+
+        @Test
+        @DisplayName("Should hand out separate vectors when both sides compile to the same node")
+        void shouldNotAliasIdenticalSides() {
+            MarketData data = SyntheticMarketData.generate(SyntheticDataSpec.defaults(3, 100).build());
+            Strategy strategy = new Strategy();
+            strategy.addEntryCondition(RSICondition.oversold(14, 45));
+            strategy.addExitCondition(RSICondition.oversold(14, 45));
+
+            Strategy.Signals signals = compiler.compile(strategy, "test").evaluate(data);
+
+            assertNotSame(signals.entry(), signals.exit());
+            assertArrayEquals(signals.entry(), signals.exit());
+        }
+    }
+
+    @Nested
+    @DisplayName("Kernel Generation Tests")
+    class KernelGenerationTests {
+        private final StrategyCompiler generating = new StrategyCompiler(true);
+
+        @Test
+        @DisplayName("Generated kernel should match the interpreted condition trees")
+        void kernelShouldMatchInterpreted() {
+            MarketData data = SyntheticMarketData.generate(SyntheticDataSpec.defaults(19, 900).build());
+            Strategy strategy = new Strategy();
+            strategy.addEntryCondition(or(new SMACrossoverCondition(5, 20, true), new MACDCrossoverCondition(12, 26, 9, true)));
+            strategy.addEntryCondition(not(and(RSICondition.overbought(14, 60), ROCCondition.below(10, -2))));
+            strategy.addExitCondition(new SMACrossoverCondition(5, 20, false));
+            strategy.addExitCondition(and(new ATRCondition(14, 1.0, true, false), RSICondition.overbought(14, 55)));
+            strategy.addExitCondition(ROCCondition.above(10, 3));
+            strategy.setRequireAllExitConditions(false);
+
+            StrategyPlan plan = generating.compile(strategy, "test");
+            Strategy.Signals interpreted = strategy.calculateSignals(data);
+            Strategy.Signals fused = plan.evaluate(data);
+
+            assertNotNull(plan.getKernel());
+            assertEquals(7, plan.getKernel().columns().size(), "Leaves reading the same series should share its column");
+            assertArrayEquals(interpreted.entry(), fused.entry());
+            assertArrayEquals(interpreted.exit(), fused.exit());
+        }
+
+        @Test
+        @DisplayName("Should handle warm-up longer than the data and constant sides")
+        void kernelShouldHandleShortDataAndConstants() {
+            MarketData data = SyntheticMarketData.generate(SyntheticDataSpec.defaults(5, 10).build());
+            Strategy strategy = new Strategy();
+            strategy.addEntryCondition(new ATRCondition(14, 0.0, true, false));
+            strategy.addEntryCondition(ROCCondition.above(5, -100));
+
+            StrategyPlan plan = generating.compile(strategy, "test");
+            Strategy.Signals fused = plan.evaluate(data);
+
+            assertNotNull(plan.getKernel());
+            assertArrayEquals(strategy.calculateSignals(data).entry(), fused.entry());
+            assertArrayEquals(new boolean[10], fused.exit());
+        }
+
+        @Test
+        @DisplayName("Should fall back to the interpreted plan when a leaf has no shape")
+        void shouldFallBackWithoutShape() {
+            MarketData data = SyntheticMarketData.generate(SyntheticDataSpec.defaults(23, 400).build());
+            Strategy strategy = new Strategy();
+            strategy.addEntryCondition(RSICondition.oversold(14, 45));
+            strategy.addEntryCondition(new BollingerBandsCondition(20, 2.0, false));
+            strategy.addExitCondition(new ATRCondition(14, 1.5, true, true));
+
+            StrategyPlan plan = generating.compile(strategy, "test");
+
+            assertNull(plan.getKernel());
+            assertArrayEquals(strategy.calculateSignals(data).entry(), plan.evaluate(data).entry());
+        }
+    }
+
+    @Nested
+    @DisplayName("Plan Cache Tests")
+    class PlanCacheTests {
+        @Test
+        @DisplayName("Should reuse the plan for requests that differ only in number types and order")
+        void shouldReuseCanonicallyEqualRequests() {
+            StrategyServiceImpl service = new StrategyServiceImpl();
+
+            Strategy first = service.buildStrategyFromRequest(request(14, 70.0, true));
+            Strategy second = service.buildStrategyFromRequest(request(14.0, 70, false));
+
+            assertNotNull(first.getPlan());
+            assertSame(first.getPlan(), second.getPlan());
+            assertNotSame(first, second);
+            assertEquals(2, second.getEntryConditions().size());
+        }
+
+        @Test
+        @DisplayName("Should compile a new plan for different parameters and after eviction")
+        void shouldMissOnDifferentParametersAndEviction() {
+            StrategyServiceImpl service = new StrategyServiceImpl(1);
+
+            StrategyPlan fourteen = service.buildStrategyFromRequest(request(14, 70, true)).getPlan();
+            StrategyPlan twenty = service.buildStrategyFromRequest(request(20, 70, true)).getPlan();
+            StrategyPlan again = service.buildStrategyFromRequest(request(14, 70, true)).getPlan();
+
+            assertNotEquals(fourteen.getFingerprint(), twenty.getFingerprint());
+            assertEquals(fourteen.getFingerprint(), again.getFingerprint());
+            assertNotSame(fourteen, again, "The single-entry cache should have evicted the first plan");
+        }
+
+        @Test
+        @DisplayName("Should drop the plan when the strategy is modified")
+        void shouldDropPlanOnModification() {
+            Strategy strategy = new StrategyServiceImpl().buildStrategyFromRequest(request(14, 70, true));
+
+            strategy.addExitCondition(RSICondition.oversold(14));
+
+            assertNull(strategy.getPlan());
+        }
+
+        private BackTestRequest request(Number period, Number threshold, boolean rsiFirst) {
+            ConditionConfig rsi = ConditionConfig.builder()
+                    .type("RSI_THRESHOLD")
+                    .parameters(Map.of("period", period, "upperThreshold", threshold,
+                            "lowerThreshold", 30, "checkOverbought", true))
+                    .build();
+            ConditionConfig sma = ConditionConfig.builder()
+                    .type("SMA_CROSSOVER")
+                    .parameters(Map.of("fastPeriod", 5, "slowPeriod", 20, "crossAbove", true))
+                    .build();
+            return BackTestRequest.builder()
+                    .entryConditions(rsiFirst ? List.of(rsi, sma) : List.of(sma, rsi))
+                    .exitConditions(List.of())
+                    .requireAllEntryConditions(true)
+                    .build();
+        }
+    }
+
+    private static CompositeCondition and(Condition... conditions) {
+        CompositeCondition composite = new CompositeCondition(CompositeCondition.LogicalOperator.AND);
+        for (Condition condition : conditions) {
+            composite.addCondition(condition);
+        }
+        return composite;
+    }
+
+    private static CompositeCondition or(Condition... conditions) {
+        CompositeCondition composite = new CompositeCondition(CompositeCondition.LogicalOperator.OR);
+        for (Condition condition : conditions) {
+            composite.addCondition(condition);
+        }
+        return composite;
+    }
+
+    private static CompositeCondition not(Condition condition) {
+        return new CompositeCondition(condition);
+    }
+
+    private static long count(StrategyPlan plan, Class<? extends StrategyPlan.Node> type) {
+        return plan.getNodes().stream().filter(type::isInstance).count();
+    }
+}
@@ -3,8 +3,17 @@ package com.example.spring_backend.strategies;
 import com.example.spring_backend.common.BackTestRequest;
 import com.example.spring_backend.common.ConditionConfig;
 import com.example.spring_backend.market.MarketData;
+import com.example.spring_backend.market.MarketDataPoint;
+import com.example.spring_backend.market.MarketDataResampler;
+import com.example.spring_backend.market.MarketDataStore;
+import com.example.spring_backend.market.SyntheticDataSpec;
+import com.example.spring_backend.market.SyntheticMarketData;
+import com.example.spring_backend.market.Timeframe;
+import com.example.spring_backend.market.internal.InMemoryMarketDataStore;
+import com.example.spring_backend.strategies.internal.conditions.AdjustedCondition;
 import com.example.spring_backend.strategies.internal.conditions.RSICondition;
 import com.example.spring_backend.strategies.internal.conditions.SMACrossoverCondition;
+import com.example.spring_backend.strategies.internal.conditions.TimeframeCondition;
 import com.example.spring_backend.strategies.internal.StrategyServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,6 +23,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -80,6 +91,77 @@ class StrategyServiceUnitTest {
             assertInstanceOf(RSICondition.class, condition);
         }
 
+        @Test
+        @DisplayName("Should create a higher-timeframe condition wrapping its child")
+        void createConditionFromConfig_shouldCreateTimeframeCondition() {
+            ConditionConfig config = ConditionConfig.builder()
+                    .type("TIMEFRAME")
+                    .parameters(Map.of(
+                            "timeframe", "1d",
+                            "condition", Map.of(
+                                    "type", "RSI_THRESHOLD",
+                                    "parameters", Map.of("period", 14, "upperThreshold", 70, "lowerThreshold", 30,
+                                            "checkOverbought", false))))
+                    .build();
+
+            Condition condition = strategyService.createConditionFromConfig(config);
+
+            TimeframeCondition timeframeCondition = assertInstanceOf(TimeframeCondition.class, condition);
+            assertEquals(Timeframe.parse("1d"), timeframeCondition.getTimeframe());
+            assertEquals(new RSICondition(14, 70, 30, false), timeframeCondition.getCondition());
+        }
+
+        @Test
+        @DisplayName("Should give composites on adjusted prices their own fingerprint and plan")
+        void strategyHash_shouldDistinguishAdjustedComposites() {
+            Map<String, Object> rsi = Map.of("type", "RSI_THRESHOLD", "parameters",
+                    Map.of("period", 14, "upperThreshold", 70, "lowerThreshold", 30, "checkOverbought", false));
+            for (String type : List.of("AND", "OR", "NOT", "TIMEFRAME")) {
+                Map<String, Object> raw = new HashMap<>();
+                raw.put("timeframe", "1d");
+                raw.put("condition", rsi);
+                raw.put("conditions", List.of(rsi));
+                Map<String, Object> adjusted = new HashMap<>(raw);
+                adjusted.put("adjusted", true);
+                BackTestRequest rawRequest = request(ConditionConfig.builder().type(type).parameters(raw).build());
+                BackTestRequest adjustedRequest = request(ConditionConfig.builder().type(type).parameters(adjusted).build());
+
+                assertNotEquals(strategyService.strategyHash(rawRequest), strategyService.strategyHash(adjustedRequest), type);
+                strategyService.buildStrategyFromRequest(rawRequest);
+                assertInstanceOf(AdjustedCondition.class,
+                        strategyService.buildStrategyFromRequest(adjustedRequest).getEntryConditions().getFirst(), type);
+            }
+        }
+
+        private static BackTestRequest request(ConditionConfig entry) {
+            return BackTestRequest.builder()
+                    .initialCapital(10000)
+                    .entryConditions(List.of(entry))
+                    .exitConditions(List.of())
+                    .build();
+        }
+
+        @Test
+        @DisplayName("Should evaluate a condition on adjusted prices when asked to")
+        void createConditionFromConfig_shouldWrapAdjustedCondition() {
+            Map<String, Object> rsiParams = new HashMap<>();
+            rsiParams.put("period", 14);
+            rsiParams.put("upperThreshold", 70);
+            rsiParams.put("lowerThreshold", 30);
+            rsiParams.put("checkOverbought", false);
+            rsiParams.put("adjusted", true);
+
+            Condition condition = strategyService.createConditionFromConfig(
+                    ConditionConfig.builder().type("RSI_THRESHOLD").parameters(rsiParams).build());
+
+            AdjustedCondition adjusted = assertInstanceOf(AdjustedCondition.class, condition);
+            assertEquals(new RSICondition(14, 70, 30, false), adjusted.getCondition());
+
+            rsiParams.put("adjusted", false);
+            assertInstanceOf(RSICondition.class, strategyService.createConditionFromConfig(
+                    ConditionConfig.builder().type("RSI_THRESHOLD").parameters(rsiParams).build()));
+        }
+
         @Test
         @DisplayName("Should throw exception for unknown condition type")
         void createConditionFromConfig_shouldThrowExceptionForUnknownType() {
@@ -330,4 +412,96 @@ class StrategyServiceUnitTest {
             assertFalse(strategy.shouldExit(mockMarketData, 1));
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Multi-Timeframe Tests")
+    class MultiTimeframeTests {
+        private static MarketData head(List<MarketDataPoint> points, int bars) {
+            MarketData head = new MarketData();
+            head.addDataPoints(points.subList(0, bars));
+            return head;
+        }
+
+        private final MarketData minutes = SyntheticMarketData.generate(SyntheticDataSpec.defaults(17, 900)
+                .barInterval(Duration.ofMinutes(1))
+                .build());
+        private final Condition hourlyOverbought = new TimeframeCondition(Timeframe.parse("15m"), RSICondition.overbought(3, 50));
+
+        @Test
+        @DisplayName("Should give each bar the signal known at its close and never look ahead")
+        void shouldNotLookAhead() {
+            boolean[] signals = hourlyOverbought.evaluateVector(minutes);
+
+            assertEquals(900, signals.length);
+            assertTrue(countTrue(signals) > 0, "The test data should produce some signals");
+            // RSI(3) needs four 15-minute bars, so start past the first hour
+            for (int end = 61; end <= 900; end += 37) {
+                MarketData truncated = new MarketData();
+                truncated.addDataPoints(minutes.getDataPoints().subList(0, end));
+                assertEquals(signals[end - 1], hourlyOverbought.evaluateVector(truncated)[end - 1],
+                        "Bar " + (end - 1) + " should not depend on later bars");
+            }
+        }
+
+        @Test
+        @DisplayName("Should keep earlier signals when bars are appended to a stored dataset")
+        void shouldKeepSignalsAcrossAppends() {
+            MarketDataStore store = new InMemoryMarketDataStore(1);
+            List<MarketDataPoint> points = minutes.getDataPoints();
+            String id = store.put(head(points, 300));
+            boolean[] before = hourlyOverbought.evaluateVector(store.get(id).orElseThrow());
+
+            boolean[] after = hourlyOverbought.evaluateVector(store.append(id, points.subList(300, 900)));
+
+            assertArrayEquals(before, Arrays.copyOf(after, 300));
+        }
+
+        @Test
+        @DisplayName("Should hold the last completed bucket's signal until the next bucket completes")
+        void shouldProjectCompletedBuckets() {
+            MarketDataResampler.Resampled resampled = MarketDataResampler.resample(minutes, Timeframe.parse("15m"));
+            boolean[] higher = RSICondition.overbought(3, 50).evaluateVector(resampled.bars());
+
+            boolean[] signals = hourlyOverbought.evaluateVector(minutes);
+
+            List<MarketDataPoint> points = minutes.getDataPoints();
+            for (int i = 0; i < points.size(); i++) {
+                // The latest 15-minute bucket ending at or before this bar's close
+                LocalDateTime close = points.get(i).timestamp().plusMinutes(1);
+                int expected = -1;
+                for (int k = 0; k < higher.length; k++) {
+                    if (!resampled.bars().getDataPoints().get(k).timestamp().plusMinutes(15).isAfter(close)) {
+                        expected = k;
+                    }
+                }
+                assertEquals(expected >= 0 && higher[expected], signals[i], "Bar " + i);
+            }
+        }
+
+        @Test
+        @DisplayName("Should keep base and higher-timeframe results of equal conditions apart in one pass")
+        void shouldNotShareResultsAcrossTimeframes() {
+            Condition baseOverbought = RSICondition.overbought(3, 50);
+            Strategy strategy = new Strategy();
+            strategy.addEntryCondition(baseOverbought);
+            strategy.addEntryCondition(hourlyOverbought);
+            strategy.setRequireAllEntryConditions(true);
+
+            boolean[] entry = strategy.calculateSignals(minutes).entry();
+
+            boolean[] base = baseOverbought.evaluateVector(minutes);
+            boolean[] hourly = hourlyOverbought.evaluateVector(minutes);
+            for (int i = 0; i < entry.length; i++) {
+                assertEquals(base[i] && hourly[i], entry[i], "Bar " + i);
+            }
+        }
+
+        private static int countTrue(boolean[] values) {
+            int count = 0;
+            for (boolean value : values) {
+                if (value) count++;
+            }
+            return count;
+        }
+    }
+}